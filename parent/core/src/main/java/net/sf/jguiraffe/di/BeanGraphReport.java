@@ -0,0 +1,268 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A class storing the results of an analysis of the dependency graph of the
+ * beans defined in a {@link BeanStore}.
+ * </p>
+ * <p>
+ * Objects of this class are returned by the methods of {@link BeanContext}
+ * which validate bean definitions or create singleton beans ahead of time. A
+ * report contains the following information:
+ * <ul>
+ * <li>A list with cyclic dependencies which cannot be resolved. These are
+ * cycles formed by beans that need each other for their creation, e.g. as
+ * constructor arguments. (Cycles involving dependencies that are only needed
+ * for the initialization of beans can be handled by the framework and are
+ * therefore not reported.) Each cycle is represented by a list with the names
+ * of the beans involved.</li>
+ * <li>A map with dependencies which cannot be resolved. The keys of the map
+ * are the names of the beans declaring these dependencies.</li>
+ * <li>A map with the times needed for the creation of beans, in the order in
+ * which the beans have been created. This information is only available if
+ * beans have actually been created.</li>
+ * <li>A map with the exceptions thrown during the creation of beans.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Instances of this class are immutable and can be shared between multiple
+ * threads.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class BeanGraphReport
+{
+    /** The list with the cycles found. */
+    private final List<List<String>> cycles;
+
+    /** The map with dependencies that cannot be resolved. */
+    private final Map<String, Set<Dependency>> unresolvedDependencies;
+
+    /** The map with the creation times of beans. */
+    private final Map<String, Long> creationTimes;
+
+    /** The map with errors that occurred during bean creation. */
+    private final Map<String, Throwable> creationErrors;
+
+    /**
+     * Creates a new instance of {@code BeanGraphReport} and initializes it.
+     * The data passed to this constructor is copied. All parameters can be
+     * <b>null</b>; they are then treated as empty.
+     *
+     * @param cycleList a list with the cyclic dependencies found
+     * @param unresolved a map with the dependencies that cannot be resolved
+     * @param times a map with the creation times of beans (in nanoseconds)
+     * @param errors a map with errors that occurred during bean creation
+     */
+    public BeanGraphReport(Collection<? extends List<String>> cycleList,
+            Map<String, ? extends Collection<Dependency>> unresolved,
+            Map<String, Long> times, Map<String, ? extends Throwable> errors)
+    {
+        cycles = copyCycles(cycleList);
+        unresolvedDependencies = copyUnresolved(unresolved);
+        creationTimes = copyMap(times);
+        creationErrors = BeanGraphReport.<Throwable> copyMap(errors);
+    }
+
+    /**
+     * Returns an unmodifiable list with the cyclic dependencies that have been
+     * found. Each element is a list with the names of the beans forming the
+     * cycle.
+     *
+     * @return a list with the cycles in the dependency graph
+     */
+    public List<List<String>> getCycles()
+    {
+        return cycles;
+    }
+
+    /**
+     * Returns an unmodifiable map with the dependencies that cannot be
+     * resolved. The keys of the map are the names of the beans which declare
+     * these dependencies.
+     *
+     * @return a map with the dependencies that cannot be resolved
+     */
+    public Map<String, Set<Dependency>> getUnresolvedDependencies()
+    {
+        return unresolvedDependencies;
+    }
+
+    /**
+     * Returns an unmodifiable map with the time needed for the creation of
+     * beans. The keys are the names of the beans, the values are the durations
+     * in nanoseconds. The iteration order of the map corresponds to the order
+     * in which the beans have been created.
+     *
+     * @return a map with the creation times of beans
+     */
+    public Map<String, Long> getCreationTimes()
+    {
+        return creationTimes;
+    }
+
+    /**
+     * Returns an unmodifiable map with the exceptions thrown during the
+     * creation of beans. The keys are the names of the beans affected.
+     *
+     * @return a map with creation errors
+     */
+    public Map<String, Throwable> getCreationErrors()
+    {
+        return creationErrors;
+    }
+
+    /**
+     * Returns a flag whether the dependency graph is valid. This is the case
+     * if neither cyclic dependencies nor unresolved dependencies have been
+     * found.
+     *
+     * @return a flag whether the dependency graph is valid
+     */
+    public boolean isValid()
+    {
+        return cycles.isEmpty() && unresolvedDependencies.isEmpty();
+    }
+
+    /**
+     * Returns a flag whether the analysis was successful. This is the case if
+     * the dependency graph is valid and all beans could be created without
+     * errors.
+     *
+     * @return a flag whether the analysis was successful
+     */
+    public boolean isSuccessful()
+    {
+        return isValid() && creationErrors.isEmpty();
+    }
+
+    /**
+     * Returns a string representation of this report. The string contains a
+     * line for each problem found and for each bean created, so it can be
+     * written to a log file.
+     *
+     * @return a string representation of this object
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder buf = new StringBuilder();
+        buf.append("BeanGraphReport: ");
+        buf.append(isSuccessful() ? "no problems found" : "problems found");
+        for (List<String> cycle : cycles)
+        {
+            buf.append("\n  Cyclic dependency: ").append(cycle);
+        }
+        for (Map.Entry<String, Set<Dependency>> e : unresolvedDependencies
+                .entrySet())
+        {
+            buf.append("\n  Unresolved dependencies of bean ").append(
+                    e.getKey()).append(": ").append(e.getValue());
+        }
+        for (Map.Entry<String, Long> e : creationTimes.entrySet())
+        {
+            buf.append("\n  Created bean ").append(e.getKey()).append(" in ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(e.getValue()))
+                    .append(" ms");
+        }
+        for (Map.Entry<String, Throwable> e : creationErrors.entrySet())
+        {
+            buf.append("\n  Could not create bean ").append(e.getKey())
+                    .append(": ").append(e.getValue());
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Creates an unmodifiable copy of the list with cycles.
+     *
+     * @param cycleList the list to be copied (may be <b>null</b>)
+     * @return the copied list
+     */
+    private static List<List<String>> copyCycles(
+            Collection<? extends List<String>> cycleList)
+    {
+        if (cycleList == null || cycleList.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        List<List<String>> result =
+                new ArrayList<List<String>>(cycleList.size());
+        for (List<String> cycle : cycleList)
+        {
+            result.add(Collections.unmodifiableList(new ArrayList<String>(
+                    cycle)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Creates an unmodifiable copy of the map with unresolved dependencies.
+     *
+     * @param unresolved the map to be copied (may be <b>null</b>)
+     * @return the copied map
+     */
+    private static Map<String, Set<Dependency>> copyUnresolved(
+            Map<String, ? extends Collection<Dependency>> unresolved)
+    {
+        if (unresolved == null || unresolved.isEmpty())
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Set<Dependency>> result =
+                new LinkedHashMap<String, Set<Dependency>>();
+        for (Map.Entry<String, ? extends Collection<Dependency>> e : unresolved
+                .entrySet())
+        {
+            result.put(e.getKey(), Collections
+                    .unmodifiableSet(new LinkedHashSet<Dependency>(e
+                            .getValue())));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Creates an unmodifiable copy of the given map. The order of the map is
+     * preserved.
+     *
+     * @param <V> the type of the values of the map
+     * @param map the map to be copied (may be <b>null</b>)
+     * @return the copied map
+     */
+    private static <V> Map<String, V> copyMap(Map<String, ? extends V> map)
+    {
+        if (map == null || map.isEmpty())
+        {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(new LinkedHashMap<String, V>(map));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di;
+
+import java.util.Set;
+
+/**
+ * <p>
+ * A specialized {@link BeanStore} interface for stores which support efficient
+ * lookups of beans by their class.
+ * </p>
+ * <p>
+ * The plain {@code BeanStore} interface only supports access to bean
+ * providers by name. To find a bean of a given class, all providers of the
+ * store have to be iterated over, and their bean classes have to be checked.
+ * In large stores with many class-based dependencies this becomes expensive.
+ * A {@code BeanStore} implementing this interface indicates that it can answer
+ * such queries directly, typically based on an index which is created on
+ * demand. The dependency injection framework checks whether a store
+ * implements this interface and then uses the methods defined here rather
+ * than iterating over the providers.
+ * </p>
+ * <p>
+ * The methods defined by this interface only take the local store into
+ * account; the parent store is not searched.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface IndexedBeanStore extends BeanStore
+{
+    /**
+     * Returns the name of a {@code BeanProvider} in this store whose bean
+     * class is the same as or a sub class of the given class. If there are
+     * multiple candidates, it is undefined which one is returned. Only named
+     * providers (i.e. the ones returned by {@link #providerNames()}) are taken
+     * into account. If no such provider exists, result is <b>null</b>.
+     *
+     * @param beanClass the class of the bean (must not be <b>null</b>)
+     * @param dependencyProvider the {@code DependencyProvider} for resolving
+     *        the classes of bean providers
+     * @return the name of a matching {@code BeanProvider} or <b>null</b>
+     */
+    String findProviderName(Class<?> beanClass,
+            DependencyProvider dependencyProvider);
+
+    /**
+     * Returns a set with the classes of all beans defined in this store. Only
+     * named providers are taken into account.
+     *
+     * @param dependencyProvider the {@code DependencyProvider} for resolving
+     *        the classes of bean providers
+     * @return a set with the classes of the beans defined in this store
+     */
+    Set<Class<?>> beanClasses(DependencyProvider dependencyProvider);
+}
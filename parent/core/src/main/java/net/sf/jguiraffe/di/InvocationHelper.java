@@ -40,6 +40,15 @@ import org.apache.commons.lang.ClassUtils;
  * which is maintained by this class).
  * </p>
  * <p>
+ * The results of the methods for finding methods and constructors are cached
+ * in a {@link ResolutionCache} object which is shared between all instances.
+ * So repeated invocations of the same methods - which are typical for instance
+ * when builder scripts are executed - do not have to search for the target
+ * methods again. The shared cache object can be queried using the static
+ * {@link #getResolutionCache()} method; it provides some statistics about
+ * cache hits and misses.
+ * </p>
+ * <p>
  * Implementation note: This class is thread-safe.
  * </p>
  *
@@ -54,6 +63,10 @@ public class InvocationHelper
     /** Constant for the name of a method representing a constructor. */
     private static final String CONSTR_METHOD_NAME = "<init>";
 
+    /** The cache for the results of resolve operations. */
+    private static final ResolutionCache RESOLUTION_CACHE =
+            new ResolutionCache();
+
     /** Stores the associated {@code ConversionHelper} instance. */
     private final ConversionHelper conversionHelper;
 
@@ -89,13 +102,29 @@ public class InvocationHelper
         return conversionHelper;
     }
 
+    /**
+     * Returns the {@code ResolutionCache} used by all instances of this class.
+     * This object stores the methods and constructors found by
+     * {@code findUniqueMethod()} and {@code findUniqueConstructor()}. It can be
+     * used to obtain statistics about the efficiency of this cache.
+     *
+     * @return the shared {@code ResolutionCache}
+     * @since 1.5
+     */
+    public static ResolutionCache getResolutionCache()
+    {
+        return RESOLUTION_CACHE;
+    }
+
     /**
      * Determines the method to be called given the name, the parameter types,
      * and the arguments. This method delegates to
      * {@link ReflectionUtils#findMethods(Class, String, Class[], boolean)} to
      * find a single method that matches the specified method signature. It also
      * takes the specified method arguments into account in order to find a
-     * unique match. If this is not possible, an exception is thrown.
+     * unique match. If this is not possible, an exception is thrown. Results
+     * are cached, so that a repeated call with the same parameters does not
+     * require a new search.
      *
      * @param targetClass the class on which to invoke the method
      * @param methodName the name of the method to be invoked
@@ -110,37 +139,23 @@ public class InvocationHelper
     public Method findUniqueMethod(Class<?> targetClass, String methodName,
             Class<?>[] parameterTypes, Object[] args)
     {
-        List<Method> methods =
-                findMethods(targetClass, methodName, parameterTypes, args, true);
-        if (methods.isEmpty())
+        if (targetClass != null)
         {
-            // try again with relaxed type checking
-            methods =
-                    findMethods(targetClass, methodName, parameterTypes, args,
-                            false);
-            if (methods.isEmpty())
+            Method method =
+                    RESOLUTION_CACHE.getMethod(targetClass, methodName,
+                            parameterTypes, args);
+            if (method != null)
             {
-                throw nonUniqueMethodException(methods, targetClass,
-                        methodName, parameterTypes, args);
+                return method;
             }
         }
 
-        if (methods.size() > 1)
-        {
-            // apply the types of the current call arguments
-            Class<?>[] callTypes =
-                    parameterTypesFromArguments(parameterTypes, args);
-            methods =
-                    findMethods(targetClass, methodName, callTypes, args, false);
-        }
-
-        if (methods.size() != 1)
-        {
-            throw nonUniqueMethodException(methods, targetClass, methodName,
-                    parameterTypes, args);
-        }
-
-        return methods.get(0);
+        Method method =
+                resolveUniqueMethod(targetClass, methodName, parameterTypes,
+                        args);
+        RESOLUTION_CACHE.putMethod(targetClass, methodName, parameterTypes,
+                args, method);
+        return method;
     }
 
     /**
@@ -162,37 +177,22 @@ public class InvocationHelper
     public <T> Constructor<T> findUniqueConstructor(Class<T> targetClass,
             Class<?>[] parameterTypes, Object[] args)
     {
-        // This code is pretty similar to the one of findUniqueMethod().
-        // Unfortunately, it cannot easily be generalized. This is because
-        // Method and Constructor do not share a common super class that allows
-        // access to the parameter types.
-        List<Constructor<T>> constrs =
-                findConstructors(targetClass, parameterTypes, args, true);
-        if (constrs.isEmpty())
+        if (targetClass != null)
         {
-            constrs =
-                    findConstructors(targetClass, parameterTypes, args, false);
-            if (constrs.isEmpty())
+            Constructor<T> ctor =
+                    RESOLUTION_CACHE.getConstructor(targetClass,
+                            parameterTypes, args);
+            if (ctor != null)
             {
-                throw nonUniqueMethodException(constrs, targetClass,
-                        CONSTR_METHOD_NAME, parameterTypes, args);
+                return ctor;
             }
         }
 
-        if (constrs.size() > 1)
-        {
-            Class<?>[] callTypes =
-                    parameterTypesFromArguments(parameterTypes, args);
-            constrs = findConstructors(targetClass, callTypes, args, false);
-        }
-
-        if (constrs.size() != 1)
-        {
-            throw nonUniqueMethodException(constrs, targetClass,
-                    CONSTR_METHOD_NAME, parameterTypes, args);
-        }
-
-        return constrs.get(0);
+        Constructor<T> ctor =
+                resolveUniqueConstructor(targetClass, parameterTypes, args);
+        RESOLUTION_CACHE.putConstructor(targetClass, parameterTypes, args,
+                ctor);
+        return ctor;
     }
 
     /**
@@ -367,6 +367,102 @@ public class InvocationHelper
         return (results != null) ? results : args;
     }
 
+    /**
+     * Searches for a unique method matching the given parameters. This method
+     * is called by {@code findUniqueMethod()} if no cached result is
+     * available.
+     *
+     * @param targetClass the class on which to invoke the method
+     * @param methodName the name of the method to be invoked
+     * @param parameterTypes an array with the known parameter types
+     * @param args an array with the method arguments
+     * @return the method to be invoked
+     * @throws InjectionException if the method cannot be determined
+     */
+    private static Method resolveUniqueMethod(Class<?> targetClass,
+            String methodName, Class<?>[] parameterTypes, Object[] args)
+    {
+        List<Method> methods =
+                findMethods(targetClass, methodName, parameterTypes, args, true);
+        if (methods.isEmpty())
+        {
+            // try again with relaxed type checking
+            methods =
+                    findMethods(targetClass, methodName, parameterTypes, args,
+                            false);
+            if (methods.isEmpty())
+            {
+                throw nonUniqueMethodException(methods, targetClass,
+                        methodName, parameterTypes, args);
+            }
+        }
+
+        if (methods.size() > 1)
+        {
+            // apply the types of the current call arguments
+            Class<?>[] callTypes =
+                    parameterTypesFromArguments(parameterTypes, args);
+            methods =
+                    findMethods(targetClass, methodName, callTypes, args, false);
+        }
+
+        if (methods.size() != 1)
+        {
+            throw nonUniqueMethodException(methods, targetClass, methodName,
+                    parameterTypes, args);
+        }
+
+        return methods.get(0);
+    }
+
+    /**
+     * Searches for a unique constructor matching the given parameters. This
+     * method is called by {@code findUniqueConstructor()} if no cached result
+     * is available.
+     *
+     * @param <T> the type of the target class
+     * @param targetClass the class on which to invoke the method
+     * @param parameterTypes an array with the known parameter types
+     * @param args an array with the call arguments
+     * @return the unique constructor matching the specified criteria
+     * @throws InjectionException if no unique constructor can be determined
+     */
+    private static <T> Constructor<T> resolveUniqueConstructor(
+            Class<T> targetClass, Class<?>[] parameterTypes, Object[] args)
+    {
+        // This code is pretty similar to the one of resolveUniqueMethod().
+        // Unfortunately, it cannot easily be generalized. This is because
+        // Method and Constructor do not share a common super class that allows
+        // access to the parameter types.
+        List<Constructor<T>> constrs =
+                findConstructors(targetClass, parameterTypes, args, true);
+        if (constrs.isEmpty())
+        {
+            constrs =
+                    findConstructors(targetClass, parameterTypes, args, false);
+            if (constrs.isEmpty())
+            {
+                throw nonUniqueMethodException(constrs, targetClass,
+                        CONSTR_METHOD_NAME, parameterTypes, args);
+            }
+        }
+
+        if (constrs.size() > 1)
+        {
+            Class<?>[] callTypes =
+                    parameterTypesFromArguments(parameterTypes, args);
+            constrs = findConstructors(targetClass, callTypes, args, false);
+        }
+
+        if (constrs.size() != 1)
+        {
+            throw nonUniqueMethodException(constrs, targetClass,
+                    CONSTR_METHOD_NAME, parameterTypes, args);
+        }
+
+        return constrs.get(0);
+    }
+
     /**
      * Helper method for finding methods that match given criteria. This method
      * delegates to {@link ReflectionUtils} for doing the lookup. Then it sorts
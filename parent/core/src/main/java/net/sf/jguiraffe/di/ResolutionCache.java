@@ -0,0 +1,415 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A class for caching the results of method and constructor resolution
+ * operations.
+ * </p>
+ * <p>
+ * Finding the method or constructor to be invoked for a given combination of
+ * a target class, a method name, parameter types, and arguments is a rather
+ * expensive operation: all public methods of the class have to be inspected
+ * and checked for compatibility. Because in typical applications the same
+ * invocations are performed again and again (e.g. when builder scripts are
+ * executed), {@link InvocationHelper} uses an instance of this class to store
+ * the results of successful resolve operations.
+ * </p>
+ * <p>
+ * The data is stored per target class using a {@code ClassValue}. For each
+ * target class, the number of cached entries is limited; if the limit is
+ * reached, the entries used least recently are evicted. The key of an entry
+ * consists of the method name, the parameter types, and the classes of the
+ * actual arguments. This is exactly the information evaluated by the resolve
+ * algorithm, so a cached result is always identical to the result of a new
+ * search.
+ * </p>
+ * <p>
+ * Note that cached data holds strong references to the classes involved in
+ * an invocation: the parameter and argument classes stored in the keys and
+ * the resolved {@code Method} and {@code Constructor} objects. So if a method
+ * of a class loaded by a parent class loader is invoked with arguments whose
+ * classes come from a child class loader, the cache keeps these classes - and
+ * thus the child class loader - reachable. Applications which dynamically
+ * load and discard class loaders should therefore call
+ * {@link #clear(Class)} for the affected target classes when a class loader
+ * is no longer needed.
+ * </p>
+ * <p>
+ * An instance also keeps statistics about cache hits and misses. This can be
+ * used for instance to check the efficiency of the cache in a concrete
+ * application.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ResolutionCache
+{
+    /** Constant for the default maximum number of entries per class. */
+    public static final int DEFAULT_MAX_ENTRIES_PER_CLASS = 128;
+
+    /** Constant for the name used in keys for constructors. */
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    /** The maximum number of entries stored for a single class. */
+    private final int maxEntriesPerClass;
+
+    /** The object storing the cached data per target class. */
+    private final ClassValue<Map<Key, Object>> classData;
+
+    /** A counter for cache hits. */
+    private final AtomicLong hitCount;
+
+    /** A counter for cache misses. */
+    private final AtomicLong missCount;
+
+    /**
+     * Creates a new instance of {@code ResolutionCache} with the default
+     * maximum number of entries per class.
+     */
+    public ResolutionCache()
+    {
+        this(DEFAULT_MAX_ENTRIES_PER_CLASS);
+    }
+
+    /**
+     * Creates a new instance of {@code ResolutionCache} and sets the maximum
+     * number of entries to be stored for a single target class.
+     *
+     * @param maxEntries the maximum number of entries per class (must be
+     *        greater than 0)
+     * @throws IllegalArgumentException if the maximum number is invalid
+     */
+    public ResolutionCache(int maxEntries)
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Maximum number of entries must be greater than 0: "
+                            + maxEntries);
+        }
+
+        maxEntriesPerClass = maxEntries;
+        hitCount = new AtomicLong();
+        missCount = new AtomicLong();
+        classData = new ClassValue<Map<Key, Object>>()
+        {
+            @Override
+            protected Map<Key, Object> computeValue(Class<?> type)
+            {
+                return createClassMap();
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of entries which are cached for a single
+     * target class.
+     *
+     * @return the maximum number of entries per class
+     */
+    public int getMaxEntriesPerClass()
+    {
+        return maxEntriesPerClass;
+    }
+
+    /**
+     * Returns the number of cache hits recorded by this object.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cache misses recorded by this object.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * Resets the statistics about cache hits and misses.
+     */
+    public void resetStatistics()
+    {
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * Removes all data cached for the specified class. This method can be
+     * called if the results of resolve operations for a class are no longer
+     * needed.
+     *
+     * @param targetClass the target class
+     */
+    public void clear(Class<?> targetClass)
+    {
+        if (targetClass != null)
+        {
+            classData.remove(targetClass);
+        }
+    }
+
+    /**
+     * Returns the cached method for the specified parameters. Result is
+     * <b>null</b> if no method has been stored for this combination of
+     * parameters.
+     *
+     * @param targetClass the target class
+     * @param methodName the name of the method
+     * @param parameterTypes the parameter types
+     * @param args the arguments of the invocation
+     * @return the cached method or <b>null</b>
+     */
+    Method getMethod(Class<?> targetClass, String methodName,
+            Class<?>[] parameterTypes, Object[] args)
+    {
+        return (Method) get(targetClass, new Key(methodName, parameterTypes,
+                args));
+    }
+
+    /**
+     * Stores a method in this cache.
+     *
+     * @param targetClass the target class
+     * @param methodName the name of the method
+     * @param parameterTypes the parameter types
+     * @param args the arguments of the invocation
+     * @param method the method to be cached
+     */
+    void putMethod(Class<?> targetClass, String methodName,
+            Class<?>[] parameterTypes, Object[] args, Method method)
+    {
+        put(targetClass, new Key(methodName, parameterTypes, args), method);
+    }
+
+    /**
+     * Returns the cached constructor for the specified parameters. Result is
+     * <b>null</b> if no constructor has been stored for this combination of
+     * parameters.
+     *
+     * @param <T> the type of the target class
+     * @param targetClass the target class
+     * @param parameterTypes the parameter types
+     * @param args the arguments of the invocation
+     * @return the cached constructor or <b>null</b>
+     */
+    <T> Constructor<T> getConstructor(Class<T> targetClass,
+            Class<?>[] parameterTypes, Object[] args)
+    {
+        // only constructors of the target class are stored
+        @SuppressWarnings("unchecked")
+        Constructor<T> ctor =
+                (Constructor<T>) get(targetClass, new Key(
+                        CONSTRUCTOR_NAME, parameterTypes, args));
+        return ctor;
+    }
+
+    /**
+     * Stores a constructor in this cache.
+     *
+     * @param <T> the type of the target class
+     * @param targetClass the target class
+     * @param parameterTypes the parameter types
+     * @param args the arguments of the invocation
+     * @param ctor the constructor to be cached
+     */
+    <T> void putConstructor(Class<T> targetClass, Class<?>[] parameterTypes,
+            Object[] args, Constructor<T> ctor)
+    {
+        put(targetClass, new Key(CONSTRUCTOR_NAME, parameterTypes, args),
+                ctor);
+    }
+
+    /**
+     * Creates the map for storing the data of a single target class. This is
+     * a synchronized map with LRU semantics whose size is limited.
+     *
+     * @return the map for the data of a class
+     */
+    private Map<Key, Object> createClassMap()
+    {
+        return Collections.synchronizedMap(new LinkedHashMap<Key, Object>(16,
+                0.75f, true)
+        {
+            /**
+             * The serial version UID.
+             */
+            private static final long serialVersionUID = 20251016L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest)
+            {
+                return size() > getMaxEntriesPerClass();
+            }
+        });
+    }
+
+    /**
+     * Queries the cache for the specified key and updates the statistics.
+     *
+     * @param targetClass the target class
+     * @param key the key
+     * @return the cached value or <b>null</b>
+     */
+    private Object get(Class<?> targetClass, Key key)
+    {
+        Object result = classData.get(targetClass).get(key);
+        if (result != null)
+        {
+            hitCount.incrementAndGet();
+        }
+        else
+        {
+            missCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Stores a value in the cache.
+     *
+     * @param targetClass the target class
+     * @param key the key
+     * @param value the value
+     */
+    private void put(Class<?> targetClass, Key key, Object value)
+    {
+        classData.get(targetClass).put(key, value);
+    }
+
+    /**
+     * An internally used key class for the entries stored in the cache. The
+     * key contains all information which is relevant for the resolve
+     * operation.
+     */
+    private static class Key
+    {
+        /** The method name. */
+        private final String methodName;
+
+        /** The parameter types. */
+        private final Class<?>[] parameterTypes;
+
+        /** The classes of the current arguments. */
+        private final Class<?>[] argumentTypes;
+
+        /** The hash code. */
+        private final int hash;
+
+        /**
+         * Creates a new instance of {@code Key}.
+         *
+         * @param name the method name
+         * @param paramTypes the parameter types
+         * @param args the arguments
+         */
+        public Key(String name, Class<?>[] paramTypes, Object[] args)
+        {
+            methodName = name;
+            parameterTypes = (paramTypes != null) ? paramTypes.clone() : null;
+            argumentTypes = argumentTypes(args);
+
+            final int factor = 31;
+            int h = (name != null) ? name.hashCode() : 0;
+            h = h * factor + Arrays.hashCode(parameterTypes);
+            h = h * factor + Arrays.hashCode(argumentTypes);
+            hash = h;
+        }
+
+        /**
+         * Returns a hash code for this object.
+         *
+         * @return a hash code
+         */
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        /**
+         * Compares this object with another one. Two keys are equal if all of
+         * their components are equal.
+         *
+         * @param obj the object to compare to
+         * @return a flag whether the objects are equal
+         */
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+
+            Key c = (Key) obj;
+            return hash == c.hash
+                    && ((methodName == null) ? c.methodName == null
+                            : methodName.equals(c.methodName))
+                    && Arrays.equals(parameterTypes, c.parameterTypes)
+                    && Arrays.equals(argumentTypes, c.argumentTypes);
+        }
+
+        /**
+         * Determines the classes of the given arguments. For <b>null</b>
+         * arguments the resulting array contains <b>null</b> entries.
+         *
+         * @param args the arguments
+         * @return an array with the classes of the arguments
+         */
+        private static Class<?>[] argumentTypes(Object[] args)
+        {
+            if (args == null)
+            {
+                return null;
+            }
+
+            Class<?>[] types = new Class<?>[args.length];
+            for (int i = 0; i < args.length; i++)
+            {
+                if (args[i] != null)
+                {
+                    types[i] = args[i].getClass();
+                }
+            }
+            return types;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.jguiraffe.di.BeanStore;
+import net.sf.jguiraffe.di.DependencyProvider;
+
+/**
+ * <p>
+ * An internally used helper class which implements an index for class-based
+ * lookups in a {@code BeanStore}.
+ * </p>
+ * <p>
+ * An instance is created for a specific {@code BeanStore}. It determines the
+ * names of all providers in this store and their bean classes once. Queries
+ * for a specific class are answered by a linear search over these data; the
+ * result (which may also be the information that no matching provider
+ * exists) is then cached, so that further queries for the same class can be
+ * answered directly. Because the bean classes of providers are resolved only
+ * once, classes do not have to be loaded repeatedly.
+ * </p>
+ * <p>
+ * An instance reflects the state of its store at the time it was created. It
+ * is in the responsibility of the owning store to discard the index when
+ * bean providers are added or removed.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+final class BeanClassIndex
+{
+    /** Constant for a cached result indicating that no provider was found. */
+    private static final Object NO_PROVIDER = new Object();
+
+    /** An array with the names of the indexed providers. */
+    private final String[] names;
+
+    /** An array with the bean classes of the indexed providers. */
+    private final Class<?>[] classes;
+
+    /** A set with all bean classes. */
+    private final Set<Class<?>> beanClasses;
+
+    /** The cache for the results of lookups. */
+    private final ConcurrentMap<Class<?>, Object> lookupCache;
+
+    /**
+     * Creates a new instance of {@code BeanClassIndex} with the data
+     * collected from a bean store.
+     *
+     * @param providerNames the names of the bean providers
+     * @param providerClasses the bean classes of the providers
+     */
+    private BeanClassIndex(String[] providerNames, Class<?>[] providerClasses)
+    {
+        names = providerNames;
+        classes = providerClasses;
+        Set<Class<?>> set = new HashSet<Class<?>>();
+        Collections.addAll(set, providerClasses);
+        beanClasses = Collections.unmodifiableSet(set);
+        lookupCache = new ConcurrentHashMap<Class<?>, Object>();
+    }
+
+    /**
+     * Creates an index for the specified {@code BeanStore}. The bean classes
+     * of all named providers in the store are resolved. Exceptions thrown
+     * while resolving a class are passed to the caller.
+     *
+     * @param store the {@code BeanStore}
+     * @param depProvider the {@code DependencyProvider}
+     * @return the index for this store
+     */
+    public static BeanClassIndex create(BeanStore store,
+            DependencyProvider depProvider)
+    {
+        Set<String> providerNames = store.providerNames();
+        String[] names = new String[providerNames.size()];
+        Class<?>[] classes = new Class<?>[names.length];
+        int idx = 0;
+        for (String n : providerNames)
+        {
+            names[idx] = n;
+            classes[idx] = store.getBeanProvider(n).getBeanClass(depProvider);
+            idx++;
+        }
+        return new BeanClassIndex(names, classes);
+    }
+
+    /**
+     * Returns an object identifying the class loaders used by the given
+     * {@code DependencyProvider}. An index is only valid for the class loaders
+     * it was created with. The dependency providers created by a
+     * {@link DefaultBeanContext} - both internal ones and those of
+     * transactions - delegate to the {@code ClassLoaderProvider} of the
+     * context; so this provider is returned for them. This is also the case
+     * for a {@link RestrictedDependencyProvider}. For other dependency
+     * providers the provider itself is returned.
+     *
+     * @param depProvider the {@code DependencyProvider}
+     * @return the key for the class loaders of this provider
+     */
+    public static Object classLoaderKey(DependencyProvider depProvider)
+    {
+        if (depProvider instanceof DefaultDependencyProvider)
+        {
+            return ((DefaultDependencyProvider) depProvider).getBeanContext()
+                    .getClassLoaderProvider();
+        }
+        if (depProvider instanceof RestrictedDependencyProvider)
+        {
+            return ((RestrictedDependencyProvider) depProvider)
+                    .getClassLoaderProvider();
+        }
+        return depProvider;
+    }
+
+    /**
+     * Returns the name of a provider whose bean class is compatible with the
+     * given class or <b>null</b> if there is none.
+     *
+     * @param beanClass the class to search for
+     * @return the name of a matching provider or <b>null</b>
+     */
+    public String findProviderName(Class<?> beanClass)
+    {
+        Object result = lookupCache.get(beanClass);
+        if (result == null)
+        {
+            result = NO_PROVIDER;
+            for (int i = 0; i < classes.length; i++)
+            {
+                if (classes[i] != null
+                        && beanClass.isAssignableFrom(classes[i]))
+                {
+                    result = names[i];
+                    break;
+                }
+            }
+            lookupCache.put(beanClass, result);
+        }
+
+        return (result == NO_PROVIDER) ? null : (String) result;
+    }
+
+    /**
+     * Returns an unmodifiable set with the bean classes of all indexed
+     * providers.
+     *
+     * @return a set with the bean classes
+     */
+    public Set<Class<?>> getBeanClasses()
+    {
+        return beanClasses;
+    }
+
+    /**
+     * Searches the given {@code BeanStore} for a provider with a compatible
+     * bean class without using an index. This method iterates over all named
+     * providers in the store.
+     *
+     * @param store the {@code BeanStore}
+     * @param beanClass the class to search for
+     * @param depProvider the {@code DependencyProvider}
+     * @return the name of a matching provider or <b>null</b>
+     */
+    public static String scan(BeanStore store, Class<?> beanClass,
+            DependencyProvider depProvider)
+    {
+        for (String n : store.providerNames())
+        {
+            Class<?> cls = store.getBeanProvider(n).getBeanClass(depProvider);
+            if (cls != null && beanClass.isAssignableFrom(cls))
+            {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collects the bean classes of all named providers in the given {@code
+     * BeanStore} without using an index.
+     *
+     * @param store the {@code BeanStore}
+     * @param depProvider the {@code DependencyProvider}
+     * @return a set with the bean classes
+     */
+    public static Set<Class<?>> scanBeanClasses(BeanStore store,
+            DependencyProvider depProvider)
+    {
+        Set<Class<?>> result = new HashSet<Class<?>>();
+        for (String n : store.providerNames())
+        {
+            result.add(store.getBeanProvider(n).getBeanClass(depProvider));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,796 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jguiraffe.di.BeanContext;
+import net.sf.jguiraffe.di.BeanGraphReport;
+import net.sf.jguiraffe.di.BeanProvider;
+import net.sf.jguiraffe.di.BeanStore;
+import net.sf.jguiraffe.di.Dependency;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.providers.LifeCycleBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
+
+/**
+ * <p>
+ * An internally used helper class for analyzing the dependency graph of the
+ * beans defined in a {@code BeanStore} hierarchy.
+ * </p>
+ * <p>
+ * On construction, an instance determines all bean providers visible from a
+ * given {@code BeanStore} and tries to resolve all of their dependencies.
+ * Dependencies which cannot be resolved are recorded. The resulting graph is
+ * then checked for cycles: only dependencies needed for the creation of a bean
+ * are taken into account because the framework can deal with cycles caused by
+ * dependencies required for the initialization of beans only. Bean providers
+ * without a name (e.g. providers for inner beans) are reported under a
+ * generated label which is derived from the name of the bean referencing them,
+ * e.g. {@code myBean.<anonymous1>}. The labels are unique, so that different
+ * anonymous beans can be distinguished in a report.
+ * </p>
+ * <p>
+ * Based on this graph singleton beans can be created ahead of time. They are
+ * created in topological order, i.e. a singleton bean is not created before
+ * the singleton beans it depends on are available. Beans which do not depend
+ * on each other are created in parallel using an {@code Executor}.
+ * </p>
+ * <p>
+ * Implementation note: Instances are not thread-safe; they are intended to be
+ * used for a single analysis only.
+ * </p>
+ *
+ * @since 1.5
+ */
+final class BeanGraphAnalyzer
+{
+    /** The bean store to be analyzed. */
+    private final BeanStore store;
+
+    /** The dependency provider for resolving dependencies. */
+    private final DependencyProvider dependencyProvider;
+
+    /** A map with the nodes of the graph. */
+    private final Map<BeanProvider, Node> nodes;
+
+    /** A map with the nodes for named bean providers. */
+    private final Map<String, Node> namedNodes;
+
+    /** A map with the dependencies that cannot be resolved. */
+    private final Map<String, Set<Dependency>> unresolvedDependencies;
+
+    /** A counter for generating labels for anonymous bean providers. */
+    private int anonymousCount;
+
+    /**
+     * Creates a new instance of {@code BeanGraphAnalyzer} and constructs the
+     * dependency graph for the given store.
+     *
+     * @param beanStore the {@code BeanStore} to be analyzed
+     * @param depProvider the {@code DependencyProvider} for resolving
+     *        dependencies
+     */
+    public BeanGraphAnalyzer(BeanStore beanStore,
+            DependencyProvider depProvider)
+    {
+        store = beanStore;
+        dependencyProvider = depProvider;
+        nodes = new IdentityHashMap<BeanProvider, Node>();
+        namedNodes = new LinkedHashMap<String, Node>();
+        unresolvedDependencies = new LinkedHashMap<String, Set<Dependency>>();
+        buildGraph();
+    }
+
+    /**
+     * Validates the dependency graph. The report returned by this method
+     * contains the cycles and the unresolved dependencies found.
+     *
+     * @return a report with the results of the validation
+     */
+    public BeanGraphReport validate()
+    {
+        return new BeanGraphReport(findCycles(), unresolvedDependencies, null,
+                null);
+    }
+
+    /**
+     * Creates the specified singleton beans ahead of time. The beans are
+     * obtained from the given {@code BeanContext} in topological order; the
+     * {@code Executor} is used to create independent beans in parallel. This
+     * method blocks until all beans have been processed. Names that do not
+     * refer to singleton beans which still have to be created are ignored.
+     * Names of beans which cannot be found are reported as errors. The report
+     * returned by this method contains the creation times of the beans and
+     * the results of a validation of the dependency graph.
+     *
+     * @param context the {@code BeanContext} for creating beans
+     * @param beanNames the names of the beans to be created; <b>null</b> means
+     *        that all singleton beans should be created
+     * @param executor the {@code Executor} for creating beans
+     * @return a report about the beans created
+     * @throws InjectionException if the current thread is interrupted while
+     *         waiting for the creation of beans
+     */
+    public BeanGraphReport preloadSingletons(BeanContext context,
+            Collection<String> beanNames, Executor executor)
+    {
+        PreloadOperation op = new PreloadOperation(context, store, executor);
+        List<Node> targets = fetchPreloadTargets(beanNames, op);
+        List<PreloadTask> tasks = createPreloadTasks(targets, op);
+        op.execute(tasks);
+
+        return new BeanGraphReport(findCycles(), unresolvedDependencies,
+                op.creationTimes, op.creationErrors);
+    }
+
+    /**
+     * Constructs the dependency graph. First nodes for all named bean
+     * providers are created, then their dependencies are resolved.
+     */
+    private void buildGraph()
+    {
+        LinkedList<Node> queue = new LinkedList<Node>();
+        for (BeanStore s = store; s != null; s = s.getParent())
+        {
+            for (String name : s.providerNames())
+            {
+                if (!namedNodes.containsKey(name))
+                {
+                    namedNodes.put(name, fetchNode(s.getBeanProvider(name),
+                            name, queue));
+                }
+            }
+        }
+
+        while (!queue.isEmpty())
+        {
+            processDependencies(queue.removeFirst(), queue);
+        }
+    }
+
+    /**
+     * Returns the node for the specified bean provider. If no such node
+     * exists yet, it is created and added to the queue of nodes to be
+     * processed.
+     *
+     * @param provider the bean provider
+     * @param name the name to be used for this provider
+     * @param queue the queue with the nodes to be processed
+     * @return the node for this provider
+     */
+    private Node fetchNode(BeanProvider provider, String name,
+            LinkedList<Node> queue)
+    {
+        Node node = nodes.get(provider);
+        if (node == null)
+        {
+            node = new Node(provider, name);
+            nodes.put(provider, node);
+            queue.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the node for a bean provider referenced by a dependency. Named
+     * providers already have a node. For a provider without a name a new node
+     * is created if necessary; it is assigned a unique label derived from the
+     * name of the node which references it.
+     *
+     * @param provider the bean provider
+     * @param owner the node declaring the dependency
+     * @param queue the queue with the nodes to be processed
+     * @return the node for this provider
+     */
+    private Node fetchDependencyNode(BeanProvider provider, Node owner,
+            LinkedList<Node> queue)
+    {
+        Node node = nodes.get(provider);
+        if (node == null)
+        {
+            anonymousCount++;
+            node = fetchNode(provider, owner.name + ".<anonymous"
+                    + anonymousCount + ">", queue);
+        }
+        return node;
+    }
+
+    /**
+     * Resolves the dependencies of the given node and adds the corresponding
+     * edges to the graph.
+     *
+     * @param node the current node
+     * @param queue the queue with the nodes to be processed
+     */
+    private void processDependencies(Node node, LinkedList<Node> queue)
+    {
+        Set<Dependency> deps = node.provider.getDependencies();
+        if (deps == null)
+        {
+            return;
+        }
+
+        Set<Dependency> creationDeps = fetchCreationDependencies(node.provider);
+        for (Dependency dep : deps)
+        {
+            BeanProvider target = resolve(dep);
+            if (target == null)
+            {
+                addUnresolvedDependency(node.name, dep);
+            }
+            else
+            {
+                Node targetNode = fetchDependencyNode(target, node, queue);
+                node.dependencies.add(targetNode);
+                if (creationDeps == null || creationDeps.contains(dep))
+                {
+                    node.creationDependencies.add(targetNode);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tries to resolve the specified dependency. If this fails, result is
+     * <b>null</b>.
+     *
+     * @param dep the dependency
+     * @return the bean provider the dependency refers to or <b>null</b>
+     */
+    private BeanProvider resolve(Dependency dep)
+    {
+        try
+        {
+            return dep.resolve(store, dependencyProvider);
+        }
+        catch (InjectionException iex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Records a dependency that cannot be resolved.
+     *
+     * @param name the name of the bean declaring the dependency
+     * @param dep the dependency
+     */
+    private void addUnresolvedDependency(String name, Dependency dep)
+    {
+        Set<Dependency> deps = unresolvedDependencies.get(name);
+        if (deps == null)
+        {
+            deps = new LinkedHashSet<Dependency>();
+            unresolvedDependencies.put(name, deps);
+        }
+        deps.add(dep);
+    }
+
+    /**
+     * Determines the dependencies of a bean provider which are required for
+     * the creation of the bean. For providers with life-cycle support these
+     * are the dependencies of the provider which actually creates the bean.
+     * For other providers all dependencies are relevant; this is indicated by
+     * a result of <b>null</b>.
+     *
+     * @param provider the bean provider
+     * @return the dependencies needed for the creation of the bean
+     */
+    private static Set<Dependency> fetchCreationDependencies(
+            BeanProvider provider)
+    {
+        if (provider instanceof LifeCycleBeanProvider)
+        {
+            Set<Dependency> deps = ((LifeCycleBeanProvider) provider)
+                    .getBeanCreator().getDependencies();
+            return (deps != null) ? deps : Collections.<Dependency> emptySet();
+        }
+        return null;
+    }
+
+    /**
+     * Searches for cycles in the graph formed by creation dependencies. This
+     * is done by determining the strongly connected components of this graph
+     * (using Tarjan's algorithm).
+     *
+     * @return a list with the cycles found
+     */
+    private List<List<String>> findCycles()
+    {
+        CycleSearch search = new CycleSearch();
+        for (Node node : nodes.values())
+        {
+            if (node.index < 0)
+            {
+                search.visit(node);
+            }
+        }
+        for (Node node : nodes.values())
+        {
+            node.index = -1;
+        }
+        return search.cycles;
+    }
+
+    /**
+     * Determines the nodes for the singleton beans to be created.
+     *
+     * @param beanNames the names of the beans (<b>null</b> for all beans)
+     * @param op the current preload operation
+     * @return a list with the nodes of the beans to be created
+     */
+    private List<Node> fetchPreloadTargets(Collection<String> beanNames,
+            PreloadOperation op)
+    {
+        Collection<String> names =
+                (beanNames != null) ? beanNames : namedNodes.keySet();
+        Set<Node> targets = new LinkedHashSet<Node>();
+        for (String name : names)
+        {
+            Node node = namedNodes.get(name);
+            if (node == null)
+            {
+                op.creationErrors.put(name, new InjectionException(
+                        "Cannot resolve bean: " + name));
+            }
+            else if (isPendingSingleton(node.provider))
+            {
+                targets.add(node);
+            }
+        }
+        return new ArrayList<Node>(targets);
+    }
+
+    /**
+     * Creates the tasks for creating the specified beans and determines the
+     * order in which they have to be executed. The beans are sorted
+     * topologically. Then, for each bean, the other beans to be created are
+     * determined on which it depends. Dependencies in the reverse direction
+     * (caused by cycles) are ignored.
+     *
+     * @param targets the nodes of the beans to be created
+     * @param op the current preload operation
+     * @return a list with the tasks for creating the beans
+     */
+    private List<PreloadTask> createPreloadTasks(List<Node> targets,
+            PreloadOperation op)
+    {
+        List<Node> sortedNodes = new ArrayList<Node>();
+        Set<Node> visitedNodes =
+                Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        for (Node target : targets)
+        {
+            sortTopologically(target, visitedNodes, sortedNodes);
+        }
+        Map<Node, Integer> order = new IdentityHashMap<Node, Integer>();
+        for (Node node : sortedNodes)
+        {
+            order.put(node, order.size());
+        }
+
+        Map<Node, PreloadTask> tasks = new IdentityHashMap<Node, PreloadTask>();
+        for (Node target : targets)
+        {
+            tasks.put(target, new PreloadTask(target.name, op));
+        }
+
+        List<PreloadTask> result = new ArrayList<PreloadTask>(targets.size());
+        for (Node target : targets)
+        {
+            PreloadTask task = tasks.get(target);
+            Set<Node> prerequisites = new LinkedHashSet<Node>();
+            Set<Node> visited = Collections
+                    .newSetFromMap(new IdentityHashMap<Node, Boolean>());
+            findPrerequisites(target, target, order, tasks.keySet(),
+                    prerequisites, visited);
+            for (Node pre : prerequisites)
+            {
+                tasks.get(pre).addDependent(task);
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    /**
+     * Adds all nodes reachable from the given node to a list in post-order.
+     * So a node is placed after the nodes it depends on (unless there is a
+     * cycle).
+     *
+     * @param node the current node
+     * @param visited the set with the nodes visited so far
+     * @param sorted the list with the sorted nodes
+     */
+    private static void sortTopologically(Node node, Set<Node> visited,
+            List<Node> sorted)
+    {
+        if (visited.add(node))
+        {
+            for (Node dep : node.dependencies)
+            {
+                sortTopologically(dep, visited, sorted);
+            }
+            sorted.add(node);
+        }
+    }
+
+    /**
+     * Determines the beans to be created on which the given target bean
+     * depends. The dependency graph is traversed starting with the given
+     * node. If another target node is found which is before the start node in
+     * topological order, it is added to the set of prerequisites.
+     *
+     * @param start the node whose prerequisites are to be determined
+     * @param node the current node
+     * @param order the topological order
+     * @param targets the set with all target nodes
+     * @param prerequisites the set for storing the prerequisites
+     * @param visited the set with the nodes visited so far
+     */
+    private static void findPrerequisites(Node start, Node node,
+            Map<Node, Integer> order, Set<Node> targets,
+            Set<Node> prerequisites, Set<Node> visited)
+    {
+        for (Node dep : node.dependencies)
+        {
+            if (dep != start && visited.add(dep))
+            {
+                if (targets.contains(dep)
+                        && order.get(dep).intValue() < order.get(start)
+                                .intValue())
+                {
+                    prerequisites.add(dep);
+                }
+                else
+                {
+                    findPrerequisites(start, dep, order, targets,
+                            prerequisites, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given provider is a singleton bean provider whose
+     * bean has not yet been created.
+     *
+     * @param provider the bean provider
+     * @return a flag whether this bean has to be created
+     */
+    private static boolean isPendingSingleton(BeanProvider provider)
+    {
+        return provider instanceof SingletonBeanProvider
+                && ((SingletonBeanProvider) provider).getCreatedBean() == null;
+    }
+
+    /**
+     * A class representing a node in the dependency graph.
+     */
+    private static class Node
+    {
+        /** The bean provider. */
+        final BeanProvider provider;
+
+        /** The name used for this bean provider. */
+        final String name;
+
+        /** A list with the nodes this node depends on. */
+        final List<Node> dependencies;
+
+        /** A list with the nodes needed for the creation of this bean. */
+        final List<Node> creationDependencies;
+
+        /** The index assigned by the cycle search. */
+        int index;
+
+        /** The low link value used by the cycle search. */
+        int lowLink;
+
+        /** A flag whether this node is on the stack of the cycle search. */
+        boolean onStack;
+
+        /**
+         * Creates a new instance of {@code Node}.
+         *
+         * @param p the bean provider
+         * @param n the name of the bean provider
+         */
+        public Node(BeanProvider p, String n)
+        {
+            provider = p;
+            name = n;
+            dependencies = new ArrayList<Node>();
+            creationDependencies = new ArrayList<Node>();
+            index = -1;
+        }
+    }
+
+    /**
+     * A helper class implementing the search for cycles.
+     */
+    private static class CycleSearch
+    {
+        /** The list with the cycles found. */
+        final List<List<String>> cycles = new ArrayList<List<String>>();
+
+        /** The stack of the algorithm. */
+        private final LinkedList<Node> stack = new LinkedList<Node>();
+
+        /** The counter for assigning indices. */
+        private int counter;
+
+        /**
+         * Visits the specified node. This is the recursive part of Tarjan's
+         * algorithm.
+         *
+         * @param node the node to be visited
+         */
+        public void visit(Node node)
+        {
+            node.index = counter;
+            node.lowLink = counter;
+            counter++;
+            stack.addFirst(node);
+            node.onStack = true;
+
+            for (Node dep : node.creationDependencies)
+            {
+                if (dep.index < 0)
+                {
+                    visit(dep);
+                    node.lowLink = Math.min(node.lowLink, dep.lowLink);
+                }
+                else if (dep.onStack)
+                {
+                    node.lowLink = Math.min(node.lowLink, dep.index);
+                }
+            }
+
+            if (node.lowLink == node.index)
+            {
+                List<Node> component = new LinkedList<Node>();
+                Node n;
+                do
+                {
+                    n = stack.removeFirst();
+                    n.onStack = false;
+                    component.add(0, n);
+                } while (n != node);
+
+                if (component.size() > 1
+                        || node.creationDependencies.contains(node))
+                {
+                    Set<String> names = new LinkedHashSet<String>();
+                    for (Node c : component)
+                    {
+                        names.add(c.name);
+                    }
+                    cycles.add(new ArrayList<String>(names));
+                }
+            }
+        }
+    }
+
+    /**
+     * A class storing the data of an operation which creates singleton beans.
+     */
+    private static class PreloadOperation
+    {
+        /** The bean context. */
+        final BeanContext context;
+
+        /** The bean store. */
+        final BeanStore store;
+
+        /** The executor. */
+        final Executor executor;
+
+        /** A map with the creation times of beans. */
+        final Map<String, Long> creationTimes;
+
+        /** A map with creation errors. */
+        final Map<String, Throwable> creationErrors;
+
+        /** The latch for waiting until all beans have been created. */
+        private CountDownLatch latch;
+
+        /**
+         * Creates a new instance of {@code PreloadOperation}.
+         *
+         * @param ctx the bean context
+         * @param beanStore the bean store
+         * @param exec the executor
+         */
+        public PreloadOperation(BeanContext ctx, BeanStore beanStore,
+                Executor exec)
+        {
+            context = ctx;
+            store = beanStore;
+            executor = exec;
+            creationTimes = Collections
+                    .synchronizedMap(new LinkedHashMap<String, Long>());
+            creationErrors = Collections
+                    .synchronizedMap(new LinkedHashMap<String, Throwable>());
+        }
+
+        /**
+         * Executes the specified tasks and waits until they are complete.
+         * Tasks without prerequisites are started directly; the other ones
+         * are started by the tasks they depend on.
+         *
+         * @param tasks the list with all tasks
+         * @throws InjectionException if the thread is interrupted
+         */
+        public void execute(List<PreloadTask> tasks)
+        {
+            latch = new CountDownLatch(tasks.size());
+            // determine start tasks first; tasks may run synchronously
+            List<PreloadTask> startTasks = new ArrayList<PreloadTask>();
+            for (PreloadTask task : tasks)
+            {
+                if (task.isReady())
+                {
+                    startTasks.add(task);
+                }
+            }
+            for (PreloadTask task : startTasks)
+            {
+                submit(task);
+            }
+
+            try
+            {
+                latch.await();
+            }
+            catch (InterruptedException iex)
+            {
+                Thread.currentThread().interrupt();
+                throw new InjectionException(iex);
+            }
+        }
+
+        /**
+         * Passes a task to the executor. If the executor rejects the task, it
+         * is executed directly.
+         *
+         * @param task the task to be executed
+         */
+        public void submit(PreloadTask task)
+        {
+            try
+            {
+                executor.execute(task);
+            }
+            catch (RejectedExecutionException rex)
+            {
+                task.run();
+            }
+        }
+
+        /**
+         * Notifies this object that a task has been completed.
+         */
+        public void taskCompleted()
+        {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * A task for creating a single bean. After the bean has been created,
+     * the tasks depending on it are started if they have no other pending
+     * prerequisites.
+     */
+    private static class PreloadTask implements Runnable
+    {
+        /** The name of the bean to be created. */
+        private final String beanName;
+
+        /** The preload operation. */
+        private final PreloadOperation operation;
+
+        /** A list with the tasks depending on this task. */
+        private final List<PreloadTask> dependents;
+
+        /** The number of tasks that have to be completed before this one. */
+        private final AtomicInteger pendingPrerequisites;
+
+        /**
+         * Creates a new instance of {@code PreloadTask}.
+         *
+         * @param name the name of the bean
+         * @param op the preload operation
+         */
+        public PreloadTask(String name, PreloadOperation op)
+        {
+            beanName = name;
+            operation = op;
+            dependents = new ArrayList<PreloadTask>();
+            pendingPrerequisites = new AtomicInteger();
+        }
+
+        /**
+         * Adds a task which depends on this task.
+         *
+         * @param task the dependent task
+         */
+        public void addDependent(PreloadTask task)
+        {
+            dependents.add(task);
+            task.pendingPrerequisites.incrementAndGet();
+        }
+
+        /**
+         * Returns a flag whether this task can be executed. This is the case
+         * if it does not have any pending prerequisites.
+         *
+         * @return a flag whether this task can be executed
+         */
+        public boolean isReady()
+        {
+            return pendingPrerequisites.get() == 0;
+        }
+
+        /**
+         * Creates the bean and records the time needed. Then the dependent
+         * tasks are notified.
+         */
+        public void run()
+        {
+            try
+            {
+                long start = System.nanoTime();
+                try
+                {
+                    operation.context.getBean(beanName, operation.store);
+                    operation.creationTimes.put(beanName,
+                            System.nanoTime() - start);
+                }
+                catch (RuntimeException rex)
+                {
+                    operation.creationErrors.put(beanName, rex);
+                }
+
+                for (PreloadTask task : dependents)
+                {
+                    if (task.pendingPrerequisites.decrementAndGet() == 0)
+                    {
+                        operation.submit(task);
+                    }
+                }
+            }
+            finally
+            {
+                operation.taskCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+import net.sf.jguiraffe.di.BeanContext;
+import net.sf.jguiraffe.di.BeanGraphReport;
+import net.sf.jguiraffe.di.BeanStore;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.InvocationHelper;
+
+/**
+ * <p>
+ * A utility class providing functionality for analyzing the dependency graph
+ * of the beans managed by a {@link BeanContext}.
+ * </p>
+ * <p>
+ * Problems in bean definitions, e.g. dependencies to beans that do not exist
+ * or cyclic dependencies that prevent the creation of beans, are normally
+ * detected only when a bean is accessed for the first time. With the methods
+ * of this class the dependencies of all beans defined in a {@code BeanStore}
+ * hierarchy can be checked in advance without creating any beans. It is also
+ * possible to create singleton beans ahead of time, e.g. at application
+ * startup, so that the first access to such a bean does not block.
+ * </p>
+ * <p>
+ * The methods of this class work with arbitrary {@code BeanContext}
+ * implementations. For a {@link DefaultBeanContext} (also if it is wrapped by
+ * a {@link BeanContextWrapper}) dependencies are resolved in the same way as
+ * by the context itself. For other implementations dependencies are resolved
+ * using the {@code ClassLoaderProvider} of the context.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class BeanGraphUtils
+{
+    /**
+     * Private constructor so that no instances can be created.
+     */
+    private BeanGraphUtils()
+    {
+    }
+
+    /**
+     * Validates the dependencies of all beans defined in the default bean
+     * store of the given {@code BeanContext}. This is a short cut for calling
+     * {@link #validateBeanGraph(BeanContext, BeanStore)} with the context's
+     * default bean store.
+     *
+     * @param context the {@code BeanContext} (must not be <b>null</b>)
+     * @return a report with the results of the validation
+     * @throws IllegalArgumentException if the context is <b>null</b>
+     * @throws InjectionException if no default bean store is set
+     */
+    public static BeanGraphReport validateBeanGraph(BeanContext context)
+    {
+        checkContext(context);
+        return validateBeanGraph(context, context.getDefaultBeanStore());
+    }
+
+    /**
+     * Validates the dependencies of all beans defined in the specified bean
+     * store and its parents. This method checks whether all dependencies
+     * declared by bean providers can be resolved and whether there are cyclic
+     * dependencies that prevent the creation of beans. Only dependencies
+     * needed for the creation of a bean are taken into account; cycles
+     * caused by dependencies required for the initialization of beans can be
+     * handled by the framework. No beans are created.
+     *
+     * @param context the {@code BeanContext} (must not be <b>null</b>)
+     * @param store the {@code BeanStore} to be validated
+     * @return a report with the results of the validation
+     * @throws IllegalArgumentException if the context is <b>null</b>
+     * @throws InjectionException if the store is <b>null</b>
+     */
+    public static BeanGraphReport validateBeanGraph(BeanContext context,
+            BeanStore store)
+    {
+        return createGraphAnalyzer(context, store).validate();
+    }
+
+    /**
+     * Creates the specified singleton beans from the default bean store of
+     * the given {@code BeanContext} ahead of time. This is a short cut for
+     * calling {@link #preloadSingletons(BeanContext, Collection, BeanStore,
+     * Executor)} with the context's default bean store.
+     *
+     * @param context the {@code BeanContext} (must not be <b>null</b>)
+     * @param beanNames a collection with the names of the beans to be
+     *        created; <b>null</b> means that all singleton beans are created
+     * @param executor the {@code Executor} for creating beans (must not be
+     *        <b>null</b>)
+     * @return a report with the results of the operation
+     * @throws IllegalArgumentException if the context or the {@code Executor}
+     *         is <b>null</b>
+     * @throws InjectionException if no default bean store is set
+     */
+    public static BeanGraphReport preloadSingletons(BeanContext context,
+            Collection<String> beanNames, Executor executor)
+    {
+        checkContext(context);
+        return preloadSingletons(context, beanNames,
+                context.getDefaultBeanStore(), executor);
+    }
+
+    /**
+     * Creates the specified singleton beans from the given bean store ahead
+     * of time. The beans are created in an order that respects their
+     * dependencies; beans independent of each other are created in parallel
+     * using the given {@code Executor}. Each bean is obtained using the
+     * {@code getBean()} method of the {@code BeanContext}, so the normal
+     * transactional behavior applies. This method blocks until all beans have
+     * been processed. The report returned contains the time needed for the
+     * creation of each bean, errors that occurred, and the results of a
+     * validation of the dependency graph.
+     *
+     * @param context the {@code BeanContext} (must not be <b>null</b>)
+     * @param beanNames a collection with the names of the beans to be
+     *        created; <b>null</b> means that all singleton beans are created
+     * @param store the {@code BeanStore} (must not be <b>null</b>)
+     * @param executor the {@code Executor} for creating beans (must not be
+     *        <b>null</b>)
+     * @return a report with the results of the operation
+     * @throws IllegalArgumentException if the context or the {@code Executor}
+     *         is <b>null</b>
+     * @throws InjectionException if the store is <b>null</b>
+     */
+    public static BeanGraphReport preloadSingletons(BeanContext context,
+            Collection<String> beanNames, BeanStore store, Executor executor)
+    {
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("Executor must not be null!");
+        }
+        return createGraphAnalyzer(context, store).preloadSingletons(context,
+                beanNames, executor);
+    }
+
+    /**
+     * Creates the helper object for analyzing the dependency graph of the
+     * given store.
+     *
+     * @param context the {@code BeanContext}
+     * @param store the {@code BeanStore}
+     * @return the analyzer object
+     * @throws IllegalArgumentException if the context is <b>null</b>
+     * @throws InjectionException if the store is <b>null</b>
+     */
+    private static BeanGraphAnalyzer createGraphAnalyzer(BeanContext context,
+            BeanStore store)
+    {
+        checkContext(context);
+        if (store == null)
+        {
+            throw new InjectionException("Store must not be null!");
+        }
+        return new BeanGraphAnalyzer(store, fetchDependencyProvider(context));
+    }
+
+    /**
+     * Determines the {@code DependencyProvider} for resolving the
+     * dependencies of beans managed by the given context. If the context is a
+     * {@code DefaultBeanContext}, possibly hidden behind a number of
+     * wrappers, its internal dependency provider is used. Otherwise, a
+     * provider is created which only supports loading classes.
+     *
+     * @param context the {@code BeanContext}
+     * @return the {@code DependencyProvider} to be used
+     */
+    static DependencyProvider fetchDependencyProvider(BeanContext context)
+    {
+        BeanContext ctx = context;
+        while (ctx instanceof BeanContextWrapper)
+        {
+            ctx = ((BeanContextWrapper) ctx).getWrappedContext();
+        }
+
+        if (ctx instanceof DefaultBeanContext)
+        {
+            return ((DefaultBeanContext) ctx).getInternalDependencyProvider();
+        }
+        return new RestrictedDependencyProvider(
+                context.getClassLoaderProvider(), new InvocationHelper());
+    }
+
+    /**
+     * Checks whether a {@code BeanContext} is defined.
+     *
+     * @param context the context to check
+     * @throws IllegalArgumentException if the context is <b>null</b>
+     */
+    private static void checkContext(BeanContext context)
+    {
+        if (context == null)
+        {
+            throw new IllegalArgumentException(
+                    "BeanContext must not be null!");
+        }
+    }
+}
@@ -19,6 +19,7 @@ import net.sf.jguiraffe.di.BeanProvider;
 import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.Dependency;
 import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.IndexedBeanStore;
 import net.sf.jguiraffe.di.InjectionException;
 
 /**
@@ -62,7 +63,9 @@ public final class ClassDependency implements Dependency
      * iterates over the beans defined in the store. If a bean provider is found
      * whose bean class is either the same or a sub class of the class defined
      * in this dependency, it is returned. Otherwise the parent bean store will
-     * be searched recursively.
+     * be searched recursively. If a store implements the
+     * {@link IndexedBeanStore} interface, it is queried directly rather than
+     * iterating over its beans.
      *
      * @param store the bean store to be searched
      * @param depProvider the dependency provider
@@ -79,13 +82,25 @@ public final class ClassDependency implements Dependency
         }
 
         Class<?> depClass = getDependentClass().getTargetClass(depProvider);
-        for (String n : store.providerNames())
+        if (store instanceof IndexedBeanStore)
         {
-            BeanProvider provider = store.getBeanProvider(n);
-            if (depClass.isAssignableFrom(
-                    provider.getBeanClass(depProvider)))
+            String name = ((IndexedBeanStore) store).findProviderName(
+                    depClass, depProvider);
+            if (name != null)
             {
-                return provider;
+                return store.getBeanProvider(name);
+            }
+        }
+        else
+        {
+            for (String n : store.providerNames())
+            {
+                BeanProvider provider = store.getBeanProvider(n);
+                if (depClass.isAssignableFrom(
+                        provider.getBeanClass(depProvider)))
+                {
+                    return provider;
+                }
             }
         }
 
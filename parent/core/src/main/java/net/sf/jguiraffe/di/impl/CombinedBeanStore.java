@@ -25,6 +25,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import net.sf.jguiraffe.di.BeanProvider;
 import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.ConversionHelper;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.IndexedBeanStore;
 
 /**
  * <p>
@@ -61,7 +63,7 @@ import net.sf.jguiraffe.di.ConversionHelper;
  * @author Oliver Heger
  * @version $Id: CombinedBeanStore.java 205 2012-01-29 18:29:57Z oheger $
  */
-public class CombinedBeanStore implements BeanStore
+public class CombinedBeanStore implements IndexedBeanStore
 {
     /** A counter for generating unique names for combined stores. */
     private static final AtomicLong COUNTER = new AtomicLong();
@@ -248,6 +250,58 @@ public class CombinedBeanStore implements BeanStore
         return result;
     }
 
+    /**
+     * Returns the name of a {@code BeanProvider} whose bean class is
+     * compatible with the given class. This implementation queries the child
+     * stores in order. Child stores implementing the {@code IndexedBeanStore}
+     * interface are asked directly, so their indices are used; other child
+     * stores are searched by iterating over their providers. If the provider
+     * found in a child store is hidden by a provider with the same name in a
+     * child store with a lower index, the whole combined store is searched
+     * without an index, so that the result is consistent with
+     * {@link #getBeanProvider(String)}.
+     *
+     * @param beanClass the class of the bean
+     * @param dependencyProvider the {@code DependencyProvider}
+     * @return the name of a matching provider or <b>null</b>
+     * @since 1.5
+     */
+    public String findProviderName(Class<?> beanClass,
+            DependencyProvider dependencyProvider)
+    {
+        for (BeanStore st : childStores)
+        {
+            String n =
+                    (st instanceof IndexedBeanStore) ? ((IndexedBeanStore) st)
+                            .findProviderName(beanClass, dependencyProvider)
+                            : BeanClassIndex.scan(st, beanClass,
+                                    dependencyProvider);
+            if (n != null)
+            {
+                return (getBeanProvider(n) == st.getBeanProvider(n)) ? n
+                        : BeanClassIndex.scan(this, beanClass,
+                                dependencyProvider);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a set with the classes of all beans defined in this store. This
+     * implementation iterates over all providers which can be accessed from
+     * this store; so providers hidden by a provider with the same name in
+     * another child store are not taken into account.
+     *
+     * @param dependencyProvider the {@code DependencyProvider}
+     * @return a set with the classes of the beans defined in this store
+     * @since 1.5
+     */
+    public Set<Class<?>> beanClasses(DependencyProvider dependencyProvider)
+    {
+        return BeanClassIndex.scanBeanClasses(this, dependencyProvider);
+    }
+
     /**
      * Returns the {@code ConversionHelper} associated with this instance. This
      * implementation iterates over the child stores. The first
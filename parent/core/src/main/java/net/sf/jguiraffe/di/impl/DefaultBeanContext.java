@@ -27,7 +27,9 @@ import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.ClassLoaderProvider;
 import net.sf.jguiraffe.di.Dependency;
 import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.IndexedBeanStore;
 import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
 
 /**
  * <p>
@@ -46,6 +48,19 @@ import net.sf.jguiraffe.di.InjectionException;
  * synchronized access to bean stores in a read-only manner. However the bean
  * stores should not be written at the same time.
  * </p>
+ * <p>
+ * Requests for singleton beans that have already been created are served
+ * without starting a transaction. Such beans do not change any more, so they
+ * can be returned directly without acquiring any locks. This is the most
+ * frequent case in a typical application, and it avoids contention on the
+ * root bean store when many threads query beans concurrently. Only when a bean
+ * actually has to be created the transactional mechanism is used. The lock on
+ * the root bean store is then held only for the short period of time in which
+ * the dependency graph is checked and marked as locked; the creation of beans
+ * takes place outside of this lock. Note that the lock is shared by all
+ * transactions on a store hierarchy; so transactions still have to wait for
+ * each other while dependency graphs are checked.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: DefaultBeanContext.java 205 2012-01-29 18:29:57Z oheger $
@@ -401,13 +416,21 @@ public class DefaultBeanContext implements BeanContext
     protected Object getBean(Dependency dependency, BeanStore store)
     {
         BeanStore root = fetchRootStore(store);
-        DefaultDependencyProvider depProvider = new DefaultDependencyProvider(this);
+        BeanProvider provider = resolveProvider(dependency, store);
+        Object existingBean = fetchExistingSingleton(provider);
+        if (existingBean != null)
+        {
+            return existingBean;
+        }
+
+        DefaultDependencyProvider depProvider =
+                new DefaultDependencyProvider(this);
 
         synchronized (root)
         {
             try
             {
-                while (!depProvider.initialize(dependency, store))
+                while (!depProvider.initialize(dependency, store, provider))
                 {
                     // wait until we can lock all dependent providers
                     waitForTx(root);
@@ -440,8 +463,9 @@ public class DefaultBeanContext implements BeanContext
                 {
                     // unlock dependency graph
                     depProvider.lock(null);
-                    // resume a waiting transaction
-                    root.notify();
+                    // resume waiting transactions; as they may wait for
+                    // different providers, all of them have to be notified
+                    root.notifyAll();
                 }
             }
         }
@@ -528,10 +552,18 @@ public class DefaultBeanContext implements BeanContext
     {
         if (store != null)
         {
-            for (String n : store.providerNames())
+            if (store instanceof IndexedBeanStore)
+            {
+                clsSet.addAll(((IndexedBeanStore) store)
+                        .beanClasses(getInternalDependencyProvider()));
+            }
+            else
             {
-                BeanProvider p = store.getBeanProvider(n);
-                clsSet.add(p.getBeanClass(getInternalDependencyProvider()));
+                for (String n : store.providerNames())
+                {
+                    BeanProvider p = store.getBeanProvider(n);
+                    clsSet.add(p.getBeanClass(getInternalDependencyProvider()));
+                }
             }
             fetchBeanClasses(store.getParent(), clsSet);
         }
@@ -577,6 +609,49 @@ public class DefaultBeanContext implements BeanContext
         }
     }
 
+    /**
+     * Resolves the specified dependency to the {@code BeanProvider} it refers
+     * to. If the store has a valid cached closure for this dependency, the
+     * provider is obtained from there. Otherwise, the dependency is resolved.
+     * The provider is then passed to the transaction, so that the dependency
+     * does not have to be resolved again.
+     *
+     * @param dependency the dependency to be resolved
+     * @param store the current store
+     * @return the {@code BeanProvider} for this dependency
+     * @throws InjectionException if the dependency cannot be resolved
+     */
+    private BeanProvider resolveProvider(Dependency dependency,
+            BeanStore store)
+    {
+        DependencyClosure closure =
+                DefaultDependencyProvider.fetchCachedClosure(dependency, store);
+        if (closure != null)
+        {
+            BeanProvider provider = closure.getDependencyMap().get(dependency);
+            if (provider != null)
+            {
+                return provider;
+            }
+        }
+        return dependency.resolve(store, getInternalDependencyProvider());
+    }
+
+    /**
+     * Checks whether the specified provider is a singleton provider whose bean
+     * has already been created. In this case, the bean can be returned
+     * directly without a transaction. Otherwise, result is <b>null</b>.
+     *
+     * @param provider the provider
+     * @return the existing singleton bean or <b>null</b>
+     */
+    private static Object fetchExistingSingleton(BeanProvider provider)
+    {
+        return (provider instanceof SingletonBeanProvider)
+                ? ((SingletonBeanProvider) provider).getCreatedBean()
+                : null;
+    }
+
     /**
      * Obtains the root store of the given bean store. Navigates through the
      * hierarchy of parent stores until the root is reached. If the passed in
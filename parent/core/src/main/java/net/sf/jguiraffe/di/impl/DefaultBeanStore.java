@@ -21,10 +21,16 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.jguiraffe.di.BeanProvider;
 import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.ConversionHelper;
+import net.sf.jguiraffe.di.Dependency;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.IndexedBeanStore;
 import net.sf.jguiraffe.di.MutableBeanStore;
 
 import org.apache.commons.lang.ObjectUtils;
@@ -41,6 +47,14 @@ import org.apache.commons.lang.ObjectUtils;
  * <code>getBeanProvider</code> method.
  * </p>
  * <p>
+ * Queries for beans of a specific class are supported by an index (see
+ * {@link IndexedBeanStore}). The index is created when it is accessed for the
+ * first time; it is discarded whenever the providers of this store are
+ * changed. In a similar way, the store caches the dependency graphs resolved
+ * by {@link DefaultBeanContext} when beans are requested. A cached graph is
+ * invalidated when this store or one of its parents is changed.
+ * </p>
+ * <p>
  * Note: This implementation is not thread-safe. The underlying map is not
  * synchronized. This does not cause any problems when used read-only by the
  * dependency injection framework. But if bean providers should be concurrently
@@ -54,7 +68,7 @@ import org.apache.commons.lang.ObjectUtils;
  * @author Oliver Heger
  * @version $Id: DefaultBeanStore.java 205 2012-01-29 18:29:57Z oheger $
  */
-public class DefaultBeanStore implements MutableBeanStore
+public class DefaultBeanStore implements MutableBeanStore, IndexedBeanStore
 {
     /** Constant for the prefix used for anonymous bean providers. */
     private static final String PREFIX_ANONYMOUS = "_jguiraffe.anonymousBean_";
@@ -71,12 +85,24 @@ public class DefaultBeanStore implements MutableBeanStore
     /** Stores the name of this bean store. */
     private String name;
 
+    /** The index for class-based lookups; created on demand. */
+    private volatile ClassIndexHolder classIndex;
+
+    /** The cache for the dependency closures resolved on this store. */
+    private final ConcurrentMap<Dependency, DependencyClosure> closureCache;
+
+    /** A counter for the modifications of this store. */
+    private final AtomicLong modificationCount;
+
     /**
      * Creates a new instance of <code>DefaultBeanStore</code>.
      */
     public DefaultBeanStore()
     {
         providers = new HashMap<String, BeanProvider>();
+        closureCache =
+                new ConcurrentHashMap<Dependency, DependencyClosure>();
+        modificationCount = new AtomicLong();
     }
 
     /**
@@ -172,6 +198,7 @@ public class DefaultBeanStore implements MutableBeanStore
         }
 
         providers.put(name, provider);
+        changed();
     }
 
     /**
@@ -203,7 +230,9 @@ public class DefaultBeanStore implements MutableBeanStore
      */
     public BeanProvider removeBeanProvider(String name)
     {
-        return providers.remove(name);
+        BeanProvider provider = providers.remove(name);
+        changed();
+        return provider;
     }
 
     /**
@@ -212,6 +241,7 @@ public class DefaultBeanStore implements MutableBeanStore
     public void clear()
     {
         providers.clear();
+        changed();
     }
 
     /**
@@ -265,6 +295,7 @@ public class DefaultBeanStore implements MutableBeanStore
     public void setParent(BeanStore p)
     {
         parent = p;
+        changed();
     }
 
     /**
@@ -290,6 +321,39 @@ public class DefaultBeanStore implements MutableBeanStore
         return Collections.unmodifiableSet(names);
     }
 
+    /**
+     * Returns the name of a {@code BeanProvider} whose bean class is
+     * compatible with the given class. This implementation uses an index
+     * which is created on first access. Results of queries are cached.
+     *
+     * @param beanClass the class of the bean
+     * @param dependencyProvider the {@code DependencyProvider}
+     * @return the name of a matching provider or <b>null</b>
+     * @since 1.5
+     */
+    public String findProviderName(Class<?> beanClass,
+            DependencyProvider dependencyProvider)
+    {
+        BeanClassIndex index = fetchClassIndex(dependencyProvider);
+        return (index != null) ? index.findProviderName(beanClass)
+                : BeanClassIndex.scan(this, beanClass, dependencyProvider);
+    }
+
+    /**
+     * Returns a set with the classes of all beans defined in this store. The
+     * set is obtained from the index for class-based lookups.
+     *
+     * @param dependencyProvider the {@code DependencyProvider}
+     * @return a set with the classes of the beans defined in this store
+     * @since 1.5
+     */
+    public Set<Class<?>> beanClasses(DependencyProvider dependencyProvider)
+    {
+        BeanClassIndex index = fetchClassIndex(dependencyProvider);
+        return (index != null) ? index.getBeanClasses() : BeanClassIndex
+                .scanBeanClasses(this, dependencyProvider);
+    }
+
     /**
      * Returns a string representation of this object. This implementation
      * returns a string listing all bean providers that belong to this store.
@@ -319,4 +383,140 @@ public class DefaultBeanStore implements MutableBeanStore
         buf.append(" } ]");
         return buf.toString();
     }
+
+    /**
+     * Returns the number of modifications of this store. This counter is
+     * incremented each time bean providers are added or removed or the parent
+     * is changed. It is used to detect whether cached data is still valid.
+     *
+     * @return the modification count
+     */
+    long getModificationCount()
+    {
+        return modificationCount.get();
+    }
+
+    /**
+     * Returns the dependency closure cached for the given dependency. Result
+     * is <b>null</b> if there is no cached closure. Note that the caller has
+     * to check whether the closure is still valid.
+     *
+     * @param dependency the dependency
+     * @return the cached closure or <b>null</b>
+     */
+    DependencyClosure getDependencyClosure(Dependency dependency)
+    {
+        return closureCache.get(dependency);
+    }
+
+    /**
+     * Stores a dependency closure in the cache of this store.
+     *
+     * @param dependency the dependency
+     * @param closure the closure for this dependency
+     */
+    void putDependencyClosure(Dependency dependency, DependencyClosure closure)
+    {
+        closureCache.put(dependency, closure);
+    }
+
+    /**
+     * Notifies this object about a change of its structure. Cached data is
+     * discarded, and the modification count is incremented.
+     */
+    private void changed()
+    {
+        classIndex = null;
+        closureCache.clear();
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the index for class-based lookups, creating it if necessary.
+     * Because the bean classes of the providers are resolved using class
+     * loaders, an index is only valid for the class loaders it was created
+     * with; so it is associated with the {@code ClassLoaderProvider} behind
+     * the passed in {@code DependencyProvider} and created anew if a different
+     * one is used. If the index cannot be created because the class of a
+     * provider cannot be resolved, result is <b>null</b>. The caller then has
+     * to fall back to a search without an index; this ensures that the same
+     * errors are reported as without an index. The failure is remembered, so
+     * that no further attempts to create the index are made until the store
+     * is changed.
+     *
+     * @param dependencyProvider the {@code DependencyProvider}
+     * @return the index or <b>null</b>
+     */
+    private BeanClassIndex fetchClassIndex(
+            DependencyProvider dependencyProvider)
+    {
+        Object key = BeanClassIndex.classLoaderKey(dependencyProvider);
+        ClassIndexHolder holder = classIndex;
+        if (holder == null || holder.getKey() != key)
+        {
+            long modCount = getModificationCount();
+            BeanClassIndex index;
+            try
+            {
+                index = BeanClassIndex.create(this, dependencyProvider);
+            }
+            catch (RuntimeException rex)
+            {
+                index = null;
+            }
+
+            holder = new ClassIndexHolder(key, index);
+            if (modCount == getModificationCount())
+            {
+                classIndex = holder;
+            }
+        }
+        return holder.getIndex();
+    }
+
+    /**
+     * A simple data class which stores the index for class-based lookups
+     * together with the key of the class loaders it was created with. An
+     * undefined index means that the index could not be created.
+     */
+    private static final class ClassIndexHolder
+    {
+        /** The key of the class loaders. */
+        private final Object key;
+
+        /** The index; <b>null</b> if it could not be created. */
+        private final BeanClassIndex index;
+
+        /**
+         * Creates a new instance of {@code ClassIndexHolder}.
+         *
+         * @param k the key of the class loaders
+         * @param idx the index
+         */
+        public ClassIndexHolder(Object k, BeanClassIndex idx)
+        {
+            key = k;
+            index = idx;
+        }
+
+        /**
+         * Returns the key of the class loaders.
+         *
+         * @return the key
+         */
+        public Object getKey()
+        {
+            return key;
+        }
+
+        /**
+         * Returns the index.
+         *
+         * @return the index or <b>null</b>
+         */
+        public BeanClassIndex getIndex()
+        {
+            return index;
+        }
+    }
 }
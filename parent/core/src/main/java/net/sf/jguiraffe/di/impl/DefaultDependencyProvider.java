@@ -15,11 +15,9 @@
  */
 package net.sf.jguiraffe.di.impl;
 
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 
 import net.sf.jguiraffe.di.BeanContext;
@@ -46,6 +44,12 @@ import net.sf.jguiraffe.di.InvocationHelper;
  * suspended.
  * </p>
  * <p>
+ * The dependencies found are stored in a {@link DependencyClosure} object. If
+ * the bean store hierarchy consists only of {@link DefaultBeanStore} objects,
+ * this object is cached by the store, so that later transactions for the same
+ * dependency do not have to resolve the dependency graph again.
+ * </p>
+ * <p>
  * If an instance could be successfully initialized, it allows access to all
  * dependent bean providers - and no more. So the
  * <code>getDependentBean()</code> method can be implemented in a meaningful
@@ -71,6 +75,9 @@ class DefaultDependencyProvider implements DependencyProvider
     /** Stores the resolved dependencies. */
     private Map<Dependency, BeanProvider> dependencyMap;
 
+    /** The closure with the dependencies of the current transaction. */
+    private DependencyClosure closure;
+
     /** A list with the registered bean initializers. */
     private List<BeanInitializer> initializers;
 
@@ -122,7 +129,9 @@ class DefaultDependencyProvider implements DependencyProvider
      * cannot be resolved, a <code>InjectionException</code> exception is
      * thrown. The return value indicates whether all found bean providers are
      * unlocked. If a locked provider is found, the method is aborted, and
-     * <b>false</b> is returned.
+     * <b>false</b> is returned. If a valid closure for this dependency is
+     * cached by the store, it is reused; then only the lock state of the
+     * providers has to be checked.
      *
      * @param dependency the initial dependency to resolve
      * @param store the starting bean store
@@ -131,34 +140,50 @@ class DefaultDependencyProvider implements DependencyProvider
      */
     public boolean initialize(Dependency dependency, BeanStore store)
     {
-        Map<Dependency, BeanProvider> depMap = new HashMap<Dependency, BeanProvider>();
-        Queue<Dependency> q = new LinkedList<Dependency>();
-        q.add(dependency);
+        return initialize(dependency, store, null);
+    }
 
-        while (!q.isEmpty())
+    /**
+     * Initializes this object using an already resolved {@code BeanProvider}
+     * for the initial dependency. This method works like the method with the
+     * same name, but it avoids resolving the initial dependency again if its
+     * provider is already known.
+     *
+     * @param dependency the initial dependency to resolve
+     * @param store the starting bean store
+     * @param provider the provider of the initial dependency (may be
+     *        <b>null</b>, then it is resolved)
+     * @return a flag whether all dependencies can be locked
+     * @throws InjectionException if a dependency cannot be resolved
+     */
+    public boolean initialize(Dependency dependency, BeanStore store,
+            BeanProvider provider)
+    {
+        DependencyClosure depClosure = fetchCachedClosure(dependency, store);
+        if (depClosure != null)
         {
-            Dependency d = q.remove();
-            if (!depMap.containsKey(d))
+            if (depClosure.isLocked())
             {
-                // not yet processed => resolve this dependency
-                BeanProvider provider = d.resolve(store, this);
-                if (provider.getLockID() != null)
-                {
-                    // already locked, initialization fails
-                    return false;
-                }
-                depMap.put(d, provider);
-
-                // Process the dependencies of this provider
-                Set<Dependency> dependencies = provider.getDependencies();
-                if (dependencies != null)
-                {
-                    q.addAll(dependencies);
-                }
+                return false;
+            }
+        }
+        else
+        {
+            depClosure = DependencyClosure.resolve(dependency, provider,
+                    store, this);
+            if (depClosure == null)
+            {
+                return false;
+            }
+            if (depClosure.isCacheable())
+            {
+                ((DefaultBeanStore) store).putDependencyClosure(dependency,
+                        depClosure);
             }
         }
 
-        dependencyMap = depMap;
+        closure = depClosure;
+        dependencyMap = depClosure.getDependencyMap();
         initInvocationHelper(store);
         return true;
     }
@@ -184,10 +209,7 @@ class DefaultDependencyProvider implements DependencyProvider
      */
     public void lock(Long lockID)
     {
-        for (BeanProvider p : getDependencyMap().values())
-        {
-            p.setLockID(lockID);
-        }
+        closure.lock(lockID);
     }
 
     /**
@@ -406,6 +428,30 @@ class DefaultDependencyProvider implements DependencyProvider
         return dependencyMap;
     }
 
+    /**
+     * Returns a valid closure for the given dependency cached by the store.
+     * If the store does not support caching or has no valid closure, result
+     * is <b>null</b>.
+     *
+     * @param dependency the dependency
+     * @param store the store
+     * @return the cached closure or <b>null</b>
+     */
+    static DependencyClosure fetchCachedClosure(Dependency dependency,
+            BeanStore store)
+    {
+        if (store instanceof DefaultBeanStore)
+        {
+            DependencyClosure c =
+                    ((DefaultBeanStore) store).getDependencyClosure(dependency);
+            if (c != null && c.isValid())
+            {
+                return c;
+            }
+        }
+        return null;
+    }
+
     /**
      * Convenience method for obtaining the class loader provider from the
      * associated bean context.
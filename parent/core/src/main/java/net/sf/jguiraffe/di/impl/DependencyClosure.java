@@ -0,0 +1,330 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import net.sf.jguiraffe.di.BeanProvider;
+import net.sf.jguiraffe.di.BeanStore;
+import net.sf.jguiraffe.di.Dependency;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
+
+/**
+ * <p>
+ * An internally used helper class which stores the transitive closure of the
+ * dependencies of a bean.
+ * </p>
+ * <p>
+ * When a bean is requested from a {@link DefaultBeanContext} all bean
+ * providers the bean depends on (directly or indirectly) have to be
+ * determined and locked. An instance of this class stores the result of this
+ * operation: a map which assigns the resolved {@code BeanProvider} to each
+ * {@link Dependency}, and the set of providers to be locked. Because
+ * resolving the dependency graph is expensive for beans with many
+ * dependencies, instances are cached by {@link DefaultBeanStore} if the
+ * whole store hierarchy consists of {@code DefaultBeanStore} objects. An
+ * instance records the modification counts of all stores in the hierarchy at
+ * the time it was created. When one of these stores is changed, the instance
+ * becomes invalid and has to be created anew.
+ * </p>
+ * <p>
+ * The dependencies of a {@link SingletonBeanProvider} change when its bean is
+ * created: from then on, it does not depend on other providers any more.
+ * Therefore, an instance also records the state of all singleton providers it
+ * contains; if one of them has changed, the instance is invalid, too.
+ * Otherwise, the closure could contain providers which are no longer needed,
+ * and which would then be locked unnecessarily.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between multiple transactions.
+ * </p>
+ *
+ * @since 1.5
+ */
+final class DependencyClosure
+{
+    /** The map with the resolved dependencies. */
+    private final Map<Dependency, BeanProvider> dependencyMap;
+
+    /** An array with the providers affected by a transaction. */
+    private final BeanProvider[] providers;
+
+    /** The stores of the hierarchy the closure was resolved in. */
+    private final DefaultBeanStore[] stores;
+
+    /** The modification counts of the stores at creation time. */
+    private final long[] modificationCounts;
+
+    /** The singleton providers contained in this closure. */
+    private final SingletonBeanProvider[] singletons;
+
+    /** The creation state of the singleton providers at creation time. */
+    private final boolean[] singletonStates;
+
+    /**
+     * Creates a new instance of {@code DependencyClosure}.
+     *
+     * @param depMap the map with the resolved dependencies
+     * @param chain the stores of the hierarchy (may be <b>null</b>)
+     */
+    private DependencyClosure(Map<Dependency, BeanProvider> depMap,
+            DefaultBeanStore[] chain)
+    {
+        dependencyMap = Collections.unmodifiableMap(depMap);
+        Map<BeanProvider, Boolean> unique =
+                new IdentityHashMap<BeanProvider, Boolean>();
+        for (BeanProvider p : depMap.values())
+        {
+            unique.put(p, Boolean.TRUE);
+        }
+        providers = unique.keySet().toArray(new BeanProvider[unique.size()]);
+
+        List<SingletonBeanProvider> singletonList =
+                new ArrayList<SingletonBeanProvider>();
+        for (BeanProvider p : providers)
+        {
+            if (p instanceof SingletonBeanProvider)
+            {
+                singletonList.add((SingletonBeanProvider) p);
+            }
+        }
+        singletons =
+                singletonList.toArray(new SingletonBeanProvider[singletonList
+                        .size()]);
+        singletonStates = new boolean[singletons.length];
+        for (int i = 0; i < singletons.length; i++)
+        {
+            singletonStates[i] = isCreated(singletons[i]);
+        }
+
+        stores = chain;
+        if (chain != null)
+        {
+            modificationCounts = new long[chain.length];
+            for (int i = 0; i < chain.length; i++)
+            {
+                modificationCounts[i] = chain[i].getModificationCount();
+            }
+        }
+        else
+        {
+            modificationCounts = null;
+        }
+    }
+
+    /**
+     * Resolves the dependency graph of the specified {@code Dependency}. The
+     * graph is traversed breadth-first; each dependency found is resolved on
+     * the given store. If one of the providers encountered is locked by
+     * another transaction, the operation is aborted, and result is
+     * <b>null</b>. Otherwise, a new instance is returned. If the store
+     * hierarchy can be cached, the modification counts of the stores are
+     * recorded.
+     *
+     * @param dependency the root dependency
+     * @param store the {@code BeanStore}
+     * @param depProvider the {@code DependencyProvider}
+     * @return the closure or <b>null</b> if a provider is locked
+     * @throws net.sf.jguiraffe.di.InjectionException if a dependency cannot
+     *         be resolved
+     */
+    public static DependencyClosure resolve(Dependency dependency,
+            BeanStore store, DependencyProvider depProvider)
+    {
+        return resolve(dependency, null, store, depProvider);
+    }
+
+    /**
+     * Resolves the dependency graph of the specified {@code Dependency} using
+     * an already known {@code BeanProvider} for the root dependency. This
+     * method works like the method with the same name, but the root
+     * dependency is not resolved again if its provider is passed in.
+     *
+     * @param dependency the root dependency
+     * @param rootProvider the provider of the root dependency (may be
+     *        <b>null</b>, then it is resolved)
+     * @param store the {@code BeanStore}
+     * @param depProvider the {@code DependencyProvider}
+     * @return the closure or <b>null</b> if a provider is locked
+     * @throws net.sf.jguiraffe.di.InjectionException if a dependency cannot
+     *         be resolved
+     */
+    public static DependencyClosure resolve(Dependency dependency,
+            BeanProvider rootProvider, BeanStore store,
+            DependencyProvider depProvider)
+    {
+        Map<Dependency, BeanProvider> depMap =
+                new HashMap<Dependency, BeanProvider>();
+        Queue<Dependency> q = new LinkedList<Dependency>();
+        q.add(dependency);
+
+        while (!q.isEmpty())
+        {
+            Dependency d = q.remove();
+            if (!depMap.containsKey(d))
+            {
+                // not yet processed => resolve this dependency
+                BeanProvider provider = (d == dependency) ? rootProvider : null;
+                if (provider == null)
+                {
+                    provider = d.resolve(store, depProvider);
+                }
+                if (provider.getLockID() != null)
+                {
+                    // already locked, initialization fails
+                    return null;
+                }
+                depMap.put(d, provider);
+
+                // Process the dependencies of this provider
+                Set<Dependency> dependencies = provider.getDependencies();
+                if (dependencies != null)
+                {
+                    q.addAll(dependencies);
+                }
+            }
+        }
+
+        return new DependencyClosure(depMap, storeChain(store));
+    }
+
+    /**
+     * Returns the stores of the hierarchy starting with the given store if
+     * closures resolved in this hierarchy can be cached. This is the case if
+     * all stores are of type {@code DefaultBeanStore}. Otherwise, result is
+     * <b>null</b>.
+     *
+     * @param store the store
+     * @return an array with the stores of the hierarchy or <b>null</b>
+     */
+    static DefaultBeanStore[] storeChain(BeanStore store)
+    {
+        List<DefaultBeanStore> chain = new ArrayList<DefaultBeanStore>();
+        for (BeanStore st = store; st != null; st = st.getParent())
+        {
+            if (!(st instanceof DefaultBeanStore))
+            {
+                return null;
+            }
+            chain.add((DefaultBeanStore) st);
+        }
+        return chain.toArray(new DefaultBeanStore[chain.size()]);
+    }
+
+    /**
+     * Returns an unmodifiable map with the resolved dependencies.
+     *
+     * @return the dependency map
+     */
+    public Map<Dependency, BeanProvider> getDependencyMap()
+    {
+        return dependencyMap;
+    }
+
+    /**
+     * Returns a flag whether this closure can be cached. This is the case if
+     * the modification counts of the involved stores could be recorded.
+     *
+     * @return a flag whether this closure can be cached
+     */
+    public boolean isCacheable()
+    {
+        return stores != null;
+    }
+
+    /**
+     * Returns a flag whether this closure is still valid. This method checks
+     * whether one of the stores of the hierarchy or the state of one of the
+     * singleton providers has been changed since this object was created.
+     *
+     * @return a flag whether this closure is valid
+     */
+    public boolean isValid()
+    {
+        if (stores == null)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < stores.length; i++)
+        {
+            if (stores[i].getModificationCount() != modificationCounts[i])
+            {
+                return false;
+            }
+        }
+        for (int i = 0; i < singletons.length; i++)
+        {
+            if (isCreated(singletons[i]) != singletonStates[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a flag whether one of the providers of this closure is locked
+     * by a transaction.
+     *
+     * @return a flag whether this closure is locked
+     */
+    public boolean isLocked()
+    {
+        for (BeanProvider p : providers)
+        {
+            if (p.getLockID() != null)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the specified singleton provider has already created its
+     * bean.
+     *
+     * @param provider the provider
+     * @return a flag whether the bean of this provider has been created
+     */
+    private static boolean isCreated(SingletonBeanProvider provider)
+    {
+        return provider.getCreatedBean() != null;
+    }
+
+    /**
+     * Sets the lock ID of all providers of this closure.
+     *
+     * @param lockID the lock ID (<b>null</b> for unlocking)
+     */
+    public void lock(Long lockID)
+    {
+        for (BeanProvider p : providers)
+        {
+            p.setLockID(lockID);
+        }
+    }
+}
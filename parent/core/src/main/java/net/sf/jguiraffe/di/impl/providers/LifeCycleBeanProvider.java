@@ -108,8 +108,11 @@ public abstract class LifeCycleBeanProvider implements BeanProvider,
     /** A flag whether a bean is currently created. */
     private boolean creating;
 
-    /** A flag whether a bean instance has been successfully created. */
-    private volatile boolean instanceCreated;
+    /**
+     * Stores the bean instance after it has been successfully created and
+     * initialized. This field can be read without a transaction.
+     */
+    private volatile Object initializedBean;
 
     /**
      * Creates a new instance of {@code LifeCycleBeanProvider} and
@@ -277,7 +280,7 @@ public abstract class LifeCycleBeanProvider implements BeanProvider,
             Object initBean =
                     fetchInitializedBeanInstance(bean, dependencyProvider);
             bean = initBean;
-            instanceCreated = true;
+            initializedBean = initBean;
         }
         finally
         {
@@ -350,7 +353,7 @@ public abstract class LifeCycleBeanProvider implements BeanProvider,
 
                 if (canInit)
                 {
-                    instanceCreated = true;
+                    initializedBean = bean;
                 }
             }
             finally
@@ -418,7 +421,22 @@ public abstract class LifeCycleBeanProvider implements BeanProvider,
      */
     protected boolean hasBean()
     {
-        return instanceCreated;
+        return initializedBean != null;
+    }
+
+    /**
+     * Returns the bean instance if it has already been created and fully
+     * initialized; otherwise, result is <b>null</b>. In contrast to
+     * {@code fetchBean()}, this method never creates a new bean. It reads the
+     * bean reference only once, so it can be called safely without an
+     * enclosing transaction even if the bean is concurrently reset.
+     *
+     * @return the fully initialized bean instance or <b>null</b>
+     * @since 1.5
+     */
+    protected Object getInitializedBean()
+    {
+        return initializedBean;
     }
 
     /**
@@ -429,7 +447,7 @@ public abstract class LifeCycleBeanProvider implements BeanProvider,
     protected void resetBean()
     {
         bean = null;
-        instanceCreated = false;
+        initializedBean = null;
     }
 
     /**
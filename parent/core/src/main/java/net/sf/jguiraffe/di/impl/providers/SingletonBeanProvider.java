@@ -130,6 +130,22 @@ public class SingletonBeanProvider extends LifeCycleBeanProvider
         return fetchBean(dependencyProvider);
     }
 
+    /**
+     * Returns the bean managed by this provider if it has already been created
+     * and fully initialized. Otherwise, result is <b>null</b>. Once a singleton
+     * bean is available, it does not change any more. So this method can be
+     * called safely without an enclosing transaction. It is used by the bean
+     * context to serve requests for already existing singletons without
+     * acquiring any locks.
+     *
+     * @return the managed bean if it is already available or <b>null</b>
+     * @since 1.5
+     */
+    public Object getCreatedBean()
+    {
+        return getInitializedBean();
+    }
+
     /**
      * Returns the dependencies of this bean provider. If already a bean has
      * been created, this implementation returns <b>null</b> because there is
@@ -17,6 +17,10 @@ package net.sf.jguiraffe.gui.app;
 
 import javax.swing.event.EventListenerList;
 import java.awt.Rectangle;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,6 +28,11 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -137,6 +146,14 @@ import org.apache.commons.logging.LogFactory;
  * elements can be specified. Each {@code beandefinition} element points to
  * a script with bean definitions. These scripts will be processed by the
  * default bean builder.</dd>
+ * <dt>{@code beanDefinitionThreads}</dt>
+ * <dd>An optional number of threads to be used for processing the scripts
+ * listed in the {@code beandefinitions} section. If a value greater than 1 is
+ * specified, the scripts are processed concurrently, which can speed up the
+ * startup of applications with many bean definition files. The resulting bean
+ * stores are then installed in the order of the scripts, so the outcome is
+ * the same as for sequential processing. Per default, scripts are processed
+ * one after the other.</dd>
  * <dt>{@code menuIcon}</dt>
  * <dd>An optional boolean flag that determines whether menu items should be
  * rendered with an icon if one is defined. Note that this may not work on all
@@ -185,6 +202,22 @@ import org.apache.commons.logging.LogFactory;
  * default <em>userConfig</em> will be used.</td>
  * <td valign="top">Yes</td>
  * </tr>
+ * <tr>
+ * <td valign="top">startupstatistics</td>
+ * <td>In this section it can be specified what to do with the
+ * {@link StartupStatistics} collected while the application starts up:
+ * <dl>
+ * <dt>{@code log}</dt>
+ * <dd>A boolean flag whether the statistics should be written to the log (as
+ * JSON string) after the main window has been shown. The default value is
+ * <b>false</b>.</dd>
+ * <dt>{@code file}</dt>
+ * <dd>The name of a file to which the statistics should be written in JSON
+ * format.</dd>
+ * </dl>
+ * </td>
+ * <td valign="top">Yes</td>
+ * </tr>
  * </table>
  * </p>
  * <p>
@@ -256,6 +289,14 @@ public class Application
     public static final String BEAN_GUI_SYNCHRONIZER = BEAN_PREFIX
             + "guiSynchronizer";
 
+    /**
+     * Constant for the name of the component manager bean.
+     *
+     * @since 1.5
+     */
+    public static final String BEAN_COMPONENT_MANAGER = BEAN_PREFIX
+            + "componentManager";
+
     /** Constant for the name of the binding strategy bean. */
     public static final String BEAN_BINDING_STRATEGY = BEAN_PREFIX
             + "bindingStrategy";
@@ -299,6 +340,15 @@ public class Application
     public static final String PROP_BEAN_DEFS = BUILDER_SECTION
             + "beandefinitions.beandefinition";
 
+    /**
+     * Constant for the property with the number of threads for processing
+     * bean definitions.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_BEAN_DEFS_THREADS = BUILDER_SECTION
+            + "beanDefinitionThreads";
+
     /** Constant for the builder menu icon property. */
     public static final String PROP_BUILDER_MENU_ICON = BUILDER_SECTION
             + "menuIcon";
@@ -334,6 +384,75 @@ public class Application
     public static final String PROP_USRCONFNAME = CONFIG_SECTION
             + "userconfigname";
 
+    /**
+     * Constant for the property whether startup statistics are to be logged.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_STARTUP_STATS_LOG = CONFIG_SECTION
+            + "startupstatistics.log";
+
+    /**
+     * Constant for the property with the file to which startup statistics are
+     * written.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_STARTUP_STATS_FILE = CONFIG_SECTION
+            + "startupstatistics.file";
+
+    /**
+     * Constant for the warm-up section in the configuration file.
+     *
+     * @since 1.5
+     */
+    public static final String WARMUP_SECTION = CONFIG_SECTION + "warmup.";
+
+    /**
+     * Constant for the property with the names of resource groups to be
+     * preloaded during startup.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_WARMUP_RESOURCE_GROUPS = WARMUP_SECTION
+            + "resourcegroups.group";
+
+    /**
+     * Constant for the property with the class path resources of icons to be
+     * preloaded during startup.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_WARMUP_ICONS = WARMUP_SECTION
+            + "icons.icon";
+
+    /**
+     * Constant for the property with the names of beans to be resolved during
+     * startup.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_WARMUP_BEANS = WARMUP_SECTION
+            + "beans.bean";
+
+    /**
+     * Constant for the property with the names of singleton beans to be
+     * created in parallel during startup.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_WARMUP_SINGLETONS = WARMUP_SECTION
+            + "singletons.singleton";
+
+    /**
+     * Constant for the property which determines whether the dependency graph
+     * of the global bean context is validated during startup.
+     *
+     * @since 1.5
+     */
+    public static final String PROP_WARMUP_VALIDATE_BEANS = WARMUP_SECTION
+            + "validateBeans";
+
     /** Constant for the name of the user configuration. */
     public static final String USRCONF_NAME = "userConfig";
 
@@ -347,6 +466,9 @@ public class Application
     public static final String CLASS_LOADER = BEAN_PREFIX
             + "Application.classLoader";
 
+    /** Constant for the encoding of the file with startup statistics. */
+    private static final String STATISTICS_ENCODING = "UTF-8";
+
     /** Constant for the default bean builder factory class. */
     private static final Class<?> DEF_BEAN_BUILDER_FACTORY_CLS = JellyBeanBuilderFactory.class;
 
@@ -410,12 +532,18 @@ public class Application
     /** A flag whether the application has already been shutdown. */
     private final AtomicBoolean shutdownFlag;
 
+    /** The object for collecting statistics about the startup. */
+    private final StartupStatistics startupStatistics;
+
     /** Stores the bean context of the main window. */
     private BeanContext mainWindowBeanContext;
 
     /** The exit code of this application. */
     private int exitCode;
 
+    /** The number of threads for processing bean definitions. */
+    private int beanDefinitionThreads;
+
     /** A flag whether the user configuration has been changed. */
     private volatile boolean userConfigChanged;
 
@@ -440,6 +568,7 @@ public class Application
         beanBuilderResults = new ArrayList<BeanBuilderResult>();
         exitHandler = new AtomicReference<Runnable>();
         shutdownFlag = new AtomicBoolean();
+        startupStatistics = new StartupStatistics();
     }
 
     /**
@@ -531,6 +660,52 @@ public class Application
         this.beanBuilderFactory = beanBuilderFactory;
     }
 
+    /**
+     * Returns the object with statistics about the startup of this
+     * application. Here the durations of the single startup phases are
+     * recorded.
+     *
+     * @return the {@code StartupStatistics} of this application
+     * @since 1.5
+     */
+    public StartupStatistics getStartupStatistics()
+    {
+        return startupStatistics;
+    }
+
+    /**
+     * Returns the number of threads to be used for processing bean definition
+     * files.
+     *
+     * @return the number of threads for processing bean definitions
+     * @since 1.5
+     */
+    public int getBeanDefinitionThreads()
+    {
+        return beanDefinitionThreads;
+    }
+
+    /**
+     * Sets the number of threads to be used for processing bean definition
+     * files. If a value greater than 1 is set, the files returned by
+     * {@link #findBeanDefinitions(Configuration, BeanContext)} are processed
+     * concurrently. Note that in this case
+     * {@link #readBeanDefinition(Locator, MutableBeanStore, ClassLoaderProvider)}
+     * is called on multiple threads. The bean stores created for the files
+     * are installed in the global bean context in the original order, so the
+     * resulting bean context does not differ from the one created by
+     * sequential processing. Per default, this property is 0, which means
+     * that bean definitions are processed sequentially. The property can also
+     * be set in the application's configuration.
+     *
+     * @param threads the number of threads for processing bean definitions
+     * @since 1.5
+     */
+    public void setBeanDefinitionThreads(int threads)
+    {
+        beanDefinitionThreads = threads;
+    }
+
     /**
      * Registers the specified object as a shutdown listeners.
      *
@@ -709,13 +884,21 @@ public class Application
      */
     protected ApplicationContext createApplicationContext()
     {
+        StartupStatistics.PhaseTimer timer =
+                getStartupStatistics().startPhase(
+                        StartupStatistics.PHASE_APPLICATION_CONTEXT);
+        StartupStatistics.PhaseTimer configTimer =
+                getStartupStatistics().startPhase(
+                        StartupStatistics.PHASE_CONFIGURATION);
         HierarchicalConfiguration config = createConfiguration();
+        configTimer.stop();
         setBeanBuilderFactory(createBeanBuilderFactory(config));
         BeanContext beanContext = initBeans(config);
         ApplicationContext appContext = (ApplicationContext) beanContext
                 .getBean(BEAN_APPLICATION_CONTEXT);
         registerUserConfigChangeListener(appContext);
 
+        timer.stop();
         return appContext;
     }
 
@@ -854,15 +1037,23 @@ public class Application
      * evaluated. Finally a bean context is created allowing access to all beans
      * defined this way. This algorithm allows concrete applications to define
      * their own beans in an easy way and also to override standard beans used
-     * by the framework.
+     * by the framework. The additional definition files can be processed
+     * concurrently; this is controlled by the
+     * {@code framework.builder.beanDefinitionThreads} configuration property.
      *
      * @param config the main configuration source
      * @return the global bean context
      */
     protected BeanContext initBeans(Configuration config)
     {
+        if (config.containsKey(PROP_BEAN_DEFS_THREADS))
+        {
+            setBeanDefinitionThreads(config.getInt(PROP_BEAN_DEFS_THREADS));
+        }
+
         // Initialize global bean context
         BeanContext context = new DefaultBeanContext();
+        context.addBeanCreationListener(getStartupStatistics());
         rootBeanStore = createRootStore(config);
         addBeanDuringApplicationStartup(BEAN_GLOBAL_CONTEXT, context);
         context.setDefaultBeanStore(rootBeanStore);
@@ -872,9 +1063,13 @@ public class Application
                 null));
 
         // Initialize the class loader provider
+        StartupStatistics.PhaseTimer timer =
+                getStartupStatistics().startPhase(
+                        StartupStatistics.PHASE_CLASS_LOADER_PROVIDER);
         ClassLoaderProvider clp = (ClassLoaderProvider) context
                 .getBean(BEAN_CLASS_LOADER_PROVIDER);
         ClassLoaderProvider clpInit = initClassLoaderProvider(clp);
+        timer.stop();
         if (clp != clpInit)
         {
             // the init method replaces the class loader provider
@@ -941,7 +1136,8 @@ public class Application
      * A convenience method for processing a file with bean definitions. A new
      * bean builder will be created, which processes the passed in script. The
      * defined beans are stored in the specified root store. Occurring builder
-     * exceptions are re-thrown as runtime exceptions.
+     * exceptions are re-thrown as runtime exceptions. The time needed for
+     * processing the script is recorded in the {@link StartupStatistics}.
      *
      * @param script defines the script with the bean definitions
      * @param rootStore the root store for storing the results
@@ -953,6 +1149,9 @@ public class Application
     protected BeanBuilderResult readBeanDefinition(Locator script,
             MutableBeanStore rootStore, ClassLoaderProvider loaderProvider)
     {
+        StartupStatistics.PhaseTimer timer =
+                getStartupStatistics().startPhase(
+                        StartupStatistics.PHASE_BEAN_DEFINITION_PREFIX + script);
         try
         {
             return getBeanBuilderFactory().getBeanBuilder().build(script,
@@ -963,6 +1162,10 @@ public class Application
             throw new ApplicationRuntimeException(
                     "Error when processing script " + script, bex);
         }
+        finally
+        {
+            timer.stop();
+        }
     }
 
     /**
@@ -1094,7 +1297,8 @@ public class Application
     }
 
     /**
-     * Processes a list of bean definitions.
+     * Processes a list of bean definitions. If multiple threads are
+     * configured, the bean definitions are processed concurrently.
      *
      * @param defs the list with the bean definitions (can be <b>null</b>)
      * @param context the global context
@@ -1105,13 +1309,71 @@ public class Application
     {
         if (defs != null)
         {
-            for (Locator l : defs)
+            if (getBeanDefinitionThreads() > 1 && defs.size() > 1)
+            {
+                processBeanDefinitionsConcurrently(defs, context, clp);
+            }
+            else
             {
-                processBeanDefinition(l, context, clp);
+                for (Locator l : defs)
+                {
+                    processBeanDefinition(l, context, clp);
+                }
             }
         }
     }
 
+    /**
+     * Processes a list of bean definitions concurrently. Each script is
+     * processed by a task executed by a thread pool; it populates its own bean
+     * store. The stores are then installed in the bean context in the order
+     * of the scripts. If an error occurs, the exception of the first failed
+     * script is thrown.
+     *
+     * @param defs the list with the bean definitions
+     * @param context the global context
+     * @param clp the class loader provider
+     * @throws ApplicationRuntimeException if an error occurs
+     */
+    void processBeanDefinitionsConcurrently(Collection<Locator> defs,
+            BeanContext context, final ClassLoaderProvider clp)
+    {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(Math.min(
+                        getBeanDefinitionThreads(), defs.size()));
+        try
+        {
+            List<DefaultBeanStore> stores =
+                    new ArrayList<DefaultBeanStore>(defs.size());
+            List<Future<BeanBuilderResult>> results =
+                    new ArrayList<Future<BeanBuilderResult>>(defs.size());
+            for (final Locator script : defs)
+            {
+                final DefaultBeanStore store = new DefaultBeanStore();
+                stores.add(store);
+                results.add(executor.submit(new Callable<BeanBuilderResult>()
+                {
+                    public BeanBuilderResult call()
+                    {
+                        return readBeanDefinition(script, store, clp);
+                    }
+                }));
+            }
+
+            Iterator<DefaultBeanStore> itStores = stores.iterator();
+            for (Future<BeanBuilderResult> result : results)
+            {
+                beanBuilderResults.add(fetchBeanBuilderResult(result));
+                ApplicationContextImpl.installBeanStore(context,
+                        itStores.next());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Returns a collection with the {@code BeanBuilderResult} objects that were
      * created during initialization of the application. These objects must be
@@ -1143,7 +1405,11 @@ public class Application
             {
                 Builder builder = appCtx.newBuilder();
                 ApplicationBuilderData builderData = appCtx.initBuilderData();
+                StartupStatistics.PhaseTimer timer =
+                        getStartupStatistics().startPhase(
+                                StartupStatistics.PHASE_MAIN_SCRIPT);
                 Window mainWindow = builder.buildWindow(scriptLocator, builderData);
+                timer.stop();
                 if (mainWindow != null)
                 {
                     appCtx.setMainWindow(mainWindow);
@@ -1567,10 +1833,128 @@ public class Application
     {
         applicationContext = createApplicationContext();
         setCommandQueue(createCommandQueue(applicationContext));
+        StartupStatistics.PhaseTimer timer =
+                getStartupStatistics().startPhase(
+                        StartupStatistics.PHASE_INIT_GUI);
         initGUI(applicationContext);
+        timer.stop();
+        warmUp(applicationContext);
         if (applicationContext.getMainWindow() != null)
         {
+            timer =
+                    getStartupStatistics().startPhase(
+                            StartupStatistics.PHASE_SHOW_MAIN_WINDOW);
             showMainWindow(applicationContext.getMainWindow());
+            timer.stop();
+        }
+        applicationContext.getBeanContext().removeBeanCreationListener(
+                getStartupStatistics());
+        outputStartupStatistics(applicationContext.getConfiguration());
+    }
+
+    /**
+     * Starts the warm-up phase of this application. This method is called by
+     * {@link #run()} after the main GUI has been created and before the main
+     * window is shown. It obtains a warm-up command from
+     * {@link #createWarmUpCommand(ApplicationContext)}. If one is returned, it
+     * is passed to the command queue, so that it is executed in a background
+     * thread.
+     *
+     * @param appCtx the application context
+     * @since 1.5
+     */
+    protected void warmUp(ApplicationContext appCtx)
+    {
+        Command cmd = createWarmUpCommand(appCtx);
+        if (cmd != null)
+        {
+            getCommandQueue().execute(cmd);
+        }
+    }
+
+    /**
+     * Creates the command for the warm-up phase of this application. This
+     * implementation evaluates the properties in the {@code warmup} section of
+     * the configuration: the resource groups listed there are preloaded for
+     * the current locale, the icons (specified as class path resources) are
+     * created, and the beans are resolved from the global bean context. In
+     * addition, singleton beans can be created in parallel, and the
+     * dependency graph of the global bean context can be validated. If no
+     * warm-up is configured, result is <b>null</b>. Derived classes can
+     * override this method to define a different warm-up behavior.
+     *
+     * @param appCtx the application context
+     * @return the warm-up command or <b>null</b> if there is nothing to do
+     * @since 1.5
+     */
+    protected Command createWarmUpCommand(ApplicationContext appCtx)
+    {
+        Configuration config = appCtx.getConfiguration();
+        List<?> groups = config.getList(PROP_WARMUP_RESOURCE_GROUPS);
+        List<Locator> icons = new ArrayList<Locator>();
+        for (Object icon : config.getList(PROP_WARMUP_ICONS))
+        {
+            icons.add(cpLocator(String.valueOf(icon)));
+        }
+        List<String> beans = new ArrayList<String>();
+        for (Object bean : config.getList(PROP_WARMUP_BEANS))
+        {
+            beans.add(String.valueOf(bean));
+        }
+        List<String> singletons = new ArrayList<String>();
+        for (Object bean : config.getList(PROP_WARMUP_SINGLETONS))
+        {
+            singletons.add(String.valueOf(bean));
+        }
+        boolean validate = config.getBoolean(PROP_WARMUP_VALIDATE_BEANS, false);
+
+        if (groups.isEmpty() && icons.isEmpty() && beans.isEmpty()
+                && singletons.isEmpty() && !validate)
+        {
+            return null;
+        }
+        return new WarmUpCommand(appCtx, groups, icons, beans, singletons,
+                validate);
+    }
+
+    /**
+     * Outputs the statistics collected during the startup of this
+     * application. This method is called at the end of {@link #run()}.
+     * Depending on the settings in the passed in configuration, the
+     * statistics are written to the log or to a file.
+     *
+     * @param config the configuration of this application
+     */
+    protected void outputStartupStatistics(Configuration config)
+    {
+        String json = getStartupStatistics().toJSON();
+        if (config.getBoolean(PROP_STARTUP_STATS_LOG, false))
+        {
+            log.info("Startup statistics: " + json);
+        }
+
+        String fileName = config.getString(PROP_STARTUP_STATS_FILE);
+        if (fileName != null)
+        {
+            try
+            {
+                Writer out =
+                        new OutputStreamWriter(new FileOutputStream(fileName),
+                                STATISTICS_ENCODING);
+                try
+                {
+                    out.write(json);
+                }
+                finally
+                {
+                    out.close();
+                }
+            }
+            catch (IOException ioex)
+            {
+                log.warn("Could not write startup statistics to " + fileName,
+                        ioex);
+            }
         }
     }
 
@@ -1809,6 +2193,38 @@ public class Application
         }
     }
 
+    /**
+     * Obtains the result of a task which has processed a bean definition
+     * file. Exceptions are re-thrown as runtime exceptions.
+     *
+     * @param future the future of the task
+     * @return the result of the bean builder
+     * @throws ApplicationRuntimeException if the task failed
+     */
+    private static BeanBuilderResult fetchBeanBuilderResult(
+            Future<BeanBuilderResult> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApplicationRuntimeException(
+                    "Interrupted when processing bean definitions", iex);
+        }
+        catch (ExecutionException eex)
+        {
+            if (eex.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) eex.getCause();
+            }
+            throw new ApplicationRuntimeException(
+                    "Error when processing bean definitions", eex.getCause());
+        }
+    }
+
     /**
      * Adds a bean to a bean store. This implementation creates a constant bean
      * provider for the specified bean.
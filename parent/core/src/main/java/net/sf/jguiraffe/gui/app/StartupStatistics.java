@@ -0,0 +1,410 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jguiraffe.di.BeanCreationEvent;
+import net.sf.jguiraffe.di.BeanCreationListener;
+
+/**
+ * <p>
+ * A class for collecting timing information about the startup of an
+ * application.
+ * </p>
+ * <p>
+ * The startup of a JGUIraffe application consists of multiple phases, e.g.
+ * loading the configuration, processing bean definition files, or executing
+ * the builder script for the main window. An instance of this class is
+ * maintained by {@link Application}. It records the duration of each of these
+ * phases, so that it can be found out where the time is spent. In addition,
+ * this class implements the {@code BeanCreationListener} interface; it is
+ * registered at the global bean context during startup and counts the beans
+ * which are created. For each phase the number of beans created while the
+ * phase was active is recorded. (If phases are executed concurrently, e.g.
+ * when bean definition files are processed in parallel, the number of beans
+ * cannot be assigned exactly to a phase.)
+ * </p>
+ * <p>
+ * A phase is measured by calling {@link #startPhase(String)} at its
+ * beginning and invoking the {@code stop()} method of the returned
+ * {@link PhaseTimer} at its end. The recorded phases can be queried using
+ * the {@link #getPhases()} method. There is also a {@link #toJSON()} method
+ * which produces a JSON representation of the data collected so far. This
+ * can be written to a log file or evaluated by tools.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class StartupStatistics implements BeanCreationListener
+{
+    /** Constant for the phase of loading the configuration. */
+    public static final String PHASE_CONFIGURATION = "configuration";
+
+    /** Constant for the phase of creating the application context. */
+    public static final String PHASE_APPLICATION_CONTEXT =
+            "applicationContext";
+
+    /** Constant for the prefix of phases for processing bean definitions. */
+    public static final String PHASE_BEAN_DEFINITION_PREFIX =
+            "beanDefinition:";
+
+    /** Constant for the phase of initializing the class loader provider. */
+    public static final String PHASE_CLASS_LOADER_PROVIDER =
+            "initClassLoaderProvider";
+
+    /** Constant for the phase of initializing the GUI. */
+    public static final String PHASE_INIT_GUI = "initGUI";
+
+    /** Constant for the phase of executing the main builder script. */
+    public static final String PHASE_MAIN_SCRIPT = "mainScript";
+
+    /** Constant for the phase of showing the main window. */
+    public static final String PHASE_SHOW_MAIN_WINDOW = "showMainWindow";
+
+    /** The time (in nanoseconds) when this object was created. */
+    private final long startTime;
+
+    /** The list with the phases recorded so far. */
+    private final List<Phase> phases;
+
+    /** The number of beans created so far. */
+    private final AtomicInteger beanCount;
+
+    /**
+     * Creates a new instance of {@code StartupStatistics}. The creation time
+     * is used as start time of the application.
+     */
+    public StartupStatistics()
+    {
+        startTime = System.nanoTime();
+        phases = new ArrayList<Phase>();
+        beanCount = new AtomicInteger();
+    }
+
+    /**
+     * Starts the measurement of a phase. The phase is recorded when the
+     * {@code stop()} method of the returned {@code PhaseTimer} is called.
+     *
+     * @param name the name of the phase
+     * @return a {@code PhaseTimer} for measuring this phase
+     */
+    public PhaseTimer startPhase(String name)
+    {
+        return new PhaseTimer(name, System.nanoTime(), getBeanCount());
+    }
+
+    /**
+     * Returns a list with the phases recorded so far. The phases are ordered
+     * by the time they were finished.
+     *
+     * @return a list with the recorded phases
+     */
+    public List<Phase> getPhases()
+    {
+        synchronized (phases)
+        {
+            return Collections.unmodifiableList(new ArrayList<Phase>(phases));
+        }
+    }
+
+    /**
+     * Returns the phase with the given name. If the phase has been recorded
+     * multiple times, the first occurrence is returned. Result is <b>null</b>
+     * if the phase cannot be found.
+     *
+     * @param name the name of the phase
+     * @return the phase with this name or <b>null</b>
+     */
+    public Phase getPhase(String name)
+    {
+        for (Phase phase : getPhases())
+        {
+            if (phase.getName().equals(name))
+            {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of beans that have been created since this object
+     * was registered as {@code BeanCreationListener}.
+     *
+     * @return the number of created beans
+     */
+    public int getBeanCount()
+    {
+        return beanCount.get();
+    }
+
+    /**
+     * Returns the time (in milliseconds) elapsed since the creation of this
+     * object.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Notifies this object about the creation of a bean. This implementation
+     * just increments the bean counter.
+     *
+     * @param event the bean creation event
+     */
+    public void beanCreated(BeanCreationEvent event)
+    {
+        beanCount.incrementAndGet();
+    }
+
+    /**
+     * Returns a JSON representation of the data collected by this object. The
+     * resulting object contains the elapsed time, the total number of beans
+     * created, and an array with all phases. Times are specified in
+     * milliseconds.
+     *
+     * @return a JSON string with the statistics data
+     */
+    public String toJSON()
+    {
+        StringBuilder buf = new StringBuilder();
+        buf.append("{\"elapsedMillis\":").append(getElapsedMillis());
+        buf.append(",\"beansCreated\":").append(getBeanCount());
+        buf.append(",\"phases\":[");
+        boolean first = true;
+        for (Phase phase : getPhases())
+        {
+            if (!first)
+            {
+                buf.append(',');
+            }
+            first = false;
+            buf.append("{\"name\":");
+            appendJSONString(buf, phase.getName());
+            buf.append(",\"startMillis\":");
+            appendMillis(buf, phase.getStartNanos());
+            buf.append(",\"durationMillis\":");
+            appendMillis(buf, phase.getDurationNanos());
+            buf.append(",\"beansCreated\":").append(phase.getBeanCount());
+            buf.append('}');
+        }
+        buf.append("]}");
+        return buf.toString();
+    }
+
+    /**
+     * Returns a string representation of this object. This is the JSON
+     * representation.
+     *
+     * @return a string for this object
+     */
+    @Override
+    public String toString()
+    {
+        return toJSON();
+    }
+
+    /**
+     * Adds a phase to the list of recorded phases.
+     *
+     * @param phase the phase
+     */
+    private void addPhase(Phase phase)
+    {
+        synchronized (phases)
+        {
+            phases.add(phase);
+        }
+    }
+
+    /**
+     * Appends a time in nanoseconds as milliseconds value with fraction
+     * digits to the given buffer.
+     *
+     * @param buf the buffer
+     * @param nanos the time in nanoseconds
+     */
+    private static void appendMillis(StringBuilder buf, long nanos)
+    {
+        final double nanosPerMilli = 1000000.0;
+        buf.append(String.format(Locale.ENGLISH, "%.3f", nanos
+                / nanosPerMilli));
+    }
+
+    /**
+     * Appends a string as JSON literal to the given buffer. Special characters
+     * are escaped.
+     *
+     * @param buf the buffer
+     * @param s the string
+     */
+    private static void appendJSONString(StringBuilder buf, String s)
+    {
+        final char firstPrintable = ' ';
+        buf.append('"');
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                buf.append('\\').append(c);
+            }
+            else if (c < firstPrintable)
+            {
+                buf.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                buf.append(c);
+            }
+        }
+        buf.append('"');
+    }
+
+    /**
+     * A class for measuring a single phase. Objects of this class are returned
+     * by {@link StartupStatistics#startPhase(String)}. When the phase is
+     * complete, the {@code stop()} method has to be called.
+     */
+    public final class PhaseTimer
+    {
+        /** The name of the phase. */
+        private final String name;
+
+        /** The start time of the phase in nanoseconds. */
+        private final long phaseStart;
+
+        /** The number of beans when the phase was started. */
+        private final int beansAtStart;
+
+        /**
+         * Creates a new instance of {@code PhaseTimer}.
+         *
+         * @param phaseName the name of the phase
+         * @param start the start time
+         * @param beans the number of beans at start time
+         */
+        private PhaseTimer(String phaseName, long start, int beans)
+        {
+            name = phaseName;
+            phaseStart = start;
+            beansAtStart = beans;
+        }
+
+        /**
+         * Stops the measurement and records the phase at the owning
+         * {@code StartupStatistics} object.
+         *
+         * @return the recorded phase
+         */
+        public Phase stop()
+        {
+            Phase phase =
+                    new Phase(name, phaseStart - startTime, System.nanoTime()
+                            - phaseStart, getBeanCount() - beansAtStart);
+            addPhase(phase);
+            return phase;
+        }
+    }
+
+    /**
+     * A simple data class storing the information about a single phase of
+     * the startup of an application. Times are stored in nanoseconds.
+     */
+    public static final class Phase
+    {
+        /** The name of the phase. */
+        private final String name;
+
+        /** The start time relative to the start of the application. */
+        private final long startNanos;
+
+        /** The duration of the phase. */
+        private final long durationNanos;
+
+        /** The number of beans created during this phase. */
+        private final int beanCount;
+
+        /**
+         * Creates a new instance of {@code Phase}.
+         *
+         * @param phaseName the name of the phase
+         * @param start the start time
+         * @param duration the duration
+         * @param beans the number of beans created
+         */
+        private Phase(String phaseName, long start, long duration, int beans)
+        {
+            name = phaseName;
+            startNanos = start;
+            durationNanos = duration;
+            beanCount = beans;
+        }
+
+        /**
+         * Returns the name of this phase.
+         *
+         * @return the name
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the start time of this phase in nanoseconds. The time is
+         * relative to the start of the application.
+         *
+         * @return the start time of this phase
+         */
+        public long getStartNanos()
+        {
+            return startNanos;
+        }
+
+        /**
+         * Returns the duration of this phase in nanoseconds.
+         *
+         * @return the duration of this phase
+         */
+        public long getDurationNanos()
+        {
+            return durationNanos;
+        }
+
+        /**
+         * Returns the number of beans created while this phase was active.
+         *
+         * @return the number of beans created during this phase
+         */
+        public int getBeanCount()
+        {
+            return beanCount;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.app;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.sf.jguiraffe.di.BeanGraphReport;
+import net.sf.jguiraffe.di.impl.BeanGraphUtils;
+import net.sf.jguiraffe.gui.builder.components.ComponentManager;
+import net.sf.jguiraffe.gui.cmd.CommandBase;
+import net.sf.jguiraffe.locators.Locator;
+
+/**
+ * <p>
+ * A specialized {@code Command} implementation which warms up frequently used
+ * resources in a background thread.
+ * </p>
+ * <p>
+ * When a dialog is opened for the first time, the resource bundles it
+ * references have to be loaded, the icons it displays have to be decoded, and
+ * the beans it uses have to be created. This causes a noticeable delay. This
+ * command can be executed on the application's {@code CommandQueue} during
+ * startup while the main window is shown. It performs the following steps:
+ * <ul>
+ * <li>The resource groups with the specified names are loaded for the
+ * current locale of the application context.</li>
+ * <li>The icons referenced by the specified locators are created using the
+ * application's {@link ComponentManager}. (This has only an effect if the
+ * {@code ComponentManager} caches icons, as the Swing implementation
+ * does.)</li>
+ * <li>If enabled, the dependency graph of the beans in the global bean
+ * context is validated. Problems found are logged.</li>
+ * <li>The singleton beans with the specified names are created using the
+ * {@link BeanGraphUtils#preloadSingletons(net.sf.jguiraffe.di.BeanContext,
+ * Collection, java.util.concurrent.Executor) preloadSingletons()} method of
+ * {@code BeanGraphUtils} for the global bean context. Singleton beans which
+ * do not depend on each other are created in parallel on multiple threads. A
+ * report with the time needed for the creation of each bean is logged.</li>
+ * <li>The beans with the specified names are obtained from the global bean
+ * context. This causes singleton beans to be created.</li>
+ * </ul>
+ * Errors occurring during these steps are logged, but do not cause the whole
+ * operation to fail: the warm-up is just an optimization; if a resource cannot
+ * be loaded now, this will be detected again when it is actually needed.
+ * </p>
+ * <p>
+ * An instance is typically created by {@link Application} based on settings in
+ * the application's configuration.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class WarmUpCommand extends CommandBase
+{
+    /** The application context. */
+    private final ApplicationContext applicationContext;
+
+    /** The names of the resource groups to be loaded. */
+    private final List<Object> resourceGroups;
+
+    /** The locators for the icons to be loaded. */
+    private final List<Locator> icons;
+
+    /** The names of the beans to be resolved. */
+    private final List<String> beanNames;
+
+    /** The names of the singleton beans to be created in parallel. */
+    private final List<String> singletonNames;
+
+    /** A flag whether the bean graph is to be validated. */
+    private final boolean validateBeanGraph;
+
+    /**
+     * Creates a new instance of {@code WarmUpCommand} and initializes it.
+     * The collections passed to this constructor can be <b>null</b>; they are
+     * then treated as empty.
+     *
+     * @param appCtx the {@code ApplicationContext} (must not be <b>null</b>)
+     * @param groups a collection with the names of resource groups to load
+     * @param iconLocators a collection with locators for icons to load
+     * @param beans a collection with the names of beans to be resolved
+     * @throws IllegalArgumentException if the application context is
+     *         <b>null</b>
+     */
+    public WarmUpCommand(ApplicationContext appCtx,
+            Collection<?> groups, Collection<? extends Locator> iconLocators,
+            Collection<String> beans)
+    {
+        this(appCtx, groups, iconLocators, beans, null, false);
+    }
+
+    /**
+     * Creates a new instance of {@code WarmUpCommand} and initializes it with
+     * additional options related to beans. The collections passed to this
+     * constructor can be <b>null</b>; they are then treated as empty.
+     *
+     * @param appCtx the {@code ApplicationContext} (must not be <b>null</b>)
+     * @param groups a collection with the names of resource groups to load
+     * @param iconLocators a collection with locators for icons to load
+     * @param beans a collection with the names of beans to be resolved
+     * @param singletons a collection with the names of singleton beans to be
+     *        created in parallel
+     * @param validateBeans a flag whether the bean graph is to be validated
+     * @throws IllegalArgumentException if the application context is
+     *         <b>null</b>
+     */
+    public WarmUpCommand(ApplicationContext appCtx,
+            Collection<?> groups, Collection<? extends Locator> iconLocators,
+            Collection<String> beans, Collection<String> singletons,
+            boolean validateBeans)
+    {
+        super(false);
+        if (appCtx == null)
+        {
+            throw new IllegalArgumentException(
+                    "Application context must not be null!");
+        }
+
+        applicationContext = appCtx;
+        resourceGroups = copy(groups);
+        icons = WarmUpCommand.<Locator> copy(iconLocators);
+        beanNames = copy(beans);
+        singletonNames = copy(singletons);
+        validateBeanGraph = validateBeans;
+    }
+
+    /**
+     * Returns the {@code ApplicationContext} used by this command.
+     *
+     * @return the {@code ApplicationContext}
+     */
+    public ApplicationContext getApplicationContext()
+    {
+        return applicationContext;
+    }
+
+    /**
+     * Returns an unmodifiable list with the names of the resource groups to be
+     * loaded.
+     *
+     * @return the resource groups to be loaded
+     */
+    public List<Object> getResourceGroups()
+    {
+        return resourceGroups;
+    }
+
+    /**
+     * Returns an unmodifiable list with the locators of the icons to be
+     * loaded.
+     *
+     * @return the icons to be loaded
+     */
+    public List<Locator> getIcons()
+    {
+        return icons;
+    }
+
+    /**
+     * Returns an unmodifiable list with the names of the beans to be resolved.
+     *
+     * @return the names of the beans to be resolved
+     */
+    public List<String> getBeanNames()
+    {
+        return beanNames;
+    }
+
+    /**
+     * Returns an unmodifiable list with the names of the singleton beans to be
+     * created in parallel.
+     *
+     * @return the names of the singleton beans to be created
+     */
+    public List<String> getSingletonNames()
+    {
+        return singletonNames;
+    }
+
+    /**
+     * Returns a flag whether the dependency graph of the global bean context
+     * is validated.
+     *
+     * @return the validate bean graph flag
+     */
+    public boolean isValidateBeanGraph()
+    {
+        return validateBeanGraph;
+    }
+
+    /**
+     * Executes this command. This implementation performs all warm-up steps.
+     *
+     * @throws Exception if an error occurs
+     */
+    public void execute() throws Exception
+    {
+        preloadResourceGroups();
+        preloadIcons();
+        validateBeanGraph();
+        preloadSingletons();
+        resolveBeans();
+    }
+
+    /**
+     * Loads the resource groups managed by this command for the current
+     * locale.
+     */
+    protected void preloadResourceGroups()
+    {
+        for (Object group : getResourceGroups())
+        {
+            try
+            {
+                getApplicationContext().getResourceManager().getResourceGroup(
+                        getApplicationContext().getLocale(), group);
+            }
+            catch (RuntimeException rex)
+            {
+                getLog().warn("Could not preload resource group " + group,
+                        rex);
+            }
+        }
+    }
+
+    /**
+     * Creates the icons managed by this command. The icons are created using
+     * the {@code ComponentManager} obtained from the global bean context.
+     */
+    protected void preloadIcons()
+    {
+        if (getIcons().isEmpty())
+        {
+            return;
+        }
+
+        ComponentManager componentManager;
+        try
+        {
+            componentManager = (ComponentManager) getApplicationContext()
+                    .getBeanContext().getBean(
+                            Application.BEAN_COMPONENT_MANAGER);
+        }
+        catch (RuntimeException rex)
+        {
+            getLog().warn("Cannot obtain component manager for preloading "
+                    + "icons", rex);
+            return;
+        }
+
+        for (Locator locator : getIcons())
+        {
+            try
+            {
+                componentManager.createIcon(locator);
+            }
+            catch (Exception ex)
+            {
+                getLog().warn("Could not preload icon " + locator, ex);
+            }
+        }
+    }
+
+    /**
+     * Validates the dependency graph of the global bean context if this is
+     * enabled. The resulting report is logged.
+     */
+    protected void validateBeanGraph()
+    {
+        if (!isValidateBeanGraph())
+        {
+            return;
+        }
+
+        try
+        {
+            logReport(BeanGraphUtils.validateBeanGraph(getApplicationContext()
+                    .getBeanContext()));
+        }
+        catch (RuntimeException rex)
+        {
+            getLog().warn("Could not validate bean graph", rex);
+        }
+    }
+
+    /**
+     * Creates the singleton beans managed by this command. The beans are
+     * created in parallel using an executor obtained from
+     * {@link #createExecutor(int)}. The resulting report is logged.
+     */
+    protected void preloadSingletons()
+    {
+        if (getSingletonNames().isEmpty())
+        {
+            return;
+        }
+
+        ExecutorService executor =
+                createExecutor(getSingletonNames().size());
+        try
+        {
+            logReport(BeanGraphUtils.preloadSingletons(
+                    getApplicationContext().getBeanContext(),
+                    getSingletonNames(), executor));
+        }
+        catch (RuntimeException rex)
+        {
+            getLog().warn("Could not preload singleton beans", rex);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates the executor for creating singleton beans in parallel. This
+     * implementation returns a thread pool whose size is determined by the
+     * number of beans and the number of available processors. The executor
+     * is shut down after the beans have been created.
+     *
+     * @param beanCount the number of beans to be created
+     * @return the executor
+     */
+    protected ExecutorService createExecutor(int beanCount)
+    {
+        int threads = Math.max(1, Math.min(beanCount, Runtime.getRuntime()
+                .availableProcessors()));
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Resolves the beans managed by this command from the global bean
+     * context.
+     */
+    protected void resolveBeans()
+    {
+        for (String name : getBeanNames())
+        {
+            try
+            {
+                getApplicationContext().getBeanContext().getBean(name);
+            }
+            catch (RuntimeException rex)
+            {
+                getLog().warn("Could not resolve bean " + name, rex);
+            }
+        }
+    }
+
+    /**
+     * Writes the specified report about the bean graph to the log. If
+     * problems have been found, the report is logged with level warning;
+     * otherwise with level info.
+     *
+     * @param report the report
+     */
+    private void logReport(BeanGraphReport report)
+    {
+        if (report.isSuccessful())
+        {
+            getLog().info(report);
+        }
+        else
+        {
+            getLog().warn(report);
+        }
+    }
+
+    /**
+     * Creates an unmodifiable copy of the given collection. A <b>null</b>
+     * collection is converted to an empty list.
+     *
+     * @param <T> the type of the elements
+     * @param col the collection to be copied
+     * @return the unmodifiable copy
+     */
+    private static <T> List<T> copy(Collection<? extends T> col)
+    {
+        if (col == null)
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<T>(col));
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.configuration.tree.ConfigurationNode;
+
+/**
+ * <p>
+ * A helper class for determining the positions of child nodes in a tree of
+ * {@code ConfigurationNode} objects efficiently.
+ * </p>
+ * <p>
+ * Tree models based on configuration nodes frequently have to find out the
+ * index of a child node relative to its parent. {@code ConfigurationNode}
+ * does not offer a direct way to obtain this information; so the list of
+ * children has to be scanned. For nodes with many children and operations
+ * which have to process many nodes (e.g. repainting a large tree) this becomes
+ * expensive. This class stores the positions of the children of a parent node
+ * in an identity map when they are requested for the first time. Further
+ * queries for the same parent node can then be answered directly.
+ * </p>
+ * <p>
+ * A cached position is verified before it is returned: it is checked whether
+ * the parent node still contains the child node at this position. If this is
+ * not the case, the data of this parent node is computed anew. So results are
+ * always correct even if the tree has been changed in the meantime. However,
+ * if a component is notified about a change in its tree, it should call the
+ * {@link #invalidate(ConfigurationNode)} method. This method removes all data
+ * related to the sub tree affected by the change; data about other parts of
+ * the tree is kept.
+ * </p>
+ * <p>
+ * Implementation note: This class is not thread-safe. It is intended to be
+ * used by tree models which are accessed only by the event dispatch thread.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ChildIndexCache
+{
+    /** Stores the positions of the children of the cached parent nodes. */
+    private final Map<ConfigurationNode, Map<Object, Integer>> childIndices;
+
+    /**
+     * Creates a new instance of {@code ChildIndexCache}.
+     */
+    public ChildIndexCache()
+    {
+        childIndices =
+                new IdentityHashMap<ConfigurationNode, Map<Object, Integer>>();
+    }
+
+    /**
+     * Returns the index of the specified child node relative to the given
+     * parent node. If the node is not a child of this parent, result is -1.
+     * Both the parent and the child node can be <b>null</b>; then result is
+     * -1, too.
+     *
+     * @param parent the parent node
+     * @param child the child node
+     * @return the index of this child node or -1
+     */
+    public int indexOfChild(ConfigurationNode parent, Object child)
+    {
+        if (parent == null || child == null)
+        {
+            return -1;
+        }
+
+        Map<Object, Integer> indices = childIndices.get(parent);
+        if (indices != null)
+        {
+            Integer index = indices.get(child);
+            if (index != null && isValidIndex(parent, child, index.intValue()))
+            {
+                return index.intValue();
+            }
+        }
+
+        indices = createIndices(parent);
+        childIndices.put(parent, indices);
+        Integer index = indices.get(child);
+        return (index != null) ? index.intValue() : -1;
+    }
+
+    /**
+     * Removes all cached data about the sub tree starting with the specified
+     * node. This method should be called when a change in this sub tree was
+     * detected. In addition to the data about the node and its descendants,
+     * data about nodes which have been removed from the tree is discarded,
+     * too. The data of the other nodes in the tree is not affected. A
+     * <b>null</b> node is ignored.
+     *
+     * @param node the root node of the sub tree which has been changed
+     */
+    public void invalidate(ConfigurationNode node)
+    {
+        if (node == null)
+        {
+            return;
+        }
+
+        ConfigurationNode root = findRoot(node);
+        for (Iterator<ConfigurationNode> it = childIndices.keySet().iterator(); it
+                .hasNext();)
+        {
+            if (isObsolete(it.next(), node, root))
+            {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all data from this cache.
+     */
+    public void clear()
+    {
+        childIndices.clear();
+    }
+
+    /**
+     * Returns the number of parent nodes for which data is cached.
+     *
+     * @return the number of parent nodes in this cache
+     */
+    public int size()
+    {
+        return childIndices.size();
+    }
+
+    /**
+     * Creates a map with the positions of all child nodes of the given parent
+     * node.
+     *
+     * @param parent the parent node
+     * @return a map with the positions of its child nodes
+     */
+    private static Map<Object, Integer> createIndices(ConfigurationNode parent)
+    {
+        Map<Object, Integer> indices = new IdentityHashMap<Object, Integer>();
+        int index = 0;
+        for (Object c : parent.getChildren())
+        {
+            if (!indices.containsKey(c))
+            {
+                indices.put(c, Integer.valueOf(index));
+            }
+            index++;
+        }
+        return indices;
+    }
+
+    /**
+     * Checks whether the given index of a child node is still valid.
+     *
+     * @param parent the parent node
+     * @param child the child node
+     * @param index the cached index
+     * @return a flag whether this index is valid
+     */
+    private static boolean isValidIndex(ConfigurationNode parent, Object child,
+            int index)
+    {
+        return index < parent.getChildrenCount()
+                && parent.getChild(index) == child;
+    }
+
+    /**
+     * Checks whether the data stored for the given parent node has to be
+     * removed because of a change in the specified sub tree. This is the case
+     * if the node belongs to this sub tree or is no longer part of the tree.
+     *
+     * @param parent the parent node to check
+     * @param changedNode the root of the changed sub tree
+     * @param root the root node of the tree
+     * @return a flag whether the data of the parent node is obsolete
+     */
+    private static boolean isObsolete(ConfigurationNode parent,
+            ConfigurationNode changedNode, ConfigurationNode root)
+    {
+        ConfigurationNode nd = parent;
+        while (nd.getParentNode() != null)
+        {
+            if (nd == changedNode)
+            {
+                return true;
+            }
+            nd = nd.getParentNode();
+        }
+        return nd == changedNode || nd != root;
+    }
+
+    /**
+     * Returns the root node of the tree the specified node belongs to.
+     *
+     * @param node the node
+     * @return the root node of its tree
+     */
+    private static ConfigurationNode findRoot(ConfigurationNode node)
+    {
+        ConfigurationNode nd = node;
+        while (nd.getParentNode() != null)
+        {
+            nd = nd.getParentNode();
+        }
+        return nd;
+    }
+}
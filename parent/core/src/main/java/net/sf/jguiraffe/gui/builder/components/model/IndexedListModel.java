@@ -0,0 +1,62 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+/**
+ * <p>
+ * Definition of a specialized {@link ListModel} extension interface for models
+ * which support efficient lookups of value and display objects.
+ * </p>
+ * <p>
+ * Components like list boxes or combo boxes frequently have to determine the
+ * position of a value object or a display object in their list model, e.g.
+ * when the data of the component is set from a form bean. For a plain
+ * {@code ListModel} this requires a linear search, which becomes expensive
+ * for large models or for lists with multi-selection. A model implementing
+ * this interface can provide these positions directly, e.g. based on a hash
+ * index. The methods of
+ * {@link net.sf.jguiraffe.gui.builder.components.tags.ListModelUtils
+ * ListModelUtils} make use of this interface automatically.
+ * </p>
+ * <p>
+ * Implementations must produce the same results as a linear search using the
+ * {@code equals()} method: if an object is contained multiple times, the
+ * lowest index has to be returned.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface IndexedListModel extends ListModel
+{
+    /**
+     * Returns the index of the first element in this model whose value object
+     * equals the specified object. If there is no such element, result is -1.
+     *
+     * @param value the value object to search for
+     * @return the index of this value object or -1
+     */
+    int indexOfValue(Object value);
+
+    /**
+     * Returns the index of the first element in this model whose display
+     * object equals the specified object. If there is no such element, result
+     * is -1.
+     *
+     * @param display the display object to search for
+     * @return the index of this display object or -1
+     */
+    int indexOfDisplay(Object display);
+}
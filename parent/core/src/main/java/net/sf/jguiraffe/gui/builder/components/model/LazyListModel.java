@@ -0,0 +1,80 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+/**
+ * <p>
+ * Definition of a specialized {@link ListModel} extension interface for models
+ * whose data is to be fetched on demand.
+ * </p>
+ * <p>
+ * Per default, the platform-specific implementation of a list box or combo box
+ * copies all display and value objects of its {@code ListModel} when the
+ * component is created. This is not feasible for huge lists or lists whose
+ * elements are expensive to compute, e.g. if they are obtained from a
+ * database. If a model implements this interface, its data is not copied.
+ * Rather, display and value objects are requested in pages when they are
+ * actually needed, e.g. because they become visible. A bounded number of
+ * pages is cached; so the memory consumption does not depend on the size of
+ * the model.
+ * </p>
+ * <p>
+ * A lazy list model can change its content. The component is then notified
+ * by calling {@link ListComponentHandler#listDataChanged()}; this causes the
+ * size of the model to be queried again and the cached data to be discarded.
+ * Because the model is the single source of the component's data, the
+ * {@code addItem()} and {@code removeItem()} methods of
+ * {@link ListComponentHandler} are not supported for components with a lazy
+ * list model. The methods of this interface are called in the event dispatch
+ * thread.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface LazyListModel extends ListModel
+{
+    /**
+     * Returns the number of elements to be fetched from this model in a single
+     * step. When an element is requested which is not yet cached, the whole
+     * page containing this element is loaded. A value less or equal 0 means
+     * that a default page size is used.
+     *
+     * @return the page size
+     */
+    int getPageSize();
+
+    /**
+     * Returns the maximum number of pages to be cached. If more pages have
+     * been loaded, the ones which have not been accessed for the longest time
+     * are discarded. A value less or equal 0 means that a default cache size
+     * is used.
+     *
+     * @return the maximum number of cached pages
+     */
+    int getCacheSize();
+
+    /**
+     * Returns a display object which is used for computing the size of the
+     * elements of the component. Without such an object, Swing components for
+     * instance determine their size by iterating over all elements, which
+     * would cause the whole model to be loaded. The object returned here
+     * should be at least as large as a typical display object. If result is
+     * <b>null</b>, the first element of the model is used.
+     *
+     * @return a prototype display object (can be <b>null</b>)
+     */
+    Object getPrototypeDisplayObject();
+}
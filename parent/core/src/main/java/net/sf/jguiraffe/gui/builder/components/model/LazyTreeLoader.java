@@ -0,0 +1,399 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import net.sf.jguiraffe.gui.cmd.CommandBase;
+import net.sf.jguiraffe.gui.cmd.CommandQueue;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+import org.apache.commons.configuration.tree.DefaultConfigurationKey;
+import org.apache.commons.configuration.tree.DefaultConfigurationNode;
+import org.apache.commons.configuration.tree.DefaultExpressionEngine;
+
+/**
+ * <p>
+ * A helper class for loading the nodes of a tree on demand.
+ * </p>
+ * <p>
+ * Per default, the model of a tree - a {@code HierarchicalConfiguration} -
+ * has to be populated completely before it can be displayed. For large
+ * structures (e.g. a file system) this is not feasible. An instance of this
+ * class can be registered as {@link TreePreExpansionListener} at a tree
+ * component. It then loads the child nodes of a node when it is expanded for
+ * the first time. The actual loading is done by a {@link TreeChildProvider}
+ * which is invoked by a command executed on the application's
+ * {@link CommandQueue}. So the event dispatch thread is not blocked.
+ * </p>
+ * <p>
+ * Nodes whose children have not yet been loaded contain a special
+ * <em>placeholder</em> node. This ensures that the tree component displays
+ * them as expandable; the placeholder is displayed while loading is in
+ * progress. When the child nodes are available they replace the placeholder
+ * in a single operation on the event dispatch thread. The root node of the
+ * tree (or any other node whose children are to be loaded lazily) has to be
+ * prepared by calling {@link #markUnloaded(ConfigurationNode)} before it is
+ * added to the tree's model. A typical usage scenario could look as follows:
+ * </p>
+ *
+ * <pre>
+ * LazyTreeLoader loader = new LazyTreeLoader(commandQueue, provider);
+ * ConfigurationNode root = new DefaultConfigurationNode(&quot;root&quot;);
+ * loader.markUnloaded(root);
+ * treeHandler.getModel().setRootNode(root);
+ * treeHandler.addPreExpansionListener(loader);
+ * </pre>
+ *
+ * <p>
+ * Implementation note: The methods of this class are expected to be called on
+ * the event dispatch thread.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class LazyTreeLoader implements TreePreExpansionListener
+{
+    /** Constant for the default name of placeholder nodes. */
+    public static final String DEFAULT_PLACEHOLDER_NAME = "loading";
+
+    /** The value of placeholder nodes. */
+    private static final Object PLACEHOLDER_VALUE = new Object();
+
+    /** The command queue for executing load operations. */
+    private final CommandQueue commandQueue;
+
+    /** The provider for child nodes. */
+    private final TreeChildProvider childProvider;
+
+    /** The name of placeholder nodes. */
+    private final String placeholderName;
+
+    /** A set with the nodes which are currently loaded. */
+    private final Set<ConfigurationNode> loadingNodes;
+
+    /**
+     * Creates a new instance of {@code LazyTreeLoader} and initializes it
+     * with the command queue and the provider for child nodes. Placeholder
+     * nodes are given the default name.
+     *
+     * @param queue the command queue (must not be <b>null</b>)
+     * @param provider the {@code TreeChildProvider} (must not be <b>null</b>)
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    public LazyTreeLoader(CommandQueue queue, TreeChildProvider provider)
+    {
+        this(queue, provider, DEFAULT_PLACEHOLDER_NAME);
+    }
+
+    /**
+     * Creates a new instance of {@code LazyTreeLoader} and initializes it
+     * with the command queue, the provider for child nodes, and the name of
+     * placeholder nodes. This name is displayed by the tree while the
+     * children of a node are loaded.
+     *
+     * @param queue the command queue (must not be <b>null</b>)
+     * @param provider the {@code TreeChildProvider} (must not be <b>null</b>)
+     * @param placeholder the name of placeholder nodes (must not be
+     *        <b>null</b>)
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    public LazyTreeLoader(CommandQueue queue, TreeChildProvider provider,
+            String placeholder)
+    {
+        if (queue == null)
+        {
+            throw new IllegalArgumentException(
+                    "Command queue must not be null!");
+        }
+        if (provider == null)
+        {
+            throw new IllegalArgumentException(
+                    "Child provider must not be null!");
+        }
+        if (placeholder == null)
+        {
+            throw new IllegalArgumentException(
+                    "Placeholder name must not be null!");
+        }
+
+        commandQueue = queue;
+        childProvider = provider;
+        placeholderName = placeholder;
+        loadingNodes = Collections
+                .newSetFromMap(new IdentityHashMap<ConfigurationNode, Boolean>());
+    }
+
+    /**
+     * Returns the command queue used by this object.
+     *
+     * @return the command queue
+     */
+    public CommandQueue getCommandQueue()
+    {
+        return commandQueue;
+    }
+
+    /**
+     * Returns the {@code TreeChildProvider} used by this object.
+     *
+     * @return the provider for child nodes
+     */
+    public TreeChildProvider getChildProvider()
+    {
+        return childProvider;
+    }
+
+    /**
+     * Returns the name of placeholder nodes.
+     *
+     * @return the name of placeholder nodes
+     */
+    public String getPlaceholderName()
+    {
+        return placeholderName;
+    }
+
+    /**
+     * Marks the specified node as unloaded. A placeholder node is added to
+     * the node as its single child. When the node is expanded, its real
+     * children are loaded. This method should be called for nodes which are
+     * not yet part of a tree model because no change events are generated.
+     *
+     * @param node the node to be marked (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the node is <b>null</b>
+     */
+    public void markUnloaded(ConfigurationNode node)
+    {
+        if (node == null)
+        {
+            throw new IllegalArgumentException("Node must not be null!");
+        }
+        node.addChild(new DefaultConfigurationNode(getPlaceholderName(),
+                PLACEHOLDER_VALUE));
+    }
+
+    /**
+     * Checks whether the children of the specified node have not yet been
+     * loaded. This is the case if the node contains a placeholder node.
+     *
+     * @param node the node to check
+     * @return a flag whether the children of this node still have to be
+     *         loaded
+     */
+    public boolean isUnloaded(ConfigurationNode node)
+    {
+        return findPlaceholder(node) != null;
+    }
+
+    /**
+     * Checks whether a load operation for the children of the specified node
+     * is currently in progress.
+     *
+     * @param node the node to check
+     * @return a flag whether the children of this node are currently loaded
+     */
+    public boolean isLoading(ConfigurationNode node)
+    {
+        return loadingNodes.contains(node);
+    }
+
+    /**
+     * Checks whether the specified node is a placeholder node created by a
+     * {@code LazyTreeLoader}.
+     *
+     * @param node the node to check
+     * @return a flag whether this is a placeholder node
+     */
+    public static boolean isPlaceholder(ConfigurationNode node)
+    {
+        return node != null && node.getValue() == PLACEHOLDER_VALUE;
+    }
+
+    /**
+     * Notifies this object that the expansion state of a node is about to
+     * change. If a node is expanded whose children have not yet been loaded,
+     * this implementation starts a load operation in the background.
+     *
+     * @param event the event
+     */
+    public void beforeExpansionStateChange(TreeExpansionEvent event)
+    {
+        if (event.getType() == TreeExpansionEvent.Type.NODE_EXPAND)
+        {
+            ConfigurationNode node = event.getPath().getTargetNode();
+            if (isUnloaded(node) && loadingNodes.add(node))
+            {
+                getCommandQueue().execute(
+                        new LoadChildrenCommand(event.getTreeHandler(), event
+                                .getPath()));
+            }
+        }
+    }
+
+    /**
+     * Adds the loaded child nodes to the model of the tree. This method is
+     * called on the event dispatch thread after a load operation. The
+     * placeholder node is removed, and the child nodes are added to the tree
+     * model in a single operation. So only a single change event is fired. If
+     * there are no child nodes, only the placeholder is removed.
+     *
+     * @param tree the handler for the tree
+     * @param path the path to the node whose children have been loaded
+     * @param children the child nodes
+     */
+    private void addChildren(TreeHandler tree, TreeNodePath path,
+            Collection<ConfigurationNode> children)
+    {
+        ConfigurationNode node = path.getTargetNode();
+        ConfigurationNode placeholder = findPlaceholder(node);
+        if (placeholder == null)
+        {
+            // the node has been changed in the meantime
+            return;
+        }
+
+        HierarchicalConfiguration model = tree.getModel();
+        DefaultConfigurationKey key = keyForPath(model, path);
+        if (children.isEmpty())
+        {
+            key.append(getPlaceholderName(), true).appendIndex(
+                    node.getChildren(getPlaceholderName()).indexOf(placeholder));
+            model.clearTree(key.toString());
+        }
+        else
+        {
+            node.removeChild(placeholder);
+            model.addNodes((key.length() > 0) ? key.toString() : null,
+                    children);
+        }
+    }
+
+    /**
+     * Returns the placeholder child node of the specified node. Result is
+     * <b>null</b> if there is no placeholder node.
+     *
+     * @param node the node
+     * @return the placeholder child node or <b>null</b>
+     */
+    private ConfigurationNode findPlaceholder(ConfigurationNode node)
+    {
+        if (node != null)
+        {
+            for (Object child : node.getChildren(getPlaceholderName()))
+            {
+                ConfigurationNode nd = (ConfigurationNode) child;
+                if (isPlaceholder(nd))
+                {
+                    return nd;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines the configuration key for the specified path. The key is
+     * empty for the path to the root node. Tree models are expected to use
+     * the default expression engine.
+     *
+     * @param model the tree model
+     * @param path the path
+     * @return the key for this path
+     */
+    private static DefaultConfigurationKey keyForPath(
+            HierarchicalConfiguration model, TreeNodePath path)
+    {
+        DefaultConfigurationKey key =
+                new DefaultConfigurationKey(
+                        (DefaultExpressionEngine) model.getExpressionEngine());
+        path.pathToKey(key);
+        return key;
+    }
+
+    /**
+     * The command class for loading the child nodes of a node in the
+     * background.
+     */
+    private class LoadChildrenCommand extends CommandBase
+    {
+        /** The handler for the tree. */
+        private final TreeHandler treeHandler;
+
+        /** The path to the node whose children are to be loaded. */
+        private final TreeNodePath nodePath;
+
+        /** The child nodes which have been loaded. */
+        private Collection<ConfigurationNode> children;
+
+        /**
+         * Creates a new instance of {@code LoadChildrenCommand}.
+         *
+         * @param tree the handler for the tree
+         * @param path the path to the node to be loaded
+         */
+        public LoadChildrenCommand(TreeHandler tree, TreeNodePath path)
+        {
+            treeHandler = tree;
+            nodePath = path;
+        }
+
+        /**
+         * Executes this command. Obtains the child nodes from the provider and
+         * adds placeholder nodes to the children which can be expanded.
+         *
+         * @throws Exception if an error occurs
+         */
+        public void execute() throws Exception
+        {
+            Collection<ConfigurationNode> nodes =
+                    getChildProvider().loadChildren(nodePath);
+            if (nodes != null)
+            {
+                for (ConfigurationNode nd : nodes)
+                {
+                    if (getChildProvider().mayHaveChildren(nd))
+                    {
+                        markUnloaded(nd);
+                    }
+                }
+            }
+            children = nodes;
+        }
+
+        /**
+         * Updates the tree model with the new child nodes. If loading failed,
+         * the placeholder node is kept; so another attempt is made when the
+         * node is expanded again.
+         */
+        @Override
+        protected void performGUIUpdate()
+        {
+            loadingNodes.remove(nodePath.getTargetNode());
+            if (getException() == null)
+            {
+                Collection<ConfigurationNode> nodes =
+                        (children != null) ? children : Collections
+                                .<ConfigurationNode> emptyList();
+                addChildren(treeHandler, nodePath, nodes);
+            }
+        }
+    }
+}
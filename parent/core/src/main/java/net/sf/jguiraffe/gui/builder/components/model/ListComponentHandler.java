@@ -70,4 +70,21 @@ public interface ListComponentHandler extends ComponentHandler<Object>
      * @param index the index of the item to remove
      */
     void removeItem(int index);
+
+    /**
+     * Notifies this handler that the data of the component's original list
+     * model has changed. This method is relevant for components whose list
+     * model implements the {@link LazyListModel} interface: the component then
+     * queries the size of the model again, discards all cached data, and
+     * updates its display. For other list models the component manages a copy
+     * of the data which is changed using the {@code addItem()} and
+     * {@code removeItem()} methods; so this method has no effect. The default
+     * implementation does nothing; it is appropriate for handlers which do
+     * not support lazy list models.
+     *
+     * @since 1.5
+     */
+    default void listDataChanged()
+    {
+    }
 }
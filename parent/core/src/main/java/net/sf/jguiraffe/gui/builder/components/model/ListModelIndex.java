@@ -0,0 +1,360 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.ObjectUtils;
+
+/**
+ * <p>
+ * A helper class which maintains an index of the value and display objects
+ * contained in a {@link ListModel}.
+ * </p>
+ * <p>
+ * This class can be used by implementations of the {@link IndexedListModel}
+ * interface. An instance is associated with a {@code ListModel}. On the first
+ * query the value and display objects of this model are stored in hash maps
+ * together with their positions, so that further queries can be answered in
+ * constant time. If an object is contained multiple times in the model, its
+ * lowest index is stored.
+ * </p>
+ * <p>
+ * The owning model has to report changes of its content by calling the
+ * methods {@link #itemInserted(int)},
+ * {@link #itemRemoved(int, Object, Object)}, or {@link #invalidate()}.
+ * Inserted and removed elements are processed incrementally: the positions
+ * stored for the elements behind the affected position are shifted, so that
+ * the index does not have to be rebuilt. Shifting positions has to iterate
+ * over all indexed objects; this is still linear in the size of the model,
+ * but it is much cheaper than rebuilding the index because the model does
+ * not have to be accessed. (For removed objects which are contained multiple
+ * times in the model, the model is searched for the next occurrence.) As an
+ * additional safety measure, an index found in the maps is checked against
+ * the model before it is returned; if it does not match, the index is
+ * rebuilt.
+ * </p>
+ * <p>
+ * Implementation note: This class is not thread-safe. It is intended to be
+ * used by list models which are accessed only by the event dispatch thread.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ListModelIndex
+{
+    /** The indexed list model. */
+    private final ListModel model;
+
+    /** The index for the value objects. */
+    private ObjectIndex valueIndex;
+
+    /** The index for the display objects. */
+    private ObjectIndex displayIndex;
+
+    /**
+     * Creates a new instance of {@code ListModelIndex} for the specified
+     * {@code ListModel}.
+     *
+     * @param listModel the {@code ListModel} (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the model is <b>null</b>
+     */
+    public ListModelIndex(ListModel listModel)
+    {
+        if (listModel == null)
+        {
+            throw new IllegalArgumentException(
+                    "List model must not be null!");
+        }
+        model = listModel;
+    }
+
+    /**
+     * Returns the {@code ListModel} indexed by this object.
+     *
+     * @return the {@code ListModel}
+     */
+    public ListModel getListModel()
+    {
+        return model;
+    }
+
+    /**
+     * Returns the index of the first element in the model whose value object
+     * equals the specified object or -1 if there is no such element.
+     *
+     * @param value the value object
+     * @return the index of this value object or -1
+     */
+    public int indexOfValue(Object value)
+    {
+        ensureIndex();
+        int index = valueIndex.lookup(value);
+        if (index >= 0
+                && !ObjectUtils.equals(value, model.getValueObject(index)))
+        {
+            rebuild();
+            index = valueIndex.lookup(value);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the first element in the model whose display
+     * object equals the specified object or -1 if there is no such element.
+     *
+     * @param display the display object
+     * @return the index of this display object or -1
+     */
+    public int indexOfDisplay(Object display)
+    {
+        ensureIndex();
+        int index = displayIndex.lookup(display);
+        if (index >= 0
+                && !ObjectUtils.equals(display, model.getDisplayObject(index)))
+        {
+            rebuild();
+            index = displayIndex.lookup(display);
+        }
+        return index;
+    }
+
+    /**
+     * Notifies this object that an element has been inserted into the model
+     * at the given position. The positions of the following elements are
+     * shifted (this is not necessary if the element has been added at the
+     * end), and the new element is added to the index.
+     *
+     * @param index the position of the new element
+     */
+    public void itemInserted(int index)
+    {
+        if (isValid())
+        {
+            if (index < model.size() - 1)
+            {
+                valueIndex.shift(index, 1);
+                displayIndex.shift(index, 1);
+            }
+            valueIndex.add(model.getValueObject(index), index);
+            displayIndex.add(model.getDisplayObject(index), index);
+        }
+    }
+
+    /**
+     * Notifies this object that an element has been removed from the model.
+     * The display and value object of the removed element have to be passed.
+     * The element is removed from the index, and the positions of the
+     * following elements are shifted.
+     *
+     * @param index the former position of the removed element
+     * @param display the display object of the removed element
+     * @param value the value object of the removed element
+     */
+    public void itemRemoved(int index, Object display, Object value)
+    {
+        if (isValid())
+        {
+            if (index < model.size())
+            {
+                valueIndex.shift(index + 1, -1);
+                displayIndex.shift(index + 1, -1);
+            }
+            valueIndex.remove(value, index);
+            displayIndex.remove(display, index);
+        }
+    }
+
+    /**
+     * Invalidates this index. It is rebuilt on the next query. This method has
+     * to be called if the model has been changed in a way that is not covered
+     * by the other notification methods.
+     */
+    public void invalidate()
+    {
+        valueIndex = null;
+        displayIndex = null;
+    }
+
+    /**
+     * Returns a flag whether the index is currently available.
+     *
+     * @return a flag whether the index is valid
+     */
+    public boolean isValid()
+    {
+        return valueIndex != null;
+    }
+
+    /**
+     * Makes sure that the index is available. If necessary, it is created.
+     */
+    private void ensureIndex()
+    {
+        if (!isValid())
+        {
+            rebuild();
+        }
+    }
+
+    /**
+     * Creates the index from the current content of the model.
+     */
+    private void rebuild()
+    {
+        int size = model.size();
+        valueIndex = new ObjectIndex(model, false, size);
+        displayIndex = new ObjectIndex(model, true, size);
+        for (int i = 0; i < size; i++)
+        {
+            valueIndex.add(model.getValueObject(i), i);
+            displayIndex.add(model.getDisplayObject(i), i);
+        }
+    }
+
+    /**
+     * An internally used helper class which manages the index for either the
+     * value or the display objects of the model. It stores the lowest
+     * position of each object and the number of its occurrences.
+     */
+    private static class ObjectIndex
+    {
+        /** The indexed model. */
+        private final ListModel model;
+
+        /** A flag whether the display objects are indexed. */
+        private final boolean display;
+
+        /** The map with the positions of the objects. */
+        private final Map<Object, Integer> positions;
+
+        /** The map with the number of occurrences of the objects. */
+        private final Map<Object, Integer> counts;
+
+        /**
+         * Creates a new instance of {@code ObjectIndex}.
+         *
+         * @param m the model
+         * @param disp the flag whether display objects are indexed
+         * @param size the size of the model
+         */
+        public ObjectIndex(ListModel m, boolean disp, int size)
+        {
+            model = m;
+            display = disp;
+            positions = new HashMap<Object, Integer>(2 * size);
+            counts = new HashMap<Object, Integer>(2 * size);
+        }
+
+        /**
+         * Returns the position of the given object or -1 if it is unknown.
+         *
+         * @param obj the object
+         * @return the position of this object or -1
+         */
+        public int lookup(Object obj)
+        {
+            Integer pos = positions.get(obj);
+            return (pos != null) ? pos.intValue() : -1;
+        }
+
+        /**
+         * Adds an object at the given position to this index. If the object
+         * is already contained at a lower position, this position is kept.
+         *
+         * @param obj the object
+         * @param index the position of the object
+         */
+        public void add(Object obj, int index)
+        {
+            Integer count = counts.get(obj);
+            counts.put(obj, (count != null) ? count.intValue() + 1 : 1);
+            Integer pos = positions.get(obj);
+            if (pos == null || pos.intValue() > index)
+            {
+                positions.put(obj, Integer.valueOf(index));
+            }
+        }
+
+        /**
+         * Removes an object which was stored at the given position from this
+         * index. If the object is still contained in the model and the
+         * removed element was its first occurrence, the model is searched
+         * for the next occurrence. The positions of the following elements
+         * must already have been shifted.
+         *
+         * @param obj the object
+         * @param index the former position of the object
+         */
+        public void remove(Object obj, int index)
+        {
+            Integer count = counts.get(obj);
+            if (count == null || count.intValue() <= 1)
+            {
+                counts.remove(obj);
+                positions.remove(obj);
+                return;
+            }
+
+            counts.put(obj, count.intValue() - 1);
+            Integer pos = positions.get(obj);
+            if (pos != null && pos.intValue() == index)
+            {
+                positions.remove(obj);
+                for (int i = index; i < model.size(); i++)
+                {
+                    if (ObjectUtils.equals(obj, fetchObject(i)))
+                    {
+                        positions.put(obj, Integer.valueOf(i));
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds a delta to all positions greater than or equal to the given
+         * start position.
+         *
+         * @param from the start position
+         * @param delta the delta to be added
+         */
+        public void shift(int from, int delta)
+        {
+            for (Map.Entry<Object, Integer> e : positions.entrySet())
+            {
+                int pos = e.getValue().intValue();
+                if (pos >= from)
+                {
+                    e.setValue(Integer.valueOf(pos + delta));
+                }
+            }
+        }
+
+        /**
+         * Returns the indexed object of the model at the given position.
+         *
+         * @param index the position
+         * @return the object at this position
+         */
+        private Object fetchObject(int index)
+        {
+            return display ? model.getDisplayObject(index) : model
+                    .getValueObject(index);
+        }
+    }
+}
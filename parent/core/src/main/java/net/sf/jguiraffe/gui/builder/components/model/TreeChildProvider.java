@@ -0,0 +1,65 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import java.util.Collection;
+
+import org.apache.commons.configuration.tree.ConfigurationNode;
+
+/**
+ * <p>
+ * Definition of an interface for objects that can create the child nodes of a
+ * node in a tree on demand.
+ * </p>
+ * <p>
+ * This interface is used by {@link LazyTreeLoader} for populating a tree
+ * lazily. Rather than constructing the whole structure of
+ * {@code ConfigurationNode} objects before the tree is displayed, the child
+ * nodes of a node are requested when the node is expanded for the first time.
+ * The methods of this interface are called in a background thread. So they
+ * can perform expensive operations, e.g. accessing a file system or a
+ * database. They must not access the tree component or its model directly.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface TreeChildProvider
+{
+    /**
+     * Returns the child nodes of the node with the specified path. The nodes
+     * returned by this method are added to the tree's model. They must not
+     * have a parent node yet.
+     *
+     * @param path the path to the node whose children are to be loaded
+     * @return a collection with the child nodes of this node
+     * @throws Exception if an error occurs
+     */
+    Collection<ConfigurationNode> loadChildren(TreeNodePath path)
+            throws Exception;
+
+    /**
+     * Checks whether the specified node can have children. This method is
+     * called for each node returned by {@link #loadChildren(TreeNodePath)}. If
+     * it returns <b>true</b>, the node can be expanded, and its children are
+     * loaded on demand. An implementation can return <b>true</b> if it is
+     * unknown whether there are children; then the node appears empty after
+     * its expansion.
+     *
+     * @param node the node in question
+     * @return a flag whether this node can have children
+     */
+    boolean mayHaveChildren(ConfigurationNode node);
+}
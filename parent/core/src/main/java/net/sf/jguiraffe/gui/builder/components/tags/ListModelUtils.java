@@ -21,6 +21,7 @@ import net.sf.jguiraffe.di.BeanContext;
 import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
 import net.sf.jguiraffe.gui.builder.components.FormBuilderException;
 import net.sf.jguiraffe.gui.builder.components.model.EditableComboBoxModel;
+import net.sf.jguiraffe.gui.builder.components.model.IndexedListModel;
 import net.sf.jguiraffe.gui.builder.components.model.ListModel;
 
 import org.apache.commons.jelly.MissingAttributeException;
@@ -112,6 +113,8 @@ public final class ListModelUtils
      * linear search in the list model's value objects to determine the index.
      * If the <code>getValueObject()</code> method of the list model returns
      * <b>null </b>, it is tried to cast the value to an <code>Integer</code>.
+     * If the list model implements the {@link IndexedListModel} interface, the
+     * index is obtained from the model rather than by a linear search.
      *
      * @param listModel the list model
      * @param value the value whose index is to be determined
@@ -132,6 +135,10 @@ public final class ListModelUtils
             {
                 return 0;
             }
+            else if (listModel instanceof IndexedListModel)
+            {
+                return ((IndexedListModel) listModel).indexOfValue(value);
+            }
             else
             {
                 for (int index = 1; index < size; index++)
@@ -157,7 +164,8 @@ public final class ListModelUtils
      * model. This is useful for mapping between display objects and value
      * objects. The {@code ListModel} is searched for the given display object
      * and its index is returned. If the display object cannot be found, result
-     * is {@value #IDX_UNDEFINED}.
+     * is {@value #IDX_UNDEFINED}. Models implementing the
+     * {@link IndexedListModel} interface are asked directly for the index.
      *
      * @param listModel the {@code ListModel} to be searched
      * @param display the display object in question
@@ -166,6 +174,11 @@ public final class ListModelUtils
      */
     public static int getDisplayIndex(ListModel listModel, Object display)
     {
+        if (listModel instanceof IndexedListModel)
+        {
+            return ((IndexedListModel) listModel).indexOfDisplay(display);
+        }
+
         for (int i = 0; i < listModel.size(); i++)
         {
             if (ObjectUtils.equals(display, listModel.getDisplayObject(i)))
@@ -205,7 +218,9 @@ public final class ListModelUtils
      * model. This method is the equivalent of <code>getIndex()</code> for lists
      * with multi selection. Note that the returned array will not contain
      * components with a value of -1. If a value object cannot be found in the
-     * list model, no component is added to the resulting array.
+     * list model, no component is added to the resulting array. For list
+     * models implementing the {@link IndexedListModel} interface the costs of
+     * this operation are linear in the number of values.
      *
      * @param listModel the list model
      * @param values an array with the value objects
@@ -15,8 +15,11 @@
  */
 package net.sf.jguiraffe.gui.builder.components.tags;
 
+import net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.DefaultValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.ValidationPhase;
+import net.sf.jguiraffe.gui.forms.ValidatorWrapper;
+import net.sf.jguiraffe.transform.AsyncValidator;
 import net.sf.jguiraffe.transform.Validator;
 
 import org.apache.commons.jelly.JellyTagException;
@@ -37,6 +40,12 @@ import org.apache.commons.jelly.Tag;
  * Sub classes of this class will deal with specific validator types. This base
  * class provides common functionality required in all cases.
  * </p>
+ * <p>
+ * Validators implementing the {@link AsyncValidator} interface or tags with
+ * the {@code async} attribute set to <b>true</b> produce an
+ * {@link AsyncValidatorWrapper}. Such validators are executed in a background
+ * thread when the form is displayed.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: ValidatorBaseTag.java 205 2012-01-29 18:29:57Z oheger $
@@ -48,6 +57,9 @@ public class ValidatorBaseTag<T extends Validator> extends
     /** Constant for the name of the phase attribute. */
     static final String ATTR_PHASE = "phase";
 
+    /** Constant for the name of the async attribute. */
+    static final String ATTR_ASYNC = "async";
+
     /**
      * Creates a new instance of <code>ValidatorTag</code>.
      */
@@ -55,6 +67,7 @@ public class ValidatorBaseTag<T extends Validator> extends
     {
         super();
         addIgnoreProperty(ATTR_PHASE);
+        addIgnoreProperty(ATTR_ASYNC);
     }
 
     /**
@@ -67,6 +80,7 @@ public class ValidatorBaseTag<T extends Validator> extends
     {
         super(defClass);
         addIgnoreProperty(ATTR_PHASE);
+        addIgnoreProperty(ATTR_ASYNC);
     }
 
     /**
@@ -98,6 +112,43 @@ public class ValidatorBaseTag<T extends Validator> extends
         }
     }
 
+    /**
+     * Returns a flag whether the specified validator is to be executed
+     * asynchronously. This is the case if the {@code async} attribute is set
+     * to <b>true</b>. If the attribute is missing, validators implementing the
+     * {@link AsyncValidator} interface are executed asynchronously.
+     *
+     * @param bean the validator
+     * @return a flag whether this validator is executed asynchronously
+     * @since 1.5
+     */
+    protected boolean isAsync(T bean)
+    {
+        if (getAttributes().containsKey(ATTR_ASYNC))
+        {
+            return Boolean.valueOf(String.valueOf(getAttributes().get(
+                    ATTR_ASYNC)));
+        }
+        return bean instanceof AsyncValidator;
+    }
+
+    /**
+     * Creates the wrapper for the specified validator which is passed to the
+     * input component tag. Depending on the result of {@link #isAsync(Validator)}
+     * either a {@code DefaultValidatorWrapper} or an
+     * {@code AsyncValidatorWrapper} is created.
+     *
+     * @param bean the validator
+     * @return the wrapper for this validator
+     * @since 1.5
+     */
+    protected ValidatorWrapper createValidatorWrapper(T bean)
+    {
+        return isAsync(bean) ? new AsyncValidatorWrapper(bean,
+                getTransformerContext()) : new DefaultValidatorWrapper(bean,
+                getTransformerContext());
+    }
+
     /**
      * Processes the specified input component tag. The validator will be passed
      * to this tag.
@@ -112,13 +163,11 @@ public class ValidatorBaseTag<T extends Validator> extends
     {
         if (getValidationPhase() == ValidationPhase.SYNTAX)
         {
-            tag.setFieldValidator(new DefaultValidatorWrapper(bean,
-                    getTransformerContext()));
+            tag.setFieldValidator(createValidatorWrapper(bean));
         }
         else
         {
-            tag.setFormValidator(new DefaultValidatorWrapper(bean,
-                    getTransformerContext()));
+            tag.setFormValidator(createValidatorWrapper(bean));
         }
     }
 
@@ -32,6 +32,14 @@ import net.sf.jguiraffe.transform.Validator;
  * <code>{@link net.sf.jguiraffe.gui.forms.ValidationPhase ValidationPhase}</code>
  * class can be specified.
  * </p>
+ * <p>
+ * With the <code>async</code> attribute it can be specified whether the
+ * validator is to be executed in a background thread. If this attribute is
+ * missing, this is the case for validators implementing the
+ * <code>{@link net.sf.jguiraffe.transform.AsyncValidator AsyncValidator}</code>
+ * interface. While an asynchronous validation is in progress, the field is in
+ * <em>pending</em> state.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: ValidatorTag.java 205 2012-01-29 18:29:57Z oheger $
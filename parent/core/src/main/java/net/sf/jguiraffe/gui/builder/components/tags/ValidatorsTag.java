@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.apache.commons.jelly.JellyTagException;
 
+import net.sf.jguiraffe.transform.AsyncValidator;
 import net.sf.jguiraffe.transform.ChainValidator;
 import net.sf.jguiraffe.transform.Validator;
 
@@ -60,6 +61,14 @@ import net.sf.jguiraffe.transform.Validator;
  * <b>true</b>.</td>
  * <td valign="top">Yes</td>
  * </tr>
+ * <tr>
+ * <td valign="top">async</td>
+ * <td>A flag whether the resulting <code>ChainValidator</code> is to be
+ * executed in a background thread. If this attribute is not specified, this
+ * is the case if at least one of the child validators implements the
+ * <code>{@link AsyncValidator}</code> interface.</td>
+ * <td valign="top">Yes</td>
+ * </tr>
  * </table>
  * </p>
  *
@@ -93,6 +102,32 @@ public class ValidatorsTag extends ValidatorBaseTag<ChainValidator>
         validators.add(new ChildValidatorData(child, props));
     }
 
+    /**
+     * Returns a flag whether the resulting validator is to be executed
+     * asynchronously. If the {@code async} attribute is not set, this
+     * implementation checks whether one of the child validators is an
+     * {@link AsyncValidator}.
+     *
+     * @param bean the validator
+     * @return a flag whether this validator is executed asynchronously
+     * @since 1.5
+     */
+    @Override
+    protected boolean isAsync(ChainValidator bean)
+    {
+        if (!getAttributes().containsKey(ATTR_ASYNC))
+        {
+            for (ChildValidatorData cvd : validators)
+            {
+                if (cvd.isAsync())
+                {
+                    return true;
+                }
+            }
+        }
+        return super.isAsync(bean);
+    }
+
     /**
      * Passes the resulting bean to its target. This implementation initializes
      * the resulting <code>ChainValidator</code> with the child validators
@@ -139,6 +174,17 @@ public class ValidatorsTag extends ValidatorBaseTag<ChainValidator>
             properties = props;
         }
 
+        /**
+         * Returns a flag whether the child validator is to be executed
+         * asynchronously.
+         *
+         * @return a flag whether the child validator is asynchronous
+         */
+        public boolean isAsync()
+        {
+            return validator instanceof AsyncValidator;
+        }
+
         /**
          * Initializes the specified chain validator with the data stored in
          * this instance.
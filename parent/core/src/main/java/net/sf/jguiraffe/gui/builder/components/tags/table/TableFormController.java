@@ -60,6 +60,15 @@ import net.sf.jguiraffe.gui.layout.UnitSizeHandler;
  * From there it can be read (and even updated) using the typical API offered by
  * the {@code Form} class.
  * </p>
+ * <p>
+ * Because tables may contain a large number of rows and columns, the values of
+ * single cells can also be queried directly using the
+ * {@link #getCellValue(int, int)} method. For columns without a custom renderer
+ * this method only reads the property of the model bean which belongs to the
+ * requested column; the row forms are not initialized completely. The row edit
+ * form is initialized lazily only if a row is actually edited. This is done by
+ * the {@link #selectEditRow(int)} method.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id$
@@ -85,6 +94,9 @@ public class TableFormController
     /** The index of the current row. */
     private int currentRow = INVALID_ROW;
 
+    /** The index of the row the render form is initialized for. */
+    private int renderRow = INVALID_ROW;
+
     /**
      * Creates a new instance of {@code TableFormController} and initializes it
      * from the passed in {@code TableTag}.
@@ -191,18 +203,50 @@ public class TableFormController
     /**
      * Tells this controller that the specified row becomes the current row.
      * This method causes some initializations to be made. Namely, the forms
-     * representing the content of the row are initialized.
+     * representing the content of the row are initialized. This is equivalent
+     * to calling both {@link #selectRenderRow(int)} and
+     * {@link #selectEditRow(int)}.
      *
      * @param row the index of the new current row
      */
     public void selectCurrentRow(int row)
+    {
+        selectRenderRow(row);
+        selectEditRow(row);
+    }
+
+    /**
+     * Initializes the row render form with the data of the specified row. The
+     * form is only initialized if it does not already contain the data of
+     * this row.
+     *
+     * @param row the index of the row to be rendered
+     * @since 1.5
+     */
+    public void selectRenderRow(int row)
+    {
+        if (row != renderRow)
+        {
+            renderRow = row;
+            getTableTag().getRowRenderForm().initFields(getModelBean(row));
+        }
+    }
+
+    /**
+     * Tells this controller that the specified row is going to be edited. This
+     * method initializes the row edit form with the data of this row if this
+     * has not been done before. The row then becomes the current row which is
+     * affected by validation and update operations.
+     *
+     * @param row the index of the row to be edited
+     * @since 1.5
+     */
+    public void selectEditRow(int row)
     {
         if (row != currentRow)
         {
             currentRow = row;
-            Object bean = getModelBean(row);
-            getTableTag().getRowRenderForm().initFields(bean);
-            getTableTag().getRowEditForm().initFields(bean);
+            getTableTag().getRowEditForm().initFields(getModelBean(row));
         }
     }
 
@@ -215,11 +259,13 @@ public class TableFormController
     public void resetCurrentRow()
     {
         currentRow = INVALID_ROW;
+        renderRow = INVALID_ROW;
     }
 
     /**
      * Notifies this controller that a range of rows has changed in the
-     * underlying table model. If the current row is affected, it is reset.
+     * underlying table model. If the current row or the row the render form
+     * has been initialized for is affected, it is reset.
      *
      * @param fromIdx the start row index of the affected range
      * @param toIdx the end row index of the affected change (including)
@@ -228,8 +274,45 @@ public class TableFormController
     {
         if (fromIdx <= currentRow && toIdx >= currentRow)
         {
-            resetCurrentRow();
+            currentRow = INVALID_ROW;
+        }
+        if (fromIdx <= renderRow && toIdx >= renderRow)
+        {
+            renderRow = INVALID_ROW;
+        }
+    }
+
+    /**
+     * Returns the value of the specified cell. This method can be used by
+     * table implementations to obtain the data to be displayed. If the column
+     * has a custom renderer, the whole row render form has to be initialized
+     * because the renderer may display multiple fields. Otherwise, only the
+     * field associated with this column is initialized from the model bean;
+     * so only a single property is read and transformed. (If the render form
+     * has already been fully initialized for this row, no initialization is
+     * necessary at all.) A partial initialization invalidates the render row,
+     * so that a following {@code selectRenderRow()} call initializes all
+     * fields again. The row edit form is not touched.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the value of this cell
+     * @since 1.5
+     */
+    public Object getCellValue(int row, int col)
+    {
+        if (hasRenderer(col))
+        {
+            selectRenderRow(row);
+        }
+        else if (row != renderRow)
+        {
+            // the render form now contains fields from different rows
+            renderRow = INVALID_ROW;
+            getTableTag().getRowRenderForm().initFields(getModelBean(row),
+                    Collections.singleton(getColumnFieldName(col)));
         }
+        return getColumnValue(col);
     }
 
     /**
@@ -255,7 +338,8 @@ public class TableFormController
      * validation is performed. The table's validation handler is invoked with
      * the results of the validation. Depending on this, the table is updated or
      * the changes are discarded. Note: Before this method can be used,
-     * {@code selectCurrentRow()} must have been called first.
+     * {@code selectCurrentRow()} or {@code selectEditRow()} must have been
+     * called first.
      *
      * @param table the current table component
      * @param col the index of the column in question
@@ -16,16 +16,16 @@
 package net.sf.jguiraffe.gui.builder.event;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EventListener;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-import javax.swing.event.EventListenerList;
-
 import net.sf.jguiraffe.di.InjectionException;
 import net.sf.jguiraffe.di.InvocationHelper;
 import net.sf.jguiraffe.gui.forms.ComponentHandler;
@@ -62,6 +62,15 @@ import org.apache.commons.logging.LogFactory;
  * listeners in an invoked event handler.
  * </p>
  * <p>
+ * The listeners are managed separately for each listener type. The listeners
+ * registered for a type and a component are stored in arrays which are
+ * replaced on each change (copy-on-write). So firing an event does not require
+ * any locks; it just operates on the current snapshot of listeners. Adding or
+ * removing listeners is synchronized per listener type only. Thus, for instance
+ * the registration of focus listeners does not block the dispatching or the
+ * registration of action listeners.
+ * </p>
+ * <p>
  * This event manager class provides an additional level of abstraction over the
  * platform (i.e. GUI library) specific event manager class (the concrete
  * implementation of the {@link PlatformEventManager} interface).
@@ -106,18 +115,12 @@ public class FormEventManager
     /** Holds a reference to the component store storing the actual components. */
     private ComponentStore componentStore;
 
-    /** A map with event listeners that are registered at specific components. */
-    private final Map<String, EventListenerList> namedListeners;
-
-    /** Stores then listeners that are registered for all components. */
-    private final EventListenerList allListeners;
+    /** A map with the listener registries for the supported listener types. */
+    private final Map<FormListenerType, ListenerRegistry> registries;
 
     /** A helper object for invoking a method using reflection. */
     private final InvocationHelper invocationHelper;
 
-    /** A lock for protecting adding and removing event listeners. */
-    private final Lock lockListeners;
-
     /**
      * Creates a new instance of <code>FormEventManager</code> and sets the
      * platform specific event manager.
@@ -127,9 +130,7 @@ public class FormEventManager
     public FormEventManager(PlatformEventManager platformEventManager)
     {
         this.platformEventManager = platformEventManager;
-        namedListeners = new HashMap<String, EventListenerList>();
-        allListeners = new EventListenerList();
-        lockListeners = new ReentrantLock();
+        registries = createRegistries();
         invocationHelper = new InvocationHelper();
     }
 
@@ -376,32 +377,21 @@ public class FormEventManager
      * correctly filled. From the event the name of the affected component is
      * extracted. All event listeners of the specified type that are registered
      * for this specific component are notified first. Then the unspecific event
-     * listeners are invoked.
+     * listeners are invoked. No locks are acquired; listeners added or removed
+     * while the event is fired do not affect this event.
      *
      * @param event the event
      * @param type the event listener type
      */
     public void fireEvent(FormEvent event, FormListenerType type)
     {
-        lock(type);
-        try
-        {
-            if (event.getName() != null)
-            {
-                EventListenerList listeners = fetchListenersForComponent(event
-                        .getName(), false);
-                if (listeners != null)
-                {
-                    type.callListeners(listeners, event);
-                }
-            }
-
-            type.callListeners(allListeners, event);
-        }
-        finally
+        ListenerRegistry registry = registries.get(type);
+        if (event.getName() != null)
         {
-            unlock(type);
+            callListeners(type, registry.getNamedListeners(event.getName()),
+                    event);
         }
+        callListeners(type, registry.getAllListeners(), event);
     }
 
     /**
@@ -580,18 +570,19 @@ public class FormEventManager
         lock(type);
         try
         {
-            if (fetchAllListenerCount(type) == 0
-                    && fetchNamedListenerCount(name, type) == 0)
+            ListenerRegistry registry = registries.get(type);
+            if (registry.getAllListeners().length == 0
+                    && registry.getNamedListeners(name).length == 0)
             {
                 if (log.isInfoEnabled())
                 {
                     log.info("Registering listener of type " + type.name()
                             + " for component " + name);
-                    getPlatformEventManager().registerListener(name, ch, this,
-                            type);
                 }
+                getPlatformEventManager().registerListener(name, ch, this,
+                        type);
             }
-            registerListener(type, l, fetchListenersForComponent(name, true));
+            registry.addNamedListener(name, l);
         }
         finally
         {
@@ -612,12 +603,13 @@ public class FormEventManager
         lock(type);
         try
         {
-            if (fetchAllListenerCount(type) < 1)
+            ListenerRegistry registry = registries.get(type);
+            if (registry.getAllListeners().length < 1)
             {
                 for (String compName : getComponentStore()
                         .getComponentHandlerNames())
                 {
-                    if (fetchNamedListenerCount(compName, type) < 1)
+                    if (registry.getNamedListeners(compName).length < 1)
                     {
                         if (log.isInfoEnabled())
                         {
@@ -631,7 +623,7 @@ public class FormEventManager
                 }
             }
 
-            registerListener(type, l, allListeners);
+            registry.addAllListener(l);
         }
         finally
         {
@@ -653,20 +645,17 @@ public class FormEventManager
         lock(type);
         try
         {
-            int countBefore = fetchNamedListenerCount(name, type);
-            if (countBefore > 0)
+            ListenerRegistry registry = registries.get(type);
+            if (registry.removeNamedListener(name, l))
             {
-                unregisterListener(type, l, fetchListenersForComponent(name,
-                        false));
-
-                int countAfter = fetchNamedListenerCount(name, type);
-                if (countAfter == 0 && fetchAllListenerCount(type) == 0)
+                if (registry.getNamedListeners(name).length == 0
+                        && registry.getAllListeners().length == 0)
                 {
                     getPlatformEventManager().unregisterListener(name,
                             getComponentHandler(name), this, type);
                 }
 
-                return countBefore > countAfter;
+                return true;
             }
         }
         finally
@@ -689,18 +678,15 @@ public class FormEventManager
         lock(type);
         try
         {
-            int countBefore = fetchAllListenerCount(type);
-            if (countBefore > 0)
+            ListenerRegistry registry = registries.get(type);
+            if (registry.removeAllListener(l))
             {
-                unregisterListener(type, l, allListeners);
-
-                int countAfter = fetchAllListenerCount(type);
-                if (countAfter == 0)
+                if (registry.getAllListeners().length == 0)
                 {
                     for (String name : getComponentStore()
                             .getComponentHandlerNames())
                     {
-                        if (fetchNamedListenerCount(name, type) < 1)
+                        if (registry.getNamedListeners(name).length < 1)
                         {
                             getPlatformEventManager().unregisterListener(name,
                                     getComponentHandler(name), this, type);
@@ -708,7 +694,7 @@ public class FormEventManager
                     }
                 }
 
-                return countBefore > countAfter;
+                return true;
             }
         }
         finally
@@ -722,16 +708,14 @@ public class FormEventManager
     /**
      * Obtains the lock for the specified listener type. Adding or removing
      * event listeners of the same type is not possible concurrently, so locks
-     * must be used. However in theory listeners of different types can be
-     * processed simultaneously. However practice has shown that this is
-     * problematic (especially on machines with a dual core processor). So we
-     * perform a strict locking here.
+     * must be used. Listeners of different types are managed by independent
+     * registries; so they can be processed simultaneously.
      *
      * @param type the listener type to be locked
      */
     private void lock(FormListenerType type)
     {
-        lockListeners.lock();
+        registries.get(type).lock();
     }
 
     /**
@@ -742,90 +726,7 @@ public class FormEventManager
      */
     private void unlock(FormListenerType type)
     {
-        lockListeners.unlock();
-    }
-
-    /**
-     * Fetches the list with the event listeners registered for the specified
-     * component. This list will be created lazily on the first write access.
-     * The <code>create</code> parameter determines whether the list should be
-     * created if it does not exist yet. If it is <b>false</b>, the return value
-     * may be <b>null</b>.
-     *
-     * @param name the name of the component
-     * @param create the create flag
-     * @return the list with the event listeners registered at this component
-     */
-    private EventListenerList fetchListenersForComponent(String name,
-            boolean create)
-    {
-        synchronized (namedListeners)
-        {
-            EventListenerList result = namedListeners.get(name);
-            if (create && result == null)
-            {
-                result = new EventListenerList();
-                namedListeners.put(name, result);
-            }
-            return result;
-        }
-    }
-
-    /**
-     * Determines the number of event listeners of the given type that are
-     * registered at the component with the given name.
-     *
-     * @param name the name of the component
-     * @param type the event listener type
-     * @return the number of registered listeners of that type
-     */
-    private int fetchNamedListenerCount(String name, FormListenerType type)
-    {
-        EventListenerList lst = fetchListenersForComponent(name, false);
-        return (lst != null) ? lst.getListenerCount(type.getListenerClass())
-                : 0;
-    }
-
-    /**
-     * Returns the number of event listeners of the specified type that are
-     * registered at all components.
-     *
-     * @param type the event listener type
-     * @return the number of all event listeners of that type
-     */
-    private int fetchAllListenerCount(FormListenerType type)
-    {
-        return allListeners.getListenerCount(type.getListenerClass());
-    }
-
-    /**
-     * Adds an event listener of the specified type to the given event listener
-     * list.
-     *
-     * @param type the type
-     * @param l the listener
-     * @param listeners the list with the listeners
-     */
-    @SuppressWarnings("unchecked")
-    private void registerListener(FormListenerType type, FormEventListener l,
-            EventListenerList listeners)
-    {
-        listeners.add((Class<FormEventListener>) type.getListenerClass(), l);
-    }
-
-    /**
-     * Removes a listener of the specified type from the given event listener
-     * list.
-     *
-     * @param type the type
-     * @param l the listener
-     * @param listeners the list with the listeners
-     */
-    @SuppressWarnings("unchecked")
-    private void unregisterListener(FormListenerType type, FormEventListener l,
-            EventListenerList listeners)
-    {
-        listeners.remove((Class<FormEventListener>) type.getListenerClass(), l);
+        registries.get(type).unlock();
     }
 
     /**
@@ -997,4 +898,221 @@ public class FormEventManager
             return false;
         }
     }
+
+    /**
+     * Creates the map with the registries for all supported listener types.
+     *
+     * @return the map with listener registries
+     */
+    private static Map<FormListenerType, ListenerRegistry> createRegistries()
+    {
+        Map<FormListenerType, ListenerRegistry> map =
+                new EnumMap<FormListenerType, ListenerRegistry>(
+                        FormListenerType.class);
+        for (FormListenerType t : FormListenerType.values())
+        {
+            map.put(t, new ListenerRegistry());
+        }
+        return map;
+    }
+
+    /**
+     * Invokes the specified event listeners. The listeners are called in
+     * reverse order of their registration (as is done by Swing's
+     * {@code EventListenerList}).
+     *
+     * @param type the event listener type
+     * @param listeners the array with the listeners to be invoked
+     * @param event the event to be passed to the listeners
+     */
+    private static void callListeners(FormListenerType type,
+            FormEventListener[] listeners, FormEvent event)
+    {
+        for (int i = listeners.length - 1; i >= 0; i--)
+        {
+            type.callListener(listeners[i], event);
+        }
+    }
+
+    /**
+     * Removes the last occurrence of the specified listener from an array. If
+     * the listener cannot be found, result is <b>null</b>.
+     *
+     * @param listeners the array with listeners
+     * @param l the listener to be removed
+     * @return the new array or <b>null</b> if the listener was not found
+     */
+    private static FormEventListener[] removeListener(
+            FormEventListener[] listeners, FormEventListener l)
+    {
+        for (int i = listeners.length - 1; i >= 0; i--)
+        {
+            if (listeners[i] == l)
+            {
+                FormEventListener[] result =
+                        new FormEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, result, 0, i);
+                System.arraycopy(listeners, i + 1, result, i, result.length
+                        - i);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a listener to an array. A new array is returned.
+     *
+     * @param listeners the array with listeners
+     * @param l the listener to be added
+     * @return the new array
+     */
+    private static FormEventListener[] addListener(
+            FormEventListener[] listeners, FormEventListener l)
+    {
+        FormEventListener[] result =
+                new FormEventListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, result, 0, listeners.length);
+        result[listeners.length] = l;
+        return result;
+    }
+
+    /**
+     * A class for storing the event listeners of a specific type. The
+     * listeners are held in arrays which are never modified; on each change a
+     * new array is created (copy-on-write). So the listeners can be read
+     * without locking. Changes are guarded by a lock which is specific to the
+     * listener type.
+     */
+    private static class ListenerRegistry
+    {
+        /** Constant for an empty listener array. */
+        private static final FormEventListener[] NO_LISTENERS =
+                new FormEventListener[0];
+
+        /** The lock for changing the listeners of this type. */
+        private final Lock lock;
+
+        /** A map with the listeners registered at specific components. */
+        private final ConcurrentMap<String, FormEventListener[]> namedListeners;
+
+        /** Stores the listeners that are registered for all components. */
+        private volatile FormEventListener[] allListeners;
+
+        /**
+         * Creates a new instance of {@code ListenerRegistry}.
+         */
+        public ListenerRegistry()
+        {
+            lock = new ReentrantLock();
+            namedListeners =
+                    new ConcurrentHashMap<String, FormEventListener[]>();
+            allListeners = NO_LISTENERS;
+        }
+
+        /**
+         * Obtains the lock of this registry.
+         */
+        public void lock()
+        {
+            lock.lock();
+        }
+
+        /**
+         * Releases the lock of this registry.
+         */
+        public void unlock()
+        {
+            lock.unlock();
+        }
+
+        /**
+         * Returns the current listeners registered for all components. The
+         * array must not be modified.
+         *
+         * @return the all listeners
+         */
+        public FormEventListener[] getAllListeners()
+        {
+            return allListeners;
+        }
+
+        /**
+         * Returns the current listeners registered at the specified component.
+         * The array must not be modified.
+         *
+         * @param name the name of the component
+         * @return the listeners registered at this component
+         */
+        public FormEventListener[] getNamedListeners(String name)
+        {
+            FormEventListener[] listeners = namedListeners.get(name);
+            return (listeners != null) ? listeners : NO_LISTENERS;
+        }
+
+        /**
+         * Adds a listener for all components. The lock must be held.
+         *
+         * @param l the listener
+         */
+        public void addAllListener(FormEventListener l)
+        {
+            allListeners = addListener(allListeners, l);
+        }
+
+        /**
+         * Adds a listener for a specific component. The lock must be held.
+         *
+         * @param name the name of the component
+         * @param l the listener
+         */
+        public void addNamedListener(String name, FormEventListener l)
+        {
+            namedListeners.put(name, addListener(getNamedListeners(name), l));
+        }
+
+        /**
+         * Removes a listener for all components. The lock must be held.
+         *
+         * @param l the listener
+         * @return a flag whether the listener was found
+         */
+        public boolean removeAllListener(FormEventListener l)
+        {
+            FormEventListener[] listeners = removeListener(allListeners, l);
+            if (listeners == null)
+            {
+                return false;
+            }
+            allListeners = listeners;
+            return true;
+        }
+
+        /**
+         * Removes a listener for a specific component. The lock must be held.
+         *
+         * @param name the name of the component
+         * @param l the listener
+         * @return a flag whether the listener was found
+         */
+        public boolean removeNamedListener(String name, FormEventListener l)
+        {
+            FormEventListener[] listeners =
+                    removeListener(getNamedListeners(name), l);
+            if (listeners == null)
+            {
+                return false;
+            }
+
+            if (listeners.length == 0)
+            {
+                namedListeners.remove(name);
+            }
+            else
+            {
+                namedListeners.put(name, listeners);
+            }
+            return true;
+        }
+    }
 }
@@ -38,8 +38,12 @@ import net.sf.jguiraffe.locators.LocatorUtils;
 
 import org.apache.commons.jelly.JellyContext;
 import org.apache.commons.jelly.JellyException;
+import org.apache.commons.jelly.Script;
 import org.apache.commons.jelly.XMLOutput;
+import org.apache.commons.jelly.parser.XMLParser;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 /**
  * <p>
@@ -52,6 +56,11 @@ import org.xml.sax.InputSource;
  * <em>dependency injection tag library</em> ({@link DITagLibrary}).
  * Then it invokes <em>Jelly</em> for evaluating the specified script.
  * </p>
+ * <p>
+ * Optionally, a {@link ScriptCache} can be set. Then parsed scripts are
+ * stored in this cache and reused by further builder operations, which avoids
+ * parsing the same script again and again.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: JellyBeanBuilder.java 205 2012-01-29 18:29:57Z oheger $
@@ -61,6 +70,9 @@ public class JellyBeanBuilder implements BeanBuilder
     /** Stores the name space URI to be used for the DI builder tag library. */
     private String diBuilderNameSpaceURI;
 
+    /** The cache for parsed scripts. */
+    private ScriptCache scriptCache;
+
     /**
      * Creates a new instance of <code>JellyBeanBuilder</code>. Instances
      * should only be created using the factory.
@@ -90,6 +102,31 @@ public class JellyBeanBuilder implements BeanBuilder
         this.diBuilderNameSpaceURI = diBuilderNameSpaceURI;
     }
 
+    /**
+     * Returns the cache for parsed scripts used by this builder. Result may
+     * be <b>null</b> if no cache has been set.
+     *
+     * @return the {@code ScriptCache}
+     * @since 1.5
+     */
+    public ScriptCache getScriptCache()
+    {
+        return scriptCache;
+    }
+
+    /**
+     * Sets the cache for parsed scripts. If a cache is set, scripts are only
+     * parsed if they cannot be found in the cache. Passing in <b>null</b>
+     * disables caching.
+     *
+     * @param scriptCache the {@code ScriptCache}
+     * @since 1.5
+     */
+    public void setScriptCache(ScriptCache scriptCache)
+    {
+        this.scriptCache = scriptCache;
+    }
+
     /**
      * {@inheritDoc} This implementation just calls the other {@code build()}
      * method passing in a <b>null</b> {@link InvocationHelper}.
@@ -274,13 +311,17 @@ public class JellyBeanBuilder implements BeanBuilder
     /**
      * Creates the Jelly context for executing the builder script. This method
      * is called by <code>setUpJellyContext()</code>. Its task is only the
-     * creation of the context, not its initialization.
+     * creation of the context, not its initialization. If a
+     * {@link ScriptCache} is set, the context returned by this implementation
+     * uses it when compiling scripts.
      *
      * @return the newly created context
      */
     protected JellyContext createJellyContext()
     {
-        return new JellyContext();
+        ScriptCache cache = getScriptCache();
+        return (cache != null) ? new ScriptCachingContext(cache)
+                : new JellyContext();
     }
 
     /**
@@ -382,6 +423,135 @@ public class JellyBeanBuilder implements BeanBuilder
         }
     }
 
+    /**
+     * A specialized Jelly context implementation which uses a
+     * {@link ScriptCache} for compiling scripts. If a script can be cached, it
+     * is either parsed and recorded, or - if it has already been parsed - the
+     * recorded events are replayed. In both cases a new script is compiled,
+     * so that the tags it creates are not shared with other executions.
+     */
+    private static class ScriptCachingContext extends JellyContext
+    {
+        /** Constant for the error message if parsing fails. */
+        private static final String ERR_PARSE = "Could not parse Jelly script";
+
+        /** The script cache. */
+        private final ScriptCache cache;
+
+        /**
+         * Creates a new instance of {@code ScriptCachingContext}.
+         *
+         * @param scriptCache the script cache
+         */
+        public ScriptCachingContext(ScriptCache scriptCache)
+        {
+            cache = scriptCache;
+        }
+
+        /**
+         * Compiles the script defined by the given input source. This
+         * implementation first checks whether the script is available in the
+         * cache. If so, it is compiled from the cached data. Otherwise, it is
+         * parsed, and the results of parsing are stored in the cache.
+         *
+         * @param source the input source for the script
+         * @return the compiled script
+         * @throws JellyException if an error occurs
+         */
+        @Override
+        public Script compileScript(InputSource source) throws JellyException
+        {
+            String sysID = source.getSystemId();
+            if (!cache.isCacheable(sysID))
+            {
+                return super.compileScript(source);
+            }
+
+            RecordedScript recorded = cache.get(sysID);
+            if (recorded != null)
+            {
+                closeSource(source);
+                return compile(recorded.createReader(), new InputSource(sysID));
+            }
+
+            long modified = cache.currentModified(sysID);
+            RecordedScript.Recorder recorder =
+                    new RecordedScript.Recorder(createXMLReader());
+            Script script = compile(recorder, source);
+            cache.put(sysID, modified, recorder.getRecordedScript());
+            return script;
+        }
+
+        /**
+         * Creates the {@code XMLReader} for parsing a script. The reader is
+         * obtained from the default parser of this context, so that it is
+         * configured in the same way as for scripts that are not cached.
+         *
+         * @return the {@code XMLReader}
+         * @throws JellyException if the reader cannot be created
+         */
+        private XMLReader createXMLReader() throws JellyException
+        {
+            try
+            {
+                return getXMLParser().getXMLReader();
+            }
+            catch (SAXException saex)
+            {
+                throw new JellyException(ERR_PARSE, saex);
+            }
+        }
+
+        /**
+         * Compiles a script using the specified {@code XMLReader}.
+         *
+         * @param reader the reader
+         * @param source the input source for the script
+         * @return the compiled script
+         * @throws JellyException if an error occurs
+         */
+        private Script compile(XMLReader reader, InputSource source)
+                throws JellyException
+        {
+            XMLParser parser = new XMLParser(reader);
+            parser.setContext(this);
+            try
+            {
+                return parser.parse(source).compile();
+            }
+            catch (IOException ioex)
+            {
+                throw new JellyException(ERR_PARSE, ioex);
+            }
+            catch (SAXException saex)
+            {
+                throw new JellyException(ERR_PARSE, saex);
+            }
+        }
+
+        /**
+         * Closes the stream of the given input source. This is necessary if
+         * the stream is not consumed because the script was found in the
+         * cache.
+         *
+         * @param source the input source
+         */
+        private static void closeSource(InputSource source)
+        {
+            if (source.getByteStream() != null)
+            {
+                try
+                {
+                    source.getByteStream().close();
+                }
+                catch (IOException ioex)
+                {
+                    // ignore, the stream is no longer needed
+                }
+            }
+        }
+    }
+
     /**
      * An implementation of the {@code BeanBuilderResult} interface
      * specific for this builder implementation. This class delegates to a
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.LocatorImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * <p>
+ * An internally used helper class which stores the SAX events produced by
+ * parsing a builder script.
+ * </p>
+ * <p>
+ * Compiled Jelly scripts cannot be shared between builder operations: Jelly
+ * stores the tags created during the execution of a script in the script
+ * objects, so a second execution would interfere with the first one.
+ * Therefore, {@link ScriptCache} does not store compiled scripts, but the
+ * result of parsing the XML document. An instance of this class is created by
+ * a {@link Recorder}, which is placed between the XML parser and Jelly's
+ * {@code XMLParser}. Later the reader returned by {@link #createReader()} can
+ * be passed to a new {@code XMLParser}; it replays the recorded events, so
+ * that a new script can be compiled without parsing the document again.
+ * </p>
+ * <p>
+ * Implementation note: Instances of this class are immutable and can be
+ * shared between multiple threads.
+ * </p>
+ *
+ * @since 1.5
+ */
+final class RecordedScript
+{
+    /** The list with the recorded events. */
+    private final List<Event> events;
+
+    /**
+     * Creates a new instance of {@code RecordedScript}.
+     *
+     * @param evs the list with the recorded events
+     */
+    private RecordedScript(List<Event> evs)
+    {
+        events = Collections.unmodifiableList(new ArrayList<Event>(evs));
+    }
+
+    /**
+     * Returns the number of events stored in this object.
+     *
+     * @return the number of recorded events
+     */
+    public int getEventCount()
+    {
+        return events.size();
+    }
+
+    /**
+     * Returns a new {@code XMLReader} which replays the events stored in this
+     * object. The reader ignores the content of the {@code InputSource}
+     * passed to its {@code parse()} method; only the system ID is evaluated.
+     *
+     * @return the reader for replaying this script
+     */
+    public XMLReader createReader()
+    {
+        return new Player(events);
+    }
+
+    /**
+     * An enumeration for the types of SAX events that can be recorded. Each
+     * literal knows how to pass an event of its type to a content handler.
+     */
+    private static enum EventType
+    {
+        START_PREFIX_MAPPING
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.startPrefixMapping(e.name1, e.name2);
+            }
+        },
+
+        END_PREFIX_MAPPING
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.endPrefixMapping(e.name1);
+            }
+        },
+
+        START_ELEMENT
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.startElement(e.name1, e.name2, e.name3, e.attributes);
+            }
+        },
+
+        END_ELEMENT
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.endElement(e.name1, e.name2, e.name3);
+            }
+        },
+
+        CHARACTERS
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.characters(e.text, 0, e.text.length);
+            }
+        },
+
+        IGNORABLE_WHITESPACE
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.ignorableWhitespace(e.text, 0, e.text.length);
+            }
+        },
+
+        PROCESSING_INSTRUCTION
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.processingInstruction(e.name1, e.name2);
+            }
+        },
+
+        SKIPPED_ENTITY
+        {
+            @Override
+            void replay(Event e, ContentHandler handler) throws SAXException
+            {
+                handler.skippedEntity(e.name1);
+            }
+        };
+
+        /**
+         * Passes the given event to the specified content handler.
+         *
+         * @param e the event
+         * @param handler the content handler
+         * @throws SAXException if the handler throws an exception
+         */
+        abstract void replay(Event e, ContentHandler handler)
+                throws SAXException;
+    }
+
+    /**
+     * A simple data class representing a recorded SAX event. The meaning of
+     * the properties depends on the event type.
+     */
+    private static class Event
+    {
+        /** The type of this event. */
+        final EventType type;
+
+        /** The first name, e.g. the namespace URI of an element. */
+        final String name1;
+
+        /** The second name, e.g. the local name of an element. */
+        final String name2;
+
+        /** The third name, e.g. the qualified name of an element. */
+        final String name3;
+
+        /** The attributes of an element. */
+        final Attributes attributes;
+
+        /** The characters of a text event. */
+        final char[] text;
+
+        /** The line number of this event. */
+        final int lineNumber;
+
+        /** The column number of this event. */
+        final int columnNumber;
+
+        /**
+         * Creates a new instance of {@code Event}.
+         *
+         * @param t the event type
+         * @param n1 the first name
+         * @param n2 the second name
+         * @param n3 the third name
+         * @param attrs the attributes
+         * @param txt the characters
+         * @param locator the locator for obtaining the position (may be
+         *        <b>null</b>)
+         */
+        public Event(EventType t, String n1, String n2, String n3,
+                Attributes attrs, char[] txt, Locator locator)
+        {
+            type = t;
+            name1 = n1;
+            name2 = n2;
+            name3 = n3;
+            attributes = attrs;
+            text = txt;
+            lineNumber = (locator != null) ? locator.getLineNumber() : -1;
+            columnNumber = (locator != null) ? locator.getColumnNumber() : -1;
+        }
+    }
+
+    /**
+     * <p>
+     * An XML filter which records the SAX events passed through it.
+     * </p>
+     * <p>
+     * An instance is created for the {@code XMLReader} which actually parses
+     * a script. It can then be passed to Jelly's {@code XMLParser}. All
+     * events are forwarded to the parser, so that the script is compiled as
+     * usual. After parsing, the recorded events can be obtained using
+     * {@link #getRecordedScript()}.
+     * </p>
+     */
+    public static class Recorder extends XMLFilterImpl
+    {
+        /** The list with the recorded events. */
+        private final List<Event> recordedEvents;
+
+        /** The locator of the parser. */
+        private Locator locator;
+
+        /**
+         * Creates a new instance of {@code Recorder} and sets the reader
+         * which actually parses the script.
+         *
+         * @param parent the parent reader
+         */
+        public Recorder(XMLReader parent)
+        {
+            super(parent);
+            recordedEvents = new ArrayList<Event>();
+        }
+
+        /**
+         * Returns a {@code RecordedScript} object with the events recorded
+         * so far.
+         *
+         * @return the {@code RecordedScript}
+         */
+        public RecordedScript getRecordedScript()
+        {
+            return new RecordedScript(recordedEvents);
+        }
+
+        @Override
+        public void setDocumentLocator(Locator loc)
+        {
+            locator = loc;
+            super.setDocumentLocator(loc);
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri)
+                throws SAXException
+        {
+            record(EventType.START_PREFIX_MAPPING, prefix, uri, null, null,
+                    null);
+            super.startPrefixMapping(prefix, uri);
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException
+        {
+            record(EventType.END_PREFIX_MAPPING, prefix, null, null, null,
+                    null);
+            super.endPrefixMapping(prefix);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName,
+                Attributes atts) throws SAXException
+        {
+            record(EventType.START_ELEMENT, uri, localName, qName,
+                    new AttributesImpl(atts), null);
+            super.startElement(uri, localName, qName, atts);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName)
+                throws SAXException
+        {
+            record(EventType.END_ELEMENT, uri, localName, qName, null, null);
+            super.endElement(uri, localName, qName);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length)
+                throws SAXException
+        {
+            record(EventType.CHARACTERS, null, null, null, null,
+                    copy(ch, start, length));
+            super.characters(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length)
+                throws SAXException
+        {
+            record(EventType.IGNORABLE_WHITESPACE, null, null, null, null,
+                    copy(ch, start, length));
+            super.ignorableWhitespace(ch, start, length);
+        }
+
+        @Override
+        public void processingInstruction(String target, String data)
+                throws SAXException
+        {
+            record(EventType.PROCESSING_INSTRUCTION, target, data, null,
+                    null, null);
+            super.processingInstruction(target, data);
+        }
+
+        @Override
+        public void skippedEntity(String name) throws SAXException
+        {
+            record(EventType.SKIPPED_ENTITY, name, null, null, null, null);
+            super.skippedEntity(name);
+        }
+
+        /**
+         * Adds an event to the list of recorded events.
+         *
+         * @param type the event type
+         * @param n1 the first name
+         * @param n2 the second name
+         * @param n3 the third name
+         * @param attrs the attributes
+         * @param txt the characters
+         */
+        private void record(EventType type, String n1, String n2, String n3,
+                Attributes attrs, char[] txt)
+        {
+            recordedEvents.add(new Event(type, n1, n2, n3, attrs, txt,
+                    locator));
+        }
+
+        /**
+         * Copies a range of a character array.
+         *
+         * @param ch the array
+         * @param start the start index
+         * @param length the length of the range
+         * @return the copied range
+         */
+        private static char[] copy(char[] ch, int start, int length)
+        {
+            char[] result = new char[length];
+            System.arraycopy(ch, start, result, 0, length);
+            return result;
+        }
+    }
+
+    /**
+     * An {@code XMLReader} implementation which passes recorded events to its
+     * content handler.
+     */
+    private static class Player extends XMLFilterImpl
+    {
+        /** The events to be replayed. */
+        private final List<Event> events;
+
+        /**
+         * Creates a new instance of {@code Player}.
+         *
+         * @param evs the events to be replayed
+         */
+        public Player(List<Event> evs)
+        {
+            events = evs;
+        }
+
+        /**
+         * Replays the recorded events. The system ID of the input source is
+         * reported by the locator passed to the content handler.
+         *
+         * @param input the input source
+         * @throws SAXException if the content handler throws an exception
+         */
+        @Override
+        public void parse(InputSource input) throws SAXException
+        {
+            ContentHandler handler = getContentHandler();
+            LocatorImpl loc = new LocatorImpl();
+            loc.setSystemId(input.getSystemId());
+            loc.setPublicId(input.getPublicId());
+            handler.setDocumentLocator(loc);
+            handler.startDocument();
+            for (Event e : events)
+            {
+                loc.setLineNumber(e.lineNumber);
+                loc.setColumnNumber(e.columnNumber);
+                e.type.replay(e, handler);
+            }
+            handler.endDocument();
+        }
+
+        /**
+         * Replays the recorded events for the given system ID.
+         *
+         * @param systemId the system ID
+         * @throws IOException if an error occurs
+         * @throws SAXException if the content handler throws an exception
+         */
+        @Override
+        public void parse(String systemId) throws IOException, SAXException
+        {
+            parse(new InputSource(systemId));
+        }
+    }
+}
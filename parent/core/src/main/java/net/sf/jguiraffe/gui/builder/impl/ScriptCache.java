@@ -0,0 +1,489 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A class for caching parsed Jelly scripts.
+ * </p>
+ * <p>
+ * Parsing a builder script is a significant part of the costs of a builder
+ * operation. If the same script is executed multiple times (e.g. for a dialog
+ * which is opened frequently), the results of parsing can be reused. This is
+ * what this class is about: it stores parsed scripts and provides them for
+ * further builder operations.
+ * </p>
+ * <p>
+ * Compiled Jelly {@code Script} objects are not suitable for being shared:
+ * Jelly stores the tag instances created during the execution of a script in
+ * the script objects. So this class stores the events produced by the XML
+ * parser for a script. For each builder operation a new script is compiled
+ * from these events. This is cheaper than parsing the script again, and the
+ * scripts of different builder operations - also of nested builder operations
+ * executing the same script on the same thread - are independent of each
+ * other.
+ * </p>
+ * <p>
+ * Scripts are stored under their URL. Only scripts loaded from the file system
+ * or from a jar file (i.e. scripts on the class path) are cached. By default,
+ * it is assumed that scripts do not change at runtime. If this is not the case
+ * (e.g. during development), an interval for checking the modification times
+ * of scripts can be set. Cached scripts are then checked whether they are
+ * outdated if the last check is longer ago than this interval.
+ * </p>
+ * <p>
+ * The number of scripts stored in the cache is limited. If the limit is
+ * reached, the scripts used least recently are evicted. A maximum size of 0
+ * disables caching. An instance also keeps statistics about cache hits and
+ * misses.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ScriptCache
+{
+    /** Constant for the default maximum number of cached scripts. */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    /**
+     * Constant for the check interval which disables checks of the
+     * modification times of scripts.
+     */
+    public static final long CHECK_DISABLED = -1;
+
+    /** Constant for the file protocol. */
+    private static final String PROTOCOL_FILE = "file";
+
+    /** Constant for the jar protocol. */
+    private static final String PROTOCOL_JAR = "jar";
+
+    /** The maximum number of scripts in this cache. */
+    private final int maxSize;
+
+    /** The map with the cached scripts. */
+    private final Map<String, CacheEntry> scripts;
+
+    /** A counter for cache hits. */
+    private final AtomicLong hitCount;
+
+    /** A counter for cache misses. */
+    private final AtomicLong missCount;
+
+    /** The interval for checking modification times. */
+    private volatile long checkInterval;
+
+    /**
+     * Creates a new instance of {@code ScriptCache} with the default maximum
+     * size.
+     */
+    public ScriptCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code ScriptCache} and sets the maximum
+     * number of scripts to be cached. A value of 0 disables caching.
+     *
+     * @param maxScripts the maximum number of cached scripts
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public ScriptCache(int maxScripts)
+    {
+        if (maxScripts < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Maximum size must not be negative: " + maxScripts);
+        }
+
+        maxSize = maxScripts;
+        hitCount = new AtomicLong();
+        missCount = new AtomicLong();
+        checkInterval = CHECK_DISABLED;
+        scripts = Collections.synchronizedMap(
+                new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+        {
+            /**
+             * The serial version UID.
+             */
+            private static final long serialVersionUID = 20251016L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, CacheEntry> eldest)
+            {
+                return size() > getMaxSize();
+            }
+        });
+    }
+
+    /**
+     * Returns the maximum number of scripts stored in this cache.
+     *
+     * @return the maximum size of this cache
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the interval (in milliseconds) in which the modification times
+     * of cached scripts are checked.
+     *
+     * @return the check interval
+     */
+    public long getCheckInterval()
+    {
+        return checkInterval;
+    }
+
+    /**
+     * Sets the interval (in milliseconds) in which the modification times of
+     * cached scripts are checked. A negative value (which is the default)
+     * disables these checks; scripts are then assumed not to change. A value
+     * of 0 means that the modification time of a script is checked each time
+     * it is accessed. Note that checks are only possible for scripts whose
+     * modification time can be determined.
+     *
+     * @param interval the check interval
+     */
+    public void setCheckInterval(long interval)
+    {
+        checkInterval = interval;
+    }
+
+    /**
+     * Returns the number of scripts currently stored in this cache.
+     *
+     * @return the number of cached scripts
+     */
+    public int size()
+    {
+        return scripts.size();
+    }
+
+    /**
+     * Returns the number of cache hits recorded by this object.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cache misses recorded by this object.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * Removes all scripts from this cache and resets the statistics.
+     */
+    public void clear()
+    {
+        scripts.clear();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * Returns a flag whether caching of scripts is supported. This is the case
+     * if the maximum size is greater than 0.
+     *
+     * @return a flag whether caching is supported
+     */
+    public boolean isCachingSupported()
+    {
+        return getMaxSize() > 0;
+    }
+
+    /**
+     * Returns a flag whether the script with the specified URL can be
+     * cached. This is the case if caching is supported, and the URL points to
+     * a file or to an entry of a jar file.
+     *
+     * @param url the URL of the script (may be <b>null</b>)
+     * @return a flag whether this script can be cached
+     */
+    public boolean isCacheable(String url)
+    {
+        if (!isCachingSupported())
+        {
+            return false;
+        }
+
+        URL u = toURL(url);
+        return u != null
+                && (PROTOCOL_FILE.equals(u.getProtocol()) || PROTOCOL_JAR
+                        .equals(u.getProtocol()));
+    }
+
+    /**
+     * Returns the parsed script with the specified URL. If no script is
+     * stored for this URL, result is <b>null</b>. If checks of modification
+     * times are enabled and the check interval has passed, the current
+     * modification time of the script is compared with the one stored in the
+     * cache; if they differ, the script is considered outdated, and result is
+     * <b>null</b>, too.
+     *
+     * @param url the URL of the script
+     * @return the cached script or <b>null</b>
+     */
+    RecordedScript get(String url)
+    {
+        CacheEntry entry = scripts.get(url);
+        if (entry != null && !isOutdated(url, entry))
+        {
+            hitCount.incrementAndGet();
+            return entry.getScript();
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores a parsed script in this cache. The modification time should
+     * have been obtained using {@link #currentModified(String)} before the
+     * script was parsed. If caching is not supported, the script is not
+     * cached.
+     *
+     * @param url the URL of the script
+     * @param modified the modification time of the script
+     * @param script the parsed script
+     */
+    void put(String url, long modified, RecordedScript script)
+    {
+        if (isCachingSupported() && script != null)
+        {
+            scripts.put(url, new CacheEntry(script, modified, System
+                    .currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Returns the current modification time of the script with the specified
+     * URL if it is needed by this cache. If checks of modification times are
+     * disabled, no I/O is performed, and result is 0.
+     *
+     * @param url the URL of the script
+     * @return the modification time to be stored for this script
+     */
+    long currentModified(String url)
+    {
+        return (getCheckInterval() < 0) ? 0 : lastModified(toURL(url));
+    }
+
+    /**
+     * Determines the modification time of the resource with the specified
+     * URL. For files, the modification time is obtained directly from the file
+     * system. For other URLs, the value reported by the {@code URLConnection}
+     * is returned. Result is 0 if the modification time cannot be determined.
+     *
+     * @param url the URL of the resource
+     * @return the modification time of this resource or 0 if it is unknown
+     */
+    public static long lastModified(URL url)
+    {
+        if (url == null)
+        {
+            return 0;
+        }
+
+        try
+        {
+            if (PROTOCOL_FILE.equals(url.getProtocol()))
+            {
+                return new File(url.toURI()).lastModified();
+            }
+
+            URLConnection con = url.openConnection();
+            long modified = con.getLastModified();
+            closeQuietly(con);
+            return modified;
+        }
+        catch (IOException ioex)
+        {
+            return 0;
+        }
+        catch (URISyntaxException usex)
+        {
+            return 0;
+        }
+        catch (IllegalArgumentException iaex)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Checks whether the given cache entry is outdated. This is only done if
+     * checks are enabled and the check interval has passed since the last
+     * check.
+     *
+     * @param url the URL of the script
+     * @param entry the cache entry
+     * @return a flag whether the entry is outdated
+     */
+    private boolean isOutdated(String url, CacheEntry entry)
+    {
+        long interval = getCheckInterval();
+        if (interval < 0)
+        {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (interval > 0 && now - entry.getLastCheck() < interval)
+        {
+            return false;
+        }
+        entry.setLastCheck(now);
+        return lastModified(toURL(url)) != entry.getModified();
+    }
+
+    /**
+     * Converts the given string to a URL. Result is <b>null</b> if this is
+     * not possible.
+     *
+     * @param url the URL as string
+     * @return the URL or <b>null</b>
+     */
+    private static URL toURL(String url)
+    {
+        if (url == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return new URL(url);
+        }
+        catch (MalformedURLException mex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Releases the resources allocated by the specified connection. Occurring
+     * exceptions are ignored.
+     *
+     * @param con the connection
+     */
+    private static void closeQuietly(URLConnection con)
+    {
+        try
+        {
+            con.getInputStream().close();
+        }
+        catch (IOException ioex)
+        {
+            // ignore, the modification time has already been obtained
+        }
+    }
+
+    /**
+     * A simple data class for the entries stored in the cache.
+     */
+    private static class CacheEntry
+    {
+        /** The parsed script. */
+        private final RecordedScript script;
+
+        /** The modification time of the script. */
+        private final long modified;
+
+        /** The time of the last check of the modification time. */
+        private volatile long lastCheck;
+
+        /**
+         * Creates a new instance of {@code CacheEntry}.
+         *
+         * @param scr the script
+         * @param mod the modification time
+         * @param check the time of the last check
+         */
+        public CacheEntry(RecordedScript scr, long mod, long check)
+        {
+            script = scr;
+            modified = mod;
+            lastCheck = check;
+        }
+
+        /**
+         * Returns the parsed script.
+         *
+         * @return the script
+         */
+        public RecordedScript getScript()
+        {
+            return script;
+        }
+
+        /**
+         * Returns the modification time of the script.
+         *
+         * @return the modification time
+         */
+        public long getModified()
+        {
+            return modified;
+        }
+
+        /**
+         * Returns the time when the modification time was checked last.
+         *
+         * @return the time of the last check
+         */
+        public long getLastCheck()
+        {
+            return lastCheck;
+        }
+
+        /**
+         * Sets the time when the modification time was checked last.
+         *
+         * @param check the time of the last check
+         */
+        public void setLastCheck(long check)
+        {
+            lastCheck = check;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>
+ * A specialized {@link GUISynchronizer} implementation which collects
+ * asynchronous updates and executes them in batches on the event dispatch
+ * thread.
+ * </p>
+ * <p>
+ * An instance of this class wraps the platform-specific
+ * {@code GUISynchronizer}. Runnables passed to {@link #asyncInvoke(Runnable)}
+ * are not dispatched one by one; rather, they are stored in an internal queue.
+ * A single drain task is passed to the wrapped synchronizer which executes the
+ * queued runnables on the event dispatch thread. A batch is limited by a
+ * maximum number of runnables and a maximum time (which should correspond to
+ * the duration of a frame). If the queue contains more runnables, the drain
+ * task schedules itself again, so that the event dispatch thread can process
+ * other events (e.g. repaint requests) in the meantime. This reduces the load
+ * on the event dispatch thread if many updates have to be performed in a short
+ * time, e.g. when a large number of background commands complete at the same
+ * time.
+ * </p>
+ * <p>
+ * With the {@link #asyncInvoke(Object, Runnable)} method runnables can be
+ * associated with a key. If a runnable with the same key is still pending,
+ * it is replaced by the new one, so only the most recent update is executed.
+ * It keeps the position of the replaced runnable in the queue.
+ * </p>
+ * <p>
+ * {@link #syncInvoke(Runnable)} still blocks the calling thread. It first
+ * executes all pending runnables, so that the order in which updates have been
+ * requested is preserved. {@link net.sf.jguiraffe.gui.cmd.CommandQueueImpl
+ * CommandQueueImpl} detects this synchronizer and passes the GUI updaters of
+ * commands asynchronously, so worker threads do not have to wait for the event
+ * dispatch thread. To make use of this class, the
+ * <em>jguiraffe.guiSynchronizer</em> bean can be overridden by an instance
+ * wrapping the platform-specific synchronizer.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class BatchingGUISynchronizer implements GUISynchronizer
+{
+    /** Constant for the default maximum number of runnables in a batch. */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    /** Constant for the default maximum duration of a batch (in millis). */
+    public static final long DEFAULT_MAX_BATCH_TIME = 16;
+
+    /** The logger. */
+    private final Log log = LogFactory.getLog(getClass());
+
+    /** The wrapped synchronizer. */
+    private final GUISynchronizer synchronizer;
+
+    /** The pending runnables with their keys. */
+    private final Map<Object, Runnable> pendingRunnables;
+
+    /** The task for processing the pending runnables. */
+    private final Runnable drainTask;
+
+    /** The maximum number of runnables executed in a batch. */
+    private volatile int maxBatchSize;
+
+    /** The maximum duration of a batch in milliseconds. */
+    private volatile long maxBatchTime;
+
+    /** A flag whether the drain task has been scheduled. */
+    private boolean drainScheduled;
+
+    /**
+     * Creates a new instance of {@code BatchingGUISynchronizer} and sets the
+     * wrapped synchronizer.
+     *
+     * @param sync the wrapped {@code GUISynchronizer} (must not be
+     *        <b>null</b>)
+     * @throws IllegalArgumentException if the synchronizer is <b>null</b>
+     */
+    public BatchingGUISynchronizer(GUISynchronizer sync)
+    {
+        if (sync == null)
+        {
+            throw new IllegalArgumentException(
+                    "Wrapped synchronizer must not be null!");
+        }
+
+        synchronizer = sync;
+        pendingRunnables = new LinkedHashMap<Object, Runnable>();
+        maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        maxBatchTime = DEFAULT_MAX_BATCH_TIME;
+        drainTask = new Runnable()
+        {
+            public void run()
+            {
+                drain();
+            }
+        };
+    }
+
+    /**
+     * Returns the wrapped {@code GUISynchronizer}.
+     *
+     * @return the wrapped synchronizer
+     */
+    public GUISynchronizer getSynchronizer()
+    {
+        return synchronizer;
+    }
+
+    /**
+     * Returns the maximum number of runnables executed in a single batch.
+     *
+     * @return the maximum batch size
+     */
+    public int getMaxBatchSize()
+    {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of runnables executed in a single batch.
+     *
+     * @param size the maximum batch size (must be greater 0)
+     * @throws IllegalArgumentException if the size is invalid
+     */
+    public void setMaxBatchSize(int size)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Batch size must be greater 0: " + size);
+        }
+        maxBatchSize = size;
+    }
+
+    /**
+     * Returns the maximum time (in milliseconds) a batch may take.
+     *
+     * @return the maximum batch time
+     */
+    public long getMaxBatchTime()
+    {
+        return maxBatchTime;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a batch may take. If this time
+     * is exceeded, the remaining runnables are executed in a further batch.
+     * At least one runnable is executed per batch.
+     *
+     * @param time the maximum batch time (must be greater 0)
+     * @throws IllegalArgumentException if the time is invalid
+     */
+    public void setMaxBatchTime(long time)
+    {
+        if (time < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Batch time must be greater 0: " + time);
+        }
+        maxBatchTime = time;
+    }
+
+    /**
+     * Returns the number of runnables waiting to be executed.
+     *
+     * @return the number of pending runnables
+     */
+    public int getPendingCount()
+    {
+        synchronized (pendingRunnables)
+        {
+            return pendingRunnables.size();
+        }
+    }
+
+    /**
+     * Invokes the given runnable asynchronously on the event dispatch thread.
+     * The runnable is added to the queue of pending runnables and executed in
+     * the next batch.
+     *
+     * @param runnable the runnable to be executed (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the runnable is <b>null</b>
+     */
+    public void asyncInvoke(Runnable runnable)
+    {
+        asyncInvoke(null, runnable);
+    }
+
+    /**
+     * Invokes the given runnable asynchronously on the event dispatch thread
+     * and associates it with a key. If a runnable with an equal key is still
+     * pending, it is replaced by the new one. A <b>null</b> key means that no
+     * coalescing is performed.
+     *
+     * @param key the key for coalescing runnables (can be <b>null</b>)
+     * @param runnable the runnable to be executed (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the runnable is <b>null</b>
+     */
+    public void asyncInvoke(Object key, Runnable runnable)
+    {
+        if (runnable == null)
+        {
+            throw new IllegalArgumentException("Runnable must not be null!");
+        }
+
+        boolean schedule;
+        synchronized (pendingRunnables)
+        {
+            pendingRunnables.put((key != null) ? key : new Object(), runnable);
+            schedule = !drainScheduled;
+            drainScheduled = true;
+        }
+
+        if (schedule)
+        {
+            synchronizer.asyncInvoke(drainTask);
+        }
+    }
+
+    /**
+     * Invokes the given runnable synchronously on the event dispatch thread.
+     * Before the runnable is executed, all pending runnables are processed.
+     * If this method is called on the event dispatch thread, this is done
+     * directly.
+     *
+     * @param runnable the runnable to be executed
+     * @throws GUIRuntimeException if an error occurs
+     */
+    public void syncInvoke(final Runnable runnable)
+    {
+        Runnable task = new Runnable()
+        {
+            public void run()
+            {
+                executePending(Integer.MAX_VALUE, Long.MAX_VALUE);
+                runnable.run();
+            }
+        };
+
+        if (isEventDispatchThread())
+        {
+            task.run();
+        }
+        else
+        {
+            synchronizer.syncInvoke(task);
+        }
+    }
+
+    /**
+     * Tests whether the current thread is the event dispatch thread. This
+     * implementation delegates to the wrapped synchronizer.
+     *
+     * @return a flag if the current thread is the event dispatch thread
+     */
+    public boolean isEventDispatchThread()
+    {
+        return synchronizer.isEventDispatchThread();
+    }
+
+    /**
+     * Executes a batch of pending runnables. This method is called by the
+     * drain task on the event dispatch thread. If there are further pending
+     * runnables, the drain task is scheduled again.
+     */
+    private void drain()
+    {
+        if (executePending(getMaxBatchSize(),
+                TimeUnit.MILLISECONDS.toNanos(getMaxBatchTime())))
+        {
+            synchronizer.asyncInvoke(drainTask);
+        }
+    }
+
+    /**
+     * Executes pending runnables until the queue is empty or one of the limits
+     * is reached. If the queue becomes empty, the flag for the drain task is
+     * reset.
+     *
+     * @param maxCount the maximum number of runnables to execute
+     * @param maxNanos the maximum time in nanoseconds
+     * @return a flag whether there are remaining runnables
+     */
+    private boolean executePending(int maxCount, long maxNanos)
+    {
+        long start = System.nanoTime();
+        int count = 0;
+
+        while (count < maxCount
+                && (count == 0 || System.nanoTime() - start < maxNanos))
+        {
+            Runnable r = nextPending();
+            if (r == null)
+            {
+                return false;
+            }
+
+            try
+            {
+                r.run();
+            }
+            catch (RuntimeException rex)
+            {
+                log.error("Exception when executing GUI update.", rex);
+            }
+            count++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the next runnable from the queue. If the queue is empty, result
+     * is <b>null</b>, and the drain task is marked as finished.
+     *
+     * @return the next pending runnable or <b>null</b>
+     */
+    private Runnable nextPending()
+    {
+        synchronized (pendingRunnables)
+        {
+            Iterator<Runnable> it = pendingRunnables.values().iterator();
+            if (!it.hasNext())
+            {
+                drainScheduled = false;
+                return null;
+            }
+
+            Runnable r = it.next();
+            it.remove();
+            return r;
+        }
+    }
+}
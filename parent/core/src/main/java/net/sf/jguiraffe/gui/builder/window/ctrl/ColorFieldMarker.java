@@ -289,6 +289,58 @@ public class ColorFieldMarker implements FormControllerValidationListener,
         setBackgroundColor(FieldValidationStatus.NOT_VISITED_WARNING, c);
     }
 
+    /**
+     * Returns the foreground color for input fields in the state
+     * <em>pending</em>.
+     *
+     * @return the foreground color for fields whose validation is in progress
+     * @since 1.5
+     */
+    public Color getPendingForeground()
+    {
+        return getForegroundColor(FieldValidationStatus.PENDING);
+    }
+
+    /**
+     * Sets the foreground color for input fields in the state
+     * <em>pending</em>. This state is used for fields validated
+     * asynchronously while the validation is in progress. (If this property is
+     * not set, the foreground color of such fields won't be changed.)
+     *
+     * @param c the foreground color for fields whose validation is in progress
+     * @since 1.5
+     */
+    public void setPendingForeground(Color c)
+    {
+        setForegroundColor(FieldValidationStatus.PENDING, c);
+    }
+
+    /**
+     * Returns the background color for input fields in the state
+     * <em>pending</em>.
+     *
+     * @return the background color for fields whose validation is in progress
+     * @since 1.5
+     */
+    public Color getPendingBackground()
+    {
+        return getBackgroundColor(FieldValidationStatus.PENDING);
+    }
+
+    /**
+     * Sets the background color for input fields in the state
+     * <em>pending</em>. This state is used for fields validated
+     * asynchronously while the validation is in progress. (If this property is
+     * not set, the background color of such fields won't be changed.)
+     *
+     * @param c the background color for fields whose validation is in progress
+     * @since 1.5
+     */
+    public void setPendingBackground(Color c)
+    {
+        setBackgroundColor(FieldValidationStatus.PENDING, c);
+    }
+
     /**
      * Returns the foreground color for fields with the specified {@code
      * FieldValidationStatus}.
@@ -348,13 +400,14 @@ public class ColorFieldMarker implements FormControllerValidationListener,
     /**
      * A validation operation was performed by the {@code FormController}. This
      * implementation checks which fields need to be updated and sets the
-     * corresponding new colors.
+     * corresponding new colors. Only the fields whose validation results have
+     * changed are taken into account.
      *
      * @param event the validation event
      */
     public void validationPerformed(FormControllerValidationEvent event)
     {
-        for (String field : event.getValidationResults().getFieldNames())
+        for (String field : event.getChangedFieldNames())
         {
             updateField(event.getFormController(), field, event
                     .getValidationResults(), event.getFormController()
@@ -450,7 +503,8 @@ public class ColorFieldMarker implements FormControllerValidationListener,
             FormValidatorResults validationResults, boolean visited)
     {
         FieldValidationStatus status = FieldValidationStatus.getStatus(
-                validationResults.getResultsFor(field), visited);
+                validationResults.getResultsFor(field), visited,
+                controller.isFieldValidationPending(field));
         if (status != getLastValidationStatus(field))
         {
             // status has changed
@@ -37,6 +37,8 @@ import net.sf.jguiraffe.transform.ValidationResult;
  * <li>The field has not yet been visited and is invalid. This could be the case
  * for instance for mandatory fields that do not have an initial value.</li>
  * <li>The field has not yet been visited and is in warning state.</li>
+ * <li>The validation of the field is still in progress. This state is used
+ * for fields validated asynchronously.</li>
  * </ul>
  * </p>
  * <p>
@@ -69,7 +71,14 @@ public enum FieldValidationStatus
     NOT_VISITED_INVALID,
 
     /** The field has not yet been visited and contains a warning. */
-    NOT_VISITED_WARNING;
+    NOT_VISITED_WARNING,
+
+    /**
+     * The validation of the field is in progress.
+     *
+     * @since 1.5
+     */
+    PENDING;
 
     /**
      * Returns the {@code FieldValidationStatus} instance that corresponds to
@@ -98,4 +107,23 @@ public enum FieldValidationStatus
 
         return visited ? VALID : NOT_VISITED_VALID;
     }
+
+    /**
+     * Returns the {@code FieldValidationStatus} instance that corresponds to
+     * the given {@code ValidationResult}, visited status, and pending flag. If
+     * the pending flag is set, result is always {@link #PENDING}. Otherwise,
+     * this method behaves like {@link #getStatus(ValidationResult, boolean)}.
+     *
+     * @param vres the {@code ValidationResult} (can be <b>null</b>, then the
+     *        result is considered valid)
+     * @param visited the visited status
+     * @param pending a flag whether the validation is still in progress
+     * @return the corresponding {@code FieldValidationStatus} instance
+     * @since 1.5
+     */
+    public static FieldValidationStatus getStatus(ValidationResult vres,
+            boolean visited, boolean pending)
+    {
+        return pending ? PENDING : getStatus(vres, visited);
+    }
 }
@@ -17,13 +17,20 @@ package net.sf.jguiraffe.gui.builder.window.ctrl;
 
 import javax.swing.event.EventListenerList;
 import java.util.EventListener;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 
 import net.sf.jguiraffe.gui.builder.BuilderData;
 import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
 import net.sf.jguiraffe.gui.builder.event.FormActionEvent;
 import net.sf.jguiraffe.gui.builder.event.FormActionListener;
+import net.sf.jguiraffe.gui.builder.event.FormChangeEvent;
+import net.sf.jguiraffe.gui.builder.event.FormChangeListener;
 import net.sf.jguiraffe.gui.builder.event.FormFocusEvent;
 import net.sf.jguiraffe.gui.builder.event.FormFocusListener;
 import net.sf.jguiraffe.gui.builder.utils.MessageOutput;
@@ -32,7 +39,11 @@ import net.sf.jguiraffe.gui.builder.window.WindowBuilderData;
 import net.sf.jguiraffe.gui.builder.window.WindowEvent;
 import net.sf.jguiraffe.gui.builder.window.WindowListener;
 import net.sf.jguiraffe.gui.cmd.Command;
+import net.sf.jguiraffe.gui.cmd.CommandQueue;
+import net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper;
+import net.sf.jguiraffe.gui.forms.DefaultFieldHandler;
 import net.sf.jguiraffe.gui.forms.DefaultFormValidatorResults;
+import net.sf.jguiraffe.gui.forms.FieldHandler;
 import net.sf.jguiraffe.gui.forms.Form;
 import net.sf.jguiraffe.gui.forms.FormValidationMessageFormat;
 import net.sf.jguiraffe.gui.forms.FormValidator;
@@ -80,6 +91,27 @@ import net.sf.jguiraffe.transform.ValidationMessageConstants;
  * fields depending on their validation status.
  * </p>
  * <p>
+ * Per default, each validation operation validates all fields of the form.
+ * For large forms in combination with a validation trigger that fires often
+ * this can be expensive. Therefore, an <em>incremental validation</em> mode can
+ * be enabled. In this mode the controller registers itself as change listener
+ * at all input elements. A validation then only checks the fields that have
+ * been changed since the last validation and the fields declared as dependent
+ * on them (see {@link #addFieldDependency(String, String)}). The results of
+ * the other fields are taken from the last validation. The validation events
+ * fired in this mode report only the fields whose results have changed.
+ * </p>
+ * <p>
+ * Fields can be assigned validators which are executed asynchronously (see
+ * {@link AsyncValidatorWrapper}). When the window is opened the controller
+ * enables asynchronous validation for such validators using the
+ * {@code CommandQueue} of the application. While the validation of a field is
+ * in progress, the field is in <em>pending</em> state (see
+ * {@link #isFieldValidationPending(String)}). When the result is available,
+ * the controller triggers another validation. So listeners are notified about
+ * the new result through a regular validation event.
+ * </p>
+ * <p>
  * Implementation note: This class is not thread-safe. It is intended to be
  * associated with a single form instance and not to be used concurrently with
  * multiple forms or threads.
@@ -89,7 +121,7 @@ import net.sf.jguiraffe.transform.ValidationMessageConstants;
  * @version $Id: FormController.java 205 2012-01-29 18:29:57Z oheger $
  */
 public class FormController implements WindowListener, FormFocusListener,
-        FormActionListener
+        FormActionListener, FormChangeListener
 {
     /** Constant for the name of the bean with the validation message format. */
     static final String BEAN_VALIDATION_MESSAGE_FORMAT = "jguiraffe.validationMessageFormat";
@@ -142,6 +174,21 @@ public class FormController implements WindowListener, FormFocusListener,
     /** A flag whether the form was committed.*/
     private boolean committed;
 
+    /** A map with the fields depending on other fields. */
+    private final Map<String, Set<String>> fieldDependencies;
+
+    /** A set with the fields changed since the last validation. */
+    private final Set<String> changedFields;
+
+    /** Stores the field-level results of the last incremental validation. */
+    private FormValidatorResults lastFieldResults;
+
+    /** A flag whether incremental validation is enabled. */
+    private boolean incrementalValidation;
+
+    /** A map with the asynchronous validators and the names of their fields. */
+    private final Map<AsyncValidatorWrapper, String> asyncValidators;
+
     /**
      * Creates a new instance of {@code FormController}.
      */
@@ -149,6 +196,9 @@ public class FormController implements WindowListener, FormFocusListener,
     {
         visitedFields = new HashSet<String>();
         eventListeners = new EventListenerList();
+        fieldDependencies = new HashMap<String, Set<String>>();
+        changedFields = new HashSet<String>();
+        asyncValidators = new LinkedHashMap<AsyncValidatorWrapper, String>();
     }
 
     /**
@@ -582,18 +632,102 @@ public class FormController implements WindowListener, FormFocusListener,
         this.cancelCommand = cancelCommand;
     }
 
+    /**
+     * Returns a flag whether incremental validation is enabled.
+     *
+     * @return a flag whether incremental validation is enabled
+     * @since 1.5
+     */
+    public boolean isIncrementalValidation()
+    {
+        return incrementalValidation;
+    }
+
+    /**
+     * Sets a flag whether incremental validation is enabled. If set to
+     * <b>true</b>, a validation operation only checks the fields that have
+     * been changed since the last validation (and their dependent fields).
+     * This property must be set before the associated window is opened
+     * because the controller has to register itself as change listener.
+     *
+     * @param incrementalValidation a flag whether incremental validation is
+     *        enabled
+     * @since 1.5
+     */
+    public void setIncrementalValidation(boolean incrementalValidation)
+    {
+        this.incrementalValidation = incrementalValidation;
+    }
+
+    /**
+     * Declares a dependency between two fields. The validation status of the
+     * dependent field depends on the content of the other field. This
+     * information is evaluated in incremental validation mode: if a field is
+     * changed, all of its dependent fields are validated, too. Dependencies
+     * are transitive.
+     *
+     * @param field the name of the field
+     * @param dependentField the name of the field depending on this field
+     * @throws IllegalArgumentException if a field name is <b>null</b>
+     * @since 1.5
+     */
+    public void addFieldDependency(String field, String dependentField)
+    {
+        if (field == null || dependentField == null)
+        {
+            throw new IllegalArgumentException(
+                    "Field names must not be null!");
+        }
+
+        Set<String> dependents = fieldDependencies.get(field);
+        if (dependents == null)
+        {
+            dependents = new HashSet<String>();
+            fieldDependencies.put(field, dependents);
+        }
+        dependents.add(dependentField);
+    }
+
+    /**
+     * Resets the state of incremental validation. This causes the next
+     * validation operation to check all fields of the form. This method can
+     * be called if fields have been changed in a way the controller cannot
+     * detect.
+     *
+     * @since 1.5
+     */
+    public void resetIncrementalValidation()
+    {
+        lastFieldResults = null;
+        changedFields.clear();
+    }
+
     /**
      * Performs a validation of the associated form. After that the
      * {@link FormControllerValidationListener} objects registered at this
-     * controller will be notified.
+     * controller will be notified. If incremental validation is enabled, only
+     * the fields affected by changes since the last validation are checked.
      *
      * @return a data object with information about the result of the validation
      */
     public FormValidatorResults validate()
     {
-        FormValidatorResults results = getForm().validate(getFormBean());
-        lastValidationResults = results;
-        fireValidationEvent(results);
+        FormValidatorResults results;
+        if (isIncrementalValidation())
+        {
+            results = validateIncrementally();
+            Set<String> changedResults =
+                    DefaultFormValidatorResults.changedFieldNames(
+                            lastValidationResults, results);
+            lastValidationResults = results;
+            fireValidationEvent(results, changedResults);
+        }
+        else
+        {
+            results = getForm().validate(getFormBean());
+            lastValidationResults = results;
+            fireValidationEvent(results);
+        }
         return results;
     }
 
@@ -603,7 +737,10 @@ public class FormController implements WindowListener, FormFocusListener,
      * {@link #validate()}. If validation results indicate errors, a message
      * window is displayed containing corresponding validation error messages.
      * This method is intended to do a validation in reaction on a user action,
-     * e.g. when the user clicks an <em>apply</em> button.
+     * e.g. when the user clicks an <em>apply</em> button. Therefore, it always
+     * checks all fields, even if incremental validation is enabled.
+     * Asynchronous validators are invoked directly, so that the result is
+     * available immediately.
      *
      * @return a data object with information about the result of the validation
      * @since 1.3.1
@@ -611,7 +748,24 @@ public class FormController implements WindowListener, FormFocusListener,
     public FormValidatorResults validateAndDisplayMessages()
     {
         markFieldsAsVisited();
-        FormValidatorResults results = validate();
+        resetIncrementalValidation();
+        FormValidatorResults results;
+        if (asyncValidators.isEmpty())
+        {
+            results = validate();
+        }
+        else
+        {
+            setAsyncValidationEnabled(false);
+            try
+            {
+                results = validate();
+            }
+            finally
+            {
+                setAsyncValidationEnabled(true);
+            }
+        }
         if (!results.isValid())
         {
             String msg =
@@ -658,6 +812,9 @@ public class FormController implements WindowListener, FormFocusListener,
      */
     public void windowClosed(WindowEvent event)
     {
+        setAsyncValidationEnabled(false);
+        asyncValidators.clear();
+
         Command cmd = isCommitted() ? getOkCommand() : getCancelCommand();
         if (cmd != null)
         {
@@ -715,6 +872,11 @@ public class FormController implements WindowListener, FormFocusListener,
         checkRequiredFields();
 
         getComponentBuilderData().getEventManager().addFocusListener(this);
+        if (isIncrementalValidation())
+        {
+            getComponentBuilderData().getEventManager()
+                    .addChangeListener(this);
+        }
         registerActionListener(getBtnOkName());
         registerActionListener(getBtnCancelName());
 
@@ -727,6 +889,7 @@ public class FormController implements WindowListener, FormFocusListener,
         {
             getForm().setFormValidator(getFormValidator());
         }
+        initAsyncValidators();
         initFormFields();
         validate();
     }
@@ -757,6 +920,22 @@ public class FormController implements WindowListener, FormFocusListener,
         }
     }
 
+    /**
+     * The content of a component of the associated window was changed. This
+     * event is tracked in incremental validation mode to find out which
+     * fields have to be validated.
+     *
+     * @param e the change event
+     * @since 1.5
+     */
+    public void elementChanged(FormChangeEvent e)
+    {
+        if (e.getName() != null)
+        {
+            changedFields.add(e.getName());
+        }
+    }
+
     /**
      * Processes action events. This method tests whether the event was caused
      * by the OK or the cancel button. If this is the case, the corresponding
@@ -793,6 +972,28 @@ public class FormController implements WindowListener, FormFocusListener,
         return visitedFields.contains(name);
     }
 
+    /**
+     * Tests whether the validation of the field with the given name is
+     * currently in progress. This can only be the case for fields with
+     * validators executed asynchronously.
+     *
+     * @param name the name of the field
+     * @return a flag whether the validation of this field is pending
+     * @since 1.5
+     */
+    public boolean isFieldValidationPending(String name)
+    {
+        for (Map.Entry<AsyncValidatorWrapper, String> e : asyncValidators
+                .entrySet())
+        {
+            if (e.getValue().equals(name) && e.getKey().isPending())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the current <code>BuilderData</code> object. This object can be
      * used for gaining access to some application global objects and the
@@ -919,6 +1120,24 @@ public class FormController implements WindowListener, FormFocusListener,
         getWindow().close(true);
     }
 
+    /**
+     * Notifies this controller that the asynchronous validation of a field is
+     * complete. This method is called in the event dispatch thread. This
+     * implementation performs another validation, so that the new result is
+     * taken into account and listeners are notified.
+     *
+     * @param fieldName the name of the field affected
+     * @since 1.5
+     */
+    protected void asyncValidationCompleted(String fieldName)
+    {
+        if (isIncrementalValidation())
+        {
+            changedFields.add(fieldName);
+        }
+        validate();
+    }
+
     /**
      * Returns a flag whether the form was committed. This method can be used to
      * find out whether the form was closed using the OK button (in this case
@@ -959,6 +1178,36 @@ public class FormController implements WindowListener, FormFocusListener,
         }
     }
 
+    /**
+     * Notifies all registered validation listeners about a validation
+     * operation which has changed the results of the specified fields. This
+     * method is called in incremental validation mode.
+     *
+     * @param results the validation results
+     * @param changedResults the names of the fields whose results have changed
+     * @since 1.5
+     */
+    protected void fireValidationEvent(FormValidatorResults results,
+            Set<String> changedResults)
+    {
+        FormControllerValidationEvent event = null;
+        Object[] listeners = eventListeners.getListenerList();
+
+        for (int i = listeners.length - 2; i >= 0; i -= 2)
+        {
+            if (listeners[i] == FormControllerValidationListener.class)
+            {
+                if (event == null)
+                {
+                    event = new FormControllerValidationEvent(this, results,
+                            changedResults);
+                }
+                ((FormControllerValidationListener) listeners[i + 1])
+                        .validationPerformed(event);
+            }
+        }
+    }
+
     /**
      * Notifies all registered field status listeners about a change in the
      * status of a field.
@@ -1052,6 +1301,149 @@ public class FormController implements WindowListener, FormFocusListener,
         getForm().initFields(getFormBean());
     }
 
+    /**
+     * Searches the fields of the form for validators to be executed
+     * asynchronously and enables asynchronous validation for them. The
+     * validators are executed on the application's command queue.
+     */
+    private void initAsyncValidators()
+    {
+        for (String name : getForm().getFieldNames())
+        {
+            FieldHandler fh = getForm().getField(name);
+            if (fh instanceof DefaultFieldHandler)
+            {
+                DefaultFieldHandler dfh = (DefaultFieldHandler) fh;
+                registerAsyncValidator(name, dfh.getSyntaxValidator());
+                registerAsyncValidator(name, dfh.getLogicValidator());
+            }
+        }
+
+        if (!asyncValidators.isEmpty())
+        {
+            CommandQueue queue = getBuilderData().getCommandQueue();
+            for (Map.Entry<AsyncValidatorWrapper, String> e : asyncValidators
+                    .entrySet())
+            {
+                final String field = e.getValue();
+                e.getKey().enableAsyncValidation(queue, new Runnable()
+                {
+                    public void run()
+                    {
+                        asyncValidationCompleted(field);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Registers the specified validator if it is executed asynchronously.
+     *
+     * @param name the name of the field
+     * @param validator the validator wrapper (may be <b>null</b>)
+     */
+    private void registerAsyncValidator(String name, Object validator)
+    {
+        if (validator instanceof AsyncValidatorWrapper)
+        {
+            asyncValidators.put((AsyncValidatorWrapper) validator, name);
+        }
+    }
+
+    /**
+     * Enables or disables asynchronous validation for all asynchronous
+     * validators. Disabling asynchronous validation cancels all validations
+     * in progress. When it is enabled again, the application's command queue
+     * is used.
+     *
+     * @param enabled a flag whether asynchronous validation is enabled
+     */
+    private void setAsyncValidationEnabled(boolean enabled)
+    {
+        if (enabled)
+        {
+            initAsyncValidators();
+        }
+        else
+        {
+            for (AsyncValidatorWrapper wrapper : asyncValidators.keySet())
+            {
+                wrapper.disableAsyncValidation();
+            }
+        }
+    }
+
+    /**
+     * Performs an incremental validation. Only the fields changed since the
+     * last validation and their dependent fields are validated; the results
+     * of the other fields are taken from the last validation. If all fields
+     * are valid, a form-level validation is performed, and the model object
+     * is updated.
+     *
+     * @return the results of the validation
+     */
+    private FormValidatorResults validateIncrementally()
+    {
+        FormValidatorResults fieldResults;
+        if (lastFieldResults == null)
+        {
+            fieldResults = getForm().validateFields();
+        }
+        else
+        {
+            Set<String> names = fetchFieldsToValidate();
+            fieldResults =
+                    names.isEmpty() ? lastFieldResults
+                            : DefaultFormValidatorResults.update(
+                                    lastFieldResults, getForm()
+                                            .validateFields(names));
+        }
+        changedFields.clear();
+        lastFieldResults = fieldResults;
+
+        if (fieldResults.isValid())
+        {
+            return DefaultFormValidatorResults.merge(fieldResults, getForm()
+                    .validateForm(getFormBean()));
+        }
+        return fieldResults;
+    }
+
+    /**
+     * Determines the names of the fields to be validated in an incremental
+     * validation. These are the changed fields and all fields depending on
+     * them. Only names of fields which belong to the form are returned.
+     *
+     * @return a set with the names of the fields to be validated
+     */
+    private Set<String> fetchFieldsToValidate()
+    {
+        Set<String> names = new HashSet<String>();
+        LinkedList<String> pending = new LinkedList<String>(changedFields);
+        while (!pending.isEmpty())
+        {
+            String field = pending.removeFirst();
+            if (names.add(field))
+            {
+                Set<String> dependents = fieldDependencies.get(field);
+                if (dependents != null)
+                {
+                    pending.addAll(dependents);
+                }
+            }
+        }
+
+        for (Iterator<String> it = names.iterator(); it.hasNext();)
+        {
+            if (getForm().getField(it.next()) == null)
+            {
+                it.remove();
+            }
+        }
+        return names;
+    }
+
     /**
      * Marks all form fields as visited. This method is called when the user
      * presses the OK button.
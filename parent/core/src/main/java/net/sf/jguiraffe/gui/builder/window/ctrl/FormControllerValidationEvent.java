@@ -15,6 +15,10 @@
  */
 package net.sf.jguiraffe.gui.builder.window.ctrl;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import net.sf.jguiraffe.gui.forms.FormValidatorResults;
 
 /**
@@ -27,6 +31,14 @@ import net.sf.jguiraffe.gui.forms.FormValidatorResults;
  * objects registered at a {@link FormController} whenever a validation
  * operation was performed.
  * </p>
+ * <p>
+ * In addition to the full validation results, an event contains the names of
+ * the fields whose validation results have changed by the operation. For a
+ * full validation these are all fields of the form. If the controller
+ * performs an incremental validation, only the fields affected by the
+ * operation are contained. Listeners can use this information to update only
+ * the fields that have actually changed.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: FormControllerValidationEvent.java 205 2012-01-29 18:29:57Z oheger $
@@ -41,6 +53,12 @@ public class FormControllerValidationEvent extends FormControllerEvent
     /** The validation results. */
     private final transient FormValidatorResults validationResults;
 
+    /** The names of the fields whose results have changed. */
+    private final transient Set<String> changedFieldNames;
+
+    /** A flag whether this event was produced by an incremental validation. */
+    private final boolean incremental;
+
     /**
      * Creates a new instance of {@code FormControllerValidationEvent} and
      * initializes it with the {@code FormController} that is the source of this
@@ -53,6 +71,27 @@ public class FormControllerValidationEvent extends FormControllerEvent
      */
     public FormControllerValidationEvent(FormController source,
             FormValidatorResults results)
+    {
+        this(source, results, null);
+    }
+
+    /**
+     * Creates a new instance of {@code FormControllerValidationEvent} and
+     * initializes it with the {@code FormController} that is the source of this
+     * event, the results of the validation operation, and the names of the
+     * fields whose results have changed.
+     *
+     * @param source the source {@code FormController} (must not be <b>null</b>)
+     * @param results the results of the validation operation (must not be
+     *        <b>null</b>)
+     * @param changedFields the names of the fields whose results have changed;
+     *        if <b>null</b>, all fields are considered changed, and the event is
+     *        not incremental
+     * @throws IllegalArgumentException if a required parameter is missing
+     * @since 1.5
+     */
+    public FormControllerValidationEvent(FormController source,
+            FormValidatorResults results, Set<String> changedFields)
     {
         super(source);
         if (results == null)
@@ -62,6 +101,11 @@ public class FormControllerValidationEvent extends FormControllerEvent
         }
 
         validationResults = results;
+        incremental = changedFields != null;
+        changedFieldNames =
+                (changedFields != null) ? Collections
+                        .unmodifiableSet(new LinkedHashSet<String>(
+                                changedFields)) : results.getFieldNames();
     }
 
     /**
@@ -74,4 +118,32 @@ public class FormControllerValidationEvent extends FormControllerEvent
     {
         return validationResults;
     }
+
+    /**
+     * Returns a set with the names of the fields whose validation results have
+     * been changed by the validation operation. This is a sub set of the field
+     * names contained in the validation results.
+     *
+     * @return a set with the names of the changed fields
+     * @since 1.5
+     */
+    public Set<String> getChangedFieldNames()
+    {
+        return changedFieldNames;
+    }
+
+    /**
+     * Returns a flag whether this event was produced by an incremental
+     * validation. If this is the case, the results of fields not contained in
+     * the set returned by {@link #getChangedFieldNames()} have not changed
+     * since the last event. Otherwise, listeners should process the results
+     * of all fields.
+     *
+     * @return a flag whether this is an incremental validation event
+     * @since 1.5
+     */
+    public boolean isIncremental()
+    {
+        return incremental;
+    }
 }
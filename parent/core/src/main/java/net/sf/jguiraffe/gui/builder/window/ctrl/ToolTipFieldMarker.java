@@ -15,8 +15,8 @@
  */
 package net.sf.jguiraffe.gui.builder.window.ctrl;
 
-import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 import net.sf.jguiraffe.gui.builder.components.ToolTipManager;
@@ -62,7 +62,7 @@ public class ToolTipFieldMarker implements FormControllerValidationListener
     private final FormValidationMessageFormat format;
 
     /** Stores the names of the fields for which tool tips have been created. */
-    private Set<String> changedFields;
+    private final Set<String> changedFields;
 
     /**
      * Creates a new instance of {@code ToolTipFieldMarker} and initializes it
@@ -81,13 +81,15 @@ public class ToolTipFieldMarker implements FormControllerValidationListener
         }
 
         format = messageFormat;
-        changedFields = Collections.emptySet();
+        changedFields = new HashSet<String>();
     }
 
     /**
      * A validation operation has been performed. This implementation determines
      * the fields for which validation messages exist. It creates corresponding
-     * tool tips for the messages and sets them.
+     * tool tips for the messages and sets them. For incremental validation
+     * events only the fields whose validation results have changed are
+     * processed.
      *
      * @param event the validation event
      */
@@ -98,8 +100,8 @@ public class ToolTipFieldMarker implements FormControllerValidationListener
         ToolTipManager manager = event.getFormController()
                 .getComponentBuilderData().getToolTipManager();
 
-        // process all fields with validation messages
-        for (String field : event.getValidationResults().getFieldNames())
+        // process all changed fields with validation messages
+        for (String field : event.getChangedFieldNames())
         {
             ValidationResult vres = event.getValidationResults().getResultsFor(
                     field);
@@ -115,15 +117,19 @@ public class ToolTipFieldMarker implements FormControllerValidationListener
             }
         }
 
-        // reset all fields that are now valid
-        for (String field : changedFields)
+        // reset all affected fields that are now valid
+        for (Iterator<String> it = changedFields.iterator(); it.hasNext();)
         {
-            if (!fields.contains(field))
+            String field = it.next();
+            if (!fields.contains(field)
+                    && (!event.isIncremental() || event.getChangedFieldNames()
+                            .contains(field)))
             {
                 manager.setAdditionalToolTip(field, null);
+                it.remove();
             }
         }
 
-        changedFields = fields;
+        changedFields.addAll(fields);
     }
 }
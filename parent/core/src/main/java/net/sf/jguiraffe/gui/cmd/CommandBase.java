@@ -37,11 +37,18 @@ import org.apache.commons.logging.LogFactory;
  * the application's event handler thread if the <code>UpdateGUI</code>
  * property is set to <b>true</b>.
  * </p>
+ * <p>
+ * This class also implements the {@link CommandHandleAware} interface. When
+ * the command is scheduled by a command queue, it is passed its
+ * {@link CommandHandle}. Long-running commands can then call
+ * {@link #isCancelled()} to find out whether they should stop, and
+ * {@link #updateProgress(int)} to report their progress.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: CommandBase.java 205 2012-01-29 18:29:57Z oheger $
  */
-public abstract class CommandBase implements Command
+public abstract class CommandBase implements Command, CommandHandleAware
 {
     /** A logger instance. */
     private final Log log = LogFactory.getLog(CommandBase.class);
@@ -52,6 +59,9 @@ public abstract class CommandBase implements Command
     /** Stores the exception that was set using onException().*/
     private volatile Throwable exception;
 
+    /** Stores the handle of this command. */
+    private volatile CommandHandle commandHandle;
+
     /**
      * Creates a new instance of {@code CommandBase}. The {@code UpdateGUI}
      * property is set to <b>true</b>.
@@ -153,6 +163,62 @@ public abstract class CommandBase implements Command
         this.exception = exception;
     }
 
+    /**
+     * Returns the {@code CommandHandle} of this command. It is set when the
+     * command is scheduled by a command queue. If this has not happened yet,
+     * result is <b>null</b>.
+     *
+     * @return the handle of this command
+     * @since 1.5
+     */
+    public CommandHandle getCommandHandle()
+    {
+        return commandHandle;
+    }
+
+    /**
+     * Sets the {@code CommandHandle} of this command. This method is called
+     * by the command queue.
+     *
+     * @param handle the handle of this command
+     * @since 1.5
+     */
+    public void setCommandHandle(CommandHandle handle)
+    {
+        commandHandle = handle;
+    }
+
+    /**
+     * Returns a flag whether this command has been canceled. Long-running
+     * commands should call this method periodically and stop their work if
+     * it returns <b>true</b>.
+     *
+     * @return a flag whether this command has been canceled
+     * @since 1.5
+     */
+    public boolean isCancelled()
+    {
+        CommandHandle handle = getCommandHandle();
+        return handle != null && handle.isCancelled();
+    }
+
+    /**
+     * Reports the progress of this command. The value is passed to the
+     * {@code CommandHandle} which delivers it to the event dispatch thread.
+     * If no handle is set, this method has no effect.
+     *
+     * @param value the current progress
+     * @since 1.5
+     */
+    protected void updateProgress(int value)
+    {
+        CommandHandle handle = getCommandHandle();
+        if (handle != null)
+        {
+            handle.setProgress(value);
+        }
+    }
+
     /**
      * Returns the logger used by this object.
      *
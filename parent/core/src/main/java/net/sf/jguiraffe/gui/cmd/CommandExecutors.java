@@ -0,0 +1,327 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>
+ * A class with factory methods for {@code ExecutorService} objects that can be
+ * used by a {@link CommandQueueImpl}.
+ * </p>
+ * <p>
+ * Per default, {@link CommandQueueImpl} uses a single worker thread. This is
+ * appropriate for commands that mainly perform computations. However, many
+ * commands spend most of their time waiting for I/O, e.g. when accessing
+ * files or a database. For such commands it is more efficient to execute each
+ * command in its own thread. The
+ * {@link #newThreadPerCommandExecutor(int)} method creates an executor
+ * service which implements this strategy: If the Java runtime supports
+ * virtual threads, each command is executed in a new virtual thread; so even
+ * thousands of concurrent commands are cheap. On older runtimes a thread pool
+ * is used which creates platform threads on demand. In both cases the number
+ * of commands executing concurrently can be limited.
+ * </p>
+ * <p>
+ * The executor services created by this class can be passed to the
+ * constructor of {@link CommandQueueImpl}, e.g. in the definition of the
+ * <em>jguiraffe.commandQueue</em> bean. Note that commands executed this way
+ * may run in parallel; they must be implemented in a thread-safe way.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class CommandExecutors
+{
+    /** Constant for the keep alive time of idle platform threads (seconds). */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /** The name of the factory method for virtual thread executors. */
+    private static final String METH_VIRTUAL_EXECUTOR =
+            "newVirtualThreadPerTaskExecutor";
+
+    /** The logger. */
+    private static final Log LOG = LogFactory.getLog(CommandExecutors.class);
+
+    /**
+     * Private constructor so that no instances can be created.
+     */
+    private CommandExecutors()
+    {
+    }
+
+    /**
+     * Returns a flag whether the current Java runtime supports virtual
+     * threads.
+     *
+     * @return a flag whether virtual threads are available
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        return fetchVirtualThreadFactoryMethod() != null;
+    }
+
+    /**
+     * Creates an {@code ExecutorService} that executes each command in its own
+     * thread with the given limit for concurrently executing commands. If
+     * virtual threads are supported, a new virtual thread is created for each
+     * command; commands exceeding the limit wait (in their virtual thread)
+     * until another command is complete. Otherwise, a thread pool is created
+     * whose number of platform threads grows up to the limit; idle threads
+     * are terminated after a while.
+     *
+     * @param maxConcurrency the maximum number of commands executing
+     *        concurrently (must be greater 0)
+     * @return the new {@code ExecutorService}
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    public static ExecutorService newThreadPerCommandExecutor(
+            int maxConcurrency)
+    {
+        checkConcurrency(maxConcurrency);
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        return (virtualExecutor != null) ? limitConcurrency(virtualExecutor,
+                maxConcurrency)
+                : newPlatformThreadExecutor(maxConcurrency);
+    }
+
+    /**
+     * Creates an {@code ExecutorService} which uses platform threads created
+     * on demand. The number of threads is limited by the given value. Idle
+     * threads are terminated after some time. This method is used by
+     * {@link #newThreadPerCommandExecutor(int)} if virtual threads are not
+     * supported.
+     *
+     * @param maxConcurrency the maximum number of threads (must be greater 0)
+     * @return the new {@code ExecutorService}
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    public static ExecutorService newPlatformThreadExecutor(int maxConcurrency)
+    {
+        checkConcurrency(maxConcurrency);
+        ThreadPoolExecutor exec =
+                new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>());
+        exec.allowCoreThreadTimeOut(true);
+        return exec;
+    }
+
+    /**
+     * Returns an {@code ExecutorService} which limits the number of tasks
+     * executed concurrently by the given delegate executor. This is useful for
+     * executors that create a new thread for each task. Tasks exceeding the
+     * limit are passed to the delegate, but wait in their thread until a
+     * permit becomes available.
+     *
+     * @param delegate the underlying executor service (must not be
+     *        <b>null</b>)
+     * @param maxConcurrency the maximum number of tasks executing concurrently
+     *        (must be greater 0)
+     * @return the limiting {@code ExecutorService}
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public static ExecutorService limitConcurrency(ExecutorService delegate,
+            int maxConcurrency)
+    {
+        if (delegate == null)
+        {
+            throw new IllegalArgumentException(
+                    "Delegate executor must not be null!");
+        }
+        checkConcurrency(maxConcurrency);
+        return new ConcurrencyLimitedExecutorService(delegate, maxConcurrency);
+    }
+
+    /**
+     * Creates an executor service that uses a virtual thread per task if this
+     * is supported by the current runtime. Otherwise, result is <b>null</b>.
+     * Reflection is used because the corresponding method is not available in
+     * the Java version targeted by this library.
+     *
+     * @return the executor service or <b>null</b>
+     */
+    static ExecutorService createVirtualThreadExecutor()
+    {
+        Method m = fetchVirtualThreadFactoryMethod();
+        if (m != null)
+        {
+            try
+            {
+                return (ExecutorService) m.invoke(null);
+            }
+            catch (Exception ex)
+            {
+                LOG.info("Virtual threads cannot be used.", ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the factory method for executors with virtual threads or
+     * <b>null</b> if it is not available.
+     *
+     * @return the factory method or <b>null</b>
+     */
+    private static Method fetchVirtualThreadFactoryMethod()
+    {
+        try
+        {
+            return Executors.class.getMethod(METH_VIRTUAL_EXECUTOR);
+        }
+        catch (NoSuchMethodException nsmex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a valid concurrency limit has been provided.
+     *
+     * @param maxConcurrency the limit to check
+     * @throws IllegalArgumentException if the limit is invalid
+     */
+    private static void checkConcurrency(int maxConcurrency)
+    {
+        if (maxConcurrency < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Concurrency limit must be greater 0: " + maxConcurrency);
+        }
+    }
+
+    /**
+     * An executor service implementation which limits the number of tasks
+     * executed concurrently by a delegate executor service. The limit is
+     * enforced by a semaphore which is acquired by each task before it is
+     * executed.
+     */
+    private static class ConcurrencyLimitedExecutorService extends
+            AbstractExecutorService
+    {
+        /** The underlying executor service. */
+        private final ExecutorService delegate;
+
+        /** The semaphore for limiting concurrency. */
+        private final Semaphore permits;
+
+        /**
+         * Creates a new instance of {@code ConcurrencyLimitedExecutorService}.
+         *
+         * @param exec the delegate executor service
+         * @param maxConcurrency the maximum number of concurrent tasks
+         */
+        public ConcurrencyLimitedExecutorService(ExecutorService exec,
+                int maxConcurrency)
+        {
+            delegate = exec;
+            permits = new Semaphore(maxConcurrency);
+        }
+
+        /**
+         * Executes the given task. It is passed to the delegate executor
+         * wrapped in a task that obtains a permit first.
+         *
+         * @param command the task to be executed
+         */
+        public void execute(final Runnable command)
+        {
+            delegate.execute(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        permits.acquire();
+                    }
+                    catch (InterruptedException iex)
+                    {
+                        // executor is shut down; skip this task
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    try
+                    {
+                        command.run();
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        /**
+         * {@inheritDoc} This implementation delegates to the underlying
+         * executor service.
+         */
+        public void shutdown()
+        {
+            delegate.shutdown();
+        }
+
+        /**
+         * {@inheritDoc} This implementation delegates to the underlying
+         * executor service.
+         */
+        public List<Runnable> shutdownNow()
+        {
+            return delegate.shutdownNow();
+        }
+
+        /**
+         * {@inheritDoc} This implementation delegates to the underlying
+         * executor service.
+         */
+        public boolean isShutdown()
+        {
+            return delegate.isShutdown();
+        }
+
+        /**
+         * {@inheritDoc} This implementation delegates to the underlying
+         * executor service.
+         */
+        public boolean isTerminated()
+        {
+            return delegate.isTerminated();
+        }
+
+        /**
+         * {@inheritDoc} This implementation delegates to the underlying
+         * executor service.
+         */
+        public boolean awaitTermination(long timeout, TimeUnit unit)
+                throws InterruptedException
+        {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.util.concurrent.Future;
+
+import net.sf.jguiraffe.gui.builder.components.model.ProgressBarHandler;
+
+/**
+ * <p>
+ * Definition of an interface for a handle to a {@link Command} that has been
+ * passed to a {@link CommandQueue}.
+ * </p>
+ * <p>
+ * An object implementing this interface is returned by the
+ * {@link CommandQueue#submit(Command)} method. It can be used to monitor and
+ * control the execution of the command. As this interface extends
+ * {@code java.util.concurrent.Future}, it is possible to wait for the
+ * completion of the command or to cancel it. A command which has not yet been
+ * started is not executed at all if it is canceled. A command that is already
+ * running can only react on cancellation cooperatively: it has to check the
+ * cancellation state from time to time (e.g. via
+ * {@link CommandBase#isCancelled()}) or respond to interruption if the
+ * {@code cancel()} method was called with a <b>true</b> argument. Note that
+ * exceptions thrown by the command are handled by its
+ * {@link Command#onException(Throwable)} method; so the {@code get()} methods
+ * of this interface do not throw an {@code ExecutionException}.
+ * </p>
+ * <p>
+ * A command can report its progress using the {@link #setProgress(int)}
+ * method. The progress is delivered to the event dispatch thread, where it is
+ * passed to an optional {@link ProgressBarHandler} and to the listeners of the
+ * command queue (as an event of type {@code COMMAND_PROGRESS}). In order not
+ * to flood the event dispatch thread with updates, progress notifications are
+ * throttled: at most one notification is delivered per progress interval of
+ * the command queue; intermediate values may be skipped, but the last value
+ * reported is always delivered.
+ * </p>
+ * <p>
+ * Implementations of this interface are thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface CommandHandle extends Future<Void>
+{
+    /**
+     * Returns the {@code Command} this handle belongs to.
+     *
+     * @return the associated {@code Command}
+     */
+    Command getCommand();
+
+    /**
+     * Returns the current progress of the associated command. This is the
+     * last value passed to {@link #setProgress(int)}.
+     *
+     * @return the current progress
+     */
+    int getProgress();
+
+    /**
+     * Sets the current progress of the associated command. This method is
+     * typically called by the command in the worker thread. The value is
+     * delivered to the event dispatch thread asynchronously. Its meaning is
+     * up to the command; if a {@code ProgressBarHandler} is set, it should be
+     * in the range of the progress bar.
+     *
+     * @param value the current progress
+     */
+    void setProgress(int value);
+
+    /**
+     * Sets a {@code ProgressBarHandler} which is updated on the event dispatch
+     * thread when the command reports progress. <b>null</b> removes a handler
+     * set before.
+     *
+     * @param handler the {@code ProgressBarHandler} (can be <b>null</b>)
+     */
+    void setProgressBarHandler(ProgressBarHandler handler);
+}
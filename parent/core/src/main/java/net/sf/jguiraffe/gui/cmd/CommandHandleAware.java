@@ -0,0 +1,42 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+/**
+ * <p>
+ * Definition of an interface to be implemented by {@link Command} objects that
+ * need access to their {@link CommandHandle}.
+ * </p>
+ * <p>
+ * A command implementing this interface is passed its {@link CommandHandle}
+ * when it is scheduled by a {@link CommandQueueImpl}. This happens in the
+ * thread calling {@link CommandQueue#execute(Command)} before the command is
+ * passed to a worker thread. Through the handle the command can check whether
+ * it has been canceled and report its progress. {@link CommandBase} already
+ * implements this interface and provides corresponding convenience methods.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface CommandHandleAware
+{
+    /**
+     * Passes the {@code CommandHandle} to this command.
+     *
+     * @param handle the handle of this command
+     */
+    void setCommandHandle(CommandHandle handle);
+}
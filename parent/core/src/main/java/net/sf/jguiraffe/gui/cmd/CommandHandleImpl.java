@@ -0,0 +1,364 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.sf.jguiraffe.gui.builder.components.model.ProgressBarHandler;
+
+/**
+ * <p>
+ * The implementation of the {@link CommandHandle} interface used by
+ * {@link CommandQueueImpl}.
+ * </p>
+ * <p>
+ * An instance wraps the task created by the command queue for executing a
+ * command. It is itself a {@code Runnable} which is passed to the executor
+ * service. When it is run it checks whether the command has been canceled in
+ * the meantime; if not, the wrapped task is executed. Progress notifications
+ * are passed to the event dispatch thread via the {@code GUISynchronizer} of
+ * the command queue; there is at most one pending notification at a time.
+ * </p>
+ *
+ * @since 1.5
+ */
+class CommandHandleImpl implements CommandHandle, Runnable
+{
+    /** Constant for the state that the command is waiting for execution. */
+    private static final int PENDING = 0;
+
+    /** Constant for the state that the command is currently executed. */
+    private static final int RUNNING = 1;
+
+    /** Constant for the state that the command is complete. */
+    private static final int DONE = 2;
+
+    /** The owning command queue. */
+    private final CommandQueueImpl queue;
+
+    /** The associated command. */
+    private final Command command;
+
+    /** The task for executing the command. */
+    private final Runnable task;
+
+    /** The latch for waiting until the command is complete. */
+    private final CountDownLatch doneLatch;
+
+    /** A flag whether a progress notification has been scheduled. */
+    private final AtomicBoolean progressScheduled;
+
+    /** The task for delivering progress notifications. */
+    private final Runnable progressTask;
+
+    /** The progress bar handler to be updated. */
+    private volatile ProgressBarHandler progressBarHandler;
+
+    /** The current progress. */
+    private volatile int progress;
+
+    /** A flag whether there is progress that has not been delivered. */
+    private volatile boolean progressDirty;
+
+    /** The time when the last progress notification was scheduled. */
+    private volatile long lastProgressTime;
+
+    /** The current execution state. */
+    private int state;
+
+    /** A flag whether the command has been canceled. */
+    private boolean cancelled;
+
+    /** The thread executing the command. */
+    private Thread runner;
+
+    /**
+     * Creates a new instance of {@code CommandHandleImpl}.
+     *
+     * @param q the owning command queue
+     * @param cmd the associated command
+     * @param t the task for executing the command
+     */
+    public CommandHandleImpl(CommandQueueImpl q, Command cmd, Runnable t)
+    {
+        queue = q;
+        command = cmd;
+        task = t;
+        doneLatch = new CountDownLatch(1);
+        progressScheduled = new AtomicBoolean();
+        progressTask = new Runnable()
+        {
+            public void run()
+            {
+                deliverProgress();
+            }
+        };
+    }
+
+    /**
+     * Returns the task for executing the command.
+     *
+     * @return the wrapped task
+     */
+    public Runnable getTask()
+    {
+        return task;
+    }
+
+    /**
+     * Returns the associated command.
+     *
+     * @return the command
+     */
+    public Command getCommand()
+    {
+        return command;
+    }
+
+    /**
+     * Executes the command unless it has been canceled.
+     */
+    public void run()
+    {
+        synchronized (this)
+        {
+            if (state != PENDING)
+            {
+                return;
+            }
+            state = RUNNING;
+            runner = Thread.currentThread();
+        }
+
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            finish();
+        }
+    }
+
+    /**
+     * Cancels the command. If it has not yet been started, it is not executed
+     * at all. If it is running, the executing thread is interrupted if
+     * requested.
+     *
+     * @param mayInterruptIfRunning a flag whether the executing thread is to
+     *        be interrupted
+     * @return a flag whether the command could be canceled
+     */
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        boolean wasPending;
+        synchronized (this)
+        {
+            if (cancelled || state == DONE)
+            {
+                return false;
+            }
+
+            cancelled = true;
+            wasPending = state == PENDING;
+            if (wasPending)
+            {
+                state = DONE;
+            }
+            else if (mayInterruptIfRunning)
+            {
+                runner.interrupt();
+            }
+        }
+
+        if (wasPending)
+        {
+            doneLatch.countDown();
+        }
+        queue.commandCancelled(command, wasPending);
+        return true;
+    }
+
+    /**
+     * Returns a flag whether the command has been canceled.
+     *
+     * @return the canceled flag
+     */
+    public synchronized boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Returns a flag whether the command is complete. This is also the case
+     * if it has been canceled.
+     *
+     * @return a flag whether the command is done
+     */
+    public synchronized boolean isDone()
+    {
+        return cancelled || state == DONE;
+    }
+
+    /**
+     * Waits until the command is complete.
+     *
+     * @return <b>null</b>
+     * @throws InterruptedException if the current thread is interrupted
+     * @throws CancellationException if the command has been canceled
+     */
+    public Void get() throws InterruptedException
+    {
+        checkCancelled();
+        doneLatch.await();
+        checkCancelled();
+        return null;
+    }
+
+    /**
+     * Waits with a timeout until the command is complete.
+     *
+     * @param timeout the timeout
+     * @param unit the unit of the timeout
+     * @return <b>null</b>
+     * @throws InterruptedException if the current thread is interrupted
+     * @throws TimeoutException if the timeout is exceeded
+     * @throws CancellationException if the command has been canceled
+     */
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException,
+            TimeoutException
+    {
+        checkCancelled();
+        if (!doneLatch.await(timeout, unit))
+        {
+            throw new TimeoutException("Command not complete after "
+                    + timeout + " " + unit);
+        }
+        checkCancelled();
+        return null;
+    }
+
+    /**
+     * Returns the current progress.
+     *
+     * @return the progress
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * Sets the current progress. A notification is scheduled if the progress
+     * interval of the command queue has elapsed since the last one.
+     *
+     * @param value the progress
+     */
+    public void setProgress(int value)
+    {
+        progress = value;
+        progressDirty = true;
+        if (System.currentTimeMillis() - lastProgressTime >= queue
+                .getProgressInterval())
+        {
+            scheduleProgress();
+        }
+    }
+
+    /**
+     * Sets the progress bar handler to be updated.
+     *
+     * @param handler the handler
+     */
+    public void setProgressBarHandler(ProgressBarHandler handler)
+    {
+        progressBarHandler = handler;
+    }
+
+    /**
+     * Marks the command as complete. A pending interrupt caused by a
+     * cancellation is cleared, so that it does not affect further tasks
+     * executed by the worker thread. Progress that has not yet been delivered
+     * is delivered now.
+     */
+    private void finish()
+    {
+        synchronized (this)
+        {
+            state = DONE;
+            runner = null;
+            if (cancelled)
+            {
+                Thread.interrupted();
+            }
+        }
+
+        doneLatch.countDown();
+        if (progressDirty)
+        {
+            scheduleProgress();
+        }
+    }
+
+    /**
+     * Schedules a progress notification on the event dispatch thread if this
+     * has not already been done.
+     */
+    private void scheduleProgress()
+    {
+        if (progressScheduled.compareAndSet(false, true))
+        {
+            lastProgressTime = System.currentTimeMillis();
+            queue.getGUISynchronizer().asyncInvoke(progressTask);
+        }
+    }
+
+    /**
+     * Delivers the current progress. This method is called on the event
+     * dispatch thread.
+     */
+    private void deliverProgress()
+    {
+        progressDirty = false;
+        progressScheduled.set(false);
+        int value = progress;
+
+        ProgressBarHandler handler = progressBarHandler;
+        if (handler != null)
+        {
+            handler.setValue(value);
+        }
+        queue.fireProgressEvent(command, value);
+    }
+
+    /**
+     * Throws an exception if the command has been canceled.
+     *
+     * @throws CancellationException if the command has been canceled
+     */
+    private void checkCancelled()
+    {
+        if (isCancelled())
+        {
+            throw new CancellationException("Command was canceled: "
+                    + command);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A class describing a lane of a {@link CommandQueueImpl}.
+ * </p>
+ * <p>
+ * A lane is a separate channel for executing commands. It has its own worker
+ * threads; its number is defined by the <em>parallelism</em> property. So
+ * commands in different lanes do not block each other. A typical use case is
+ * to have a lane for longer-running background tasks like exports, so that
+ * the interactive commands executed in the default lane of the command queue
+ * stay responsive. Commands select their lane by implementing the
+ * {@link LaneAware} interface.
+ * </p>
+ * <p>
+ * With the <em>capacity</em> property the number of commands that can be
+ * scheduled in this lane (including the commands currently executing) can be
+ * limited. A capacity of 0 means that there is no limit. If the limit is
+ * reached, the {@link CommandQueue#execute(Command) execute()} method of the
+ * command queue by default rejects further commands for this lane by throwing
+ * a {@code RejectedExecutionException}. This makes sure that a caller, which
+ * is typically the event dispatch thread, is never blocked. If the
+ * <em>blocking</em> flag is set, {@code execute()} instead blocks until a
+ * command of this lane is complete. This provides back-pressure for producers
+ * running in background threads which generate commands faster than they can
+ * be processed.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and can be created in bean definition
+ * files. They are passed to the {@link CommandQueueImpl#addLane(CommandLane)}
+ * method.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class CommandLane
+{
+    /** The name of this lane. */
+    private final String name;
+
+    /** The number of worker threads. */
+    private final int parallelism;
+
+    /** The maximum number of commands in this lane. */
+    private final int capacity;
+
+    /** A flag whether callers block if the capacity is exhausted. */
+    private final boolean blocking;
+
+    /**
+     * Creates a new instance of {@code CommandLane} and initializes all
+     * properties.
+     *
+     * @param laneName the name of this lane (must not be <b>null</b>)
+     * @param threads the number of worker threads (must be greater 0)
+     * @param maxCommands the maximum number of commands that can be scheduled
+     *        in this lane; 0 for an unlimited number (must not be negative)
+     * @param block a flag whether callers are to be blocked if the capacity
+     *        is exhausted; <b>false</b> means that further commands are
+     *        rejected
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public CommandLane(String laneName, int threads, int maxCommands,
+            boolean block)
+    {
+        if (laneName == null)
+        {
+            throw new IllegalArgumentException("Lane name must not be null!");
+        }
+        if (threads < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Parallelism must be greater 0: " + threads);
+        }
+        if (maxCommands < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Capacity must not be negative: " + maxCommands);
+        }
+
+        name = laneName;
+        parallelism = threads;
+        capacity = maxCommands;
+        blocking = block;
+    }
+
+    /**
+     * Creates a new instance of {@code CommandLane} with the given name,
+     * number of worker threads, and capacity. Commands exceeding the capacity
+     * are rejected.
+     *
+     * @param laneName the name of this lane (must not be <b>null</b>)
+     * @param threads the number of worker threads (must be greater 0)
+     * @param maxCommands the maximum number of commands that can be scheduled
+     *        in this lane; 0 for an unlimited number (must not be negative)
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public CommandLane(String laneName, int threads, int maxCommands)
+    {
+        this(laneName, threads, maxCommands, false);
+    }
+
+    /**
+     * Creates a new instance of {@code CommandLane} with the given name and
+     * number of worker threads and an unlimited capacity.
+     *
+     * @param laneName the name of this lane (must not be <b>null</b>)
+     * @param threads the number of worker threads (must be greater 0)
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public CommandLane(String laneName, int threads)
+    {
+        this(laneName, threads, 0, false);
+    }
+
+    /**
+     * Returns the name of this lane.
+     *
+     * @return the name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the number of worker threads of this lane.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Returns the maximum number of commands that can be scheduled in this
+     * lane. A value of 0 means that there is no limit.
+     *
+     * @return the capacity
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns a flag whether callers are blocked if the capacity of this lane
+     * is exhausted. If <b>false</b>, further commands are rejected.
+     *
+     * @return the blocking flag
+     */
+    public boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    /**
+     * Creates the {@code ExecutorService} for this lane. This method is called
+     * when the lane is added to a command queue. This implementation creates a
+     * thread pool with a fixed number of threads as defined by the
+     * parallelism property. Derived classes can override it to use a
+     * different executor.
+     *
+     * @return the {@code ExecutorService} for this lane
+     */
+    public ExecutorService createExecutorService()
+    {
+        return new ThreadPoolExecutor(getParallelism(), getParallelism(),
+                Long.MAX_VALUE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+    }
+
+    /**
+     * Returns a string representation of this object. This string contains
+     * the values of all properties.
+     *
+     * @return a string for this object
+     */
+    @Override
+    public String toString()
+    {
+        return "CommandLane [name=" + getName() + ", parallelism="
+                + getParallelism() + ", capacity=" + getCapacity()
+                + ", blocking=" + isBlocking() + "]";
+    }
+}
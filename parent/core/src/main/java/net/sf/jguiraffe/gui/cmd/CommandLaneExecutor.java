@@ -0,0 +1,379 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>
+ * An internally used helper class for executing the tasks of a lane of a
+ * {@link CommandQueueImpl}.
+ * </p>
+ * <p>
+ * An instance wraps the {@code ExecutorService} of a lane. It adds support
+ * for a limited capacity and for ordering keys: If a capacity is defined, a
+ * semaphore is used to keep track of the number of tasks. When the maximum
+ * number of tasks has been reached, new tasks are either rejected, or the
+ * caller is blocked until space becomes available. Tasks with an ordering key
+ * are not passed directly to the executor service; rather, they are added to a
+ * queue associated with the key. Only a single task per key is active at a
+ * given time; it processes all tasks added to its queue in order. If the
+ * executor service rejects the worker for a key, the tasks waiting in its
+ * queue are canceled.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+class CommandLaneExecutor
+{
+    /** The underlying executor service. */
+    private final ExecutorService executorService;
+
+    /** The semaphore for limiting the capacity; null for unlimited. */
+    private final Semaphore capacity;
+
+    /** A flag whether callers are blocked if the capacity is exhausted. */
+    private final boolean blocking;
+
+    /** A map with the queues for tasks with an ordering key. */
+    private final Map<Object, Queue<Runnable>> orderedTasks;
+
+    /**
+     * Creates a new instance of {@code CommandLaneExecutor} which rejects new
+     * tasks if its capacity is exhausted.
+     *
+     * @param execSrvc the underlying executor service
+     * @param maxTasks the maximum number of tasks; 0 for unlimited
+     */
+    public CommandLaneExecutor(ExecutorService execSrvc, int maxTasks)
+    {
+        this(execSrvc, maxTasks, false);
+    }
+
+    /**
+     * Creates a new instance of {@code CommandLaneExecutor} and sets the
+     * blocking flag.
+     *
+     * @param execSrvc the underlying executor service
+     * @param maxTasks the maximum number of tasks; 0 for unlimited
+     * @param block a flag whether callers are to be blocked if the capacity
+     *        is exhausted
+     */
+    public CommandLaneExecutor(ExecutorService execSrvc, int maxTasks,
+            boolean block)
+    {
+        executorService = execSrvc;
+        capacity = (maxTasks > 0) ? new Semaphore(maxTasks) : null;
+        blocking = block;
+        orderedTasks = new HashMap<Object, Queue<Runnable>>();
+    }
+
+    /**
+     * Returns the underlying executor service.
+     *
+     * @return the executor service
+     */
+    public ExecutorService getExecutorService()
+    {
+        return executorService;
+    }
+
+    /**
+     * Reserves space for a new task. This method must be called before
+     * {@link #execute(Runnable, Object)}. If the capacity of this lane is
+     * exhausted, it either blocks until a task is complete or throws an
+     * exception, depending on the blocking flag.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws RejectedExecutionException if the capacity is exhausted and
+     *         this executor does not block
+     */
+    public void acquire() throws InterruptedException
+    {
+        if (capacity != null)
+        {
+            if (blocking)
+            {
+                capacity.acquire();
+            }
+            else if (!capacity.tryAcquire())
+            {
+                throw new RejectedExecutionException(
+                        "Capacity of lane exhausted!");
+            }
+        }
+    }
+
+    /**
+     * Releases space reserved by {@link #acquire()}.
+     */
+    public void release()
+    {
+        if (capacity != null)
+        {
+            capacity.release();
+        }
+    }
+
+    /**
+     * Executes the specified task. Space must have been reserved before using
+     * {@link #acquire()}; it is released when the task is complete.
+     *
+     * @param task the task to be executed
+     * @param key the ordering key (can be <b>null</b>)
+     * @throws RejectedExecutionException if the executor service rejects the
+     *         task
+     */
+    public void execute(Runnable task, Object key)
+    {
+        Runnable r = (capacity != null) ? new ReleasingTask(task) : task;
+        try
+        {
+            if (key == null)
+            {
+                getExecutorService().execute(r);
+            }
+            else
+            {
+                executeOrdered(r, key);
+            }
+        }
+        catch (RejectedExecutionException rex)
+        {
+            release();
+            throw rex;
+        }
+    }
+
+    /**
+     * Executes a task with an ordering key. If there is already an active
+     * task for this key, the task is added to the corresponding queue.
+     * Otherwise, a new worker for this key is started.
+     *
+     * @param task the task
+     * @param key the ordering key
+     */
+    private void executeOrdered(Runnable task, Object key)
+    {
+        synchronized (orderedTasks)
+        {
+            Queue<Runnable> queue = orderedTasks.get(key);
+            if (queue != null)
+            {
+                queue.add(task);
+                return;
+            }
+            orderedTasks.put(key, new LinkedList<Runnable>());
+        }
+
+        try
+        {
+            getExecutorService().execute(new OrderedTask(task, key));
+        }
+        catch (RejectedExecutionException rex)
+        {
+            cancelOrderedTasks(key);
+            throw rex;
+        }
+    }
+
+    /**
+     * Cancels the tasks waiting for the given ordering key. This method is
+     * called if the executor service rejects the worker for this key. The key
+     * is removed, so that new tasks start a new worker.
+     *
+     * @param key the ordering key
+     */
+    private void cancelOrderedTasks(Object key)
+    {
+        Queue<Runnable> queue;
+        synchronized (orderedTasks)
+        {
+            queue = orderedTasks.remove(key);
+        }
+
+        if (queue != null)
+        {
+            for (Runnable task : queue)
+            {
+                cancelTask(task);
+            }
+        }
+    }
+
+    /**
+     * Cancels a task which cannot be executed. If space has been reserved
+     * for the task, it is released. If the task is a {@code Future}, it is
+     * canceled.
+     *
+     * @param task the task
+     */
+    private void cancelTask(Runnable task)
+    {
+        Runnable t = task;
+        if (t instanceof ReleasingTask)
+        {
+            release();
+            t = ((ReleasingTask) t).task;
+        }
+        if (t instanceof Future)
+        {
+            ((Future<?>) t).cancel(false);
+        }
+    }
+
+    /**
+     * Returns the next task for the given ordering key. If there are no more
+     * tasks, the key is removed, and result is <b>null</b>.
+     *
+     * @param key the ordering key
+     * @return the next task for this key or <b>null</b>
+     */
+    private Runnable nextOrderedTask(Object key)
+    {
+        synchronized (orderedTasks)
+        {
+            Runnable next = orderedTasks.get(key).poll();
+            if (next == null)
+            {
+                orderedTasks.remove(key);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * A task implementation which releases the reserved space after the
+     * execution of the wrapped task.
+     */
+    private class ReleasingTask implements Runnable
+    {
+        /** The wrapped task. */
+        private final Runnable task;
+
+        /**
+         * Creates a new instance of {@code ReleasingTask}.
+         *
+         * @param t the wrapped task
+         */
+        public ReleasingTask(Runnable t)
+        {
+            task = t;
+        }
+
+        /**
+         * Executes the wrapped task and releases the reserved space.
+         */
+        public void run()
+        {
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                release();
+            }
+        }
+    }
+
+    /**
+     * A task implementation which processes all tasks for a specific ordering
+     * key. The tasks are executed in the current thread in the order they were
+     * added to the queue for this key. So the executor service need not accept
+     * further tasks, which is important if it has already been shut down.
+     */
+    private class OrderedTask implements Runnable
+    {
+        /** The first task to be executed. */
+        private final Runnable firstTask;
+
+        /** The ordering key. */
+        private final Object key;
+
+        /**
+         * Creates a new instance of {@code OrderedTask}.
+         *
+         * @param task the first task to be executed
+         * @param k the ordering key
+         */
+        public OrderedTask(Runnable task, Object k)
+        {
+            firstTask = task;
+            key = k;
+        }
+
+        /**
+         * Executes all tasks for the associated key. If a task throws an
+         * exception, the remaining tasks are passed to a new worker. If the
+         * executor service rejects this worker, the remaining tasks are
+         * canceled.
+         */
+        public void run()
+        {
+            Runnable task = firstTask;
+            try
+            {
+                while (task != null)
+                {
+                    task.run();
+                    task = nextOrderedTask(key);
+                }
+            }
+            finally
+            {
+                if (task != null)
+                {
+                    Runnable next = nextOrderedTask(key);
+                    if (next != null)
+                    {
+                        executeRemaining(next);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Passes the remaining tasks for the associated key to a new worker.
+         * If the executor service rejects the worker, the first task and all
+         * tasks still waiting for the key are canceled.
+         *
+         * @param next the next task to be executed
+         */
+        private void executeRemaining(Runnable next)
+        {
+            try
+            {
+                getExecutorService().execute(new OrderedTask(next, key));
+            }
+            catch (RejectedExecutionException rex)
+            {
+                cancelTask(next);
+                cancelOrderedTasks(key);
+            }
+        }
+    }
+}
@@ -84,6 +84,37 @@ public interface CommandQueue
      */
     void execute(Command cmd);
 
+    /**
+     * Adds a new <code>Command</code> object to this queue and returns a
+     * handle for it. This method works like {@link #execute(Command)}, but the
+     * {@link CommandHandle} returned allows monitoring the command's progress,
+     * waiting for its completion, or canceling it. This default
+     * implementation exists for compatibility with command queue
+     * implementations created for earlier versions: it wraps the command in a
+     * basic handle, which tracks the command's execution, and passes it to
+     * {@code execute()}. Progress reported by the command is only passed to a
+     * {@code ProgressBarHandler}. Implementations should override this method
+     * to integrate handles with their own management of commands.
+     *
+     * @param cmd the command to be executed (must not be <b>null</b>)
+     * @return a handle for the command
+     * @throws IllegalArgumentException if the command is <b>null</b>
+     * @throws IllegalStateException if <code>shutdown()</code> has already
+     *         been called
+     * @since 1.5
+     */
+    default CommandHandle submit(Command cmd)
+    {
+        if (cmd == null)
+        {
+            throw new IllegalArgumentException("Command must not be null!");
+        }
+
+        SimpleCommandHandle handle = new SimpleCommandHandle(this, cmd);
+        execute(handle);
+        return handle;
+    }
+
     /**
      * Checks if there are commands to be executed or in execution. This method
      * can be called for instance if the user wants to exit the application to
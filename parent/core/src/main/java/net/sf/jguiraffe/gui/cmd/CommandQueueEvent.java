@@ -45,6 +45,9 @@ public class CommandQueueEvent extends EventObject
     /** Stores the event's type. */
     private final Type type;
 
+    /** Stores the progress reported by the command. */
+    private final int progress;
+
     /**
      * Creates a new instance of <code>CommandQueueEvent</code> and fully
      * initializes it.
@@ -54,10 +57,27 @@ public class CommandQueueEvent extends EventObject
      * @param t the event's type
      */
     public CommandQueueEvent(CommandQueue q, Command c, Type t)
+    {
+        this(q, c, t, 0);
+    }
+
+    /**
+     * Creates a new instance of <code>CommandQueueEvent</code> with a
+     * progress value. This constructor is used for events of type
+     * <code>COMMAND_PROGRESS</code>.
+     *
+     * @param q the affected command queue
+     * @param c the affected command object
+     * @param t the event's type
+     * @param p the progress reported by the command
+     * @since 1.5
+     */
+    public CommandQueueEvent(CommandQueue q, Command c, Type t, int p)
     {
         super(q);
         command = c;
         type = t;
+        progress = p;
     }
 
     /**
@@ -93,6 +113,19 @@ public class CommandQueueEvent extends EventObject
         return type;
     }
 
+    /**
+     * Returns the progress reported by the command. This value is only
+     * meaningful for events of type <code>COMMAND_PROGRESS</code>; for other
+     * events it is 0.
+     *
+     * @return the progress of the affected command
+     * @since 1.5
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
     /**
      * <p>
      * An enumeration for the types supported by the
@@ -135,6 +168,25 @@ public class CommandQueueEvent extends EventObject
          * opposite event of <code>QUEUE_BUSY</code>. It indicates that all
          * pending commands have been processed, and the queue is now empty.
          */
-        QUEUE_IDLE
+        QUEUE_IDLE,
+
+        /**
+         * A command was canceled through its {@link CommandHandle}. If the
+         * command had not yet been started, it will not be executed, and no
+         * further events are generated for it. A running command may continue
+         * until it reacts on the cancellation; then a
+         * <code>COMMAND_EXECUTED</code> event is generated as usual.
+         * @since 1.5
+         */
+        COMMAND_CANCELLED,
+
+        /**
+         * A command reported progress through its {@link CommandHandle}.
+         * The progress value can be queried from the event. Events of this
+         * type are generated on the event dispatch thread; their rate is
+         * limited by the progress interval of the command queue.
+         * @since 1.5
+         */
+        COMMAND_PROGRESS
     }
 }
@@ -15,14 +15,24 @@
  */
 package net.sf.jguiraffe.gui.cmd;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.event.EventListenerList;
 
+import net.sf.jguiraffe.gui.builder.utils.BatchingGUISynchronizer;
 import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
 
 import org.apache.commons.logging.Log;
@@ -44,12 +54,56 @@ import org.apache.commons.logging.LogFactory;
  * thread. The other methods will be used by worker threads to obtain commands
  * and send notifications about executed commands.
  * </p>
+ * <p>
+ * Per default, all commands are executed by the {@code ExecutorService} passed
+ * to the constructor (the <em>default lane</em>). With the
+ * {@link #addLane(CommandLane)} method further lanes can be added, each of
+ * which has its own worker threads and an optional limited capacity. Commands
+ * implementing the {@link LaneAware} interface are executed in the lane they
+ * select; they can also define an ordering key to enforce sequential
+ * execution of related commands. The events fired by this queue and the
+ * {@link #isPending()} method take the commands of all lanes into account.
+ * </p>
+ * <p>
+ * The GUI updaters of commands are normally executed synchronously via the
+ * {@code GUISynchronizer}; the worker thread waits until the update is
+ * complete. If the synchronizer is a {@link BatchingGUISynchronizer}, GUI
+ * updaters are passed asynchronously and executed in batches on the event
+ * dispatch thread. Commands can influence this by implementing the
+ * {@link GUIUpdateAware} interface. <strong>Note:</strong> In this mode the
+ * worker thread does not wait for the GUI update; so the command's
+ * {@code onFinally()} method and the completion of its {@code CommandHandle}
+ * may happen before the update has been performed. The order of events is
+ * preserved, however: the {@code COMMAND_EXECUTED} event (and a
+ * {@code QUEUE_IDLE} event if applicable) are fired on the event dispatch
+ * thread after the GUI update has been executed. If GUI updates are coalesced,
+ * the events for all affected commands are fired after the single update that
+ * is actually performed. Exceptions thrown by a GUI updater in this mode are
+ * logged; they do not prevent the events from being fired.
+ * </p>
+ * <p>
+ * The {@link #submit(Command)} method returns a {@link CommandHandle} for the
+ * scheduled command. It can be used to cancel the command or to wait for its
+ * completion. A canceled command that has not yet been started is skipped;
+ * it no longer counts as pending. Commands can report their progress through
+ * their handle (see {@link CommandHandleAware}); progress notifications are
+ * delivered to the event dispatch thread at most once per
+ * {@linkplain #setProgressInterval(long) progress interval}.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: CommandQueueImpl.java 205 2012-01-29 18:29:57Z oheger $
  */
 public class CommandQueueImpl implements CommandQueue
 {
+    /**
+     * Constant for the default interval between progress notifications (in
+     * milliseconds).
+     *
+     * @since 1.5
+     */
+    public static final long DEFAULT_PROGRESS_INTERVAL = 100;
+
     /** The logger. */
     private final Log log = LogFactory.getLog(CommandQueueImpl.class);
 
@@ -59,12 +113,24 @@ public class CommandQueueImpl implements CommandQueue
     /** Stores the executor service. */
     private final ExecutorService executorService;
 
+    /** The executor for the default lane. */
+    private final CommandLaneExecutor defaultLane;
+
+    /** A map with the additional lanes of this queue. */
+    private final ConcurrentMap<String, CommandLaneExecutor> lanes;
+
     /** A list with the registered event listeners. */
     private final EventListenerList listeners;
 
     /** A counter for the commands that have been scheduled, but are not yet complete.*/
     private final AtomicInteger pendingCommands;
 
+    /** The minimum interval between progress notifications (in millis). */
+    private volatile long progressInterval;
+
+    /** A map with the pending asynchronous GUI updates which have a key. */
+    private final Map<Object, GUIUpdateTask> pendingGUIUpdates;
+
     /**
      * Creates a new instance of <code>CommandQueue</code> and initializes it
      * with the <code>GUISynchronizer</code>. A default
@@ -97,8 +163,12 @@ public class CommandQueueImpl implements CommandQueue
 
         setGUISynchronizer(sync);
         executorService = execSrvc;
+        defaultLane = new CommandLaneExecutor(execSrvc, 0);
+        lanes = new ConcurrentHashMap<String, CommandLaneExecutor>();
         listeners = new EventListenerList();
         pendingCommands = new AtomicInteger();
+        progressInterval = DEFAULT_PROGRESS_INTERVAL;
+        pendingGUIUpdates = new HashMap<Object, GUIUpdateTask>();
     }
 
     /**
@@ -137,6 +207,72 @@ public class CommandQueueImpl implements CommandQueue
         return executorService;
     }
 
+    /**
+     * Adds a new lane to this command queue. The lane's
+     * {@code ExecutorService} is created, and from now on commands can be
+     * executed in this lane.
+     *
+     * @param lane the lane to be added (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the lane is <b>null</b> or a lane
+     *         with this name already exists
+     * @throws IllegalStateException if this queue has already been shut down
+     * @since 1.5
+     */
+    public void addLane(CommandLane lane)
+    {
+        if (lane == null)
+        {
+            throw new IllegalArgumentException("Lane must not be null!");
+        }
+        if (isShutdown())
+        {
+            throw new IllegalStateException(
+                    "Cannot add lanes after shutdown!");
+        }
+        if (lanes.containsKey(lane.getName()))
+        {
+            throw new IllegalArgumentException("Lane already exists: "
+                    + lane.getName());
+        }
+
+        CommandLaneExecutor exec =
+                new CommandLaneExecutor(lane.createExecutorService(),
+                        lane.getCapacity(), lane.isBlocking());
+        if (lanes.putIfAbsent(lane.getName(), exec) != null)
+        {
+            exec.getExecutorService().shutdown();
+            throw new IllegalArgumentException("Lane already exists: "
+                    + lane.getName());
+        }
+    }
+
+    /**
+     * Returns a set with the names of the lanes that have been added to this
+     * queue. The default lane is not contained.
+     *
+     * @return a set with the names of the additional lanes
+     * @since 1.5
+     */
+    public Set<String> getLaneNames()
+    {
+        return Collections.unmodifiableSet(lanes.keySet());
+    }
+
+    /**
+     * Returns the {@code ExecutorService} used for the lane with the given
+     * name. If the name is <b>null</b> or no lane with this name exists, the
+     * executor service of the default lane is returned. (This is consistent
+     * with the way commands are assigned to lanes.)
+     *
+     * @param laneName the name of the lane
+     * @return the {@code ExecutorService} for this lane
+     * @since 1.5
+     */
+    public ExecutorService getExecutorService(String laneName)
+    {
+        return fetchLane(laneName).getExecutorService();
+    }
+
     /**
      * Adds an event listener to this queue.
      *
@@ -165,18 +301,75 @@ public class CommandQueueImpl implements CommandQueue
     }
 
     /**
-     * Executes the specified command object. This implementation calls
-     * <code>createTask()</code> to create a task object for actually
-     * executing the command. This task is then passed to the
-     * <code>ExecutorService</code>, so it will be processed by a background
-     * thread.
+     * Returns the minimum interval between two progress notifications of a
+     * command (in milliseconds).
+     *
+     * @return the progress interval
+     * @since 1.5
+     */
+    public long getProgressInterval()
+    {
+        return progressInterval;
+    }
+
+    /**
+     * Sets the minimum interval between two progress notifications of a
+     * command (in milliseconds). Progress reported by a command more
+     * frequently is coalesced.
+     *
+     * @param interval the progress interval (must not be negative)
+     * @throws IllegalArgumentException if the interval is negative
+     * @since 1.5
+     */
+    public void setProgressInterval(long interval)
+    {
+        if (interval < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Progress interval must not be negative: " + interval);
+        }
+        progressInterval = interval;
+    }
+
+    /**
+     * Executes the specified command object. This implementation delegates
+     * to {@link #submit(Command)}.
      *
      * @param cmd the command to be executed (must not be <b>null</b>)
      * @throws IllegalArgumentException if the command is <b>null</b>
      * @throws IllegalStateException if <code>shutdown()</code> has already
-     *         been called
+     *         been called or if the thread is interrupted while waiting for
+     *         space in the command's lane
+     * @throws RejectedExecutionException if the capacity of the command's
+     *         lane is exhausted and the lane does not block
      */
     public void execute(Command cmd)
+    {
+        submit(cmd);
+    }
+
+    /**
+     * Schedules the specified command object and returns a handle for it.
+     * This implementation calls <code>createTask()</code> to create a task
+     * object for actually executing the command. This task is wrapped by the
+     * {@code CommandHandle} and passed to the <code>ExecutorService</code> of
+     * the lane the command belongs to, so it will be processed by a background
+     * thread. If this lane has a limited capacity which is exhausted, the
+     * command is rejected, or - if the lane is configured to block - this
+     * method blocks until space becomes available. If the command implements
+     * {@link CommandHandleAware}, it is passed its handle.
+     *
+     * @param cmd the command to be executed (must not be <b>null</b>)
+     * @return a handle for the command
+     * @throws IllegalArgumentException if the command is <b>null</b>
+     * @throws IllegalStateException if <code>shutdown()</code> has already
+     *         been called or if the thread is interrupted while waiting for
+     *         space in the command's lane
+     * @throws RejectedExecutionException if the capacity of the command's
+     *         lane is exhausted and the lane does not block
+     * @since 1.5
+     */
+    public CommandHandle submit(Command cmd)
     {
         if (cmd == null)
         {
@@ -188,6 +381,26 @@ public class CommandQueueImpl implements CommandQueue
                     "Cannot execute commands after shutdown!");
         }
 
+        String laneName = null;
+        Object orderingKey = null;
+        if (cmd instanceof LaneAware)
+        {
+            LaneAware la = (LaneAware) cmd;
+            laneName = la.getLaneName();
+            orderingKey = la.getOrderingKey();
+        }
+        CommandLaneExecutor lane = fetchLane(laneName);
+        try
+        {
+            lane.acquire();
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while waiting for space in lane " + laneName);
+        }
+
         checkForBusyEvent();
         fireQueueEvent(cmd, CommandQueueEvent.Type.COMMAND_ADDED);
 
@@ -195,7 +408,15 @@ public class CommandQueueImpl implements CommandQueue
         {
             ((ScheduleAware) cmd).commandScheduled(this);
         }
-        getExecutorService().execute(createTask(cmd));
+
+        CommandHandleImpl handle =
+                new CommandHandleImpl(this, cmd, createTask(cmd));
+        if (cmd instanceof CommandHandleAware)
+        {
+            ((CommandHandleAware) cmd).setCommandHandle(handle);
+        }
+        lane.execute(handle, orderingKey);
+        return handle;
     }
 
     /**
@@ -237,7 +458,8 @@ public class CommandQueueImpl implements CommandQueue
      * Shuts down this command queue. For this implementation, a shutdown means
      * that the underlying executor has to be shut down. Depending on the
      * boolean parameter this method will block until the executor service's
-     * shutdown is complete.
+     * shutdown is complete. The executor services of all lanes are shut down,
+     * too.
      *
      * @param immediate a flag whether an immediate shutdown should be performed
      */
@@ -246,15 +468,28 @@ public class CommandQueueImpl implements CommandQueue
         if (immediate)
         {
             getExecutorService().shutdownNow();
+            for (CommandLaneExecutor lane : lanes.values())
+            {
+                lane.getExecutorService().shutdownNow();
+            }
         }
 
         else
         {
             getExecutorService().shutdown();
+            for (CommandLaneExecutor lane : lanes.values())
+            {
+                lane.getExecutorService().shutdown();
+            }
             try
             {
                 getExecutorService().awaitTermination(Long.MAX_VALUE,
                         TimeUnit.SECONDS);
+                for (CommandLaneExecutor lane : lanes.values())
+                {
+                    lane.getExecutorService().awaitTermination(
+                            Long.MAX_VALUE, TimeUnit.SECONDS);
+                }
             }
             catch (InterruptedException iex)
             {
@@ -271,6 +506,21 @@ public class CommandQueueImpl implements CommandQueue
      * @param eventType the type of the event to fire
      */
     protected void fireQueueEvent(Command cmd, CommandQueueEvent.Type eventType)
+    {
+        fireQueueEvent(cmd, eventType, 0);
+    }
+
+    /**
+     * Notifies all registered listeners about a change in the state of this
+     * queue passing a progress value.
+     *
+     * @param cmd the affected command
+     * @param eventType the type of the event to fire
+     * @param progress the progress of the command
+     * @since 1.5
+     */
+    protected void fireQueueEvent(Command cmd,
+            CommandQueueEvent.Type eventType, int progress)
     {
         CommandQueueEvent event = null;
 
@@ -282,7 +532,9 @@ public class CommandQueueImpl implements CommandQueue
                 if (event == null)
                 {
                     // lazily create event
-                    event = new CommandQueueEvent(this, cmd, eventType);
+                    event =
+                            new CommandQueueEvent(this, cmd, eventType,
+                                    progress);
                 }
                 ((CommandQueueListener) lst[i + 1]).commandQueueChanged(event);
             }
@@ -301,6 +553,110 @@ public class CommandQueueImpl implements CommandQueue
         return new CommandExecutorTask(cmd);
     }
 
+    /**
+     * Notifies this queue that a command has been canceled. This method is
+     * called by the command's handle. It fires a corresponding event. If the
+     * command has not yet been started, it is no longer pending.
+     *
+     * @param cmd the command
+     * @param wasPending a flag whether the command has not yet been started
+     */
+    void commandCancelled(Command cmd, boolean wasPending)
+    {
+        fireQueueEvent(cmd, CommandQueueEvent.Type.COMMAND_CANCELLED);
+        if (wasPending)
+        {
+            checkForIdleEvent();
+        }
+    }
+
+    /**
+     * Notifies the listeners of this queue about progress reported by a
+     * command. This method is called by the command's handle on the event
+     * dispatch thread.
+     *
+     * @param cmd the command
+     * @param progress the progress
+     */
+    void fireProgressEvent(Command cmd, int progress)
+    {
+        fireQueueEvent(cmd, CommandQueueEvent.Type.COMMAND_PROGRESS, progress);
+    }
+
+    /**
+     * Returns the executor for the lane with the given name. If the lane
+     * cannot be resolved, the default lane is returned.
+     *
+     * @param laneName the name of the lane
+     * @return the executor for this lane
+     */
+    private CommandLaneExecutor fetchLane(String laneName)
+    {
+        CommandLaneExecutor lane = (laneName != null) ? lanes.get(laneName)
+                : null;
+        return (lane != null) ? lane : defaultLane;
+    }
+
+    /**
+     * Passes the GUI update of a command to a batching synchronizer. The
+     * update is executed asynchronously; after that the command is reported
+     * as finished. If the command defines a key for its update and an update
+     * with this key is still pending, the pending update is replaced, and the
+     * command is reported as finished together with the commands affected by
+     * this update.
+     *
+     * @param batchSync the batching synchronizer
+     * @param key the key of the update (can be <b>null</b>)
+     * @param cmd the command
+     * @param updater the object for updating the GUI
+     */
+    private void scheduleGUIUpdate(BatchingGUISynchronizer batchSync,
+            Object key, Command cmd, Runnable updater)
+    {
+        if (key == null)
+        {
+            batchSync.asyncInvoke(new GUIUpdateTask(null, cmd, updater));
+            return;
+        }
+
+        synchronized (pendingGUIUpdates)
+        {
+            GUIUpdateTask task = pendingGUIUpdates.get(key);
+            if (task != null)
+            {
+                task.merge(cmd, updater);
+            }
+            else
+            {
+                task = new GUIUpdateTask(key, cmd, updater);
+                pendingGUIUpdates.put(key, task);
+                batchSync.asyncInvoke(key, task);
+            }
+        }
+    }
+
+    /**
+     * Notifies this queue that an asynchronous GUI update is about to be
+     * executed. From now on no further commands can be merged into this
+     * update. Its commands are returned.
+     *
+     * @param task the task for the GUI update
+     * @return the commands affected by this update
+     */
+    private List<Command> startGUIUpdate(GUIUpdateTask task)
+    {
+        if (task.key == null)
+        {
+            return task.commands;
+        }
+
+        synchronized (pendingGUIUpdates)
+        {
+            pendingGUIUpdates.remove(task.key);
+            return new ArrayList<Command>(task.commands);
+        }
+    }
+
     /**
      * Fires a busy event if necessary. This method is called when a new command
      * is added. It updates the command counter and notifies the queue
@@ -386,20 +742,118 @@ public class CommandQueueImpl implements CommandQueue
             finally
             {
                 cmd.onFinally();
-                handleGUIUpdate();
-                processingFinished(cmd);
+                if (!handleGUIUpdate())
+                {
+                    processingFinished(cmd);
+                }
             }
         }
 
         /**
          * Cares for GUI updates after a command has been successfully executed.
+         * If a {@code BatchingGUISynchronizer} is used, the update is executed
+         * asynchronously unless the command requests otherwise. In this case
+         * the command is reported as finished after the update.
+         *
+         * @return a flag whether the GUI update is performed asynchronously
          */
-        protected void handleGUIUpdate()
+        protected boolean handleGUIUpdate()
         {
             Runnable r = cmd.getGUIUpdater();
             if (r != null)
             {
-                getGUISynchronizer().syncInvoke(r);
+                GUISynchronizer guiSync = getGUISynchronizer();
+                GUIUpdateAware updateAware =
+                        (cmd instanceof GUIUpdateAware) ? (GUIUpdateAware) cmd
+                                : null;
+                if (guiSync instanceof BatchingGUISynchronizer
+                        && (updateAware == null || !updateAware
+                                .isWaitForGUIUpdate()))
+                {
+                    scheduleGUIUpdate((BatchingGUISynchronizer) guiSync,
+                            (updateAware != null) ? updateAware
+                                    .getGUIUpdateKey() : null, cmd, r);
+                    return true;
+                }
+                else
+                {
+                    guiSync.syncInvoke(r);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A task for performing the GUI update of one or more commands
+     * asynchronously via a {@code BatchingGUISynchronizer}. After the update
+     * has been executed, the affected commands are reported as finished, so
+     * that the corresponding events are fired in the correct order. If
+     * multiple commands use the same key for their updates, only the most
+     * recent update is executed.
+     */
+    private class GUIUpdateTask implements Runnable
+    {
+        /** The key of this update. */
+        final Object key;
+
+        /** The commands affected by this update. */
+        final List<Command> commands;
+
+        /** The object for updating the GUI. */
+        private volatile Runnable updater;
+
+        /**
+         * Creates a new instance of {@code GUIUpdateTask}.
+         *
+         * @param k the key of the update
+         * @param cmd the command
+         * @param r the object for updating the GUI
+         */
+        public GUIUpdateTask(Object k, Command cmd, Runnable r)
+        {
+            key = k;
+            commands = new ArrayList<Command>(1);
+            commands.add(cmd);
+            updater = r;
+        }
+
+        /**
+         * Adds another command to this update. Its updater replaces the
+         * current one. This method is called while the lock for pending
+         * updates is held.
+         *
+         * @param cmd the command
+         * @param r the object for updating the GUI
+         */
+        public void merge(Command cmd, Runnable r)
+        {
+            commands.add(cmd);
+            updater = r;
+        }
+
+        /**
+         * Executes the GUI update and reports the affected commands as
+         * finished.
+         */
+        public void run()
+        {
+            List<Command> cmds = startGUIUpdate(this);
+            try
+            {
+                updater.run();
+            }
+            catch (RuntimeException rex)
+            {
+                log.error("Exception in GUI update of command "
+                        + cmds.get(cmds.size() - 1), rex);
+            }
+            finally
+            {
+                for (Command c : cmds)
+                {
+                    processingFinished(c);
+                }
             }
         }
     }
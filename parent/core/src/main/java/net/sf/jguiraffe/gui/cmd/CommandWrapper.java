@@ -26,11 +26,15 @@ package net.sf.jguiraffe.gui.cmd;
  * as a base class for command implementations that need to alter certain
  * behavior of other command objects.
  * </p>
+ * <p>
+ * If the wrapped command implements the {@link CommandHandleAware} interface,
+ * the {@code CommandHandle} passed to this object is propagated to it.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: CommandWrapper.java 205 2012-01-29 18:29:57Z oheger $
  */
-public class CommandWrapper implements Command
+public class CommandWrapper implements Command, CommandHandleAware
 {
     /** Stores the wrapped command. */
     private final Command wrappedCommand;
@@ -63,6 +67,23 @@ public class CommandWrapper implements Command
         return wrappedCommand;
     }
 
+    /**
+     * Sets the {@code CommandHandle} of this command. This implementation
+     * passes the handle to the wrapped command if it implements the
+     * {@code CommandHandleAware} interface.
+     *
+     * @param handle the handle of this command
+     * @since 1.5
+     */
+    public void setCommandHandle(CommandHandle handle)
+    {
+        if (getWrappedCommand() instanceof CommandHandleAware)
+        {
+            ((CommandHandleAware) getWrappedCommand())
+                    .setCommandHandle(handle);
+        }
+    }
+
     /**
      * Executes this command. This implementation delegates to the wrapped
      * command.
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+/**
+ * <p>
+ * Definition of an interface to be implemented by {@link Command} objects that
+ * want to control how their GUI updates are executed.
+ * </p>
+ * <p>
+ * If a {@link CommandQueueImpl} is configured with a
+ * {@link net.sf.jguiraffe.gui.builder.utils.BatchingGUISynchronizer
+ * BatchingGUISynchronizer}, the GUI updaters of commands are executed
+ * asynchronously in batches; the worker thread does not wait until the update
+ * has been performed. By implementing this interface a command can influence
+ * this behavior: it can define a key for coalescing its update with pending
+ * updates of other commands, so that only the most recent update with this key
+ * is executed. It can also request that the worker thread waits until the GUI
+ * update is complete.
+ * </p>
+ * <p>
+ * If the command queue uses a different synchronizer, GUI updates are always
+ * executed synchronously, and this interface is ignored. It is evaluated in
+ * the worker thread after the command has been executed.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface GUIUpdateAware
+{
+    /**
+     * Returns a key for coalescing the GUI update of this command. If the
+     * update of another command with an equal key is still pending, it is
+     * replaced by the update of this command. A result of <b>null</b> means
+     * that no coalescing is performed.
+     *
+     * @return the key for coalescing GUI updates (can be <b>null</b>)
+     */
+    Object getGUIUpdateKey();
+
+    /**
+     * Returns a flag whether the worker thread should wait until the GUI
+     * update of this command has been executed.
+     *
+     * @return <b>true</b> for a synchronous GUI update, <b>false</b> for an
+     *         asynchronous one
+     */
+    boolean isWaitForGUIUpdate();
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+/**
+ * <p>
+ * Definition of an interface to be implemented by {@link Command} objects that
+ * want to control how they are scheduled by a {@link CommandQueueImpl}.
+ * </p>
+ * <p>
+ * A {@link CommandQueueImpl} can be configured with multiple <em>lanes</em>
+ * (see {@link CommandLane}), e.g. a lane for short interactive commands and
+ * one for longer-running background tasks. Each lane has its own worker
+ * threads; so a long command executed in one lane does not block the commands
+ * of other lanes. Per default, commands are executed in the default lane of
+ * the command queue. By implementing this interface a command can select the
+ * lane it is to be executed in.
+ * </p>
+ * <p>
+ * A lane may use multiple worker threads; then commands in the same lane are
+ * executed in parallel. If some commands must be executed in the order they
+ * were passed to the queue, they can define an <em>ordering key</em>:
+ * commands with equal keys are executed one after the other in the order they
+ * were scheduled; they never run concurrently. Commands with different keys
+ * or without a key are not affected by this restriction.
+ * </p>
+ * <p>
+ * Like {@link ScheduleAware}, this interface is evaluated in the thread that
+ * calls {@link CommandQueue#execute(Command)}.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface LaneAware
+{
+    /**
+     * Returns the name of the lane in which this command is to be executed.
+     * If the result is <b>null</b> or if no lane with this name exists, the
+     * command is executed in the default lane.
+     *
+     * @return the name of the lane for this command
+     */
+    String getLaneName();
+
+    /**
+     * Returns the ordering key for this command. Commands in the same lane
+     * with equal ordering keys are executed sequentially in the order they
+     * have been scheduled. A result of <b>null</b> means that this command
+     * does not have any ordering constraints.
+     *
+     * @return the ordering key for this command (can be <b>null</b>)
+     */
+    Object getOrderingKey();
+}
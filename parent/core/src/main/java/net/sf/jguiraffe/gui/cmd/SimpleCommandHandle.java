@@ -0,0 +1,356 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.sf.jguiraffe.gui.builder.components.model.ProgressBarHandler;
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
+
+/**
+ * <p>
+ * A basic implementation of the {@link CommandHandle} interface which can be
+ * used by arbitrary {@link CommandQueue} implementations.
+ * </p>
+ * <p>
+ * This class is used by the default implementation of the
+ * {@link CommandQueue#submit(Command)} method. It wraps the command to be
+ * executed; the wrapper is then passed to the {@code execute()} method of the
+ * command queue. This way the handle can track the execution of the command
+ * without any support by the queue. A command canceled before it has been
+ * started is skipped: none of its methods is invoked. Progress reported by the
+ * command is passed to the {@code ProgressBarHandler} (if any) via the
+ * queue's {@code GUISynchronizer}; in contrast to {@link CommandQueueImpl},
+ * no events are fired, and notifications are not throttled.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+class SimpleCommandHandle extends CommandWrapper implements CommandHandle
+{
+    /** Constant for the state that the command is waiting for execution. */
+    private static final int PENDING = 0;
+
+    /** Constant for the state that the command is currently executed. */
+    private static final int RUNNING = 1;
+
+    /** Constant for the state that the command is complete. */
+    private static final int DONE = 2;
+
+    /** The command queue executing the command. */
+    private final CommandQueue queue;
+
+    /** The latch for waiting until the command is complete. */
+    private final CountDownLatch doneLatch;
+
+    /** The progress bar handler to be updated. */
+    private volatile ProgressBarHandler progressBarHandler;
+
+    /** The current progress. */
+    private volatile int progress;
+
+    /** The current execution state. */
+    private int state;
+
+    /** A flag whether the command has been canceled. */
+    private boolean cancelled;
+
+    /** A flag whether the command was skipped because it was canceled. */
+    private boolean skipped;
+
+    /** The thread executing the command. */
+    private Thread runner;
+
+    /**
+     * Creates a new instance of {@code SimpleCommandHandle}.
+     *
+     * @param q the command queue executing the command
+     * @param cmd the command (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the command is <b>null</b>
+     */
+    public SimpleCommandHandle(CommandQueue q, Command cmd)
+    {
+        super(cmd);
+        queue = q;
+        doneLatch = new CountDownLatch(1);
+        setCommandHandle(this);
+    }
+
+    /**
+     * Returns the command this handle belongs to. This is the wrapped
+     * command.
+     *
+     * @return the associated command
+     */
+    public Command getCommand()
+    {
+        return getWrappedCommand();
+    }
+
+    /**
+     * Executes the command unless it has been canceled.
+     *
+     * @throws Exception if an error occurs during execution
+     */
+    @Override
+    public void execute() throws Exception
+    {
+        synchronized (this)
+        {
+            if (state != PENDING || cancelled)
+            {
+                skipped = true;
+                return;
+            }
+            state = RUNNING;
+            runner = Thread.currentThread();
+        }
+
+        super.execute();
+    }
+
+    /**
+     * Returns the object for updating the UI. If the command has been skipped,
+     * result is <b>null</b>.
+     *
+     * @return the object for updating the UI
+     */
+    @Override
+    public Runnable getGUIUpdater()
+    {
+        return isSkipped() ? null : super.getGUIUpdater();
+    }
+
+    /**
+     * Notifies the command about an exception.
+     *
+     * @param t the exception
+     */
+    @Override
+    public void onException(Throwable t)
+    {
+        if (!isSkipped())
+        {
+            super.onException(t);
+        }
+    }
+
+    /**
+     * Notifies the command that its execution is complete and marks this
+     * handle as done.
+     */
+    @Override
+    public void onFinally()
+    {
+        try
+        {
+            if (!isSkipped())
+            {
+                super.onFinally();
+            }
+        }
+        finally
+        {
+            finish();
+        }
+    }
+
+    /**
+     * Cancels the command. If it has not yet been started, it is not executed
+     * at all. If it is running, the executing thread is interrupted if
+     * requested.
+     *
+     * @param mayInterruptIfRunning a flag whether the executing thread is to
+     *        be interrupted
+     * @return a flag whether the command could be canceled
+     */
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        boolean wasPending;
+        synchronized (this)
+        {
+            if (cancelled || state == DONE)
+            {
+                return false;
+            }
+
+            cancelled = true;
+            wasPending = state == PENDING;
+            if (!wasPending && mayInterruptIfRunning)
+            {
+                runner.interrupt();
+            }
+        }
+
+        if (wasPending)
+        {
+            doneLatch.countDown();
+        }
+        return true;
+    }
+
+    /**
+     * Returns a flag whether the command has been canceled.
+     *
+     * @return the canceled flag
+     */
+    public synchronized boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Returns a flag whether the command is complete. This is also the case
+     * if it has been canceled.
+     *
+     * @return a flag whether the command is done
+     */
+    public synchronized boolean isDone()
+    {
+        return cancelled || state == DONE;
+    }
+
+    /**
+     * Waits until the command is complete.
+     *
+     * @return <b>null</b>
+     * @throws InterruptedException if the current thread is interrupted
+     * @throws CancellationException if the command has been canceled
+     */
+    public Void get() throws InterruptedException
+    {
+        checkCancelled();
+        doneLatch.await();
+        checkCancelled();
+        return null;
+    }
+
+    /**
+     * Waits with a timeout until the command is complete.
+     *
+     * @param timeout the timeout
+     * @param unit the unit of the timeout
+     * @return <b>null</b>
+     * @throws InterruptedException if the current thread is interrupted
+     * @throws TimeoutException if the timeout is exceeded
+     * @throws CancellationException if the command has been canceled
+     */
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException,
+            TimeoutException
+    {
+        checkCancelled();
+        if (!doneLatch.await(timeout, unit))
+        {
+            throw new TimeoutException("Command not complete after "
+                    + timeout + " " + unit);
+        }
+        checkCancelled();
+        return null;
+    }
+
+    /**
+     * Returns the current progress.
+     *
+     * @return the progress
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * Sets the current progress. If a progress bar handler is set, it is
+     * updated on the event dispatch thread.
+     *
+     * @param value the progress
+     */
+    public void setProgress(final int value)
+    {
+        progress = value;
+        final ProgressBarHandler handler = progressBarHandler;
+        GUISynchronizer sync = queue.getGUISynchronizer();
+        if (handler != null && sync != null)
+        {
+            sync.asyncInvoke(new Runnable()
+            {
+                public void run()
+                {
+                    handler.setValue(value);
+                }
+            });
+        }
+    }
+
+    /**
+     * Sets the progress bar handler to be updated.
+     *
+     * @param handler the handler
+     */
+    public void setProgressBarHandler(ProgressBarHandler handler)
+    {
+        progressBarHandler = handler;
+    }
+
+    /**
+     * Returns a flag whether the command was canceled before it could be
+     * started. In this case, it is not invoked at all.
+     *
+     * @return a flag whether the command is skipped
+     */
+    private synchronized boolean isSkipped()
+    {
+        return skipped;
+    }
+
+    /**
+     * Marks the command as complete. A pending interrupt caused by a
+     * cancellation is cleared, so that it does not affect further tasks
+     * executed by the worker thread.
+     */
+    private void finish()
+    {
+        synchronized (this)
+        {
+            if (state == RUNNING && cancelled)
+            {
+                Thread.interrupted();
+            }
+            state = DONE;
+            runner = null;
+        }
+        doneLatch.countDown();
+    }
+
+    /**
+     * Throws an exception if the command has been canceled.
+     *
+     * @throws CancellationException if the command has been canceled
+     */
+    private void checkCancelled()
+    {
+        if (isCancelled())
+        {
+            throw new CancellationException("Command was canceled: "
+                    + getCommand());
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.forms;
+
+import net.sf.jguiraffe.gui.cmd.CommandBase;
+import net.sf.jguiraffe.gui.cmd.CommandQueue;
+import net.sf.jguiraffe.transform.DefaultValidationResult;
+import net.sf.jguiraffe.transform.TransformerContext;
+import net.sf.jguiraffe.transform.ValidationMessageConstants;
+import net.sf.jguiraffe.transform.ValidationResult;
+import net.sf.jguiraffe.transform.Validator;
+
+import org.apache.commons.lang.ObjectUtils;
+
+/**
+ * <p>
+ * A specialized {@code ValidatorWrapper} implementation which executes the
+ * wrapped {@code Validator} in a background thread.
+ * </p>
+ * <p>
+ * This class is intended for validators performing expensive operations (see
+ * {@link net.sf.jguiraffe.transform.AsyncValidator AsyncValidator}). Per
+ * default, an instance behaves like a {@link DefaultValidatorWrapper}: the
+ * validator is invoked directly. After a call of
+ * {@link #enableAsyncValidation(CommandQueue, Runnable)} validation is done
+ * asynchronously: {@link #isValid(Object)} then schedules a command on the
+ * {@code CommandQueue} which invokes the validator. Until the result is
+ * available, a <em>pending</em> result is returned; this is an invalid result
+ * with the error message
+ * {@link ValidationMessageConstants#ERR_VALIDATION_PENDING}. When the
+ * validation is complete, the result is passed to the event dispatch thread
+ * via the {@code GUISynchronizer} of the command queue, and the callback
+ * specified when enabling asynchronous validation is invoked. The callback
+ * would typically trigger another validation of the form which then obtains
+ * the result stored by this object.
+ * </p>
+ * <p>
+ * The result of the last validation is stored together with the validated
+ * object. As long as the value of the field does not change, this result is
+ * returned directly. If a new value is passed to {@code isValid()} while a
+ * validation is in progress, the old validation is considered stale: if it
+ * has not yet been started, it is skipped; otherwise, its result is ignored.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe. However, the
+ * {@code isValid()} method is expected to be called in the event dispatch
+ * thread.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class AsyncValidatorWrapper extends DefaultValidatorWrapper
+{
+    /** The lock for synchronizing access to the internal state. */
+    private final Object lock;
+
+    /** The queue for executing validations. */
+    private CommandQueue commandQueue;
+
+    /** The callback to be invoked when a validation is complete. */
+    private Runnable callback;
+
+    /** The object that is currently validated. */
+    private Object pendingValue;
+
+    /** The object for which a validation result is available. */
+    private Object resultValue;
+
+    /** The result of the last validation. */
+    private ValidationResult result;
+
+    /** A counter for identifying the current validation operation. */
+    private long generation;
+
+    /** A flag whether a validation is in progress. */
+    private boolean pending;
+
+    /**
+     * Creates a new instance of {@code AsyncValidatorWrapper} and initializes
+     * it.
+     *
+     * @param v the wrapped validator (must not be <b>null</b>)
+     * @param ctx the transformer context to use (must not be <b>null</b>)
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    public AsyncValidatorWrapper(Validator v, TransformerContext ctx)
+    {
+        super(v, ctx);
+        lock = new Object();
+    }
+
+    /**
+     * Enables asynchronous validation. From now on, validation operations are
+     * executed on the specified {@code CommandQueue}. When a validation is
+     * complete, the callback is invoked in the event dispatch thread.
+     *
+     * @param queue the {@code CommandQueue} (must not be <b>null</b>)
+     * @param completionCallback the callback for completed validations (must
+     *        not be <b>null</b>)
+     * @throws IllegalArgumentException if a parameter is <b>null</b>
+     */
+    public void enableAsyncValidation(CommandQueue queue,
+            Runnable completionCallback)
+    {
+        if (queue == null)
+        {
+            throw new IllegalArgumentException(
+                    "CommandQueue must not be null!");
+        }
+        if (completionCallback == null)
+        {
+            throw new IllegalArgumentException("Callback must not be null!");
+        }
+
+        synchronized (lock)
+        {
+            commandQueue = queue;
+            callback = completionCallback;
+        }
+    }
+
+    /**
+     * Disables asynchronous validation. A validation which is currently in
+     * progress is canceled; its result is ignored. Further validations are
+     * performed synchronously.
+     */
+    public void disableAsyncValidation()
+    {
+        synchronized (lock)
+        {
+            commandQueue = null;
+            callback = null;
+            cancelPendingValidation();
+        }
+    }
+
+    /**
+     * Returns a flag whether asynchronous validation is enabled.
+     *
+     * @return a flag whether asynchronous validation is enabled
+     */
+    public boolean isAsyncValidationEnabled()
+    {
+        synchronized (lock)
+        {
+            return commandQueue != null;
+        }
+    }
+
+    /**
+     * Returns a flag whether a validation is currently in progress.
+     *
+     * @return a flag whether a validation is pending
+     */
+    public boolean isPending()
+    {
+        synchronized (lock)
+        {
+            return pending;
+        }
+    }
+
+    /**
+     * Tests whether the specified object is valid. If a result for this object
+     * is already available, it is returned directly. Otherwise, in
+     * asynchronous mode a validation is scheduled (if it has not been
+     * scheduled before), and a pending result is returned. If asynchronous
+     * validation is disabled, the validator is invoked directly.
+     *
+     * @param o the object to test
+     * @return a result object with information about the object's validity
+     */
+    @Override
+    public ValidationResult isValid(Object o)
+    {
+        CommandQueue queue;
+        ValidationCommand cmd = null;
+
+        synchronized (lock)
+        {
+            if (result != null && ObjectUtils.equals(resultValue, o))
+            {
+                return result;
+            }
+
+            queue = commandQueue;
+            if (queue != null
+                    && (!pending || !ObjectUtils.equals(pendingValue, o)))
+            {
+                pending = true;
+                pendingValue = o;
+                cmd = new ValidationCommand(o, ++generation, queue, callback);
+            }
+        }
+
+        if (queue == null)
+        {
+            ValidationResult vr = super.isValid(o);
+            storeResult(o, vr);
+            return vr;
+        }
+
+        if (cmd != null)
+        {
+            queue.execute(cmd);
+        }
+        return createPendingResult();
+    }
+
+    /**
+     * Creates the result object returned while a validation is in progress.
+     * This implementation returns an invalid result with the error message
+     * {@code ERR_VALIDATION_PENDING}.
+     *
+     * @return the pending validation result
+     */
+    protected ValidationResult createPendingResult()
+    {
+        return DefaultValidationResult.createValidationErrorResult(
+                getTransformerContext(),
+                ValidationMessageConstants.ERR_VALIDATION_PENDING);
+    }
+
+    /**
+     * Creates the result object for a validation which has thrown an
+     * exception. This implementation returns an invalid result with the error
+     * message {@code ERR_VALIDATION_FAILED}.
+     *
+     * @param ex the exception thrown by the validator
+     * @return the corresponding validation result
+     */
+    protected ValidationResult createErrorResult(Throwable ex)
+    {
+        return DefaultValidationResult.createValidationErrorResult(
+                getTransformerContext(),
+                ValidationMessageConstants.ERR_VALIDATION_FAILED,
+                ex.getMessage());
+    }
+
+    /**
+     * Checks whether the validation operation with the given generation is
+     * still current.
+     *
+     * @param gen the generation of the validation
+     * @return a flag whether this validation is current
+     */
+    boolean isCurrent(long gen)
+    {
+        synchronized (lock)
+        {
+            return pending && generation == gen;
+        }
+    }
+
+    /**
+     * Completes a validation operation. This method is called in the event
+     * dispatch thread. If the operation is still current, the result is
+     * stored.
+     *
+     * @param o the validated object
+     * @param gen the generation of the validation
+     * @param vr the result
+     * @return a flag whether the result was accepted
+     */
+    boolean completeValidation(Object o, long gen, ValidationResult vr)
+    {
+        synchronized (lock)
+        {
+            if (!isCurrent(gen))
+            {
+                return false;
+            }
+
+            pending = false;
+            pendingValue = null;
+            storeResult(o, vr);
+            return true;
+        }
+    }
+
+    /**
+     * Stores the result of a validation.
+     *
+     * @param o the validated object
+     * @param vr the result
+     */
+    private void storeResult(Object o, ValidationResult vr)
+    {
+        synchronized (lock)
+        {
+            resultValue = o;
+            result = vr;
+        }
+    }
+
+    /**
+     * Cancels a validation which is currently in progress.
+     */
+    private void cancelPendingValidation()
+    {
+        generation++;
+        pending = false;
+        pendingValue = null;
+    }
+
+    /**
+     * The command class for executing a validation in a background thread.
+     */
+    private class ValidationCommand extends CommandBase
+    {
+        /** The object to be validated. */
+        private final Object value;
+
+        /** The generation of this validation. */
+        private final long gen;
+
+        /** The command queue. */
+        private final CommandQueue queue;
+
+        /** The callback to be invoked on completion. */
+        private final Runnable completionCallback;
+
+        /** The result of the validation. */
+        private volatile ValidationResult validationResult;
+
+        /**
+         * Creates a new instance of {@code ValidationCommand}.
+         *
+         * @param o the object to be validated
+         * @param g the generation
+         * @param q the command queue
+         * @param cb the completion callback
+         */
+        public ValidationCommand(Object o, long g, CommandQueue q,
+                Runnable cb)
+        {
+            super(false);
+            value = o;
+            gen = g;
+            queue = q;
+            completionCallback = cb;
+        }
+
+        /**
+         * Executes this command. If the validation is still current, the
+         * validator is invoked.
+         *
+         * @throws Exception if an error occurs
+         */
+        public void execute() throws Exception
+        {
+            if (isCurrent(gen))
+            {
+                validationResult =
+                        getValidator().isValid(value, getTransformerContext());
+            }
+        }
+
+        /**
+         * An exception was thrown by the validator. It is logged and
+         * converted to an error result.
+         *
+         * @param t the exception
+         */
+        @Override
+        public void onException(Throwable t)
+        {
+            super.onException(t);
+            getLog().warn("Asynchronous validation failed.", t);
+            validationResult = createErrorResult(t);
+        }
+
+        /**
+         * Passes the result of the validation to the event dispatch thread.
+         */
+        @Override
+        public void onFinally()
+        {
+            final ValidationResult vr = validationResult;
+            if (vr != null)
+            {
+                queue.getGUISynchronizer().asyncInvoke(new Runnable()
+                {
+                    public void run()
+                    {
+                        if (completeValidation(value, gen, vr))
+                        {
+                            completionCallback.run();
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
@@ -27,6 +27,8 @@ import net.sf.jguiraffe.transform.DefaultValidationResult;
 import net.sf.jguiraffe.transform.ValidationMessage;
 import net.sf.jguiraffe.transform.ValidationResult;
 
+import org.apache.commons.lang.ObjectUtils;
+
 /**
  * <p>
  * Default implementation of the {@code FormValidatorResults} interface.
@@ -225,6 +227,98 @@ public class DefaultFormValidatorResults implements FormValidatorResults
         return new DefaultFormValidatorResults(map);
     }
 
+    /**
+     * Returns a {@code FormValidatorResults} object which is derived from the
+     * given results object by replacing the results of some fields. The
+     * {@code ValidationResult} objects contained in the {@code updates}
+     * object replace the corresponding results in the {@code results} object;
+     * the results of all other fields are taken over. (In contrast to
+     * {@link #merge(FormValidatorResults, FormValidatorResults)}, results are
+     * not combined.) This method is used for incremental validation, when only
+     * a sub set of the fields of a form has been validated again. If one of
+     * the passed in objects is <b>null</b>, the other one is returned.
+     *
+     * @param results the original {@code FormValidatorResults} object
+     * @param updates the {@code FormValidatorResults} with the new results
+     * @return the updated results
+     * @since 1.5
+     */
+    public static FormValidatorResults update(FormValidatorResults results,
+            FormValidatorResults updates)
+    {
+        if (results == null)
+        {
+            return updates;
+        }
+        if (updates == null)
+        {
+            return results;
+        }
+
+        Map<String, ValidationResult> map =
+                new LinkedHashMap<String, ValidationResult>();
+        for (String field : results.getFieldNames())
+        {
+            map.put(field, results.getResultsFor(field));
+        }
+        for (String field : updates.getFieldNames())
+        {
+            map.put(field, updates.getResultsFor(field));
+        }
+
+        return new DefaultFormValidatorResults(map);
+    }
+
+    /**
+     * Determines the names of the fields whose validation results differ in
+     * the specified {@code FormValidatorResults} objects. This method can be
+     * used to find out which fields are affected by a validation operation.
+     * The results of a field are compared using {@code equals()}. Fields that
+     * are contained in only one of the objects are considered changed. If the
+     * old results object is <b>null</b>, all fields of the new object are
+     * returned.
+     *
+     * @param oldResults the old {@code FormValidatorResults} (can be
+     *        <b>null</b>)
+     * @param newResults the new {@code FormValidatorResults} (must not be
+     *        <b>null</b>)
+     * @return a set with the names of the fields whose results have changed
+     * @throws IllegalArgumentException if the new results are <b>null</b>
+     * @since 1.5
+     */
+    public static Set<String> changedFieldNames(
+            FormValidatorResults oldResults, FormValidatorResults newResults)
+    {
+        if (newResults == null)
+        {
+            throw new IllegalArgumentException(
+                    "New results must not be null!");
+        }
+        if (oldResults == null)
+        {
+            return newResults.getFieldNames();
+        }
+
+        Set<String> changed = new LinkedHashSet<String>();
+        for (String field : newResults.getFieldNames())
+        {
+            if (!ObjectUtils.equals(newResults.getResultsFor(field),
+                    oldResults.getResultsFor(field)))
+            {
+                changed.add(field);
+            }
+        }
+        for (String field : oldResults.getFieldNames())
+        {
+            if (newResults.getResultsFor(field) == null)
+            {
+                changed.add(field);
+            }
+        }
+
+        return Collections.unmodifiableSet(changed);
+    }
+
     /**
      * Checks whether form validation was successful.
      *
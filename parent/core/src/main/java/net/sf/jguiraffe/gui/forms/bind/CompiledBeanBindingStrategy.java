@@ -0,0 +1,326 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.forms.bind;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.jguiraffe.gui.forms.FormRuntimeException;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * <p>
+ * A specialized {@code BindingStrategy} implementation for Java beans which
+ * uses pre-compiled accessors for reading and writing properties.
+ * </p>
+ * <p>
+ * {@link BeanBindingStrategy} evaluates the properties of model objects using
+ * <a href="http://commons.apache.org/beanutils">Commons Beanutils</a> on each
+ * access. This is flexible, but rather expensive if forms are initialized
+ * frequently, e.g. for the rows of large tables. This class in contrast
+ * determines the get and set methods of a property only once per combination
+ * of a bean class and a property name. It creates {@code MethodHandle}
+ * objects for these methods which are then used for all further accesses.
+ * </p>
+ * <p>
+ * Accessors are created only for simple properties of regular Java beans.
+ * Nested, indexed, or mapped property expressions, dynamic beans, and maps are
+ * handled by the base class, i.e. by Commons Beanutils. So this class can be
+ * used as a drop-in replacement for {@code BeanBindingStrategy}. It can be
+ * activated for an application by overriding the bean definition for the
+ * {@code jguiraffe.bindingStrategy} bean.
+ * </p>
+ * <p>
+ * The accessors are stored per bean class using a {@code ClassValue}, so they
+ * do not prevent bean classes from being garbage collected. Implementation
+ * note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class CompiledBeanBindingStrategy extends BeanBindingStrategy
+{
+    /** The method type used for get methods. */
+    private static final MethodType READ_TYPE = MethodType.methodType(
+            Object.class, Object.class);
+
+    /** The method type used for set methods. */
+    private static final MethodType WRITE_TYPE = MethodType.methodType(
+            Void.TYPE, Object.class, Object.class);
+
+    /** Constant for an accessor for properties that cannot be compiled. */
+    private static final PropertyAccessor UNSUPPORTED = new PropertyAccessor(
+            null, null);
+
+    /** Stores the accessors for the properties of the bean classes. */
+    private final ClassValue<ConcurrentMap<String, PropertyAccessor>> accessors =
+            new ClassValue<ConcurrentMap<String, PropertyAccessor>>()
+            {
+                @Override
+                protected ConcurrentMap<String, PropertyAccessor> computeValue(
+                        Class<?> type)
+                {
+                    return new ConcurrentHashMap<String, PropertyAccessor>();
+                }
+            };
+
+    /**
+     * Reads a property from a model object. If possible, a compiled accessor
+     * is used. Otherwise, this implementation falls back to the base class.
+     *
+     * @param model the model object
+     * @param propertyName the name of the property to read
+     * @return the value of this property
+     * @throws FormRuntimeException if an exception occurs
+     */
+    @Override
+    public Object readProperty(Object model, String propertyName)
+    {
+        MethodHandle getter = fetchAccessor(model, propertyName).getReadHandle();
+        if (getter == null)
+        {
+            return super.readProperty(model, propertyName);
+        }
+
+        try
+        {
+            return (Object) getter.invokeExact(model);
+        }
+        catch (Error err)
+        {
+            throw err;
+        }
+        catch (Throwable t)
+        {
+            throw new FormRuntimeException("Error when reading property "
+                    + propertyName, t);
+        }
+    }
+
+    /**
+     * Writes a property to a model object. If possible, a compiled accessor is
+     * used. Otherwise, this implementation falls back to the base class.
+     *
+     * @param model the model object
+     * @param propertyName the name of the property to read
+     * @param value the new value of this property
+     * @throws FormRuntimeException if an exception occurs
+     */
+    @Override
+    public void writeProperty(Object model, String propertyName, Object value)
+    {
+        MethodHandle setter =
+                fetchAccessor(model, propertyName).getWriteHandle();
+        if (setter == null)
+        {
+            super.writeProperty(model, propertyName, value);
+            return;
+        }
+
+        try
+        {
+            setter.invokeExact(model, value);
+        }
+        catch (Error err)
+        {
+            throw err;
+        }
+        catch (Throwable t)
+        {
+            throw new FormRuntimeException("Error when writing property "
+                    + propertyName, t);
+        }
+    }
+
+    /**
+     * Returns the accessor for the specified property of the given model
+     * object. If the accessor does not exist yet, it is created now.
+     *
+     * @param model the model object
+     * @param propertyName the name of the property
+     * @return the accessor for this property
+     */
+    private PropertyAccessor fetchAccessor(Object model, String propertyName)
+    {
+        if (!isCompilable(model, propertyName))
+        {
+            return UNSUPPORTED;
+        }
+
+        ConcurrentMap<String, PropertyAccessor> classAccessors =
+                accessors.get(model.getClass());
+        PropertyAccessor accessor = classAccessors.get(propertyName);
+        if (accessor == null)
+        {
+            accessor = createAccessor(model, propertyName);
+            PropertyAccessor other =
+                    classAccessors.putIfAbsent(propertyName, accessor);
+            if (other != null)
+            {
+                accessor = other;
+            }
+        }
+        return accessor;
+    }
+
+    /**
+     * Checks whether an accessor can be created for the specified model
+     * object and property. This is the case for simple properties of regular
+     * beans.
+     *
+     * @param model the model object
+     * @param propertyName the name of the property
+     * @return a flag whether an accessor can be created
+     */
+    private static boolean isCompilable(Object model, String propertyName)
+    {
+        return model != null && propertyName != null
+                && !(model instanceof Map) && !(model instanceof DynaBean)
+                && isSimplePropertyName(propertyName);
+    }
+
+    /**
+     * Checks whether the specified property name refers to a simple property.
+     * Names with special characters used by Commons Beanutils for nested,
+     * indexed, or mapped properties are rejected.
+     *
+     * @param propertyName the name of the property
+     * @return a flag whether this is a simple property
+     */
+    private static boolean isSimplePropertyName(String propertyName)
+    {
+        for (int i = 0; i < propertyName.length(); i++)
+        {
+            char c = propertyName.charAt(i);
+            if (c == '.' || c == '[' || c == '(')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the accessor for the specified property. If the property cannot
+     * be resolved, an accessor without handles is returned; then all
+     * operations are delegated to the base class.
+     *
+     * @param model the model object
+     * @param propertyName the name of the property
+     * @return the accessor for this property
+     */
+    private static PropertyAccessor createAccessor(Object model,
+            String propertyName)
+    {
+        try
+        {
+            PropertyDescriptor desc =
+                    PropertyUtils.getPropertyDescriptor(model, propertyName);
+            if (desc == null)
+            {
+                return UNSUPPORTED;
+            }
+
+            return new PropertyAccessor(createHandle(desc.getReadMethod(),
+                    READ_TYPE), createHandle(desc.getWriteMethod(),
+                    WRITE_TYPE));
+        }
+        catch (Exception ex)
+        {
+            // the base class will report a meaningful error
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * Creates a {@code MethodHandle} for the specified accessor method. The
+     * handle is adapted to the given generic type. Result is <b>null</b> if
+     * the method is undefined or not accessible.
+     *
+     * @param method the method (may be <b>null</b>)
+     * @param type the type of the resulting handle
+     * @return the handle or <b>null</b>
+     * @throws IllegalAccessException if the method cannot be accessed
+     */
+    private static MethodHandle createHandle(Method method, MethodType type)
+            throws IllegalAccessException
+    {
+        Method accessibleMethod =
+                (method != null) ? MethodUtils.getAccessibleMethod(method)
+                        : null;
+        if (accessibleMethod == null)
+        {
+            return null;
+        }
+        return MethodHandles.publicLookup().unreflect(accessibleMethod)
+                .asType(type);
+    }
+
+    /**
+     * A simple data class storing the compiled handles for accessing a
+     * property. If a handle is <b>null</b>, the corresponding operation is
+     * not supported and has to be handled by the base class.
+     */
+    private static class PropertyAccessor
+    {
+        /** The handle for reading the property. */
+        private final MethodHandle readHandle;
+
+        /** The handle for writing the property. */
+        private final MethodHandle writeHandle;
+
+        /**
+         * Creates a new instance of {@code PropertyAccessor}.
+         *
+         * @param read the handle for reading the property
+         * @param write the handle for writing the property
+         */
+        public PropertyAccessor(MethodHandle read, MethodHandle write)
+        {
+            readHandle = read;
+            writeHandle = write;
+        }
+
+        /**
+         * Returns the handle for reading the property.
+         *
+         * @return the read handle
+         */
+        public MethodHandle getReadHandle()
+        {
+            return readHandle;
+        }
+
+        /**
+         * Returns the handle for writing the property.
+         *
+         * @return the write handle
+         */
+        public MethodHandle getWriteHandle()
+        {
+            return writeHandle;
+        }
+    }
+}
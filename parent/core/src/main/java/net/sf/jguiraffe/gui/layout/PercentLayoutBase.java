@@ -18,6 +18,7 @@ package net.sf.jguiraffe.gui.layout;
 import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -64,6 +65,15 @@ import java.util.StringTokenizer;
  * passed to an instance of this class.
  * </p>
  * <p>
+ * The sizes of the columns and rows calculated for the preferred and the
+ * minimum layout size are cached. So repeated calls of the methods for
+ * querying the layout size or performing the layout (which typically happen
+ * during a single validation of the hosting container) do not have to query
+ * the sizes of all components again. The cache is cleared by
+ * {@link #flushCache()}; platform adapters have to call this method when
+ * something changes at the associated container (e.g. when it is invalidated).
+ * </p>
+ * <p>
  * Note: The {@code PercentLayout} class is not thread safe. It should be
  * accessed by a single thread (the GUI thread) only.
  * </p>
@@ -81,6 +91,9 @@ public abstract class PercentLayoutBase implements Serializable
     /** Constant for the delimiters for cell constraints. */
     private static final String CONSTRAINTS_DELIMITERS = " ,;";
 
+    /** Constant for the size of the cache for cell sizes. */
+    private static final int CELL_SIZES_CACHE_SIZE = 4;
+
     /** Stores the column constraints. */
     private CellConstraints[] columnConstraints;
 
@@ -117,6 +130,15 @@ public abstract class PercentLayoutBase implements Serializable
     /** Helper flag that avoids re-entrance of the initCells() method. */
     private volatile boolean inInit;
 
+    /**
+     * A cache for the cell sizes calculated for the columns and rows. The
+     * array is indexed by the orientation and the minimum flag.
+     */
+    private transient int[][] cellSizesCache;
+
+    /** The container for which the cell sizes have been cached. */
+    private transient Object cellSizesContainer;
+
     /** A flag whether this layout can shrink below its preferred size. */
     private boolean canShrink = true;
 
@@ -206,6 +228,7 @@ public abstract class PercentLayoutBase implements Serializable
     public void setPlatformAdapter(PercentLayoutPlatformAdapter platformAdapter)
     {
         this.platformAdapter = platformAdapter;
+        flushCellSizesCache();
     }
 
     /**
@@ -276,6 +299,7 @@ public abstract class PercentLayoutBase implements Serializable
     {
         columnConstraints[idx] = cc;
         totalWeightX = -1;
+        flushCellSizesCache();
     }
 
     /**
@@ -309,6 +333,7 @@ public abstract class PercentLayoutBase implements Serializable
     {
         rowConstraints[idx] = cc;
         totalWeightY = -1;
+        flushCellSizesCache();
     }
 
     /**
@@ -347,6 +372,7 @@ public abstract class PercentLayoutBase implements Serializable
             columnGroups = new LinkedList<CellGroup>();
         }
         columnGroups.add(grp);
+        flushCellSizesCache();
     }
 
     /**
@@ -374,17 +400,20 @@ public abstract class PercentLayoutBase implements Serializable
             rowGroups = new LinkedList<CellGroup>();
         }
         rowGroups.add(grp);
+        flushCellSizesCache();
     }
 
     /**
      * Clears all cached values. Can be called if something has changed at the
-     * associated container.
+     * associated container. This also clears the cached sizes of columns and
+     * rows.
      */
     public void flushCache()
     {
         totalWeightX = -1;
         totalWeightY = -1;
         cells = null;
+        flushCellSizesCache();
     }
 
     /**
@@ -412,6 +441,7 @@ public abstract class PercentLayoutBase implements Serializable
                         removeMultiSpanComponent(multiRows, comp);
                     }
                     cells[i][j] = null;
+                    flushCellSizesCache();
                     return true;
                 }
             }
@@ -486,6 +516,7 @@ public abstract class PercentLayoutBase implements Serializable
         {
             rowConstraints[i] = defRow;
         }
+        flushCellSizesCache();
     }
 
     /**
@@ -798,6 +829,7 @@ public abstract class PercentLayoutBase implements Serializable
     {
         columnConstraints = copyConstraints(colConstr);
         rowConstraints = copyConstraints(rowConstr);
+        flushCellSizesCache();
     }
 
     /**
@@ -1038,7 +1070,10 @@ public abstract class PercentLayoutBase implements Serializable
     /**
      * Calculates the sizes of all columns or rows. This is a convenience
      * method, which combines calls to <code>calcCellSizes()</code> and
-     * <code>applyCellGroups()</code>.
+     * <code>applyCellGroups()</code>. If the parameters correspond to the
+     * current column or row definitions of this layout, the result is cached
+     * until {@link #flushCache()} is called. Callers obtain a copy of the
+     * cached array which they are free to modify.
      *
      * @param constraints an array with the constraints for the columns or rows
      * @param count the number of cells in the opposite dimension (i.e. if
@@ -1054,8 +1089,21 @@ public abstract class PercentLayoutBase implements Serializable
             int count, Collection<CellGroup> cellGroups, Object container,
             boolean minimum, boolean vert)
     {
+        int cacheIdx =
+                cellSizesCacheIndex(constraints, count, cellGroups, container,
+                        minimum, vert);
+        if (cacheIdx >= 0 && cellSizesCache != null
+                && cellSizesCache[cacheIdx] != null)
+        {
+            return cellSizesCache[cacheIdx].clone();
+        }
+
         int[] sizes = calcCellSizes(constraints, count, container, minimum, vert);
         applyCellGroups(sizes, cellGroups);
+        if (cacheIdx >= 0)
+        {
+            storeCellSizes(cacheIdx, container, sizes.clone());
+        }
         return sizes;
     }
 
@@ -1543,6 +1591,105 @@ public abstract class PercentLayoutBase implements Serializable
         }
     }
 
+    /**
+     * Clears the cache for the sizes of columns and rows.
+     */
+    private void flushCellSizesCache()
+    {
+        cellSizesCache = null;
+        cellSizesContainer = null;
+    }
+
+    /**
+     * Stores cell sizes in the cache. If the cache was populated for a
+     * different container, it is reset first.
+     *
+     * @param idx the index in the cache
+     * @param container the container
+     * @param sizes the sizes to be stored
+     */
+    private void storeCellSizes(int idx, Object container, int[] sizes)
+    {
+        if (cellSizesCache == null || cellSizesContainer != container)
+        {
+            cellSizesCache = new int[CELL_SIZES_CACHE_SIZE][];
+            cellSizesContainer = container;
+        }
+        cellSizesCache[idx] = sizes;
+    }
+
+    /**
+     * Determines the index in the cache for cell sizes for the specified
+     * parameters of a size calculation. Only calculations based on the
+     * current column or row definitions of this layout can be cached. If the
+     * parameters do not match these definitions, result is -1.
+     *
+     * @param constraints the cell constraints
+     * @param count the number of cells in the opposite dimension
+     * @param cellGroups the cell groups
+     * @param container the container
+     * @param minimum the minimum flag
+     * @param vert the orientation flag
+     * @return the index in the cache or -1 if the result cannot be cached
+     */
+    private int cellSizesCacheIndex(CellConstraints[] constraints, int count,
+            Collection<CellGroup> cellGroups, Object container,
+            boolean minimum, boolean vert)
+    {
+        if (cellSizesCache != null && cellSizesContainer != container)
+        {
+            flushCellSizesCache();
+        }
+
+        int layoutCount = vert ? getColumnCount() : getRowCount();
+        CellConstraints[] layoutConstraints =
+                vert ? getInternalAllRowConstraints()
+                        : getInternalAllColumnConstraints();
+        Collection<CellGroup> layoutGroups = vert ? rowGroups : columnGroups;
+        if (count != layoutCount
+                || !Arrays.equals(constraints, layoutConstraints)
+                || !sameCellGroups(cellGroups, layoutGroups))
+        {
+            return -1;
+        }
+
+        int idx = vert ? 2 : 0;
+        return minimum ? idx + 1 : idx;
+    }
+
+    /**
+     * Checks whether the given collections contain the same cell groups. A
+     * <b>null</b> collection is treated like an empty one.
+     *
+     * @param groups1 the first collection of groups
+     * @param groups2 the second collection of groups
+     * @return a flag whether the collections contain the same groups
+     */
+    private static boolean sameCellGroups(Collection<CellGroup> groups1,
+            Collection<CellGroup> groups2)
+    {
+        int size1 = (groups1 != null) ? groups1.size() : 0;
+        int size2 = (groups2 != null) ? groups2.size() : 0;
+        if (size1 != size2)
+        {
+            return false;
+        }
+        if (size1 == 0)
+        {
+            return true;
+        }
+
+        Iterator<CellGroup> it2 = groups2.iterator();
+        for (CellGroup grp : groups1)
+        {
+            if (!grp.equals(it2.next()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Helper method for returning an unmodifiable collection of cell groups.
      *
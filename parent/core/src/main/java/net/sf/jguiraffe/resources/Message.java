@@ -15,7 +15,6 @@
  */
 package net.sf.jguiraffe.resources;
 
-import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -33,7 +32,8 @@ import org.apache.commons.lang.ObjectUtils;
  * <code>java.text.MessageFormat</code>. When the message is to be displayed the
  * {@link #resolve(ResourceManager, Locale)} method fetches the message text
  * from the passed in {@link ResourceManager} and replaces the placeholders by
- * actual parameter values.
+ * actual parameter values. The compiled {@code MessageFormat} objects for
+ * message texts are cached, so that a pattern is parsed only once.
  * </p>
  * <p>
  * Instances of this class are immutable (provided that the parameters are
@@ -266,9 +266,8 @@ public class Message
                 getResourceKey());
         if (parameters != null)
         {
-            // replace parameters
-            MessageFormat fmt = new MessageFormat(txt, locale);
-            txt = fmt.format(parameters, new StringBuffer(), null).toString();
+            // replace parameters using a cached, compiled format
+            txt = MessageFormatCache.format(txt, locale, parameters);
         }
 
         return txt;
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.resources;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * An internally used helper class which caches compiled {@code MessageFormat}
+ * objects.
+ * </p>
+ * <p>
+ * Parsing a pattern for {@code MessageFormat} is relatively expensive. Because
+ * the same messages are resolved again and again, this class keeps the
+ * compiled formats for patterns and locales. As {@code MessageFormat} is not
+ * thread-safe, access to a cached instance is synchronized. The number of
+ * patterns cached per locale is limited; if the limit is reached, further
+ * patterns are compiled on each request.
+ * </p>
+ *
+ * @since 1.5
+ */
+final class MessageFormatCache
+{
+    /** Constant for the maximum number of patterns cached per locale. */
+    static final int MAX_PATTERNS = 1024;
+
+    /** Constant for the key used for a <b>null</b> locale. */
+    private static final Object NULL_LOCALE = new Object();
+
+    /** The map with the cached formats: locale -> pattern -> format. */
+    private static final ConcurrentMap<Object,
+            ConcurrentMap<String, MessageFormat>> FORMATS =
+            new ConcurrentHashMap<Object,
+                    ConcurrentMap<String, MessageFormat>>();
+
+    /**
+     * Private constructor so that no instances can be created.
+     */
+    private MessageFormatCache()
+    {
+    }
+
+    /**
+     * Formats the given pattern with the specified parameters.
+     *
+     * @param pattern the pattern
+     * @param locale the locale
+     * @param params the parameters
+     * @return the formatted text
+     */
+    public static String format(String pattern, Locale locale, Object[] params)
+    {
+        MessageFormat fmt = fetchFormat(pattern, locale);
+        synchronized (fmt)
+        {
+            return fmt.format(params, new StringBuffer(), null).toString();
+        }
+    }
+
+    /**
+     * Returns the number of patterns cached for the given locale.
+     *
+     * @param locale the locale
+     * @return the number of cached patterns
+     */
+    static int size(Locale locale)
+    {
+        ConcurrentMap<String, MessageFormat> formats =
+                FORMATS.get(localeKey(locale));
+        return (formats != null) ? formats.size() : 0;
+    }
+
+    /**
+     * Obtains the format for the given pattern and locale. If it is not
+     * contained in the cache, it is created and added to the cache if the
+     * limit has not been reached.
+     *
+     * @param pattern the pattern
+     * @param locale the locale
+     * @return the format
+     */
+    private static MessageFormat fetchFormat(String pattern, Locale locale)
+    {
+        Object key = localeKey(locale);
+        ConcurrentMap<String, MessageFormat> formats = FORMATS.get(key);
+        if (formats == null)
+        {
+            formats = new ConcurrentHashMap<String, MessageFormat>();
+            ConcurrentMap<String, MessageFormat> other =
+                    FORMATS.putIfAbsent(key, formats);
+            if (other != null)
+            {
+                formats = other;
+            }
+        }
+
+        MessageFormat fmt = formats.get(pattern);
+        if (fmt == null)
+        {
+            fmt = new MessageFormat(pattern, locale);
+            if (formats.size() < MAX_PATTERNS)
+            {
+                MessageFormat other = formats.putIfAbsent(pattern, fmt);
+                if (other != null)
+                {
+                    fmt = other;
+                }
+            }
+        }
+        return fmt;
+    }
+
+    /**
+     * Returns the key in the cache for the given locale.
+     *
+     * @param locale the locale
+     * @return the corresponding key
+     */
+    private static Object localeKey(Locale locale)
+    {
+        return (locale != null) ? locale : NULL_LOCALE;
+    }
+}
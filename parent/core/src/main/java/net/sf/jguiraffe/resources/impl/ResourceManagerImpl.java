@@ -17,6 +17,8 @@ package net.sf.jguiraffe.resources.impl;
 
 import java.util.Locale;
 import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sf.jguiraffe.resources.ResourceGroup;
 import net.sf.jguiraffe.resources.ResourceLoader;
@@ -33,8 +35,16 @@ import net.sf.jguiraffe.resources.ResourceManager;
  * </p>
  * <p>
  * The class uses the associated <code>ResourceLoader</code> to retrieve
- * requested resources or resource groups. No caching is performed, this can be
- * done in the <code>ResourceLoader</code>.
+ * requested resources or resource groups. Resources obtained via
+ * {@link #getResource(Locale, Object, Object)} or
+ * {@link #getText(Locale, Object, Object)} are cached. The cache consists of
+ * nested maps for the locale, the resource group, and the resource key, so
+ * that a lookup of a cached resource does not need to create any objects.
+ * This is important because GUI builders request a large number of resources,
+ * e.g. for labels and tool tips. Caching can be disabled if the resources
+ * provided by the <code>ResourceLoader</code> can change at runtime. The cache
+ * is cleared when a new <code>ResourceLoader</code> is set, or explicitly by
+ * calling {@link #clearCache()}.
  * </p>
  * <p>Implementation note: This class is thread-safe.</p>
  *
@@ -43,12 +53,22 @@ import net.sf.jguiraffe.resources.ResourceManager;
  */
 public class ResourceManagerImpl implements ResourceManager
 {
+    /** Constant for the key used in the cache for a <b>null</b> locale. */
+    private static final Object NULL_LOCALE = new Object();
+
     /** Stores the associated resource loader object. */
     private volatile ResourceLoader resourceLoader;
 
+    /** The cache for resources: locale -> group -> key -> resource. */
+    private final ConcurrentMap<Object, ConcurrentMap<Object,
+            ConcurrentMap<Object, Object>>> resourceCache;
+
     /** Stores the name of the default resource group. */
     private volatile Object defaultResourceGroup;
 
+    /** A flag whether caching of resources is enabled. */
+    private volatile boolean cacheEnabled;
+
     /**
      * Creates a new instance of <code>ResourceManagerImpl</code>.
      */
@@ -65,11 +85,17 @@ public class ResourceManagerImpl implements ResourceManager
      */
     public ResourceManagerImpl(ResourceLoader loader)
     {
+        resourceCache =
+                new ConcurrentHashMap<Object, ConcurrentMap<Object,
+                        ConcurrentMap<Object, Object>>>();
+        cacheEnabled = true;
         setResourceLoader(loader);
     }
 
     /**
-     * Returns the specified resource.
+     * Returns the specified resource. If caching is enabled, the resource is
+     * looked up in the cache first. Only if it cannot be found, the resource
+     * group is obtained from the <code>ResourceLoader</code>.
      *
      * @param locale the <code>Locale</code>
      * @param group the owning resource group's name
@@ -79,9 +105,23 @@ public class ResourceManagerImpl implements ResourceManager
      */
     public Object getResource(Locale locale, Object group, Object key)
     {
-        return getResourceGroup(locale,
-                (group != null) ? group : getDefaultResourceGroup())
-                .getResource(key);
+        Object grp = (group != null) ? group : getDefaultResourceGroup();
+        if (!isCacheEnabled() || grp == null || key == null)
+        {
+            return getResourceGroup(locale, grp).getResource(key);
+        }
+
+        ConcurrentMap<Object, Object> groupCache = fetchGroupCache(locale, grp);
+        Object resource = groupCache.get(key);
+        if (resource == null)
+        {
+            resource = getResourceGroup(locale, grp).getResource(key);
+            if (resource != null)
+            {
+                groupCache.putIfAbsent(key, resource);
+            }
+        }
+        return resource;
     }
 
     /**
@@ -131,6 +171,47 @@ public class ResourceManagerImpl implements ResourceManager
     public void setResourceLoader(ResourceLoader resourceLoader)
     {
         this.resourceLoader = resourceLoader;
+        clearCache();
+    }
+
+    /**
+     * Returns a flag whether resources are cached.
+     *
+     * @return a flag whether caching is enabled
+     * @since 1.5
+     */
+    public boolean isCacheEnabled()
+    {
+        return cacheEnabled;
+    }
+
+    /**
+     * Sets a flag whether resources are cached. Per default, caching is
+     * enabled. It should only be disabled if the resources provided by the
+     * <code>ResourceLoader</code> can change at runtime. Disabling the cache
+     * also clears it.
+     *
+     * @param f a flag whether caching is enabled
+     * @since 1.5
+     */
+    public void setCacheEnabled(boolean f)
+    {
+        cacheEnabled = f;
+        if (!f)
+        {
+            clearCache();
+        }
+    }
+
+    /**
+     * Removes all resources from the cache. Later requests for resources are
+     * again passed to the <code>ResourceLoader</code>.
+     *
+     * @since 1.5
+     */
+    public void clearCache()
+    {
+        resourceCache.clear();
     }
 
     /**
@@ -150,6 +231,46 @@ public class ResourceManagerImpl implements ResourceManager
         return getResourceLoader();
     }
 
+    /**
+     * Returns the map with the cached resources of the specified group. It is
+     * created if necessary.
+     *
+     * @param locale the locale
+     * @param group the name of the resource group
+     * @return the cache map for this group
+     */
+    private ConcurrentMap<Object, Object> fetchGroupCache(Locale locale,
+            Object group)
+    {
+        Object localeKey = (locale != null) ? locale : NULL_LOCALE;
+        ConcurrentMap<Object, ConcurrentMap<Object, Object>> localeCache =
+                resourceCache.get(localeKey);
+        if (localeCache == null)
+        {
+            localeCache =
+                    new ConcurrentHashMap<Object, ConcurrentMap<Object, Object>>();
+            ConcurrentMap<Object, ConcurrentMap<Object, Object>> other =
+                    resourceCache.putIfAbsent(localeKey, localeCache);
+            if (other != null)
+            {
+                localeCache = other;
+            }
+        }
+
+        ConcurrentMap<Object, Object> groupCache = localeCache.get(group);
+        if (groupCache == null)
+        {
+            groupCache = new ConcurrentHashMap<Object, Object>();
+            ConcurrentMap<Object, Object> other =
+                    localeCache.putIfAbsent(group, groupCache);
+            if (other != null)
+            {
+                groupCache = other;
+            }
+        }
+        return groupCache;
+    }
+
     /**
      * Returns the name of the default resource group.
      *
@@ -16,8 +16,10 @@
 package net.sf.jguiraffe.resources.impl.bundle;
 
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -37,6 +39,11 @@ import org.apache.commons.logging.LogFactory;
  * delegated to the internally managed resource bundle. During construction this
  * bundle is loaded for the specified base name and locale.
  * </p>
+ * <p>
+ * When a resource is accessed for the first time, the content of the bundle
+ * including its parent bundles is copied into a map. So later accesses do not
+ * have to traverse the chain of parent bundles.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: BundleResourceGroup.java 211 2012-07-10 19:49:13Z oheger $
@@ -55,6 +62,9 @@ class BundleResourceGroup implements ResourceGroup
     /** Stores the locale of this group. */
     private final Locale locale;
 
+    /** A map with the flattened content of the bundle. */
+    private volatile Map<String, Object> resources;
+
     /**
      * Creates a new instance of {@code BundleResourceGroup} and
      * initializes it.
@@ -133,7 +143,39 @@ class BundleResourceGroup implements ResourceGroup
             throw new IllegalArgumentException("Resource key must not be null!");
         }
 
-        return getBundle().getObject(key.toString());
+        String strKey = key.toString();
+        Object resource = fetchResources().get(strKey);
+        if (resource == null)
+        {
+            throw new MissingResourceException("Can't find resource for bundle "
+                    + getName() + ", key " + strKey, getBundle().getClass()
+                    .getName(), strKey);
+        }
+        return resource;
+    }
+
+    /**
+     * Returns a map with the flattened content of the underlying bundle. The
+     * map is created on first access. (If this happens concurrently, the map
+     * may be created multiple times, which does not cause any harm.)
+     *
+     * @return the map with all resources of this group
+     */
+    private Map<String, Object> fetchResources()
+    {
+        Map<String, Object> res = resources;
+        if (res == null)
+        {
+            res = new HashMap<String, Object>();
+            for (Enumeration<String> en = getBundle().getKeys(); en
+                    .hasMoreElements();)
+            {
+                String k = en.nextElement();
+                res.put(k, getBundle().getObject(k));
+            }
+            resources = res;
+        }
+        return res;
     }
 
     /**
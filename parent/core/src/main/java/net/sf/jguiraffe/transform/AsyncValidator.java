@@ -0,0 +1,44 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+/**
+ * <p>
+ * A specialized {@link Validator} interface for validators that should be
+ * executed in a background thread.
+ * </p>
+ * <p>
+ * Some validators have to perform expensive operations, e.g. they access the
+ * file system or query a service. If such validators were invoked in the event
+ * dispatch thread, the user interface would freeze. By implementing this
+ * interface a validator indicates that it is a candidate for asynchronous
+ * execution. The form framework then wraps it in an
+ * {@link net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper
+ * AsyncValidatorWrapper}: a field validated by such a validator is in
+ * <em>pending</em> state until the result is available.
+ * </p>
+ * <p>
+ * This interface does not define any additional methods. The main difference
+ * to a plain validator is that the {@code isValid()} method is called in a
+ * background thread. So implementations must be thread-safe, and they must not
+ * access any GUI components.
+ * </p>
+ *
+ * @since 1.5
+ */
+public interface AsyncValidator extends Validator
+{
+}
@@ -96,6 +96,20 @@ public class DateTimeTransformer extends DateTransformerBase
         this.timeStyle = timeStyle;
     }
 
+    /**
+     * Returns additional state relevant for the format objects created by
+     * this transformer. This implementation returns the time style, so that
+     * format objects are cached correctly if this property is changed.
+     *
+     * @return an object with additional state relevant for format objects
+     * @since 1.5
+     */
+    @Override
+    protected Object getFormatState()
+    {
+        return Integer.valueOf(getTimeStyle());
+    }
+
     /**
      * Creates the format object to be used by this transformer. This
      * implementation returns a date/time instance of <code>DateFormat</code>.
@@ -21,11 +21,15 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.MapConfiguration;
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -161,6 +165,19 @@ import org.apache.commons.logging.LogFactory;
  * validator for an input component at the same time (provided that the same
  * properties are used). However the class is not thread-safe.
  * </p>
+ * <p>
+ * Creating a {@code DateFormat} object is an expensive operation. Because
+ * transformers are typically invoked very frequently (e.g. for each cell of a
+ * table to be rendered), format objects created by the {@code createFormat()}
+ * method are cached. As {@code DateFormat} is not thread-safe, the cache is
+ * maintained per thread. The key of a cached format consists of the locale,
+ * the properties of the transformer context, and the current values of the
+ * {@code style} and {@code lenient} properties. Derived classes whose format
+ * objects depend on further state have to override the
+ * {@link #getFormatState()} method accordingly. Note that cached format
+ * objects use the time zone which was the default time zone at the time they
+ * were created.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: DateTransformerBase.java 205 2012-01-29 18:29:57Z oheger $
@@ -200,6 +217,17 @@ public abstract class DateTransformerBase implements Transformer, Validator
     /** The logger. */
     private final Log log = LogFactory.getLog(getClass());
 
+    /** Stores the format objects cached for the current thread. */
+    private final ThreadLocal<Map<FormatKey, DateFormat>> formatCache =
+            new ThreadLocal<Map<FormatKey, DateFormat>>()
+            {
+                @Override
+                protected Map<FormatKey, DateFormat> initialValue()
+                {
+                    return new HashMap<FormatKey, DateFormat>();
+                }
+            };
+
     /**
      * Stores the internally used reference date that has been converted into a
      * date object.
@@ -408,7 +436,7 @@ public abstract class DateTransformerBase implements Transformer, Validator
         }
 
         Configuration config = new MapConfiguration(ctx.properties());
-        DateFormat fmt = initializeFormat(ctx.getLocale(), config);
+        DateFormat fmt = fetchFormat(ctx, config);
         try
         {
             Date dt = transformDate(strDate, fmt);
@@ -481,8 +509,7 @@ public abstract class DateTransformerBase implements Transformer, Validator
             return null;
         }
 
-        Configuration config = new MapConfiguration(ctx.properties());
-        return transformDate(strDate, initializeFormat(ctx.getLocale(), config));
+        return transformDate(strDate, fetchFormat(ctx, null));
     }
 
     /**
@@ -498,8 +525,7 @@ public abstract class DateTransformerBase implements Transformer, Validator
     protected Object transformToString(Date dt, TransformerContext ctx)
             throws Exception
     {
-        Configuration config = new MapConfiguration(ctx.properties());
-        return initializeFormat(ctx.getLocale(), config).format(dt);
+        return fetchFormat(ctx, null).format(dt);
     }
 
     /**
@@ -620,6 +646,26 @@ public abstract class DateTransformerBase implements Transformer, Validator
         return fmt;
     }
 
+    /**
+     * Returns an object with additional state which has an impact on the
+     * format objects created by {@code createFormat()}. The object returned
+     * by this method becomes part of the key under which format objects are
+     * cached. The base implementation returns <b>null</b>: the format objects
+     * created by this class only depend on the locale, the context properties,
+     * and the {@code style} and {@code lenient} properties, which are already
+     * taken into account. Derived classes that evaluate additional properties
+     * of their own must override this method and return an object (with
+     * meaningful {@code equals()} and {@code hashCode()} implementations)
+     * containing the values of these properties.
+     *
+     * @return an object with additional state relevant for format objects
+     * @since 1.5
+     */
+    protected Object getFormatState()
+    {
+        return null;
+    }
+
     /**
      * Checks the specified date. This method is called by
      * <code>isValid()</code> if the entered date is syntactically correct. It
@@ -710,6 +756,36 @@ public abstract class DateTransformerBase implements Transformer, Validator
     protected abstract DateFormat createFormat(Locale locale, int style,
             Configuration config);
 
+    /**
+     * Obtains the format object for the specified transformer context. The
+     * format is looked up in the cache of the current thread. If it is not
+     * found, {@code initializeFormat()} is called, and the newly created object
+     * is stored in the cache.
+     *
+     * @param ctx the transformer context
+     * @param config the configuration with the properties of the context; can
+     *        be <b>null</b>, then it is created on demand
+     * @return the format object to be used
+     */
+    private DateFormat fetchFormat(TransformerContext ctx, Configuration config)
+    {
+        Map<FormatKey, DateFormat> formats = formatCache.get();
+        FormatKey key =
+                new FormatKey(ctx.getLocale(), ctx.properties(), getStyle(),
+                        isLenient(), getFormatState());
+        DateFormat fmt = formats.get(key);
+
+        if (fmt == null)
+        {
+            Configuration fmtConfig =
+                    (config != null) ? config : new MapConfiguration(
+                            ctx.properties());
+            fmt = initializeFormat(ctx.getLocale(), fmtConfig);
+            formats.put(key.snapshot(), fmt);
+        }
+        return fmt;
+    }
+
     /**
      * Checks whether the date is defined. It is defined if it is not <b>null</b>
      * and no empty string.
@@ -783,4 +859,104 @@ public abstract class DateTransformerBase implements Transformer, Validator
         copyCalendarFields(cal1, cal2, fields);
         return cal1.getTime();
     }
+
+    /**
+     * An internally used key class for the format objects stored in the cache.
+     * The key contains all information which has an impact on the format
+     * objects created by this transformer.
+     */
+    private static class FormatKey
+    {
+        /** The locale. */
+        private final Locale locale;
+
+        /** The properties of the transformer context. */
+        private final Map<String, Object> properties;
+
+        /** The style. */
+        private final int style;
+
+        /** The lenient flag. */
+        private final boolean lenient;
+
+        /** Additional state defined by derived classes. */
+        private final Object state;
+
+        /**
+         * Creates a new instance of {@code FormatKey}.
+         *
+         * @param loc the locale
+         * @param props the properties of the transformer context
+         * @param st the style
+         * @param len the lenient flag
+         * @param addState additional state
+         */
+        public FormatKey(Locale loc, Map<String, Object> props, int st,
+                boolean len, Object addState)
+        {
+            locale = loc;
+            properties = props;
+            style = st;
+            lenient = len;
+            state = addState;
+        }
+
+        /**
+         * Returns a copy of this key which is independent of the properties
+         * map of the transformer context. This copy is stored in the cache.
+         *
+         * @return a snapshot of this key
+         */
+        public FormatKey snapshot()
+        {
+            Map<String, Object> props =
+                    properties.isEmpty() ? Collections
+                            .<String, Object> emptyMap()
+                            : new HashMap<String, Object>(properties);
+            return new FormatKey(locale, props, style, lenient, state);
+        }
+
+        /**
+         * Returns a hash code for this object.
+         *
+         * @return a hash code
+         */
+        @Override
+        public int hashCode()
+        {
+            final int factor = 31;
+            int h = ObjectUtils.hashCode(locale);
+            h = h * factor + properties.hashCode();
+            h = h * factor + style;
+            h = h * factor + (lenient ? 1 : 0);
+            h = h * factor + ObjectUtils.hashCode(state);
+            return h;
+        }
+
+        /**
+         * Compares this object with another one. Two keys are equal if all of
+         * their components are equal.
+         *
+         * @param obj the object to compare to
+         * @return a flag whether the objects are equal
+         */
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof FormatKey))
+            {
+                return false;
+            }
+
+            FormatKey c = (FormatKey) obj;
+            return style == c.style && lenient == c.lenient
+                    && ObjectUtils.equals(locale, c.locale)
+                    && properties.equals(c.properties)
+                    && ObjectUtils.equals(state, c.state);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import java.time.LocalDate;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * <p>
+ * A specialized transformer that transforms strings into
+ * {@code java.time.LocalDate} objects and vice versa.
+ * </p>
+ * <p>
+ * This class is an alternative to {@link DateTransformer} for applications
+ * using the {@code java.time} API. Most of the functionality is implemented
+ * by the base class. The reference value for comparisons must be specified in
+ * ISO format, e.g. <code>2008-01-25</code>. If no reference value is set, the
+ * current date is used.
+ * </p>
+ * <p>
+ * For the documentation of the supported properties and error messages refer
+ * to the super class. Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class LocalDateTransformer extends TemporalTransformerBase<LocalDate>
+{
+    /**
+     * Creates a new instance of {@code LocalDateTransformer} which uses the
+     * <code>SHORT</code> style per default.
+     */
+    public LocalDateTransformer()
+    {
+        this(FormatStyle.SHORT);
+    }
+
+    /**
+     * Creates a new instance of {@code LocalDateTransformer} and sets the
+     * default style for dates.
+     *
+     * @param style the default style (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the style is <b>null</b>
+     */
+    public LocalDateTransformer(FormatStyle style)
+    {
+        super(LocalDate.class, checkStyle(style), null);
+    }
+
+    /**
+     * Converts the passed in temporal object to a {@code LocalDate}.
+     *
+     * @param temporal the temporal object
+     * @return the converted date
+     */
+    @Override
+    protected LocalDate convert(TemporalAccessor temporal)
+    {
+        return LocalDate.from(temporal);
+    }
+
+    /**
+     * Parses a reference date in ISO format.
+     *
+     * @param ref the reference date as string
+     * @return the parsed reference date
+     */
+    @Override
+    protected LocalDate parseReference(String ref)
+    {
+        return LocalDate.parse(ref);
+    }
+
+    /**
+     * Returns the default reference date. This is the current date.
+     *
+     * @return the default reference date
+     */
+    @Override
+    protected LocalDate getDefaultReference()
+    {
+        return LocalDate.now();
+    }
+
+    /**
+     * Checks whether a style is defined.
+     *
+     * @param style the style
+     * @return the same style
+     * @throws IllegalArgumentException if the style is <b>null</b>
+     */
+    private static FormatStyle checkStyle(FormatStyle style)
+    {
+        if (style == null)
+        {
+            throw new IllegalArgumentException("Style must not be null!");
+        }
+        return style;
+    }
+}
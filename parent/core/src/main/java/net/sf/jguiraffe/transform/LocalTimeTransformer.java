@@ -0,0 +1,128 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import java.time.LocalTime;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * <p>
+ * A specialized transformer that transforms strings into
+ * {@code java.time.LocalTime} objects and vice versa.
+ * </p>
+ * <p>
+ * This class is an alternative to {@link TimeTransformer} for applications
+ * using the {@code java.time} API. Most of the functionality is implemented
+ * by the base class. The reference value for comparisons must be specified in
+ * ISO format, e.g. <code>21:05:48</code>. If no reference value is set, the
+ * current time is used. Note that only the <code>SHORT</code> and
+ * <code>MEDIUM</code> styles can be used for local times; the other styles
+ * typically require a time zone.
+ * </p>
+ * <p>
+ * For the documentation of the supported properties refer to the super class.
+ * Analogously to {@code TimeTransformer}, this class produces time-specific
+ * error messages, e.g.
+ * <code>{@value ValidationMessageConstants#ERR_INVALID_TIME}</code> rather
+ * than <code>{@value ValidationMessageConstants#ERR_INVALID_DATE}</code>.
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class LocalTimeTransformer extends TemporalTransformerBase<LocalTime>
+{
+    /** Constant for the key of a date error message. */
+    private static final String KEY_DATE_MSG = "DATE";
+
+    /** Constant for the key of a time error message. */
+    private static final String KEY_TIME_MSG = "TIME";
+
+    /**
+     * Creates a new instance of {@code LocalTimeTransformer} which uses the
+     * <code>SHORT</code> style per default.
+     */
+    public LocalTimeTransformer()
+    {
+        this(FormatStyle.SHORT);
+    }
+
+    /**
+     * Creates a new instance of {@code LocalTimeTransformer} and sets the
+     * default style for times.
+     *
+     * @param style the default style (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the style is <b>null</b>
+     */
+    public LocalTimeTransformer(FormatStyle style)
+    {
+        super(LocalTime.class, null, style);
+    }
+
+    /**
+     * Converts the passed in temporal object to a {@code LocalTime}.
+     *
+     * @param temporal the temporal object
+     * @return the converted time
+     */
+    @Override
+    protected LocalTime convert(TemporalAccessor temporal)
+    {
+        return LocalTime.from(temporal);
+    }
+
+    /**
+     * Parses a reference time in ISO format.
+     *
+     * @param ref the reference time as string
+     * @return the parsed reference time
+     */
+    @Override
+    protected LocalTime parseReference(String ref)
+    {
+        return LocalTime.parse(ref);
+    }
+
+    /**
+     * Returns the default reference time. This is the current time.
+     *
+     * @return the default reference time
+     */
+    @Override
+    protected LocalTime getDefaultReference()
+    {
+        return LocalTime.now();
+    }
+
+    /**
+     * Returns a validation result object with an error message. This
+     * implementation transforms error messages for invalid dates to messages
+     * for invalid times.
+     *
+     * @param errorKey the key of the error message
+     * @param ctx the transformer context
+     * @param params additional parameters
+     * @return the validation result object with the specified error message
+     */
+    @Override
+    protected ValidationResult errorResult(String errorKey,
+            TransformerContext ctx, Object... params)
+    {
+        return super.errorResult(errorKey.replace(KEY_DATE_MSG, KEY_TIME_MSG),
+                ctx, params);
+    }
+}
@@ -19,7 +19,9 @@ import java.lang.reflect.ParameterizedType;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.MapConfiguration;
@@ -115,6 +117,13 @@ import org.apache.commons.configuration.MapConfiguration;
  * concurrently as transformer and validator for the same or multiple input
  * fields.
  * </p>
+ * <p>
+ * The format objects returned by {@code createFormat()} are cached per locale.
+ * Because {@code NumberFormat} is not thread-safe, a separate cache is
+ * maintained for each thread. So {@code createFormat()} is called only once
+ * for a combination of a thread and a locale. It is expected to return format
+ * objects which only depend on the passed in locale.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: NumberTransformerBase.java 205 2012-01-29 18:29:57Z oheger $
@@ -129,6 +138,17 @@ public abstract class NumberTransformerBase<T extends Number> implements
     /** Constant for the maximum property. */
     protected static final String PROP_MAXIMUM = "maximum";
 
+    /** Stores the format objects cached for the current thread. */
+    private final ThreadLocal<Map<Locale, NumberFormat>> formatCache =
+            new ThreadLocal<Map<Locale, NumberFormat>>()
+            {
+                @Override
+                protected Map<Locale, NumberFormat> initialValue()
+                {
+                    return new HashMap<Locale, NumberFormat>();
+                }
+            };
+
     /** Stores the minimum allowed value. */
     private T minimum;
 
@@ -193,7 +213,7 @@ public abstract class NumberTransformerBase<T extends Number> implements
      */
     public Object transform(Object o, TransformerContext ctx) throws Exception
     {
-        return transformToNumber(o, ctx, createFormat(ctx.getLocale()));
+        return transformToNumber(o, ctx, fetchFormat(ctx.getLocale()));
     }
 
     /**
@@ -210,7 +230,7 @@ public abstract class NumberTransformerBase<T extends Number> implements
      */
     public ValidationResult isValid(Object o, TransformerContext ctx)
     {
-        NumberFormat fmt = createFormat(ctx.getLocale());
+        NumberFormat fmt = fetchFormat(ctx.getLocale());
         try
         {
             T number = transformToNumber(o, ctx, fmt);
@@ -344,8 +364,9 @@ public abstract class NumberTransformerBase<T extends Number> implements
 
     /**
      * Creates the format object for parsing a number. This method is called
-     * whenever a string (entered by the user) has to be converted into a
-     * number.
+     * when a format object for a locale is needed for the first time in the
+     * current thread. The object returned is then cached and reused for
+     * further transformations.
      *
      * @param locale the locale to use
      * @return the format object for parsing the number
@@ -367,6 +388,27 @@ public abstract class NumberTransformerBase<T extends Number> implements
     protected abstract T fetchProperty(Configuration config, String property,
             T defaultValue);
 
+    /**
+     * Returns the format object for the specified locale. The format is looked
+     * up in the cache of the current thread. If it is not found,
+     * {@code createFormat()} is called, and the new format object is stored in
+     * the cache.
+     *
+     * @param locale the locale
+     * @return the format object for this locale
+     */
+    private NumberFormat fetchFormat(Locale locale)
+    {
+        Map<Locale, NumberFormat> formats = formatCache.get();
+        NumberFormat fmt = formats.get(locale);
+        if (fmt == null)
+        {
+            fmt = createFormat(locale);
+            formats.put(locale, fmt);
+        }
+        return fmt;
+    }
+
     /**
      * Converts the passed in number to the target type if necessary. If the
      * number is already of the target type, nothing is done.
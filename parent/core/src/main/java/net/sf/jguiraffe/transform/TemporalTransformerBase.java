@@ -0,0 +1,613 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import java.text.DateFormat;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.MapConfiguration;
+
+/**
+ * <p>
+ * An abstract base class for transformers and validators which deal with the
+ * date and time classes of the {@code java.time} package.
+ * </p>
+ * <p>
+ * This class is the counterpart of {@link DateTransformerBase} for the
+ * {@code java.time} API. It can validate strings entered by the user, convert
+ * them into temporal objects, and format temporal objects as strings. The
+ * formats used are the localized formats of the current locale in a specific
+ * style. Derived classes determine the concrete temporal type and whether a
+ * date and/or a time component is processed.
+ * </p>
+ * <p>
+ * In contrast to {@code DateTransformerBase}, instances of this class are
+ * immutable: the default styles are passed to the constructor; all other
+ * settings are obtained from the properties of the current
+ * {@link TransformerContext}. The following properties are supported:
+ * <table border="1">
+ * <tr>
+ * <th>Property</th>
+ * <th>Description</th>
+ * <th>Default</th>
+ * </tr>
+ * <tr>
+ * <td valign="top">style</td>
+ * <td>Defines the style of the first component (the date if one is processed,
+ * otherwise the time). The value can be one of the style constants declared by
+ * the <code>java.text.DateFormat</code> class or the name of a constant of the
+ * <code>java.time.format.FormatStyle</code> enumeration.</td>
+ * <td valign="top">the style passed to the constructor</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">timeStyle</td>
+ * <td>Defines the style of the time component if both a date and a time are
+ * processed. The same values as for the <code>style</code> property are
+ * supported.</td>
+ * <td valign="top">the style passed to the constructor</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">lenient</td>
+ * <td>Specifies the lenient mode for parsing. If set to <b>true</b>, invalid
+ * field values are resolved leniently (e.g. the 32nd of January becomes the
+ * 1st of February). Otherwise, parsing is strict.</td>
+ * <td valign="top">false</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">referenceDate</td>
+ * <td>A reference value used for comparisons. It has to be specified in the
+ * ISO format of the temporal type supported by the concrete subclass. A
+ * space can be used as separator between date and time.</td>
+ * <td valign="top">defined by subclass</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">after</td>
+ * <td>If this boolean flag is set, the entered value must be after the
+ * reference value.</td>
+ * <td valign="top">false</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">before</td>
+ * <td>If this boolean flag is set, the entered value must be before the
+ * reference value.</td>
+ * <td valign="top">false</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">equal</td>
+ * <td>This flag is evaluated only if <code>after</code> or
+ * <code>before</code> is <b>true</b>. It controls whether the reference value
+ * is included in the comparison.</td>
+ * <td valign="top">false</td>
+ * </tr>
+ * </table>
+ * </p>
+ * <p>
+ * The error messages produced by this class are the same as the ones of
+ * {@link DateTransformerBase}. Derived classes dealing with time values can
+ * override the {@code errorResult()} method to produce time-specific
+ * messages.
+ * </p>
+ * <p>
+ * {@code DateTimeFormatter} objects are immutable. So the formatters created
+ * by this class are cached in a thread-safe map. This makes the class suitable
+ * for frequent invocations, e.g. when rendering the cells of a table. Note
+ * that the <code>FULL</code> and <code>LONG</code> styles of some locales
+ * require time zone information; they cannot be used for local time values.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @param <T> the temporal type handled by this transformer
+ * @since 1.5
+ */
+public abstract class TemporalTransformerBase<T extends TemporalAccessor
+        & Comparable<? super T>> implements Transformer, Validator
+{
+    /** Constant for the style property. */
+    protected static final String PROP_STYLE = "style";
+
+    /** Constant for the time style property. */
+    protected static final String PROP_TIME_STYLE = "timeStyle";
+
+    /** Constant for the lenient property. */
+    protected static final String PROP_LENIENT = "lenient";
+
+    /** Constant for the referenceDate property. */
+    protected static final String PROP_REFERENCE_DATE = "referenceDate";
+
+    /** Constant for the before property. */
+    protected static final String PROP_BEFORE = "before";
+
+    /** Constant for the after property. */
+    protected static final String PROP_AFTER = "after";
+
+    /** Constant for the equal property. */
+    protected static final String PROP_EQUAL = "equal";
+
+    /** Constant for the pattern character for the year of era. */
+    private static final char YEAR_OF_ERA = 'y';
+
+    /** Constant for the pattern character for the proleptic year. */
+    private static final char YEAR = 'u';
+
+    /** Constant for the quote character in patterns. */
+    private static final char QUOTE = '\'';
+
+    /** A configuration used if the context does not define properties. */
+    private static final Configuration EMPTY_CONFIG = new MapConfiguration(
+            Collections.<String, Object> emptyMap());
+
+    /** The temporal type supported by this transformer. */
+    private final Class<T> temporalType;
+
+    /** The default style for the date component. */
+    private final FormatStyle dateStyle;
+
+    /** The default style for the time component. */
+    private final FormatStyle timeStyle;
+
+    /** A map with the formatters which have already been created. */
+    private final ConcurrentMap<List<Object>, DateTimeFormatter> formatters;
+
+    /**
+     * Creates a new instance of {@code TemporalTransformerBase} and
+     * initializes it with the supported temporal type and the default styles.
+     * At least one of the styles must be defined; a style of <b>null</b> means
+     * that the corresponding component is not processed.
+     *
+     * @param type the temporal type (must not be <b>null</b>)
+     * @param defDateStyle the default style for the date component
+     * @param defTimeStyle the default style for the time component
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    protected TemporalTransformerBase(Class<T> type, FormatStyle defDateStyle,
+            FormatStyle defTimeStyle)
+    {
+        if (type == null)
+        {
+            throw new IllegalArgumentException(
+                    "Temporal type must not be null!");
+        }
+        if (defDateStyle == null && defTimeStyle == null)
+        {
+            throw new IllegalArgumentException(
+                    "A date or a time style must be provided!");
+        }
+
+        temporalType = type;
+        dateStyle = defDateStyle;
+        timeStyle = defTimeStyle;
+        formatters = new ConcurrentHashMap<List<Object>, DateTimeFormatter>();
+    }
+
+    /**
+     * Returns the temporal type supported by this transformer.
+     *
+     * @return the temporal type
+     */
+    public Class<T> getTemporalType()
+    {
+        return temporalType;
+    }
+
+    /**
+     * Returns the default style for the date component. Result is <b>null</b>
+     * if this transformer does not process dates.
+     *
+     * @return the default date style
+     */
+    public FormatStyle getDateStyle()
+    {
+        return dateStyle;
+    }
+
+    /**
+     * Returns the default style for the time component. Result is <b>null</b>
+     * if this transformer does not process times.
+     *
+     * @return the default time style
+     */
+    public FormatStyle getTimeStyle()
+    {
+        return timeStyle;
+    }
+
+    /**
+     * Transforms the specified object. If the object is of the temporal type
+     * supported by this transformer, it is formatted to a string. Otherwise,
+     * its string representation is parsed to the temporal type. <b>null</b>
+     * values and empty strings are transformed to <b>null</b>.
+     *
+     * @param o the object to be transformed
+     * @param ctx the transformer context
+     * @return the transformed object
+     * @throws Exception if an error occurs
+     */
+    public Object transform(Object o, TransformerContext ctx) throws Exception
+    {
+        Configuration config = fetchConfiguration(ctx);
+        DateTimeFormatter formatter = fetchFormatter(ctx.getLocale(), config);
+
+        if (getTemporalType().isInstance(o))
+        {
+            return formatter.format(getTemporalType().cast(o));
+        }
+
+        String str = checkDefined(o);
+        return (str == null) ? null : parse(str, formatter);
+    }
+
+    /**
+     * Validates the passed in object. This implementation checks whether the
+     * string representation of the object can be parsed. If so, the result is
+     * compared with the reference value if the <code>before</code> or
+     * <code>after</code> flags are set. <b>null</b> values and empty strings
+     * are considered valid.
+     *
+     * @param o the object to be validated
+     * @param ctx the transformer context
+     * @return an object with the results of the validation
+     */
+    public ValidationResult isValid(Object o, TransformerContext ctx)
+    {
+        String str = checkDefined(o);
+        if (str == null)
+        {
+            return DefaultValidationResult.VALID;
+        }
+
+        Configuration config = fetchConfiguration(ctx);
+        DateTimeFormatter formatter = fetchFormatter(ctx.getLocale(), config);
+        T value;
+        try
+        {
+            value = parse(str, formatter);
+        }
+        catch (DateTimeParseException dtex)
+        {
+            return errorResult(ValidationMessageConstants.ERR_INVALID_DATE,
+                    ctx, str);
+        }
+
+        return isTemporalValid(value, formatter, ctx, config);
+    }
+
+    /**
+     * Checks the specified temporal value. This method is called by
+     * {@code isValid()} if the entered string could be parsed successfully.
+     * It checks whether the value is in correct relation to the reference
+     * value.
+     *
+     * @param value the value to check
+     * @param formatter the formatter (used for formatting the reference value
+     *        in error messages)
+     * @param ctx the transformer context
+     * @param config the configuration with the properties
+     * @return a {@code ValidationResult} object with the result of the
+     *         validation
+     */
+    protected ValidationResult isTemporalValid(T value,
+            DateTimeFormatter formatter, TransformerContext ctx,
+            Configuration config)
+    {
+        boolean after = config.getBoolean(PROP_AFTER, false);
+        boolean before = config.getBoolean(PROP_BEFORE, false);
+        if (!after && !before)
+        {
+            return DefaultValidationResult.VALID;
+        }
+
+        T reference = getReference(config);
+        int comp = value.compareTo(reference);
+        boolean eqProp = config.getBoolean(PROP_EQUAL, false);
+        boolean eq = eqProp && comp == 0;
+        String errorKey = null;
+
+        if (after && comp <= 0 && !eq)
+        {
+            errorKey =
+                    eqProp ? ValidationMessageConstants.ERR_DATE_AFTER_EQUAL
+                            : ValidationMessageConstants.ERR_DATE_AFTER;
+        }
+        if (before && comp >= 0 && !eq)
+        {
+            errorKey =
+                    eqProp ? ValidationMessageConstants.ERR_DATE_BEFORE_EQUAL
+                            : ValidationMessageConstants.ERR_DATE_BEFORE;
+        }
+
+        return (errorKey != null) ? errorResult(errorKey, ctx,
+                formatter.format(reference)) : DefaultValidationResult.VALID;
+    }
+
+    /**
+     * Returns the reference value for comparisons. If a reference value is
+     * defined in the configuration, it is parsed. Otherwise, the default
+     * reference value is returned.
+     *
+     * @param config the configuration with the current properties
+     * @return the reference value
+     * @throws DateTimeParseException if the reference value cannot be parsed
+     */
+    protected T getReference(Configuration config)
+    {
+        String ref = config.getString(PROP_REFERENCE_DATE);
+        return (ref != null) ? parseReference(ref) : getDefaultReference();
+    }
+
+    /**
+     * Creates a validation result if an error occurred.
+     *
+     * @param errorKey the key of the error message
+     * @param ctx the transformer context
+     * @param params optional parameters for the error message
+     * @return the validation result with this error
+     */
+    protected ValidationResult errorResult(String errorKey,
+            TransformerContext ctx, Object... params)
+    {
+        return new DefaultValidationResult.Builder().addValidationMessage(
+                ctx.getValidationMessageHandler().getValidationMessage(ctx,
+                        errorKey, params)).build();
+    }
+
+    /**
+     * Creates the formatter for the specified parameters. This method is
+     * called once for each combination of parameters; the resulting formatter
+     * is cached. This implementation obtains the localized pattern for the
+     * given styles. In this pattern, the year of era is replaced by the
+     * proleptic year, so that strict parsing is possible without an era.
+     *
+     * @param locale the locale
+     * @param dStyle the style of the date component (may be <b>null</b>)
+     * @param tStyle the style of the time component (may be <b>null</b>)
+     * @param lenient the lenient flag
+     * @return the formatter
+     */
+    protected DateTimeFormatter createFormatter(Locale locale,
+            FormatStyle dStyle, FormatStyle tStyle, boolean lenient)
+    {
+        String pattern =
+                DateTimeFormatterBuilder.getLocalizedDateTimePattern(dStyle,
+                        tStyle, IsoChronology.INSTANCE, locale);
+        return DateTimeFormatter.ofPattern(replaceYearOfEra(pattern), locale)
+                .withResolverStyle(
+                        lenient ? ResolverStyle.LENIENT : ResolverStyle.STRICT);
+    }
+
+    /**
+     * Converts the result of a parse operation to the temporal type supported
+     * by this transformer.
+     *
+     * @param temporal the parsed temporal object
+     * @return the converted object
+     * @throws java.time.DateTimeException if the conversion is not possible
+     */
+    protected abstract T convert(TemporalAccessor temporal);
+
+    /**
+     * Parses the string representation of a reference value. The string is
+     * expected to be in ISO format.
+     *
+     * @param ref the reference value as string
+     * @return the parsed reference value
+     * @throws DateTimeParseException if the string cannot be parsed
+     */
+    protected abstract T parseReference(String ref);
+
+    /**
+     * Returns the default reference value. This method is called if a
+     * comparison has to be performed, but no reference value was specified.
+     *
+     * @return the default reference value
+     */
+    protected abstract T getDefaultReference();
+
+    /**
+     * Parses the specified string using the given formatter.
+     *
+     * @param str the string to be parsed
+     * @param formatter the formatter
+     * @return the parsed value
+     * @throws DateTimeParseException if the string cannot be parsed
+     */
+    private T parse(String str, DateTimeFormatter formatter)
+    {
+        try
+        {
+            return convert(formatter.parse(str));
+        }
+        catch (DateTimeParseException dtex)
+        {
+            throw dtex;
+        }
+        catch (RuntimeException rex)
+        {
+            // conversion to the target type failed
+            throw new DateTimeParseException(rex.getMessage(), str, 0, rex);
+        }
+    }
+
+    /**
+     * Returns the formatter for the specified locale and configuration. The
+     * formatter is obtained from the cache or created on demand.
+     *
+     * @param locale the locale
+     * @param config the configuration with the current properties
+     * @return the formatter
+     */
+    private DateTimeFormatter fetchFormatter(Locale locale,
+            Configuration config)
+    {
+        FormatStyle dStyle;
+        FormatStyle tStyle;
+        if (getDateStyle() != null)
+        {
+            dStyle = fetchStyle(config, PROP_STYLE, getDateStyle());
+            tStyle =
+                    (getTimeStyle() != null) ? fetchStyle(config,
+                            PROP_TIME_STYLE, getTimeStyle()) : null;
+        }
+        else
+        {
+            dStyle = null;
+            tStyle = fetchStyle(config, PROP_STYLE, getTimeStyle());
+        }
+        boolean lenient = config.getBoolean(PROP_LENIENT, false);
+
+        List<Object> key = Arrays.<Object> asList(locale, dStyle, tStyle,
+                Boolean.valueOf(lenient));
+        DateTimeFormatter formatter = formatters.get(key);
+        if (formatter == null)
+        {
+            formatter = createFormatter(locale, dStyle, tStyle, lenient);
+            DateTimeFormatter other = formatters.putIfAbsent(key, formatter);
+            if (other != null)
+            {
+                formatter = other;
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns a configuration for the properties of the given context. If
+     * there are no properties, a shared empty configuration is returned.
+     *
+     * @param ctx the transformer context
+     * @return the configuration
+     */
+    private static Configuration fetchConfiguration(TransformerContext ctx)
+    {
+        Map<String, Object> props = ctx.properties();
+        return (props == null || props.isEmpty()) ? EMPTY_CONFIG
+                : new MapConfiguration(props);
+    }
+
+    /**
+     * Obtains a style from the configuration. The style can be defined either
+     * as a numeric constant of the {@code DateFormat} class or as the name of
+     * a {@code FormatStyle} constant.
+     *
+     * @param config the configuration
+     * @param key the key of the property
+     * @param defStyle the default style
+     * @return the style to be used
+     * @throws IllegalArgumentException if the style cannot be resolved
+     */
+    private static FormatStyle fetchStyle(Configuration config, String key,
+            FormatStyle defStyle)
+    {
+        Object prop = config.getProperty(key);
+        if (prop == null)
+        {
+            return defStyle;
+        }
+
+        String value = String.valueOf(prop);
+
+        try
+        {
+            return toFormatStyle(Integer.parseInt(value.trim()));
+        }
+        catch (NumberFormatException nfex)
+        {
+            return FormatStyle.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        }
+    }
+
+    /**
+     * Converts a style constant of the {@code DateFormat} class to the
+     * corresponding {@code FormatStyle}.
+     *
+     * @param style the style constant
+     * @return the corresponding {@code FormatStyle}
+     * @throws IllegalArgumentException if the style is invalid
+     */
+    private static FormatStyle toFormatStyle(int style)
+    {
+        switch (style)
+        {
+        case DateFormat.FULL:
+            return FormatStyle.FULL;
+        case DateFormat.LONG:
+            return FormatStyle.LONG;
+        case DateFormat.MEDIUM:
+            return FormatStyle.MEDIUM;
+        case DateFormat.SHORT:
+            return FormatStyle.SHORT;
+        default:
+            throw new IllegalArgumentException("Invalid style: " + style);
+        }
+    }
+
+    /**
+     * Replaces all occurrences of the year of era pattern character outside
+     * of quoted literals by the character for the proleptic year.
+     *
+     * @param pattern the original pattern
+     * @return the converted pattern
+     */
+    private static String replaceYearOfEra(String pattern)
+    {
+        StringBuilder buf = new StringBuilder(pattern.length());
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++)
+        {
+            char c = pattern.charAt(i);
+            if (c == QUOTE)
+            {
+                quoted = !quoted;
+            }
+            buf.append((c == YEAR_OF_ERA && !quoted) ? YEAR : c);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Checks whether the passed in object is defined. It is defined if it is
+     * not <b>null</b> and its string representation is not empty.
+     *
+     * @param o the object to be checked
+     * @return the string representation of the object or <b>null</b> if it is
+     *         undefined
+     */
+    private static String checkDefined(Object o)
+    {
+        if (o == null)
+        {
+            return null;
+        }
+
+        String str = String.valueOf(o);
+        return (str.length() < 1) ? null : str;
+    }
+}
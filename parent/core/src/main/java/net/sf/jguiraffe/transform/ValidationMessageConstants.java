@@ -122,6 +122,20 @@ public final class ValidationMessageConstants
      */
     public static final String ERR_PATTERN = "ERR_PATTERN";
 
+    /**
+     * The validation of this field is still in progress.
+     *
+     * @since 1.5
+     */
+    public static final String ERR_VALIDATION_PENDING = "ERR_VALIDATION_PENDING";
+
+    /**
+     * The validation of this field failed with an exception.
+     *
+     * @since 1.5
+     */
+    public static final String ERR_VALIDATION_FAILED = "ERR_VALIDATION_FAILED";
+
     /**
      * Private constructor so that no instances can be created.
      */
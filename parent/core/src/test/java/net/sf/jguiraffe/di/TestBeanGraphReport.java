@@ -0,0 +1,134 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jguiraffe.di.impl.NameDependency;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@code BeanGraphReport}.
+ */
+public class TestBeanGraphReport
+{
+    /** Constant for a test bean name. */
+    private static final String BEAN = "testBean";
+
+    /** Constant for another test bean name. */
+    private static final String BEAN2 = "anotherBean";
+
+    /**
+     * Tests a report created with null arguments.
+     */
+    @Test
+    public void testInitNull()
+    {
+        BeanGraphReport report = new BeanGraphReport(null, null, null, null);
+        assertTrue("Got cycles", report.getCycles().isEmpty());
+        assertTrue("Got unresolved dependencies", report
+                .getUnresolvedDependencies().isEmpty());
+        assertTrue("Got creation times", report.getCreationTimes().isEmpty());
+        assertTrue("Got errors", report.getCreationErrors().isEmpty());
+        assertTrue("Not valid", report.isValid());
+        assertTrue("Not successful", report.isSuccessful());
+    }
+
+    /**
+     * Tests whether cycles make a report invalid.
+     */
+    @Test
+    public void testCycles()
+    {
+        List<String> cycle = new ArrayList<String>(Arrays.asList(BEAN, BEAN2));
+        BeanGraphReport report = new BeanGraphReport(Collections
+                .singletonList(cycle), null, null, null);
+        cycle.clear();
+        assertEquals("Wrong cycles", Collections.singletonList(Arrays.asList(
+                BEAN, BEAN2)), report.getCycles());
+        assertFalse("Valid", report.isValid());
+        assertFalse("Successful", report.isSuccessful());
+        assertTrue("Cycle not found", report.toString().contains(
+                "Cyclic dependency: [" + BEAN + ", " + BEAN2 + "]"));
+    }
+
+    /**
+     * Tests whether unresolved dependencies make a report invalid.
+     */
+    @Test
+    public void testUnresolvedDependencies()
+    {
+        Dependency dep = NameDependency.getInstance(BEAN2);
+        Map<String, Set<Dependency>> unresolved =
+                new LinkedHashMap<String, Set<Dependency>>();
+        unresolved.put(BEAN, Collections.singleton(dep));
+        BeanGraphReport report =
+                new BeanGraphReport(null, unresolved, null, null);
+        unresolved.clear();
+        assertEquals("Wrong unresolved dependencies", Collections.singleton(
+                dep), report.getUnresolvedDependencies().get(BEAN));
+        assertFalse("Valid", report.isValid());
+        assertTrue("Bean not found", report.toString().contains(
+                "Unresolved dependencies of bean " + BEAN));
+    }
+
+    /**
+     * Tests a report with creation times and errors.
+     */
+    @Test
+    public void testCreation()
+    {
+        Map<String, Long> times = new LinkedHashMap<String, Long>();
+        times.put(BEAN2, 2000000L);
+        times.put(BEAN, 1000000L);
+        Map<String, Throwable> errors = new LinkedHashMap<String, Throwable>();
+        errors.put("failedBean", new InjectionException("Test exception"));
+        BeanGraphReport report =
+                new BeanGraphReport(null, null, times, errors);
+        assertEquals("Wrong order", Arrays.asList(BEAN2, BEAN),
+                new ArrayList<String>(report.getCreationTimes().keySet()));
+        assertTrue("Not valid", report.isValid());
+        assertFalse("Successful", report.isSuccessful());
+        String s = report.toString();
+        assertTrue("Time not found: " + s, s.contains("Created bean " + BEAN2
+                + " in 2 ms"));
+        assertTrue("Error not found: " + s, s
+                .contains("Could not create bean failedBean"));
+    }
+
+    /**
+     * Tests that the data of a report cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCreationTimesUnmodifiable()
+    {
+        Map<String, Long> times = new LinkedHashMap<String, Long>();
+        times.put(BEAN, 1L);
+        new BeanGraphReport(null, null, times, null).getCreationTimes().put(
+                BEAN2, 2L);
+    }
+}
@@ -99,6 +99,57 @@ public class TestInvocationHelper
                 Arrays.equals(paramTypes, m.getParameterTypes()));
     }
 
+    /**
+     * Tests whether the results of findUniqueMethod() are cached.
+     */
+    @Test
+    public void testFindUniqueMethodCached()
+    {
+        Class<?>[] paramTypes = new Class<?>[] {
+                String.class, Integer.TYPE, ReflectionTestClass.Mode.class
+        };
+        Object[] args = new Object[] {
+                STR_PARAM, INT_PARAM, MODE_PARAM
+        };
+        Method m1 =
+                helper.findUniqueMethod(ReflectionTestClass.class, METHOD_INIT,
+                        paramTypes, args);
+        ResolutionCache cache = InvocationHelper.getResolutionCache();
+        long hits = cache.getHitCount();
+        Method m2 =
+                new InvocationHelper().findUniqueMethod(
+                        ReflectionTestClass.class, METHOD_INIT, paramTypes,
+                        args);
+        assertSame("Different method", m1, m2);
+        assertTrue("No cache hit", cache.getHitCount() > hits);
+    }
+
+    /**
+     * Tests that a cached method is not used for arguments of a different
+     * type.
+     */
+    @Test
+    public void testFindUniqueMethodCachedDifferentArgumentTypes()
+    {
+        Class<?>[] paramTypes = new Class<?>[3];
+        Object[] args1 = new Object[] {
+                STR_PARAM, INT_PARAM, MODE_PARAM
+        };
+        Object[] args2 = new Object[] {
+                STR_PARAM, INT_PARAM, STR_PARAM
+        };
+        Method m1 =
+                helper.findUniqueMethod(ReflectionTestClass.class, METHOD_INIT,
+                        paramTypes, args1);
+        Method m2 =
+                helper.findUniqueMethod(ReflectionTestClass.class, METHOD_INIT,
+                        paramTypes, args2);
+        assertEquals("Wrong parameter type (1)",
+                ReflectionTestClass.Mode.class, m1.getParameterTypes()[2]);
+        assertEquals("Wrong parameter type (2)", String.class,
+                m2.getParameterTypes()[2]);
+    }
+
     /**
      * Tests findUniqueMethod() if a match can only be found if parameter types
      * are not matched exactly.
@@ -282,6 +333,30 @@ public class TestInvocationHelper
                 Arrays.equals(paramTypes, ctor.getParameterTypes()));
     }
 
+    /**
+     * Tests whether the results of findUniqueConstructor() are cached.
+     */
+    @Test
+    public void testFindUniqueConstructorCached()
+    {
+        Class<?>[] paramTypes = new Class<?>[] {
+                String.class, Integer.TYPE
+        };
+        Object[] args = new Object[] {
+                STR_PARAM, INT_PARAM
+        };
+        Constructor<ReflectionTestClass> ctor1 =
+                helper.findUniqueConstructor(ReflectionTestClass.class,
+                        paramTypes, args);
+        ResolutionCache cache = InvocationHelper.getResolutionCache();
+        long hits = cache.getHitCount();
+        Constructor<ReflectionTestClass> ctor2 =
+                helper.findUniqueConstructor(ReflectionTestClass.class,
+                        paramTypes, args);
+        assertSame("Different constructor", ctor1, ctor2);
+        assertTrue("No cache hit", cache.getHitCount() > hits);
+    }
+
     /**
      * Tests findUniqueConstructor() if the constructor can only be found if the
      * parameter types are not matched exactly.
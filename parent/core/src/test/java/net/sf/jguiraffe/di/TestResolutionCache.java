@@ -0,0 +1,191 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ResolutionCache}.
+ */
+public class TestResolutionCache
+{
+    /** Constant for the name of a test method. */
+    private static final String METHOD = "setStringProp";
+
+    /** Constant for a parameter types array. */
+    private static final Class<?>[] PARAM_TYPES = {
+        String.class
+    };
+
+    /** Constant for an arguments array. */
+    private static final Object[] ARGS = {
+        "test"
+    };
+
+    /** The cache to be tested. */
+    private ResolutionCache cache;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        cache = new ResolutionCache();
+    }
+
+    /**
+     * Returns the test method.
+     *
+     * @return the test method
+     * @throws NoSuchMethodException if the method cannot be found
+     */
+    private static Method testMethod() throws NoSuchMethodException
+    {
+        return ReflectionTestClass.class.getMethod(METHOD, PARAM_TYPES);
+    }
+
+    /**
+     * Tests a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertEquals("Wrong max entries",
+                ResolutionCache.DEFAULT_MAX_ENTRIES_PER_CLASS,
+                cache.getMaxEntriesPerClass());
+        assertEquals("Wrong hit count", 0, cache.getHitCount());
+        assertEquals("Wrong miss count", 0, cache.getMissCount());
+    }
+
+    /**
+     * Tries to create an instance with an invalid maximum size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidMaxEntries()
+    {
+        new ResolutionCache(0);
+    }
+
+    /**
+     * Tests whether a method can be stored and queried.
+     */
+    @Test
+    public void testPutAndGetMethod() throws NoSuchMethodException
+    {
+        Method m = testMethod();
+        assertNull("Got a method",
+                cache.getMethod(ReflectionTestClass.class, METHOD,
+                        PARAM_TYPES, ARGS));
+        cache.putMethod(ReflectionTestClass.class, METHOD, PARAM_TYPES, ARGS,
+                m);
+        assertSame("Wrong method", m, cache.getMethod(
+                ReflectionTestClass.class, METHOD, PARAM_TYPES.clone(),
+                new Object[] {
+                    "other"
+                }));
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+        assertEquals("Wrong miss count", 1, cache.getMissCount());
+    }
+
+    /**
+     * Tests that the types of arguments are part of the key.
+     */
+    @Test
+    public void testGetMethodDifferentArgumentType()
+            throws NoSuchMethodException
+    {
+        cache.putMethod(ReflectionTestClass.class, METHOD, PARAM_TYPES, ARGS,
+                testMethod());
+        assertNull("Got a method", cache.getMethod(ReflectionTestClass.class,
+                METHOD, PARAM_TYPES, new Object[] {
+                    null
+                }));
+    }
+
+    /**
+     * Tests that methods and constructors do not interfere.
+     */
+    @Test
+    public void testMethodsAndConstructorsDistinguished()
+            throws NoSuchMethodException
+    {
+        cache.putMethod(ReflectionTestClass.class, null, PARAM_TYPES, ARGS,
+                testMethod());
+        assertNull("Got a constructor", cache.getConstructor(
+                ReflectionTestClass.class, PARAM_TYPES, ARGS));
+    }
+
+    /**
+     * Tests whether a constructor can be stored and queried.
+     */
+    @Test
+    public void testPutAndGetConstructor() throws NoSuchMethodException
+    {
+        Constructor<ReflectionTestClass> ctor =
+                ReflectionTestClass.class.getConstructor(PARAM_TYPES);
+        cache.putConstructor(ReflectionTestClass.class, PARAM_TYPES, ARGS,
+                ctor);
+        assertSame("Wrong constructor", ctor, cache.getConstructor(
+                ReflectionTestClass.class, PARAM_TYPES, ARGS));
+    }
+
+    /**
+     * Tests that the number of entries per class is limited.
+     */
+    @Test
+    public void testMaxEntriesPerClass() throws NoSuchMethodException
+    {
+        cache = new ResolutionCache(2);
+        Method m = testMethod();
+        cache.putMethod(ReflectionTestClass.class, "m1", PARAM_TYPES, ARGS, m);
+        cache.putMethod(ReflectionTestClass.class, "m2", PARAM_TYPES, ARGS, m);
+        cache.putMethod(ReflectionTestClass.class, "m3", PARAM_TYPES, ARGS, m);
+        assertNull("Eldest entry not removed", cache.getMethod(
+                ReflectionTestClass.class, "m1", PARAM_TYPES, ARGS));
+        assertSame("Newest entry not found", m, cache.getMethod(
+                ReflectionTestClass.class, "m3", PARAM_TYPES, ARGS));
+    }
+
+    /**
+     * Tests whether the data of a class can be removed.
+     */
+    @Test
+    public void testClear() throws NoSuchMethodException
+    {
+        cache.putMethod(ReflectionTestClass.class, METHOD, PARAM_TYPES, ARGS,
+                testMethod());
+        cache.clear(ReflectionTestClass.class);
+        assertNull("Got a method", cache.getMethod(ReflectionTestClass.class,
+                METHOD, PARAM_TYPES, ARGS));
+    }
+
+    /**
+     * Tests whether the statistics can be reset.
+     */
+    @Test
+    public void testResetStatistics()
+    {
+        cache.getMethod(ReflectionTestClass.class, METHOD, PARAM_TYPES, ARGS);
+        cache.resetStatistics();
+        assertEquals("Wrong miss count", 0, cache.getMissCount());
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import net.sf.jguiraffe.di.BeanGraphReport;
+import net.sf.jguiraffe.di.BeanProvider;
+import net.sf.jguiraffe.di.Dependency;
+import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.ConstructorBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code BeanGraphAnalyzer}.
+ */
+public class TestBeanGraphAnalyzer
+{
+    /** Constant for the name of bean A. */
+    private static final String BEAN_A = "beanA";
+
+    /** Constant for the name of bean B. */
+    private static final String BEAN_B = "beanB";
+
+    /** Constant for the name of bean C. */
+    private static final String BEAN_C = "beanC";
+
+    /** The bean store. */
+    private DefaultBeanStore store;
+
+    /** The bean context. */
+    private DefaultBeanContext context;
+
+    /** An executor for creating beans. */
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        store = new DefaultBeanStore();
+        context = new DefaultBeanContext(store);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a provider which creates a list by passing the given dependency
+     * to the constructor of {@code ArrayList}.
+     *
+     * @param dep the dependency
+     * @return the provider
+     */
+    private static BeanProvider listCreator(Dependency dep)
+    {
+        return new ConstructorBeanProvider(new ConstructorInvocation(
+                ClassDescription.getInstance(ArrayList.class),
+                new ClassDescription[] {
+                    ClassDescription.getInstance(Collection.class)
+                }, dep));
+    }
+
+    /**
+     * Creates a provider which creates a list by passing the bean with the
+     * given name to the constructor of {@code ArrayList}.
+     *
+     * @param depName the name of the dependent bean
+     * @return the provider
+     */
+    private static BeanProvider listCreator(String depName)
+    {
+        return listCreator(NameDependency.getInstance(depName));
+    }
+
+    /**
+     * Creates a singleton provider for a list which is initialized with the
+     * bean with the given name.
+     *
+     * @param depName the name of the dependent bean
+     * @return the provider
+     */
+    private static SingletonBeanProvider listSingleton(String depName)
+    {
+        return new SingletonBeanProvider(listCreator(depName));
+    }
+
+    /**
+     * Creates a singleton provider for a list. The list is created using its
+     * default constructor; then the bean with the given name is added.
+     *
+     * @param depName the name of the bean to be added
+     * @return the provider
+     */
+    private static SingletonBeanProvider listSingletonWithInit(String depName)
+    {
+        return new SingletonBeanProvider(new ConstructorBeanProvider(
+                new ConstructorInvocation(ClassDescription
+                        .getInstance(ArrayList.class), null)),
+                new MethodInvocation("add", new ClassDescription[] {
+                    ClassDescription.getInstance(Object.class)
+                }, NameDependency.getInstance(depName)));
+    }
+
+    /**
+     * Creates a provider for a constant list.
+     *
+     * @return the provider
+     */
+    private static BeanProvider constantList()
+    {
+        return ConstantBeanProvider.getInstance(Arrays.asList("a", "b"));
+    }
+
+    /**
+     * Creates an analyzer for the test store.
+     *
+     * @return the analyzer
+     */
+    private BeanGraphAnalyzer createAnalyzer()
+    {
+        return new BeanGraphAnalyzer(store, context
+                .getInternalDependencyProvider());
+    }
+
+    /**
+     * Tests the validation of a correct bean graph.
+     */
+    @Test
+    public void testValidateNoProblems()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, constantList());
+        BeanGraphReport report = createAnalyzer().validate();
+        assertTrue("Not valid", report.isValid());
+        assertTrue("Got creation times", report.getCreationTimes().isEmpty());
+    }
+
+    /**
+     * Tests whether a named dependency which cannot be resolved is detected.
+     */
+    @Test
+    public void testValidateUnresolvedName()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        BeanGraphReport report = createAnalyzer().validate();
+        assertFalse("Valid", report.isValid());
+        assertEquals("Wrong unresolved dependencies", Collections
+                .singleton(NameDependency.getInstance(BEAN_B)), report
+                .getUnresolvedDependencies().get(BEAN_A));
+    }
+
+    /**
+     * Tests whether a class dependency which cannot be resolved is detected.
+     */
+    @Test
+    public void testValidateUnresolvedClass()
+    {
+        Dependency dep = ClassDependency.getInstance(Thread.class);
+        store.addBeanProvider(BEAN_A, new SingletonBeanProvider(
+                listCreator(dep)));
+        store.addBeanProvider(BEAN_B, listSingleton(BEAN_C));
+        store.addBeanProvider(BEAN_C, constantList());
+        BeanGraphReport report = createAnalyzer().validate();
+        assertEquals("Wrong number of unresolved beans", 1, report
+                .getUnresolvedDependencies().size());
+        assertEquals("Wrong unresolved dependencies", Collections
+                .singleton(dep), report.getUnresolvedDependencies().get(
+                BEAN_A));
+    }
+
+    /**
+     * Tests whether a class dependency can be resolved.
+     */
+    @Test
+    public void testValidateClassDependency()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, new SingletonBeanProvider(
+                listCreator(ClassDependency.getInstance(Set.class))));
+        store.addBeanProvider(BEAN_C, ConstantBeanProvider
+                .getInstance(new HashSet<String>()));
+        assertTrue("Not valid", createAnalyzer().validate().isValid());
+    }
+
+    /**
+     * Tests whether dependencies are resolved in the parent store.
+     */
+    @Test
+    public void testValidateParentStore()
+    {
+        DefaultBeanStore parent = new DefaultBeanStore();
+        parent.addBeanProvider(BEAN_B, listSingleton(BEAN_C));
+        parent.addBeanProvider(BEAN_C, constantList());
+        store.setParent(parent);
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        assertTrue("Not valid", createAnalyzer().validate().isValid());
+    }
+
+    /**
+     * Tests whether a cycle of creation dependencies is detected.
+     */
+    @Test
+    public void testValidateCycle()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, listSingleton(BEAN_C));
+        store.addBeanProvider(BEAN_C, listSingleton(BEAN_A));
+        BeanGraphReport report = createAnalyzer().validate();
+        assertFalse("Valid", report.isValid());
+        assertEquals("Wrong number of cycles", 1, report.getCycles().size());
+        assertEquals("Wrong cycle", new HashSet<String>(Arrays.asList(BEAN_A,
+                BEAN_B, BEAN_C)), new HashSet<String>(report.getCycles().get(
+                0)));
+    }
+
+    /**
+     * Tests whether a bean depending on itself is detected as cycle.
+     */
+    @Test
+    public void testValidateSelfCycle()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_A));
+        BeanGraphReport report = createAnalyzer().validate();
+        assertEquals("Wrong cycles", Collections.singletonList(Collections
+                .singletonList(BEAN_A)), report.getCycles());
+    }
+
+    /**
+     * Tests that a cycle involving an initialization dependency is not
+     * reported.
+     */
+    @Test
+    public void testValidateCycleInitializer()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, listSingletonWithInit(BEAN_A));
+        assertTrue("Not valid", createAnalyzer().validate().isValid());
+    }
+
+    /**
+     * Tests that anonymous beans in a cycle are reported under a distinct
+     * label.
+     */
+    @Test
+    public void testValidateCycleAnonymousBean()
+    {
+        String anonName = store.addAnonymousBeanProvider(1,
+                listCreator(BEAN_A));
+        store.addBeanProvider(BEAN_A, listSingleton(anonName));
+        BeanGraphReport report = createAnalyzer().validate();
+        assertEquals("Wrong number of cycles", 1, report.getCycles().size());
+        assertEquals("Wrong cycle", new HashSet<String>(Arrays.asList(BEAN_A,
+                BEAN_A + ".<anonymous1>")), new HashSet<String>(report
+                .getCycles().get(0)));
+    }
+
+    /**
+     * Tests that different anonymous beans referenced by the same bean get
+     * different labels.
+     */
+    @Test
+    public void testValidateUnresolvedAnonymousBeans()
+    {
+        String anon1 = store.addAnonymousBeanProvider(1, listCreator(BEAN_B));
+        String anon2 = store.addAnonymousBeanProvider(2, listCreator(BEAN_C));
+        store.addBeanProvider(BEAN_A, new SingletonBeanProvider(
+                listCreator(anon1), new MethodInvocation("addAll",
+                        new ClassDescription[] {
+                            ClassDescription.getInstance(Collection.class)
+                        }, NameDependency.getInstance(anon2))));
+        Map<String, Set<Dependency>> unresolved = createAnalyzer().validate()
+                .getUnresolvedDependencies();
+        assertEquals("Wrong labels", new HashSet<String>(Arrays.asList(
+                BEAN_A + ".<anonymous1>", BEAN_A + ".<anonymous2>")),
+                unresolved.keySet());
+        Set<Dependency> deps = new HashSet<Dependency>();
+        for (Set<Dependency> d : unresolved.values())
+        {
+            deps.addAll(d);
+        }
+        assertEquals("Wrong unresolved dependencies", new HashSet<Dependency>(
+                Arrays.asList(NameDependency.getInstance(BEAN_B),
+                        NameDependency.getInstance(BEAN_C))), deps);
+    }
+
+    /**
+     * Tests whether all singleton beans can be created.
+     */
+    @Test
+    public void testPreloadSingletonsAll()
+    {
+        SingletonBeanProvider pa = listSingleton(BEAN_B);
+        SingletonBeanProvider pb = listSingleton(BEAN_C);
+        store.addBeanProvider(BEAN_A, pa);
+        store.addBeanProvider(BEAN_B, pb);
+        store.addBeanProvider(BEAN_C, constantList());
+        BeanGraphReport report =
+                createAnalyzer().preloadSingletons(context, null, executor);
+        assertTrue("Not successful", report.isSuccessful());
+        assertEquals("Wrong creation order", Arrays.asList(BEAN_B, BEAN_A),
+                new ArrayList<String>(report.getCreationTimes().keySet()));
+        assertNotNull("Bean A not created", pa.getCreatedBean());
+        assertNotNull("Bean B not created", pb.getCreatedBean());
+    }
+
+    /**
+     * Tests whether the beans to be created can be selected.
+     */
+    @Test
+    public void testPreloadSingletonsSelected()
+    {
+        SingletonBeanProvider pa = listSingleton(BEAN_C);
+        SingletonBeanProvider pb = listSingleton(BEAN_C);
+        store.addBeanProvider(BEAN_A, pa);
+        store.addBeanProvider(BEAN_B, pb);
+        store.addBeanProvider(BEAN_C, constantList());
+        BeanGraphReport report = createAnalyzer().preloadSingletons(context,
+                Arrays.asList(BEAN_B, BEAN_C), executor);
+        assertEquals("Wrong created beans", Collections.singleton(BEAN_B),
+                report.getCreationTimes().keySet());
+        assertEquals("Bean A created", null, pa.getCreatedBean());
+    }
+
+    /**
+     * Tests that singleton beans which already exist are not created again.
+     */
+    @Test
+    public void testPreloadSingletonsExisting()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_C));
+        store.addBeanProvider(BEAN_C, constantList());
+        context.getBean(BEAN_A);
+        BeanGraphReport report =
+                createAnalyzer().preloadSingletons(context, null, executor);
+        assertTrue("Got creation times", report.getCreationTimes().isEmpty());
+    }
+
+    /**
+     * Tests whether an unknown bean name is reported as error.
+     */
+    @Test
+    public void testPreloadSingletonsUnknownBean()
+    {
+        BeanGraphReport report = createAnalyzer().preloadSingletons(context,
+                Collections.singleton(BEAN_A), executor);
+        assertFalse("Successful", report.isSuccessful());
+        assertTrue("Wrong exception",
+                report.getCreationErrors().get(BEAN_A)
+                        instanceof InjectionException);
+    }
+
+    /**
+     * Tests whether an exception during the creation of a bean is handled.
+     * Beans depending on the failed bean are processed nevertheless.
+     */
+    @Test
+    public void testPreloadSingletonsCreationError()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, listSingleton(BEAN_C));
+        BeanGraphReport report =
+                createAnalyzer().preloadSingletons(context, null, executor);
+        assertEquals("Wrong errors", new HashSet<String>(Arrays.asList(
+                BEAN_A, BEAN_B)), report.getCreationErrors().keySet());
+        assertTrue("Got creation times", report.getCreationTimes().isEmpty());
+        assertEquals("Wrong unresolved dependencies", Collections
+                .singleton(BEAN_B), report.getUnresolvedDependencies()
+                .keySet());
+    }
+
+    /**
+     * Tests whether beans with a cycle caused by an initialization dependency
+     * can be created.
+     */
+    @Test
+    public void testPreloadSingletonsCycleInitializer()
+    {
+        store.addBeanProvider(BEAN_A, listSingleton(BEAN_B));
+        store.addBeanProvider(BEAN_B, listSingletonWithInit(BEAN_A));
+        BeanGraphReport report =
+                createAnalyzer().preloadSingletons(context, null, executor);
+        assertTrue("Not successful", report.isSuccessful());
+        assertEquals("Wrong number of created beans", 2, report
+                .getCreationTimes().size());
+    }
+
+    /**
+     * Tests whether a larger graph can be created using an executor which
+     * runs tasks in the calling thread. Each bean must be created once.
+     */
+    @Test
+    public void testPreloadSingletonsSynchronousExecutor()
+    {
+        final int count = 16;
+        store.addBeanProvider(BEAN_C, constantList());
+        for (int i = 0; i < count; i++)
+        {
+            String dep = (i % 4 == 0) ? BEAN_C : BEAN_A + (i - 1);
+            store.addBeanProvider(BEAN_A + i, listSingleton(dep));
+        }
+        Executor syncExec = new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                command.run();
+            }
+        };
+        BeanGraphReport report =
+                createAnalyzer().preloadSingletons(context, null, syncExec);
+        assertTrue("Not successful", report.isSuccessful());
+        assertEquals("Wrong number of created beans", count, report
+                .getCreationTimes().size());
+    }
+
+    /**
+     * Tests that tasks rejected by the executor are executed directly.
+     */
+    @Test
+    public void testPreloadSingletonsRejectedExecution()
+    {
+        SingletonBeanProvider pa = listSingleton(BEAN_C);
+        store.addBeanProvider(BEAN_A, pa);
+        store.addBeanProvider(BEAN_C, constantList());
+        Executor rejectingExec = new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                throw new RejectedExecutionException("Test exception");
+            }
+        };
+        BeanGraphReport report = createAnalyzer().preloadSingletons(context,
+                null, rejectingExec);
+        assertTrue("Not successful", report.isSuccessful());
+        assertNotNull("Bean not created", pa.getCreatedBean());
+    }
+}
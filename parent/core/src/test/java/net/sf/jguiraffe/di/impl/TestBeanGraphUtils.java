@@ -0,0 +1,221 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.di.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import net.sf.jguiraffe.di.BeanContext;
+import net.sf.jguiraffe.di.BeanGraphReport;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.ConstructorBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code BeanGraphUtils}.
+ */
+public class TestBeanGraphUtils
+{
+    /** Constant for the name of a test bean. */
+    private static final String BEAN_NAME = "testBean";
+
+    /** Constant for the test bean. */
+    private static final Object TEST_BEAN = "A test bean";
+
+    /** The bean store. */
+    private DefaultBeanStore store;
+
+    /** The bean context. */
+    private DefaultBeanContext context;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        store = new DefaultBeanStore();
+        context = new DefaultBeanContext(store);
+    }
+
+    /**
+     * Creates an executor which executes tasks on a new thread.
+     *
+     * @return the executor
+     */
+    private static Executor createExecutor()
+    {
+        return new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                new Thread(command).start();
+            }
+        };
+    }
+
+    /**
+     * Tests whether the bean graph of the default store can be validated.
+     */
+    @Test
+    public void testValidateBeanGraph()
+    {
+        store.addBeanProvider(BEAN_NAME, new SingletonBeanProvider(
+                ConstantBeanProvider.getInstance(TEST_BEAN)));
+        BeanGraphReport report = BeanGraphUtils.validateBeanGraph(context);
+        assertTrue("Not valid", report.isValid());
+    }
+
+    /**
+     * Tests whether the bean graph of a specific store can be validated.
+     */
+    @Test
+    public void testValidateBeanGraphStore()
+    {
+        DefaultBeanStore otherStore = new DefaultBeanStore();
+        otherStore.addBeanProvider(BEAN_NAME, new SingletonBeanProvider(
+                new ConstructorBeanProvider(new ConstructorInvocation(
+                        ClassDescription.getInstance(StringBuilder.class),
+                        null, NameDependency.getInstance("unknown")))));
+        assertTrue("Default store not valid", BeanGraphUtils
+                .validateBeanGraph(context).isValid());
+        assertFalse("Other store valid", BeanGraphUtils.validateBeanGraph(
+                context, otherStore).isValid());
+    }
+
+    /**
+     * Tries to validate the bean graph of a null store.
+     */
+    @Test(expected = InjectionException.class)
+    public void testValidateBeanGraphNullStore()
+    {
+        BeanGraphUtils.validateBeanGraph(context, null);
+    }
+
+    /**
+     * Tries to validate the bean graph without a context.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateBeanGraphNullContext()
+    {
+        BeanGraphUtils.validateBeanGraph(null);
+    }
+
+    /**
+     * Tests whether singleton beans in the default store can be created.
+     */
+    @Test
+    public void testPreloadSingletons()
+    {
+        SingletonBeanProvider provider = new SingletonBeanProvider(
+                ConstantBeanProvider.getInstance(TEST_BEAN));
+        store.addBeanProvider(BEAN_NAME, provider);
+        BeanGraphReport report = BeanGraphUtils.preloadSingletons(context,
+                null, createExecutor());
+        assertTrue("Not successful", report.isSuccessful());
+        assertSame("Bean not created", TEST_BEAN, provider.getCreatedBean());
+        assertTrue("No creation time", report.getCreationTimes()
+                .containsKey(BEAN_NAME));
+    }
+
+    /**
+     * Tests that singleton beans are created through a wrapped context using
+     * the default store of the wrapper.
+     */
+    @Test
+    public void testPreloadSingletonsWrapper()
+    {
+        DefaultBeanStore wrapperStore = new DefaultBeanStore();
+        SingletonBeanProvider provider = new SingletonBeanProvider(
+                ConstantBeanProvider.getInstance(TEST_BEAN));
+        wrapperStore.addBeanProvider(BEAN_NAME, provider);
+        BeanContextWrapper wrapper = new BeanContextWrapper(context,
+                wrapperStore);
+        BeanGraphReport report = BeanGraphUtils.preloadSingletons(wrapper,
+                Collections.singleton(BEAN_NAME), createExecutor());
+        assertTrue("Not successful", report.isSuccessful());
+        assertSame("Bean not created", TEST_BEAN, provider.getCreatedBean());
+    }
+
+    /**
+     * Tries to preload singleton beans without an executor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPreloadSingletonsNoExecutor()
+    {
+        BeanGraphUtils.preloadSingletons(context, null, store, null);
+    }
+
+    /**
+     * Tries to preload singleton beans from a null store.
+     */
+    @Test(expected = InjectionException.class)
+    public void testPreloadSingletonsNullStore()
+    {
+        BeanGraphUtils.preloadSingletons(context, null, null, EasyMock
+                .createMock(Executor.class));
+    }
+
+    /**
+     * Tests whether the internal dependency provider of a default context is
+     * used.
+     */
+    @Test
+    public void testFetchDependencyProviderDefaultContext()
+    {
+        assertSame("Wrong dependency provider", context
+                .getInternalDependencyProvider(), BeanGraphUtils
+                .fetchDependencyProvider(context));
+    }
+
+    /**
+     * Tests whether wrapped contexts are unwrapped when determining the
+     * dependency provider.
+     */
+    @Test
+    public void testFetchDependencyProviderWrapper()
+    {
+        BeanContextWrapper wrapper = new BeanContextWrapper(
+                new BeanContextWrapper(context));
+        assertSame("Wrong dependency provider", context
+                .getInternalDependencyProvider(), BeanGraphUtils
+                .fetchDependencyProvider(wrapper));
+    }
+
+    /**
+     * Tests the dependency provider used for an unknown context
+     * implementation.
+     */
+    @Test
+    public void testFetchDependencyProviderOtherContext()
+    {
+        BeanContext ctx = EasyMock.createMock(BeanContext.class);
+        DefaultClassLoaderProvider clp = new DefaultClassLoaderProvider();
+        EasyMock.expect(ctx.getClassLoaderProvider()).andReturn(clp);
+        EasyMock.replay(ctx);
+        DependencyProvider dp = BeanGraphUtils.fetchDependencyProvider(ctx);
+        assertSame("Wrong class loader provider", clp,
+                ((RestrictedDependencyProvider) dp).getClassLoaderProvider());
+        EasyMock.verify(ctx);
+    }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -376,4 +377,91 @@ public class TestCombinedBeanStore
         assertNull("Got a conversion helper", store.getConversionHelper());
         verify(children);
     }
+
+    /**
+     * Creates a {@code DefaultBeanStore} with a provider for a bean of the
+     * given class.
+     *
+     * @param name the name of the provider
+     * @param cls the bean class
+     * @return the store
+     */
+    private static DefaultBeanStore createStore(String name, Class<?> cls)
+    {
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andReturn(cls)
+                .anyTimes();
+        EasyMock.replay(provider);
+        DefaultBeanStore store = new DefaultBeanStore();
+        store.addBeanProvider(name, provider);
+        return store;
+    }
+
+    /**
+     * Tests whether providers can be found by class in indexed child stores.
+     */
+    @Test
+    public void testFindProviderName()
+    {
+        CombinedBeanStore store = new CombinedBeanStore(createStore(
+                PROVIDER_NAME, String.class), createStore("number",
+                Integer.class));
+        assertEquals("Wrong provider for String", PROVIDER_NAME,
+                store.findProviderName(CharSequence.class, null));
+        assertEquals("Wrong provider for Number", "number",
+                store.findProviderName(Number.class, null));
+        assertNull("Got a provider", store.findProviderName(Runnable.class,
+                null));
+    }
+
+    /**
+     * Tests findProviderName() for a child store that is not indexed.
+     */
+    @Test
+    public void testFindProviderNameNotIndexed()
+    {
+        BeanStore child = EasyMock.createMock(BeanStore.class);
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.expect(child.providerNames()).andReturn(
+                Collections.singleton(PROVIDER_NAME)).anyTimes();
+        EasyMock.expect(child.getBeanProvider(PROVIDER_NAME)).andReturn(
+                provider).anyTimes();
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andReturn(
+                Integer.class);
+        EasyMock.replay(child, provider);
+        CombinedBeanStore store = new CombinedBeanStore(createStore("str",
+                String.class), child);
+        assertEquals("Wrong provider", PROVIDER_NAME,
+                store.findProviderName(Number.class, null));
+        EasyMock.verify(child, provider);
+    }
+
+    /**
+     * Tests that a provider hidden by another child store is not returned.
+     */
+    @Test
+    public void testFindProviderNameHidden()
+    {
+        CombinedBeanStore store = new CombinedBeanStore(createStore(
+                PROVIDER_NAME, String.class), createStore(PROVIDER_NAME,
+                Integer.class));
+        assertNull("Got a provider", store.findProviderName(Number.class,
+                null));
+        assertEquals("Wrong provider", PROVIDER_NAME,
+                store.findProviderName(String.class, null));
+    }
+
+    /**
+     * Tests whether the classes of all beans can be queried.
+     */
+    @Test
+    public void testBeanClasses()
+    {
+        CombinedBeanStore store = new CombinedBeanStore(createStore(
+                PROVIDER_NAME, String.class), createStore(PROVIDER_NAME,
+                Integer.class), createStore("number", Long.class));
+        assertEquals("Wrong classes", new HashSet<Class<?>>(Arrays
+                .<Class<?>> asList(String.class, Long.class)), store
+                .beanClasses(null));
+    }
 }
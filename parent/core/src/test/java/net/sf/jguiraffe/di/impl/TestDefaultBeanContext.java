@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.sf.jguiraffe.di.BeanContextClient;
 import net.sf.jguiraffe.di.BeanProvider;
@@ -36,6 +38,8 @@ import net.sf.jguiraffe.di.ClassLoaderProvider;
 import net.sf.jguiraffe.di.Dependency;
 import net.sf.jguiraffe.di.DependencyProvider;
 import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
 
 import org.easymock.EasyMock;
 import org.junit.Before;
@@ -564,6 +568,82 @@ public class TestDefaultBeanContext extends AbstractDependentProviderTest
                 .getBean(BEAN_PREFIX));
     }
 
+    /**
+     * Tests that an already created singleton bean can be obtained without
+     * a transaction. The root store is locked by another thread; nevertheless,
+     * the bean can be retrieved.
+     */
+    @Test
+    public void testGetBeanExistingSingletonNoLock()
+            throws InterruptedException
+    {
+        store.addBeanProvider(BEAN_PREFIX, new SingletonBeanProvider(
+                ConstantBeanProvider.getInstance(TEST_BEAN)));
+        assertSame("Wrong bean (1)", TEST_BEAN, context.getBean(BEAN_PREFIX));
+        final AtomicReference<Object> beanRef = new AtomicReference<Object>();
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                beanRef.set(context.getBean(BEAN_PREFIX));
+            }
+        };
+
+        synchronized (store)
+        {
+            t.start();
+            t.join(5000);
+        }
+        assertSame("Wrong bean (2)", TEST_BEAN, beanRef.get());
+    }
+
+    /**
+     * Tests that the dependency of a bean is resolved only once per request.
+     * The provider resolved for the singleton check has to be reused by the
+     * transaction; later requests are served from the cached closure.
+     */
+    @Test
+    public void testGetBeanResolvesDependencyOnce()
+    {
+        store.addBeanProvider(BEAN_PREFIX,
+                ConstantBeanProvider.getInstance(TEST_BEAN));
+        final Dependency nameDep = NameDependency.getInstance(BEAN_PREFIX);
+        final AtomicInteger resolveCount = new AtomicInteger();
+        Dependency dep = new Dependency()
+        {
+            public BeanProvider resolve(BeanStore store,
+                    DependencyProvider depProvider)
+            {
+                resolveCount.incrementAndGet();
+                return nameDep.resolve(store, depProvider);
+            }
+        };
+        assertSame("Wrong bean (1)", TEST_BEAN, context.getBean(dep, store));
+        assertEquals("Wrong number of resolve operations (1)", 1,
+                resolveCount.get());
+        assertSame("Wrong bean (2)", TEST_BEAN, context.getBean(dep, store));
+        assertEquals("Wrong number of resolve operations (2)", 1,
+                resolveCount.get());
+    }
+
+    /**
+     * Tests that a cached dependency closure becomes invalid when a singleton
+     * bean it contains has been created.
+     */
+    @Test
+    public void testGetBeanSingletonClosureInvalidated()
+    {
+        store.addBeanProvider(BEAN_PREFIX, new SingletonBeanProvider(
+                ConstantBeanProvider.getInstance(TEST_BEAN)));
+        context.getBean(BEAN_PREFIX);
+        DependencyClosure closure = store.getDependencyClosure(NameDependency
+                .getInstance(BEAN_PREFIX));
+        assertNotNull("No cached closure", closure);
+        assertFalse("Closure still valid", closure.isValid());
+        assertSame("Wrong bean", TEST_BEAN, context.getBean(BEAN_PREFIX));
+    }
+
     /**
      * Tests searching for a bean provider in the default bean store.
      */
@@ -21,11 +21,16 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import net.sf.jguiraffe.di.BeanProvider;
 import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.ConversionHelper;
+import net.sf.jguiraffe.di.DependencyProvider;
+import net.sf.jguiraffe.di.InjectionException;
 
 import org.easymock.EasyMock;
 import org.junit.Before;
@@ -69,6 +74,21 @@ public class TestDefaultBeanStore
         return mock;
     }
 
+    /**
+     * Creates a provider mock object which returns the given bean class.
+     *
+     * @param cls the bean class
+     * @return the provider mock
+     */
+    private static BeanProvider createProvider(Class<?> cls)
+    {
+        BeanProvider mock = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(mock.getBeanClass(null)).andReturn(cls)
+                .anyTimes();
+        EasyMock.replay(mock);
+        return mock;
+    }
+
     /**
      * Tests the default constructor.
      */
@@ -357,4 +377,168 @@ public class TestDefaultBeanStore
                 DefaultBeanStore.fetchConversionHelper(store, false));
         EasyMock.verify(parent1, parent2);
     }
+
+    /**
+     * Tests whether providers can be found by their bean class.
+     */
+    @Test
+    public void testFindProviderName()
+    {
+        store.addBeanProvider(PROVIDER_NAME, createProvider(String.class));
+        store.addBeanProvider("number", createProvider(Integer.class));
+        assertEquals("Wrong provider for String", PROVIDER_NAME,
+                store.findProviderName(String.class, null));
+        assertEquals("Wrong provider for CharSequence", PROVIDER_NAME,
+                store.findProviderName(CharSequence.class, null));
+        assertEquals("Wrong provider for Number", "number",
+                store.findProviderName(Number.class, null));
+        assertNull("Got a provider", store.findProviderName(Runnable.class,
+                null));
+    }
+
+    /**
+     * Tests that the classes of providers are resolved only once.
+     */
+    @Test
+    public void testFindProviderNameCached()
+    {
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andReturn(
+                String.class);
+        EasyMock.replay(provider);
+        store.addBeanProvider(PROVIDER_NAME, provider);
+        store.findProviderName(String.class, null);
+        store.findProviderName(Runnable.class, null);
+        assertEquals("Wrong provider", PROVIDER_NAME,
+                store.findProviderName(Comparable.class, null));
+        assertEquals("Wrong classes", Collections.singleton(String.class),
+                store.beanClasses(null));
+        EasyMock.verify(provider);
+    }
+
+    /**
+     * Tests that anonymous providers are not found by class.
+     */
+    @Test
+    public void testFindProviderNameAnonymous()
+    {
+        store.addAnonymousBeanProvider(1, createProvider(String.class));
+        assertNull("Got a provider", store.findProviderName(String.class,
+                null));
+    }
+
+    /**
+     * Tests that the index is discarded when a provider is added.
+     */
+    @Test
+    public void testFindProviderNameAfterAdd()
+    {
+        assertNull("Got a provider", store.findProviderName(String.class,
+                null));
+        store.addBeanProvider(PROVIDER_NAME, createProvider(String.class));
+        assertEquals("Wrong provider", PROVIDER_NAME,
+                store.findProviderName(String.class, null));
+    }
+
+    /**
+     * Tests that the index is discarded when a provider is removed.
+     */
+    @Test
+    public void testFindProviderNameAfterRemove()
+    {
+        store.addBeanProvider(PROVIDER_NAME, createProvider(String.class));
+        store.findProviderName(String.class, null);
+        store.removeBeanProvider(PROVIDER_NAME);
+        assertNull("Got a provider", store.findProviderName(String.class,
+                null));
+    }
+
+    /**
+     * Tests that the index is discarded when the store is cleared.
+     */
+    @Test
+    public void testFindProviderNameAfterClear()
+    {
+        store.addBeanProvider(PROVIDER_NAME, createProvider(String.class));
+        assertEquals("Wrong classes", Collections.singleton(String.class),
+                store.beanClasses(null));
+        store.clear();
+        assertTrue("Got classes", store.beanClasses(null).isEmpty());
+    }
+
+    /**
+     * Tests the behavior if the class of a provider cannot be resolved.
+     */
+    @Test(expected = InjectionException.class)
+    public void testFindProviderNameClassError()
+    {
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andThrow(
+                new InjectionException("Test exception")).anyTimes();
+        EasyMock.replay(provider);
+        store.addBeanProvider(PROVIDER_NAME, provider);
+        store.findProviderName(String.class, null);
+    }
+
+    /**
+     * Tests that a failed attempt to create the index is remembered. Later
+     * queries are answered by a scan without trying to create the index
+     * again.
+     */
+    @Test
+    public void testFindProviderNameIndexFailureRemembered()
+    {
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andThrow(
+                new InjectionException("Test exception"));
+        EasyMock.<Class<?>> expect(provider.getBeanClass(null)).andReturn(
+                String.class).times(3);
+        EasyMock.replay(provider);
+        store.addBeanProvider(PROVIDER_NAME, provider);
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals("Wrong provider " + i, PROVIDER_NAME,
+                    store.findProviderName(String.class, null));
+        }
+        EasyMock.verify(provider);
+    }
+
+    /**
+     * Tests that the index is created anew if a dependency provider with
+     * other class loaders is used.
+     */
+    @Test
+    public void testFindProviderNameOtherDependencyProvider()
+    {
+        DependencyProvider dp1 = EasyMock.createMock(DependencyProvider.class);
+        DependencyProvider dp2 = EasyMock.createMock(DependencyProvider.class);
+        BeanProvider provider = EasyMock.createMock(BeanProvider.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(dp1)).andReturn(
+                String.class);
+        EasyMock.<Class<?>> expect(provider.getBeanClass(dp2)).andReturn(
+                Integer.class);
+        EasyMock.replay(dp1, dp2, provider);
+        store.addBeanProvider(PROVIDER_NAME, provider);
+        assertEquals("Wrong provider (1)", PROVIDER_NAME,
+                store.findProviderName(String.class, dp1));
+        assertEquals("Wrong provider (2)", PROVIDER_NAME,
+                store.findProviderName(CharSequence.class, dp1));
+        assertEquals("Wrong provider (3)", PROVIDER_NAME,
+                store.findProviderName(Number.class, dp2));
+        EasyMock.verify(dp1, dp2, provider);
+    }
+
+    /**
+     * Tests whether the classes of all beans can be queried.
+     */
+    @Test
+    public void testBeanClasses()
+    {
+        store.addBeanProvider(PROVIDER_NAME, createProvider(String.class));
+        store.addBeanProvider("number", createProvider(Integer.class));
+        store.addBeanProvider("otherString", createProvider(String.class));
+        assertEquals("Wrong classes", new HashSet<Class<?>>(Arrays
+                .<Class<?>> asList(String.class, Integer.class)), store
+                .beanClasses(null));
+    }
 }
@@ -18,6 +18,7 @@ package net.sf.jguiraffe.di.impl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -25,6 +26,8 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 import net.sf.jguiraffe.di.BeanContext;
 import net.sf.jguiraffe.di.BeanInitializer;
@@ -35,6 +38,7 @@ import net.sf.jguiraffe.di.DependencyProvider;
 import net.sf.jguiraffe.di.InjectionException;
 import net.sf.jguiraffe.di.InvocationHelper;
 import net.sf.jguiraffe.di.ReflectionUtils;
+import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
 
 import org.easymock.EasyMock;
 import org.junit.Before;
@@ -226,6 +230,153 @@ public class TestDefaultDependencyProvider extends
         depProvider.initialize(initDependency, store);
     }
 
+    /**
+     * Creates a mock for the initial provider which expects the given number
+     * of dependency resolutions. The provider depends on a chain of other
+     * providers.
+     *
+     * @param resolveCount the expected number of getDependencies() calls
+     * @param lockCount the expected number of getLockID() calls
+     * @return the mock for the initial provider
+     */
+    private BeanProvider setUpInitProviderForCaching(int resolveCount,
+            int lockCount)
+    {
+        int idx = createProviderChain(5, false, Math.max(resolveCount,
+                lockCount + 1));
+        BeanProvider p = createProviderMock();
+        Set<Dependency> deps = new HashSet<Dependency>();
+        deps.add(NameDependency.getInstance(getProviderName(idx)));
+        EasyMock.expect(p.getDependencies()).andReturn(deps).times(
+                resolveCount);
+        EasyMock.expect(p.getLockID()).andReturn(null).times(lockCount);
+        store.addBeanProvider(INIT_PROVIDER_NAME, p);
+        return p;
+    }
+
+    /**
+     * Initializes a new dependency provider for the initial dependency.
+     *
+     * @return the dependency provider
+     */
+    private DefaultDependencyProvider initializeNewProvider()
+    {
+        DefaultDependencyProvider dp = new DefaultDependencyProvider(context);
+        assertTrue("Init not successful", dp.initialize(initDependency, store));
+        return dp;
+    }
+
+    /**
+     * Tests whether the dependency closure is cached by the bean store.
+     */
+    @Test
+    public void testInitializeCachedClosure()
+    {
+        setUpInitProviderForCaching(1, 2);
+        replayProviders();
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, store));
+        DefaultDependencyProvider dp = initializeNewProvider();
+        assertEquals("Wrong number of dependencies", 6, dp.getDependencyMap()
+                .size());
+        assertSame("Closure not cached", depProvider.getDependencyMap(), dp
+                .getDependencyMap());
+        EasyMock.verify(mockProviders.toArray());
+    }
+
+    /**
+     * Tests whether the cached closure is invalidated if a provider is added
+     * to the bean store.
+     */
+    @Test
+    public void testInitializeCachedClosureInvalidatedAdd()
+    {
+        setUpInitProviderForCaching(2, 2);
+        replayProviders();
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, store));
+        store.addBeanProvider("anotherProvider", ConstantBeanProvider
+                .getInstance(NAME_PREFIX));
+        DefaultDependencyProvider dp = initializeNewProvider();
+        assertNotSame("Closure still cached", depProvider.getDependencyMap(),
+                dp.getDependencyMap());
+        EasyMock.verify(store.getBeanProvider(INIT_PROVIDER_NAME));
+    }
+
+    /**
+     * Tests whether the cached closure is invalidated if a provider is removed
+     * from the bean store.
+     */
+    @Test
+    public void testInitializeCachedClosureInvalidatedRemove()
+    {
+        setUpInitProviderForCaching(2, 2);
+        int idx = addProvider(createProviderMock());
+        replayProviders();
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, store));
+        store.removeBeanProvider(getProviderName(idx));
+        initializeNewProvider();
+        EasyMock.verify(store.getBeanProvider(INIT_PROVIDER_NAME));
+    }
+
+    /**
+     * Tests whether the cached closure is invalidated if the parent store is
+     * changed.
+     */
+    @Test
+    public void testInitializeCachedClosureInvalidatedParentChanged()
+    {
+        DefaultBeanStore parent = new DefaultBeanStore();
+        store.setParent(parent);
+        setUpInitProviderForCaching(3, 3);
+        replayProviders();
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, store));
+        parent.addBeanProvider("parentProvider", ConstantBeanProvider
+                .getInstance(NAME_PREFIX));
+        initializeNewProvider();
+        store.setParent(null);
+        initializeNewProvider();
+        EasyMock.verify(store.getBeanProvider(INIT_PROVIDER_NAME));
+    }
+
+    /**
+     * Tests whether a lock is detected if a cached closure is used.
+     */
+    @Test
+    public void testInitializeCachedClosureLocked()
+    {
+        BeanProvider p = setUpInitProviderForCaching(1, 1);
+        EasyMock.expect(p.getLockID()).andReturn(LOCK_ID);
+        replayProviders();
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, store));
+        DefaultDependencyProvider dp = new DefaultDependencyProvider(context);
+        assertFalse("Lock not detected", dp.initialize(initDependency, store));
+        assertNull("Got a dependency map", dp.getDependencyMap());
+    }
+
+    /**
+     * Tests that no closure is cached if the bean store is not a default
+     * bean store.
+     */
+    @Test
+    public void testInitializeNoCachingForOtherStores()
+    {
+        setUpInitProviderForCaching(2, 2);
+        replayProviders();
+        CombinedBeanStore cstore = new CombinedBeanStore(store);
+        assertTrue("Init not successful", depProvider.initialize(
+                initDependency, cstore));
+        DefaultDependencyProvider dp = new DefaultDependencyProvider(context);
+        assertTrue("Init 2 not successful", dp.initialize(initDependency,
+                cstore));
+        assertNull("Got a cached closure", store
+                .getDependencyClosure(initDependency));
+        EasyMock.verify(store.getBeanProvider(INIT_PROVIDER_NAME));
+    }
+
     /**
      * Helper method for creating some providers with dependencies. There will
      * also be some other providers that are no dependencies. The initial
@@ -15,9 +15,12 @@
  */
 package net.sf.jguiraffe.di.impl;
 
+import java.util.Collections;
+
 import org.easymock.EasyMock;
 
 import net.sf.jguiraffe.di.BeanProvider;
+import net.sf.jguiraffe.di.BeanStore;
 import net.sf.jguiraffe.di.DependencyProvider;
 import net.sf.jguiraffe.di.InjectionException;
 import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
@@ -304,6 +307,24 @@ public class TestDependencies extends TestCase
         EasyMock.verify(depProvider);
     }
 
+    /**
+     * Tests resolving a class dependency in a store which does not support an
+     * index for class-based lookups.
+     */
+    public void testResolveByClassNotIndexedStore()
+    {
+        BeanStore mockStore = EasyMock.createMock(BeanStore.class);
+        EasyMock.expect(mockStore.providerNames()).andReturn(
+                Collections.singleton(BEAN_NAME));
+        EasyMock.expect(mockStore.getBeanProvider(BEAN_NAME)).andReturn(
+                dependentProvider);
+        EasyMock.replay(mockStore);
+        assertSame("Wrong bean provider", dependentProvider, ClassDependency
+                .getInstance(MyBeanClass.class).resolve(mockStore,
+                        getDependencyProvider()));
+        EasyMock.verify(mockStore);
+    }
+
     /**
      * Tests resolving a class dependency that does not exist. This should cause
      * an exception.
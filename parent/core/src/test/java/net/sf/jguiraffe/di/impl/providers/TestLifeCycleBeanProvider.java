@@ -464,6 +464,19 @@ public class TestLifeCycleBeanProvider
         performFetchBeanTest();
         provider.resetBean();
         assertFalse("Bean still present", provider.hasBean());
+        assertNull("Got an initialized bean", provider.getInitializedBean());
+        verify();
+    }
+
+    /**
+     * Tests whether the initialized bean instance can be queried.
+     */
+    @Test
+    public void testGetInitializedBean()
+    {
+        performFetchBeanTest();
+        assertSame("Wrong initialized bean", TEST_BEAN,
+                provider.getInitializedBean());
         verify();
     }
 
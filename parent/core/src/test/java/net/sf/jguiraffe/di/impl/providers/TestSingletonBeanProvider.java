@@ -149,6 +149,27 @@ public class TestSingletonBeanProvider
         EasyMock.verify(depProvider);
     }
 
+    /**
+     * Tests getCreatedBean() if no bean has been created yet.
+     */
+    @Test
+    public void testGetCreatedBeanNotYetCreated()
+    {
+        assertNull("Got a bean", provider.getCreatedBean());
+    }
+
+    /**
+     * Tests whether getCreatedBean() returns an already created bean.
+     */
+    @Test
+    public void testGetCreatedBeanExisting()
+    {
+        DependencyProvider depProvider = performGetBeanTest();
+        assertSame("Wrong bean", provider.getBean(depProvider),
+                provider.getCreatedBean());
+        EasyMock.verify(depProvider);
+    }
+
     /**
      * Tests the lock ID handling before a bean was requested.
      */
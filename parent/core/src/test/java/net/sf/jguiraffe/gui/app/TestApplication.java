@@ -21,13 +21,17 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.concurrent.CountDownLatch;
@@ -415,6 +419,173 @@ public class TestApplication
         checkRunningApp(app);
     }
 
+    /**
+     * Tests whether statistics about the startup are collected.
+     */
+    @Test
+    public void testRunStartupStatistics() throws Exception
+    {
+        app.setConfigResourceName(CONFIG_MAX);
+        app.mockInitGUI = true;
+        app.run();
+        StartupStatistics stats = app.getStartupStatistics();
+        for (String phase : new String[] {
+                StartupStatistics.PHASE_APPLICATION_CONTEXT,
+                StartupStatistics.PHASE_CONFIGURATION,
+                StartupStatistics.PHASE_CLASS_LOADER_PROVIDER,
+                StartupStatistics.PHASE_INIT_GUI,
+                StartupStatistics.PHASE_SHOW_MAIN_WINDOW
+        })
+        {
+            assertNotNull("Phase not found: " + phase, stats.getPhase(phase));
+        }
+        int beanDefCount = 0;
+        for (StartupStatistics.Phase phase : stats.getPhases())
+        {
+            if (phase.getName().startsWith(
+                    StartupStatistics.PHASE_BEAN_DEFINITION_PREFIX))
+            {
+                beanDefCount++;
+            }
+        }
+        assertTrue("Too few bean definitions: " + beanDefCount,
+                beanDefCount >= 2);
+        assertTrue("No beans counted", stats.getBeanCount() > 0);
+    }
+
+    /**
+     * Tests createWarmUpCommand() if no warm-up is configured.
+     */
+    @Test
+    public void testCreateWarmUpCommandNotConfigured()
+    {
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(new HierarchicalConfiguration());
+        assertNull("Got a command", app.createWarmUpCommand(ctx));
+    }
+
+    /**
+     * Tests whether the warm-up command is created from the configuration.
+     */
+    @Test
+    public void testCreateWarmUpCommand()
+    {
+        Configuration config = new HierarchicalConfiguration();
+        config.addProperty(Application.PROP_WARMUP_RESOURCE_GROUPS,
+                Arrays.asList(RES_GRP, "otherGroup"));
+        config.addProperty(Application.PROP_WARMUP_ICONS, "icon.gif");
+        config.addProperty(Application.PROP_WARMUP_BEANS, "myBean");
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(config);
+        WarmUpCommand cmd = (WarmUpCommand) app.createWarmUpCommand(ctx);
+        assertSame("Wrong context", ctx, cmd.getApplicationContext());
+        assertEquals("Wrong groups", Arrays.asList(RES_GRP, "otherGroup"),
+                cmd.getResourceGroups());
+        assertEquals("Wrong number of icons", 1, cmd.getIcons().size());
+        ClassPathLocator loc = (ClassPathLocator) cmd.getIcons().get(0);
+        assertEquals("Wrong icon", "icon.gif", loc.getResourceName());
+        assertEquals("Wrong beans", Collections.singletonList("myBean"),
+                cmd.getBeanNames());
+    }
+
+    /**
+     * Tests whether the options related to singleton beans are evaluated when
+     * creating the warm-up command.
+     */
+    @Test
+    public void testCreateWarmUpCommandSingletons()
+    {
+        Configuration config = new HierarchicalConfiguration();
+        config.addProperty(Application.PROP_WARMUP_SINGLETONS,
+                Arrays.asList("bean1", "bean2"));
+        config.addProperty(Application.PROP_WARMUP_VALIDATE_BEANS,
+                Boolean.TRUE);
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(config);
+        WarmUpCommand cmd = (WarmUpCommand) app.createWarmUpCommand(ctx);
+        assertEquals("Wrong singletons", Arrays.asList("bean1", "bean2"),
+                cmd.getSingletonNames());
+        assertTrue("Validate flag not set", cmd.isValidateBeanGraph());
+        assertTrue("Got beans", cmd.getBeanNames().isEmpty());
+    }
+
+    /**
+     * Tests that a warm-up command is created if only the validation of the
+     * bean graph is enabled.
+     */
+    @Test
+    public void testCreateWarmUpCommandValidateOnly()
+    {
+        Configuration config = new HierarchicalConfiguration();
+        config.addProperty(Application.PROP_WARMUP_VALIDATE_BEANS,
+                Boolean.TRUE);
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(config);
+        WarmUpCommand cmd = (WarmUpCommand) app.createWarmUpCommand(ctx);
+        assertTrue("Validate flag not set", cmd.isValidateBeanGraph());
+        assertTrue("Got singletons", cmd.getSingletonNames().isEmpty());
+    }
+
+    /**
+     * Tests whether the warm-up command is passed to the command queue.
+     */
+    @Test
+    public void testWarmUp()
+    {
+        Configuration config = new HierarchicalConfiguration();
+        config.addProperty(Application.PROP_WARMUP_BEANS, "myBean");
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(config);
+        CommandQueue q = EasyMock.createMock(CommandQueue.class);
+        q.execute(EasyMock.isA(WarmUpCommand.class));
+        EasyMock.replay(q);
+        app.setCommandQueue(q);
+        app.warmUp(ctx);
+        EasyMock.verify(q);
+    }
+
+    /**
+     * Tests that the command queue is not accessed if no warm-up is
+     * configured.
+     */
+    @Test
+    public void testWarmUpNotConfigured()
+    {
+        ApplicationContextImpl ctx = new ApplicationContextImpl();
+        ctx.setConfiguration(new HierarchicalConfiguration());
+        CommandQueue q = EasyMock.createMock(CommandQueue.class);
+        EasyMock.replay(q);
+        app.setCommandQueue(q);
+        app.warmUp(ctx);
+        EasyMock.verify(q);
+    }
+
+    /**
+     * Tests whether startup statistics can be written to a file.
+     */
+    @Test
+    public void testOutputStartupStatisticsFile() throws IOException
+    {
+        File file = File.createTempFile("stats", ".json");
+        try
+        {
+            Configuration config = new HierarchicalConfiguration();
+            config.addProperty(Application.PROP_STARTUP_STATS_FILE,
+                    file.getAbsolutePath());
+            app.getStartupStatistics()
+                    .startPhase(StartupStatistics.PHASE_CONFIGURATION).stop();
+            app.outputStartupStatistics(config);
+            String content =
+                    new String(Files.readAllBytes(file.toPath()), "UTF-8");
+            assertTrue("Wrong content: " + content, content.contains("\"name\":\""
+                    + StartupStatistics.PHASE_CONFIGURATION + "\""));
+        }
+        finally
+        {
+            assertTrue("Could not delete file", file.delete());
+        }
+    }
+
     /**
      * Tests the startup() method.
      */
@@ -740,6 +911,83 @@ public class TestApplication
         assertSame("Wrong hierarchy of stores", rootStore, store.getParent());
     }
 
+    /**
+     * Tests whether bean definitions can be processed concurrently.
+     */
+    @Test
+    public void testProcessBeanDefinitionsConcurrently()
+    {
+        app.setBeanBuilderFactory(new JellyBeanBuilderFactory());
+        app.setBeanDefinitionThreads(2);
+        DefaultBeanStore rootStore = new DefaultBeanStore();
+        DefaultBeanContext context = new DefaultBeanContext(rootStore);
+        Collection<Locator> scripts = new ArrayList<Locator>();
+        scripts.add(ClassPathLocator.getInstance(SCRIPT_PREFIX + "di.jelly"));
+        scripts.add(SCRIPT_LOCATOR);
+        app.processBeanDefinitions(scripts, context, null);
+        ReflectionTestClass bean = (ReflectionTestClass) context
+                .getBean("rootBean");
+        assertEquals("Wrong property value", "test", bean.getStringProp());
+        BeanStore store = context.getDefaultBeanStore().getParent();
+        assertNotNull("Bean not found in parent context", store
+                .getBeanProvider("rootBean"));
+        assertSame("Wrong hierarchy of stores", rootStore, store.getParent());
+        assertEquals("Wrong number of builder results", scripts.size(), app
+                .getIninitializedBuilderResults().size());
+    }
+
+    /**
+     * Tests whether an exception thrown during concurrent processing of bean
+     * definitions is propagated.
+     */
+    @Test
+    public void testProcessBeanDefinitionsConcurrentlyEx()
+            throws BuilderException
+    {
+        BeanBuilderFactory mockFactory = EasyMock
+                .createMock(BeanBuilderFactory.class);
+        BuilderException bex = new BuilderException("Error!");
+        EasyMock.expect(mockFactory.getBeanBuilder()).andThrow(bex).times(2);
+        EasyMock.replay(mockFactory);
+        app.setBeanBuilderFactory(mockFactory);
+        app.setBeanDefinitionThreads(2);
+        DefaultBeanContext context = new DefaultBeanContext();
+        try
+        {
+            app.processBeanDefinitions(
+                    Arrays.asList(SCRIPT_LOCATOR, SCRIPT_LOCATOR), context,
+                    null);
+            fail("Exception not thrown!");
+        }
+        catch (ApplicationRuntimeException arex)
+        {
+            assertSame("Wrong cause", bex, arex.getCause());
+            assertNull("Bean store was installed",
+                    context.getDefaultBeanStore());
+        }
+    }
+
+    /**
+     * Tests whether the number of threads for processing bean definitions
+     * can be set in the configuration.
+     */
+    @Test
+    public void testInitBeansThreadsFromConfig()
+    {
+        app.setBeanBuilderFactory(new JellyBeanBuilderFactory());
+        Configuration config = new HierarchicalConfiguration();
+        config.addProperty(Application.PROP_BEAN_DEFS_THREADS, 4);
+        config.addProperty(Application.PROP_BEAN_DEFS, new String[] {
+                SCRIPT_PREFIX + "di.jelly", SCRIPT
+        });
+        BeanContext context = app.initBeans(config);
+        assertEquals("Wrong number of threads", 4,
+                app.getBeanDefinitionThreads());
+        ReflectionTestClass bean = (ReflectionTestClass) context
+                .getBean("rootBean");
+        assertEquals("Wrong property value", "test", bean.getStringProp());
+    }
+
     /**
      * Tests processing bean definitions if there are none. This should be a
      * noop.
@@ -773,6 +1021,34 @@ public class TestApplication
         app.processBeanDefinition(SCRIPT_LOCATOR, new DefaultBeanContext(), null);
     }
 
+    /**
+     * Tests that the phase for a bean definition file is recorded in the
+     * startup statistics even if processing the file fails.
+     */
+    @Test
+    public void testReadBeanDefinitionExStartupStatistics()
+            throws BuilderException
+    {
+        BeanBuilderFactory mockFactory = EasyMock
+                .createMock(BeanBuilderFactory.class);
+        BuilderException bex = new BuilderException("Error!");
+        EasyMock.expect(mockFactory.getBeanBuilder()).andThrow(bex);
+        EasyMock.replay(mockFactory);
+        app.setBeanBuilderFactory(mockFactory);
+        try
+        {
+            app.readBeanDefinition(SCRIPT_LOCATOR, new DefaultBeanStore(),
+                    null);
+            fail("Exception not thrown!");
+        }
+        catch (ApplicationRuntimeException arex)
+        {
+            assertNotNull("Phase not recorded", app.getStartupStatistics()
+                    .getPhase(StartupStatistics.PHASE_BEAN_DEFINITION_PREFIX
+                            + SCRIPT_LOCATOR));
+        }
+    }
+
     /**
      * Tests reading the builder scripts from the configuration.
      */
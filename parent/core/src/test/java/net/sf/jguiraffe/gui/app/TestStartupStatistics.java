@@ -0,0 +1,164 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import net.sf.jguiraffe.di.BeanContext;
+import net.sf.jguiraffe.di.BeanCreationEvent;
+import net.sf.jguiraffe.di.BeanProvider;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code StartupStatistics}.
+ */
+public class TestStartupStatistics
+{
+    /** Constant for the name of a test phase. */
+    private static final String PHASE = "testPhase";
+
+    /** The object to be tested. */
+    private StartupStatistics stats;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        stats = new StartupStatistics();
+    }
+
+    /**
+     * Creates a test bean creation event.
+     *
+     * @return the event
+     */
+    private static BeanCreationEvent createEvent()
+    {
+        return new BeanCreationEvent(EasyMock.createNiceMock(BeanContext.class),
+                EasyMock.createNiceMock(BeanProvider.class), null, PHASE);
+    }
+
+    /**
+     * Tests a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertTrue("Got phases", stats.getPhases().isEmpty());
+        assertEquals("Got beans", 0, stats.getBeanCount());
+    }
+
+    /**
+     * Tests whether a phase can be recorded.
+     */
+    @Test
+    public void testRecordPhase() throws InterruptedException
+    {
+        StartupStatistics.PhaseTimer timer = stats.startPhase(PHASE);
+        Thread.sleep(2);
+        StartupStatistics.Phase phase = timer.stop();
+        assertEquals("Wrong name", PHASE, phase.getName());
+        assertTrue("Wrong duration", phase.getDurationNanos() >= 2000000L);
+        assertTrue("Wrong start time", phase.getStartNanos() >= 0);
+        List<StartupStatistics.Phase> phases = stats.getPhases();
+        assertEquals("Wrong number of phases", 1, phases.size());
+        assertSame("Wrong phase", phase, phases.get(0));
+    }
+
+    /**
+     * Tests whether created beans are counted per phase.
+     */
+    @Test
+    public void testBeanCount()
+    {
+        stats.beanCreated(createEvent());
+        StartupStatistics.PhaseTimer timer = stats.startPhase(PHASE);
+        stats.beanCreated(createEvent());
+        stats.beanCreated(createEvent());
+        StartupStatistics.Phase phase = timer.stop();
+        assertEquals("Wrong beans in phase", 2, phase.getBeanCount());
+        assertEquals("Wrong total beans", 3, stats.getBeanCount());
+    }
+
+    /**
+     * Tests whether a phase can be queried by name.
+     */
+    @Test
+    public void testGetPhase()
+    {
+        stats.startPhase("other").stop();
+        StartupStatistics.Phase phase = stats.startPhase(PHASE).stop();
+        assertSame("Wrong phase", phase, stats.getPhase(PHASE));
+    }
+
+    /**
+     * Tests getPhase() for an unknown name.
+     */
+    @Test
+    public void testGetPhaseUnknown()
+    {
+        assertNull("Got a phase", stats.getPhase(PHASE));
+    }
+
+    /**
+     * Tests that the list of phases cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetPhasesModify()
+    {
+        stats.getPhases().clear();
+    }
+
+    /**
+     * Tests the JSON representation.
+     */
+    @Test
+    public void testToJSON()
+    {
+        stats.startPhase("beanDefinition:\"test\\script\"").stop();
+        stats.startPhase(PHASE).stop();
+        String json = stats.toJSON();
+        assertTrue("Wrong start: " + json,
+                json.startsWith("{\"elapsedMillis\":"));
+        assertTrue("No bean count: " + json,
+                json.contains(",\"beansCreated\":0,\"phases\":[{"));
+        assertTrue("Name not escaped: " + json,
+                json.contains("\"name\":\"beanDefinition:\\\"test\\\\script\\\"\""));
+        assertTrue("Phase not found: " + json,
+                json.contains("},{\"name\":\"" + PHASE + "\",\"startMillis\":"));
+        assertTrue("Wrong end: " + json, json.endsWith(",\"beansCreated\":0}]}"));
+        String str = stats.toString();
+        assertEquals("Wrong string", json.substring(json.indexOf(',')),
+                str.substring(str.indexOf(',')));
+    }
+
+    /**
+     * Tests whether control characters are escaped in JSON output.
+     */
+    @Test
+    public void testToJSONControlCharacters()
+    {
+        stats.startPhase("a\nb").stop();
+        assertTrue("Not escaped", stats.toJSON().contains("a\\u000ab"));
+    }
+}
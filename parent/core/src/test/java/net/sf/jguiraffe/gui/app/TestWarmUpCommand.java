@@ -0,0 +1,359 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import net.sf.jguiraffe.di.BeanContext;
+import net.sf.jguiraffe.di.InjectionException;
+import net.sf.jguiraffe.di.impl.DefaultBeanStore;
+import net.sf.jguiraffe.di.impl.DefaultClassLoaderProvider;
+import net.sf.jguiraffe.di.impl.providers.ConstantBeanProvider;
+import net.sf.jguiraffe.di.impl.providers.SingletonBeanProvider;
+import net.sf.jguiraffe.gui.builder.components.ComponentManager;
+import net.sf.jguiraffe.gui.builder.components.FormBuilderException;
+import net.sf.jguiraffe.locators.Locator;
+import net.sf.jguiraffe.resources.ResourceGroup;
+import net.sf.jguiraffe.resources.ResourceManager;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code WarmUpCommand}.
+ */
+public class TestWarmUpCommand
+{
+    /** Constant for the locale. */
+    private static final Locale LOCALE = Locale.GERMANY;
+
+    /** Constant for a resource group name. */
+    private static final String GROUP = "testGroup";
+
+    /** Constant for another resource group name. */
+    private static final String GROUP2 = "anotherGroup";
+
+    /** Constant for a bean name. */
+    private static final String BEAN = "testBean";
+
+    /** Constant for another bean name. */
+    private static final String BEAN2 = "anotherBean";
+
+    /** A mock for the application context. */
+    private ApplicationContext appCtx;
+
+    /** A mock for the resource manager. */
+    private ResourceManager resMan;
+
+    /** A mock for the bean context. */
+    private BeanContext beanContext;
+
+    /** A mock for the component manager. */
+    private ComponentManager compMan;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        appCtx = EasyMock.createMock(ApplicationContext.class);
+        resMan = EasyMock.createMock(ResourceManager.class);
+        beanContext = EasyMock.createMock(BeanContext.class);
+        compMan = EasyMock.createMock(ComponentManager.class);
+        EasyMock.expect(appCtx.getResourceManager()).andReturn(resMan)
+                .anyTimes();
+        EasyMock.expect(appCtx.getLocale()).andReturn(LOCALE).anyTimes();
+        EasyMock.expect(appCtx.getBeanContext()).andReturn(beanContext)
+                .anyTimes();
+    }
+
+    /**
+     * Replays all mock objects.
+     */
+    private void replay()
+    {
+        EasyMock.replay(appCtx, resMan, beanContext, compMan);
+    }
+
+    /**
+     * Verifies all mock objects.
+     */
+    private void verify()
+    {
+        EasyMock.verify(appCtx, resMan, beanContext, compMan);
+    }
+
+    /**
+     * Tries to create an instance without an application context.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoAppCtx()
+    {
+        new WarmUpCommand(null, null, null, null);
+    }
+
+    /**
+     * Tests whether null collections are converted to empty lists.
+     */
+    @Test
+    public void testInitNullCollections()
+    {
+        WarmUpCommand cmd = new WarmUpCommand(appCtx, null, null, null);
+        assertTrue("Got groups", cmd.getResourceGroups().isEmpty());
+        assertTrue("Got icons", cmd.getIcons().isEmpty());
+        assertTrue("Got beans", cmd.getBeanNames().isEmpty());
+        assertTrue("Got singletons", cmd.getSingletonNames().isEmpty());
+        assertFalse("Validate flag set", cmd.isValidateBeanGraph());
+    }
+
+    /**
+     * Tests that the collections passed to the constructor are copied.
+     */
+    @Test
+    public void testInitDefensiveCopy()
+    {
+        List<String> beans = new ArrayList<String>();
+        beans.add(BEAN);
+        WarmUpCommand cmd = new WarmUpCommand(appCtx, null, null, beans);
+        beans.add(BEAN2);
+        assertEquals("Wrong beans", Collections.singletonList(BEAN),
+                cmd.getBeanNames());
+    }
+
+    /**
+     * Tests that the list of bean names cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetBeanNamesModify()
+    {
+        new WarmUpCommand(appCtx, null, null, Collections.singleton(BEAN))
+                .getBeanNames().clear();
+    }
+
+    /**
+     * Tests whether all warm-up steps are performed.
+     */
+    @Test
+    public void testExecute() throws Exception
+    {
+        Locator icon = EasyMock.createMock(Locator.class);
+        EasyMock.expect(resMan.getResourceGroup(LOCALE, GROUP)).andReturn(
+                EasyMock.createNiceMock(ResourceGroup.class));
+        EasyMock.expect(beanContext.getBean(
+                Application.BEAN_COMPONENT_MANAGER)).andReturn(compMan);
+        EasyMock.expect(compMan.createIcon(icon)).andReturn(this);
+        EasyMock.expect(beanContext.getBean(BEAN)).andReturn(this);
+        replay();
+        WarmUpCommand cmd = new WarmUpCommand(appCtx,
+                Collections.singleton(GROUP), Collections.singleton(icon),
+                Collections.singleton(BEAN));
+        cmd.execute();
+        verify();
+    }
+
+    /**
+     * Tests that the component manager is not accessed if there are no icons.
+     */
+    @Test
+    public void testExecuteNoIcons() throws Exception
+    {
+        EasyMock.expect(beanContext.getBean(BEAN)).andReturn(this);
+        replay();
+        new WarmUpCommand(appCtx, null, null, Collections.singleton(BEAN))
+                .execute();
+        verify();
+    }
+
+    /**
+     * Tests that errors during the warm-up do not interrupt the operation.
+     */
+    @Test
+    public void testExecuteErrors() throws Exception
+    {
+        Locator icon1 = EasyMock.createMock(Locator.class);
+        Locator icon2 = EasyMock.createMock(Locator.class);
+        EasyMock.expect(resMan.getResourceGroup(LOCALE, GROUP)).andThrow(
+                new IllegalStateException("Test exception"));
+        EasyMock.expect(resMan.getResourceGroup(LOCALE, GROUP2)).andReturn(
+                EasyMock.createNiceMock(ResourceGroup.class));
+        EasyMock.expect(beanContext.getBean(
+                Application.BEAN_COMPONENT_MANAGER)).andReturn(compMan);
+        EasyMock.expect(compMan.createIcon(icon1)).andThrow(
+                new FormBuilderException("Test exception"));
+        EasyMock.expect(compMan.createIcon(icon2)).andReturn(this);
+        EasyMock.expect(beanContext.getBean(BEAN)).andThrow(
+                new InjectionException("Test exception"));
+        EasyMock.expect(beanContext.getBean(BEAN2)).andReturn(this);
+        replay();
+        new WarmUpCommand(appCtx, Arrays.asList(GROUP, GROUP2),
+                Arrays.asList(icon1, icon2), Arrays.asList(BEAN, BEAN2))
+                .execute();
+        verify();
+    }
+
+    /**
+     * Tests the behavior if the component manager cannot be obtained.
+     */
+    @Test
+    public void testExecuteNoComponentManager() throws Exception
+    {
+        Locator icon = EasyMock.createMock(Locator.class);
+        EasyMock.expect(beanContext.getBean(
+                Application.BEAN_COMPONENT_MANAGER)).andThrow(
+                new InjectionException("Test exception"));
+        EasyMock.expect(beanContext.getBean(BEAN)).andReturn(this);
+        replay();
+        new WarmUpCommand(appCtx, null, Collections.singleton(icon),
+                Collections.singleton(BEAN)).execute();
+        verify();
+    }
+
+    /**
+     * Tests whether the bean graph is validated if this is enabled.
+     */
+    @Test
+    public void testExecuteValidateBeanGraph() throws Exception
+    {
+        EasyMock.expect(beanContext.getDefaultBeanStore()).andReturn(
+                new DefaultBeanStore());
+        EasyMock.expect(beanContext.getClassLoaderProvider()).andReturn(
+                new DefaultClassLoaderProvider());
+        replay();
+        WarmUpCommand cmd =
+                new WarmUpCommand(appCtx, null, null, null, null, true);
+        assertTrue("Validate flag not set", cmd.isValidateBeanGraph());
+        cmd.execute();
+        verify();
+    }
+
+    /**
+     * Tests that an exception during the validation of the bean graph is
+     * handled.
+     */
+    @Test
+    public void testExecuteValidateBeanGraphError() throws Exception
+    {
+        EasyMock.expect(beanContext.getDefaultBeanStore()).andThrow(
+                new InjectionException("Test exception"));
+        EasyMock.expect(beanContext.getBean(BEAN)).andReturn(this);
+        replay();
+        new WarmUpCommand(appCtx, null, null, Collections.singleton(BEAN),
+                null, true).execute();
+        verify();
+    }
+
+    /**
+     * Tests whether singleton beans are created in parallel.
+     */
+    @Test
+    public void testExecutePreloadSingletons() throws Exception
+    {
+        final List<String> singletons = Arrays.asList(BEAN, BEAN2);
+        final ExecutorService exec = EasyMock.createMock(ExecutorService.class);
+        DefaultBeanStore store = new DefaultBeanStore();
+        for (String name : singletons)
+        {
+            store.addBeanProvider(name, new SingletonBeanProvider(
+                    ConstantBeanProvider.getInstance(name)));
+            EasyMock.expect(beanContext.getBean(name, store)).andReturn(name);
+        }
+        EasyMock.expect(beanContext.getDefaultBeanStore()).andReturn(store);
+        EasyMock.expect(beanContext.getClassLoaderProvider()).andReturn(
+                new DefaultClassLoaderProvider());
+        exec.execute(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andAnswer(new IAnswer<Object>()
+        {
+            public Object answer() throws Throwable
+            {
+                ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+                return null;
+            }
+        }).times(singletons.size());
+        exec.shutdown();
+        EasyMock.replay(exec);
+        replay();
+        WarmUpCommand cmd = new WarmUpCommand(appCtx, null, null, null,
+                singletons, false)
+        {
+            @Override
+            protected ExecutorService createExecutor(int beanCount)
+            {
+                assertEquals("Wrong bean count", singletons.size(),
+                        beanCount);
+                return exec;
+            }
+        };
+        assertEquals("Wrong singletons", singletons, cmd.getSingletonNames());
+        cmd.execute();
+        verify();
+        EasyMock.verify(exec);
+    }
+
+    /**
+     * Tests that the executor is shut down if the creation of singleton beans
+     * fails.
+     */
+    @Test
+    public void testExecutePreloadSingletonsError() throws Exception
+    {
+        final ExecutorService exec = EasyMock.createMock(ExecutorService.class);
+        EasyMock.expect(beanContext.getDefaultBeanStore()).andThrow(
+                new InjectionException("Test"));
+        exec.shutdown();
+        EasyMock.replay(exec);
+        replay();
+        new WarmUpCommand(appCtx, null, null, null,
+                Collections.singleton(BEAN), false)
+        {
+            @Override
+            protected ExecutorService createExecutor(int beanCount)
+            {
+                return exec;
+            }
+        }.execute();
+        verify();
+        EasyMock.verify(exec);
+    }
+
+    /**
+     * Tests the default executor for creating singleton beans.
+     */
+    @Test
+    public void testCreateExecutor()
+    {
+        WarmUpCommand cmd = new WarmUpCommand(appCtx, null, null, null);
+        ExecutorService exec = cmd.createExecutor(1);
+        try
+        {
+            assertEquals("Wrong pool size", 1,
+                    ((ThreadPoolExecutor) exec).getCorePoolSize());
+        }
+        finally
+        {
+            exec.shutdown();
+        }
+    }
+}
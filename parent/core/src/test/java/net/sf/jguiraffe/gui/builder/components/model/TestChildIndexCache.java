@@ -0,0 +1,170 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.configuration.tree.ConfigurationNode;
+import org.apache.commons.configuration.tree.DefaultConfigurationNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ChildIndexCache}.
+ */
+public class TestChildIndexCache
+{
+    /** Constant for the number of children of the test nodes. */
+    private static final int CHILD_COUNT = 8;
+
+    /** The root node of the test tree. */
+    private ConfigurationNode root;
+
+    /** The cache to be tested. */
+    private ChildIndexCache cache;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        root = new DefaultConfigurationNode("root");
+        for (int i = 0; i < CHILD_COUNT; i++)
+        {
+            ConfigurationNode child = new DefaultConfigurationNode("child", i);
+            for (int j = 0; j < CHILD_COUNT; j++)
+            {
+                child.addChild(new DefaultConfigurationNode("sub", j));
+            }
+            root.addChild(child);
+        }
+        cache = new ChildIndexCache();
+    }
+
+    /**
+     * Tests whether the indices of child nodes are determined correctly.
+     */
+    @Test
+    public void testIndexOfChild()
+    {
+        for (int i = 0; i < CHILD_COUNT; i++)
+        {
+            ConfigurationNode child = root.getChild(i);
+            assertEquals("Wrong index of child " + i, i,
+                    cache.indexOfChild(root, child));
+            for (int j = 0; j < CHILD_COUNT; j++)
+            {
+                assertEquals("Wrong index of sub node " + j, j,
+                        cache.indexOfChild(child, child.getChild(j)));
+            }
+        }
+        assertEquals("Wrong cache size", CHILD_COUNT + 1, cache.size());
+    }
+
+    /**
+     * Tests the index of a node which is not a child of the parent.
+     */
+    @Test
+    public void testIndexOfChildNoChild()
+    {
+        assertEquals("Wrong index", -1, cache.indexOfChild(root.getChild(0),
+                root.getChild(1).getChild(0)));
+    }
+
+    /**
+     * Tests whether null arguments are handled.
+     */
+    @Test
+    public void testIndexOfChildNull()
+    {
+        assertEquals("Wrong index for null parent", -1,
+                cache.indexOfChild(null, root.getChild(0)));
+        assertEquals("Wrong index for null child", -1,
+                cache.indexOfChild(root, null));
+    }
+
+    /**
+     * Tests whether cached indices are verified after the tree was changed.
+     */
+    @Test
+    public void testIndexOfChildAfterChange()
+    {
+        ConfigurationNode child = root.getChild(1);
+        cache.indexOfChild(root, child);
+        root.removeChild(root.getChild(0));
+        assertEquals("Wrong index after removal", 0,
+                cache.indexOfChild(root, child));
+        ConfigurationNode newNode = new DefaultConfigurationNode("child");
+        root.addChild(newNode);
+        assertEquals("Wrong index of new node", CHILD_COUNT - 1,
+                cache.indexOfChild(root, newNode));
+    }
+
+    /**
+     * Tests whether only the data of the changed sub tree is invalidated.
+     */
+    @Test
+    public void testInvalidateSubTree()
+    {
+        ConfigurationNode changed = root.getChild(0);
+        ConfigurationNode other = root.getChild(1);
+        cache.indexOfChild(root, changed);
+        cache.indexOfChild(changed, changed.getChild(0));
+        cache.indexOfChild(changed.getChild(0), root);
+        cache.indexOfChild(other, other.getChild(0));
+        cache.invalidate(changed);
+        assertEquals("Wrong cache size", 2, cache.size());
+        cache.invalidate(root);
+        assertEquals("Cache not empty", 0, cache.size());
+    }
+
+    /**
+     * Tests whether data about removed nodes is discarded on invalidation.
+     */
+    @Test
+    public void testInvalidateRemovedNodes()
+    {
+        ConfigurationNode removed = root.getChild(0);
+        ConfigurationNode other = root.getChild(1);
+        cache.indexOfChild(removed, removed.getChild(0));
+        cache.indexOfChild(other, other.getChild(0));
+        root.removeChild(removed);
+        cache.invalidate(other.getChild(0));
+        assertEquals("Wrong cache size", 1, cache.size());
+        assertEquals("Wrong index", 0,
+                cache.indexOfChild(other, other.getChild(0)));
+    }
+
+    /**
+     * Tests whether the invalidate() method can handle null input.
+     */
+    @Test
+    public void testInvalidateNull()
+    {
+        cache.indexOfChild(root, root.getChild(0));
+        cache.invalidate(null);
+        assertEquals("Wrong cache size", 1, cache.size());
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClear()
+    {
+        cache.indexOfChild(root, root.getChild(0));
+        cache.clear();
+        assertEquals("Cache not empty", 0, cache.size());
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jguiraffe.gui.cmd.Command;
+import net.sf.jguiraffe.gui.cmd.CommandQueue;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.event.ConfigurationEvent;
+import org.apache.commons.configuration.event.ConfigurationListener;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+import org.apache.commons.configuration.tree.DefaultConfigurationNode;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code LazyTreeLoader}.
+ */
+public class TestLazyTreeLoader
+{
+    /** Constant for the number of child nodes created by the provider. */
+    private static final int CHILD_COUNT = 3;
+
+    /** Constant for the name of child nodes. */
+    private static final String CHILD_NAME = "child";
+
+    /** A list with the commands passed to the command queue. */
+    private List<Command> commands;
+
+    /** The tree model. */
+    private HierarchicalConfiguration model;
+
+    /** The mock for the tree handler. */
+    private TreeHandler treeHandler;
+
+    /** The test child provider. */
+    private TreeChildProviderTestImpl provider;
+
+    /** The loader to be tested. */
+    private LazyTreeLoader loader;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        commands = new ArrayList<Command>();
+        CommandQueue queue = EasyMock.createMock(CommandQueue.class);
+        queue.execute(EasyMock.anyObject(Command.class));
+        EasyMock.expectLastCall().andAnswer(new IAnswer<Object>()
+        {
+            public Object answer() throws Throwable
+            {
+                commands.add((Command) EasyMock.getCurrentArguments()[0]);
+                return null;
+            }
+        }).anyTimes();
+        model = new HierarchicalConfiguration();
+        treeHandler = EasyMock.createMock(TreeHandler.class);
+        EasyMock.expect(treeHandler.getModel()).andReturn(model).anyTimes();
+        EasyMock.replay(queue, treeHandler);
+        provider = new TreeChildProviderTestImpl();
+        loader = new LazyTreeLoader(queue, provider);
+        loader.markUnloaded(model.getRootNode());
+    }
+
+    /**
+     * Creates an expansion event for the specified node.
+     *
+     * @param node the target node
+     * @param type the event type
+     * @return the event
+     */
+    private TreeExpansionEvent createEvent(ConfigurationNode node,
+            TreeExpansionEvent.Type type)
+    {
+        return new TreeExpansionEvent(this, treeHandler, "tree", type,
+                new TreeNodePath(node));
+    }
+
+    /**
+     * Simulates the expansion of the specified node. Returns the command
+     * created for loading the children.
+     *
+     * @param node the node to be expanded
+     * @return the load command
+     */
+    private Command expand(ConfigurationNode node)
+    {
+        int count = commands.size();
+        loader.beforeExpansionStateChange(createEvent(node,
+                TreeExpansionEvent.Type.NODE_EXPAND));
+        assertEquals("Wrong number of commands", count + 1, commands.size());
+        return commands.get(count);
+    }
+
+    /**
+     * Executes the specified command and performs the GUI update.
+     *
+     * @param cmd the command
+     */
+    private static void execute(Command cmd)
+    {
+        try
+        {
+            cmd.execute();
+        }
+        catch (Exception ex)
+        {
+            cmd.onException(ex);
+        }
+        cmd.getGUIUpdater().run();
+    }
+
+    /**
+     * Tries to create an instance without a command queue.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoQueue()
+    {
+        new LazyTreeLoader(null, provider);
+    }
+
+    /**
+     * Tries to create an instance without a provider.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoProvider()
+    {
+        new LazyTreeLoader(EasyMock.createMock(CommandQueue.class), null);
+    }
+
+    /**
+     * Tests whether a node can be marked as unloaded.
+     */
+    @Test
+    public void testMarkUnloaded()
+    {
+        ConfigurationNode root = model.getRootNode();
+        assertTrue("Not unloaded", loader.isUnloaded(root));
+        assertEquals("Wrong number of children", 1, root.getChildrenCount());
+        ConfigurationNode placeholder = root.getChild(0);
+        assertTrue("No placeholder", LazyTreeLoader.isPlaceholder(placeholder));
+        assertEquals("Wrong placeholder name",
+                LazyTreeLoader.DEFAULT_PLACEHOLDER_NAME, placeholder.getName());
+    }
+
+    /**
+     * Tests isPlaceholder() for a normal node.
+     */
+    @Test
+    public void testIsPlaceholderNormalNode()
+    {
+        assertFalse("A placeholder", LazyTreeLoader
+                .isPlaceholder(new DefaultConfigurationNode(
+                        LazyTreeLoader.DEFAULT_PLACEHOLDER_NAME)));
+    }
+
+    /**
+     * Tests whether the children of a node are loaded on expansion.
+     */
+    @Test
+    public void testLoadChildren()
+    {
+        ConfigurationNode root = model.getRootNode();
+        Command cmd = expand(root);
+        assertTrue("Not loading", loader.isLoading(root));
+        execute(cmd);
+        assertFalse("Still loading", loader.isLoading(root));
+        assertFalse("Still unloaded", loader.isUnloaded(root));
+        assertEquals("Wrong number of children", CHILD_COUNT,
+                root.getChildrenCount());
+        for (int i = 0; i < CHILD_COUNT; i++)
+        {
+            assertEquals("Wrong child value", Integer.valueOf(i),
+                    model.getProperty(CHILD_NAME + "(" + i + ")"));
+        }
+        assertSame("Wrong path", root, provider.getPath().getTargetNode());
+    }
+
+    /**
+     * Tests whether child nodes that can be expanded are marked as unloaded.
+     */
+    @Test
+    public void testLoadChildrenMarkUnloaded()
+    {
+        ConfigurationNode root = model.getRootNode();
+        execute(expand(root));
+        ConfigurationNode child = root.getChild(1);
+        assertTrue("Child not unloaded", loader.isUnloaded(child));
+        assertFalse("Leaf unloaded", loader.isUnloaded(root.getChild(0)));
+        execute(expand(child));
+        assertEquals("Wrong number of grand children", CHILD_COUNT,
+                child.getChildrenCount());
+        assertEquals("Wrong key", Integer.valueOf(2),
+                model.getProperty(CHILD_NAME + "(1)." + CHILD_NAME + "(2)"));
+    }
+
+    /**
+     * Tests whether the children are added in a single operation.
+     */
+    @Test
+    public void testLoadChildrenSingleEvent()
+    {
+        final List<ConfigurationEvent> events =
+                new ArrayList<ConfigurationEvent>();
+        model.addConfigurationListener(new ConfigurationListener()
+        {
+            public void configurationChanged(ConfigurationEvent event)
+            {
+                if (!event.isBeforeUpdate())
+                {
+                    events.add(event);
+                }
+            }
+        });
+        execute(expand(model.getRootNode()));
+        assertEquals("Wrong number of events", 1, events.size());
+        assertEquals("Wrong event type",
+                HierarchicalConfiguration.EVENT_ADD_NODES, events.get(0)
+                        .getType());
+    }
+
+    /**
+     * Tests whether an empty list of children is handled.
+     */
+    @Test
+    public void testLoadChildrenEmpty()
+    {
+        provider.setChildCount(0);
+        ConfigurationNode root = model.getRootNode();
+        execute(expand(root));
+        assertEquals("Got children", 0, root.getChildrenCount());
+        assertFalse("Still unloaded", loader.isUnloaded(root));
+    }
+
+    /**
+     * Tests that a node is loaded only once if it is expanded multiple times
+     * while a load operation is in progress.
+     */
+    @Test
+    public void testLoadChildrenInProgress()
+    {
+        ConfigurationNode root = model.getRootNode();
+        expand(root);
+        loader.beforeExpansionStateChange(createEvent(root,
+                TreeExpansionEvent.Type.NODE_EXPAND));
+        assertEquals("Wrong number of commands", 1, commands.size());
+    }
+
+    /**
+     * Tests that an already loaded node is not loaded again.
+     */
+    @Test
+    public void testExpandLoadedNode()
+    {
+        ConfigurationNode root = model.getRootNode();
+        execute(expand(root));
+        loader.beforeExpansionStateChange(createEvent(root,
+                TreeExpansionEvent.Type.NODE_EXPAND));
+        assertEquals("Wrong number of commands", 1, commands.size());
+    }
+
+    /**
+     * Tests that collapse events are ignored.
+     */
+    @Test
+    public void testCollapse()
+    {
+        loader.beforeExpansionStateChange(createEvent(model.getRootNode(),
+                TreeExpansionEvent.Type.NODE_COLLAPSE));
+        assertTrue("Got commands", commands.isEmpty());
+    }
+
+    /**
+     * Tests whether a failed load operation can be repeated.
+     */
+    @Test
+    public void testLoadChildrenException()
+    {
+        ConfigurationNode root = model.getRootNode();
+        provider.setChildCount(-1);
+        execute(expand(root));
+        assertTrue("Not unloaded", loader.isUnloaded(root));
+        assertFalse("Still loading", loader.isLoading(root));
+        provider.setChildCount(CHILD_COUNT);
+        execute(expand(root));
+        assertEquals("Wrong number of children", CHILD_COUNT,
+                root.getChildrenCount());
+    }
+
+    /**
+     * A test implementation of the child provider. It creates a number of
+     * child nodes whose values are their indices. Nodes with an odd index
+     * can have children.
+     */
+    private static class TreeChildProviderTestImpl implements
+            TreeChildProvider
+    {
+        /** The number of children to create. */
+        private int childCount = CHILD_COUNT;
+
+        /** The path passed to the provider. */
+        private TreeNodePath path;
+
+        /**
+         * Sets the number of child nodes to be created. A negative value
+         * causes an exception.
+         *
+         * @param count the number of child nodes
+         */
+        public void setChildCount(int count)
+        {
+            childCount = count;
+        }
+
+        /**
+         * Returns the path passed to this object.
+         *
+         * @return the path
+         */
+        public TreeNodePath getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Records this invocation and creates the child nodes.
+         */
+        public Collection<ConfigurationNode> loadChildren(TreeNodePath p)
+                throws Exception
+        {
+            path = p;
+            if (childCount < 0)
+            {
+                throw new Exception("Test exception!");
+            }
+            if (childCount == 0)
+            {
+                return Collections.emptyList();
+            }
+
+            List<ConfigurationNode> nodes = new ArrayList<ConfigurationNode>();
+            for (int i = 0; i < childCount; i++)
+            {
+                nodes.add(new DefaultConfigurationNode(CHILD_NAME, i));
+            }
+            return nodes;
+        }
+
+        /**
+         * Returns a flag whether the node can have children.
+         */
+        public boolean mayHaveChildren(ConfigurationNode node)
+        {
+            return ((Integer) node.getValue()) % 2 != 0;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.components.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ListModelIndex}.
+ */
+public class TestListModelIndex
+{
+    /** Constant for the prefix of display objects. */
+    private static final String DISPLAY = "display";
+
+    /** Constant for the prefix of value objects. */
+    private static final String VALUE = "value";
+
+    /** Constant for the initial size of the test model. */
+    private static final int COUNT = 16;
+
+    /** The test list model. */
+    private MutableListModel model;
+
+    /** The index to be tested. */
+    private ListModelIndex index;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        model = new MutableListModel();
+        for (int i = 0; i < COUNT; i++)
+        {
+            model.add(model.size(), DISPLAY + i, VALUE + i);
+        }
+        index = new ListModelIndex(model);
+    }
+
+    /**
+     * Checks whether all elements of the test model can be found in the index.
+     */
+    private void checkIndex()
+    {
+        for (int i = 0; i < model.size(); i++)
+        {
+            assertEquals("Wrong value index " + i, i,
+                    index.indexOfValue(model.getValueObject(i)));
+            assertEquals("Wrong display index " + i, i,
+                    index.indexOfDisplay(model.getDisplayObject(i)));
+        }
+    }
+
+    /**
+     * Checks whether the first elements of the test model can be found in the
+     * index. This is used if the model contains duplicates at the end.
+     *
+     * @param count the number of elements to check
+     */
+    private void checkIndexPrefix(int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals("Wrong value index " + i, i,
+                    index.indexOfValue(model.getValueObject(i)));
+            assertEquals("Wrong display index " + i, i,
+                    index.indexOfDisplay(model.getDisplayObject(i)));
+        }
+    }
+
+    /**
+     * Tries to create an instance without a model.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoModel()
+    {
+        new ListModelIndex(null);
+    }
+
+    /**
+     * Tests a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertSame("Wrong model", model, index.getListModel());
+        assertFalse("Already valid", index.isValid());
+    }
+
+    /**
+     * Tests whether the positions of elements can be queried.
+     */
+    @Test
+    public void testIndexOf()
+    {
+        checkIndex();
+        assertTrue("Not valid", index.isValid());
+    }
+
+    /**
+     * Tests queries for unknown objects.
+     */
+    @Test
+    public void testIndexOfUnknown()
+    {
+        assertEquals("Wrong value index", -1, index.indexOfValue(DISPLAY));
+        assertEquals("Wrong display index", -1, index.indexOfDisplay(VALUE));
+    }
+
+    /**
+     * Tests whether the lowest index is returned for duplicate objects.
+     */
+    @Test
+    public void testIndexOfDuplicates()
+    {
+        model.add(model.size(), DISPLAY + 1, VALUE + 2);
+        assertEquals("Wrong value index", 2, index.indexOfValue(VALUE + 2));
+        assertEquals("Wrong display index", 1,
+                index.indexOfDisplay(DISPLAY + 1));
+    }
+
+    /**
+     * Tests whether null objects are supported.
+     */
+    @Test
+    public void testIndexOfNull()
+    {
+        model.add(model.size(), null, null);
+        assertEquals("Wrong value index", COUNT, index.indexOfValue(null));
+        assertEquals("Wrong display index", COUNT, index.indexOfDisplay(null));
+    }
+
+    /**
+     * Tests whether an element added at the end is processed incrementally.
+     */
+    @Test
+    public void testItemInsertedAtEnd()
+    {
+        checkIndex();
+        model.add(COUNT, DISPLAY, VALUE);
+        index.itemInserted(COUNT);
+        assertTrue("Not valid", index.isValid());
+        checkIndex();
+    }
+
+    /**
+     * Tests whether an insert operation in the middle of the model is
+     * processed incrementally.
+     */
+    @Test
+    public void testItemInsertedInMiddle()
+    {
+        checkIndex();
+        model.add(1, DISPLAY, VALUE);
+        index.itemInserted(1);
+        assertTrue("Not valid", index.isValid());
+        checkIndex();
+    }
+
+    /**
+     * Tests whether an element inserted before an existing duplicate becomes
+     * the first occurrence of this object.
+     */
+    @Test
+    public void testItemInsertedBeforeDuplicate()
+    {
+        checkIndex();
+        model.add(1, DISPLAY + 5, VALUE + 7);
+        index.itemInserted(1);
+        assertEquals("Wrong value index", 1, index.indexOfValue(VALUE + 7));
+        assertEquals("Wrong display index", 1,
+                index.indexOfDisplay(DISPLAY + 5));
+        assertEquals("Wrong index of shifted element", 7,
+                index.indexOfValue(VALUE + 6));
+        assertTrue("Not valid", index.isValid());
+    }
+
+    /**
+     * Tests that notifications are ignored if no index has been created yet.
+     */
+    @Test
+    public void testItemInsertedNotValid()
+    {
+        model.add(COUNT, DISPLAY, VALUE);
+        index.itemInserted(COUNT);
+        assertFalse("Valid", index.isValid());
+        checkIndex();
+    }
+
+    /**
+     * Tests whether removing the last element is processed incrementally.
+     */
+    @Test
+    public void testItemRemovedAtEnd()
+    {
+        checkIndex();
+        int last = COUNT - 1;
+        model.remove(last);
+        index.itemRemoved(last, DISPLAY + last, VALUE + last);
+        assertTrue("Not valid", index.isValid());
+        assertEquals("Value still found", -1, index.indexOfValue(VALUE + last));
+        assertEquals("Display still found", -1,
+                index.indexOfDisplay(DISPLAY + last));
+        checkIndex();
+    }
+
+    /**
+     * Tests that removing the last element does not affect duplicates stored
+     * at a lower position.
+     */
+    @Test
+    public void testItemRemovedAtEndDuplicate()
+    {
+        model.add(COUNT, DISPLAY + 0, VALUE + 0);
+        index.indexOfValue(VALUE + 0);
+        model.remove(COUNT);
+        index.itemRemoved(COUNT, DISPLAY + 0, VALUE + 0);
+        assertEquals("Wrong value index", 0, index.indexOfValue(VALUE + 0));
+        assertEquals("Wrong display index", 0,
+                index.indexOfDisplay(DISPLAY + 0));
+        assertTrue("Not valid", index.isValid());
+    }
+
+    /**
+     * Tests whether removing an element in the middle is processed
+     * incrementally.
+     */
+    @Test
+    public void testItemRemovedInMiddle()
+    {
+        checkIndex();
+        model.remove(0);
+        index.itemRemoved(0, DISPLAY + 0, VALUE + 0);
+        assertTrue("Not valid", index.isValid());
+        assertEquals("Value still found", -1, index.indexOfValue(VALUE + 0));
+        checkIndex();
+    }
+
+    /**
+     * Tests whether the next occurrence of an object is found if its first
+     * occurrence is removed.
+     */
+    @Test
+    public void testItemRemovedFirstOfDuplicates()
+    {
+        model.add(COUNT, DISPLAY + 2, VALUE + 2);
+        checkIndexPrefix(COUNT);
+        model.remove(2);
+        index.itemRemoved(2, DISPLAY + 2, VALUE + 2);
+        assertEquals("Wrong value index", COUNT - 1,
+                index.indexOfValue(VALUE + 2));
+        assertEquals("Wrong display index", COUNT - 1,
+                index.indexOfDisplay(DISPLAY + 2));
+        assertTrue("Not valid", index.isValid());
+        checkIndexPrefix(COUNT - 1);
+    }
+
+    /**
+     * Tests a sequence of insert and remove operations at arbitrary
+     * positions.
+     */
+    @Test
+    public void testMixedUpdates()
+    {
+        checkIndex();
+        int[] positions = {
+                3, 0, 10, 7, 15
+        };
+        for (int i = 0; i < positions.length; i++)
+        {
+            model.add(positions[i], DISPLAY + "new" + i, VALUE + "new" + i);
+            index.itemInserted(positions[i]);
+        }
+        for (int pos : new int[] {
+                5, 0, 12
+        })
+        {
+            Object disp = model.getDisplayObject(pos);
+            Object val = model.getValueObject(pos);
+            model.remove(pos);
+            index.itemRemoved(pos, disp, val);
+        }
+        assertTrue("Not valid", index.isValid());
+        model.valueAccessCount = 0;
+        for (int i = 0; i < model.size(); i++)
+        {
+            assertEquals("Wrong value index " + i, i,
+                    index.indexOfValue(model.valueObjects.get(i)));
+        }
+        assertEquals("Index was rebuilt", model.size(),
+                model.valueAccessCount);
+        checkIndex();
+    }
+
+    /**
+     * Tests whether the index can be invalidated explicitly.
+     */
+    @Test
+    public void testInvalidate()
+    {
+        checkIndex();
+        model.clear();
+        index.invalidate();
+        assertFalse("Still valid", index.isValid());
+        assertEquals("Value still found", -1, index.indexOfValue(VALUE + 0));
+    }
+
+    /**
+     * Tests whether an outdated index is detected and rebuilt.
+     */
+    @Test
+    public void testIndexOfOutdated()
+    {
+        checkIndex();
+        model.remove(0);
+        model.add(0, DISPLAY, VALUE);
+        model.add(COUNT, DISPLAY + 0, VALUE + 0);
+        assertEquals("Wrong value index", COUNT, index.indexOfValue(VALUE + 0));
+        assertEquals("Wrong display index", COUNT,
+                index.indexOfDisplay(DISPLAY + 0));
+        checkIndex();
+    }
+
+    /**
+     * A simple list model implementation which can be changed.
+     */
+    private static class MutableListModel implements ListModel
+    {
+        /** The list with display objects. */
+        private final List<Object> displayObjects = new ArrayList<Object>();
+
+        /** The list with value objects. */
+        private final List<Object> valueObjects = new ArrayList<Object>();
+
+        /** A counter for accesses to value objects. */
+        private int valueAccessCount;
+
+        /**
+         * Adds an element to this model.
+         *
+         * @param idx the index
+         * @param display the display object
+         * @param value the value object
+         */
+        public void add(int idx, Object display, Object value)
+        {
+            displayObjects.add(idx, display);
+            valueObjects.add(idx, value);
+        }
+
+        /**
+         * Removes an element from this model.
+         *
+         * @param idx the index
+         */
+        public void remove(int idx)
+        {
+            displayObjects.remove(idx);
+            valueObjects.remove(idx);
+        }
+
+        /**
+         * Removes all elements from this model.
+         */
+        public void clear()
+        {
+            displayObjects.clear();
+            valueObjects.clear();
+        }
+
+        public int size()
+        {
+            return displayObjects.size();
+        }
+
+        public Object getDisplayObject(int idx)
+        {
+            return displayObjects.get(idx);
+        }
+
+        public Object getValueObject(int idx)
+        {
+            valueAccessCount++;
+            return valueObjects.get(idx);
+        }
+
+        public Class<?> getType()
+        {
+            return String.class;
+        }
+    }
+}
@@ -335,6 +335,35 @@ public class TestTreeNodePath
                 parent.getTargetNode());
     }
 
+    /**
+     * Checks whether the names and indices of two paths are identical.
+     *
+     * @param expected the expected path
+     * @param path the path to check
+     */
+    private static void checkPathKeys(TreeNodePath expected, TreeNodePath path)
+    {
+        assertEquals("Wrong size of path", expected.size(), path.size());
+        for (int i = 0; i < expected.size() - 1; i++)
+        {
+            assertEquals("Wrong name at " + i, expected.getNodeName(i),
+                    path.getNodeName(i));
+            assertEquals("Wrong index at " + i, expected.getNodeIndex(i),
+                    path.getNodeIndex(i));
+        }
+    }
+
+    /**
+     * Tests whether the parent path has correct names and indices.
+     */
+    @Test
+    public void testParentPathKeys()
+    {
+        TreeNodePath path = new TreeNodePath(nodeForKey(TEST_KEY));
+        TreeNodePath parent = path.parentPath();
+        checkPathKeys(new TreeNodePath(nodeForKey(PATH_PREFIX)), parent);
+    }
+
     /**
      * Tries to query the parent path of the root path. This should cause an
      * exception.
@@ -399,6 +428,53 @@ public class TestTreeNodePath
         checkPathNodes(nodes, path2);
     }
 
+    /**
+     * Tests whether a path created by appending child nodes has correct names
+     * and indices.
+     */
+    @Test
+    public void testAppendChildKeys()
+    {
+        TreeNodePath path = new TreeNodePath(nodeForKey(PATH_PREFIX));
+        TreeNodePath path2 = path.append(CHILD_NAME, 1);
+        checkPathKeys(new TreeNodePath(path2.getTargetNode()), path2);
+        assertEquals("Wrong index of appended node", 1,
+                path2.getNodeIndex(path2.size() - 2));
+    }
+
+    /**
+     * Tests that paths derived from an existing path reflect changes of the
+     * node structure. The indices of the nodes have to be determined anew
+     * when siblings have been removed.
+     */
+    @Test
+    public void testDerivedPathsAfterSiblingRemoved()
+    {
+        ConfigurationNode localRoot = new HierarchicalConfiguration.Node();
+        ConfigurationNode ndTab1 = new DefaultConfigurationNode("table");
+        ConfigurationNode ndTab2 = new DefaultConfigurationNode("table");
+        localRoot.addChild(ndTab1);
+        localRoot.addChild(ndTab2);
+        ConfigurationNode ndField1 = new DefaultConfigurationNode(CHILD_NAME);
+        ConfigurationNode ndField2 = new DefaultConfigurationNode(CHILD_NAME);
+        ndTab2.addChild(ndField1);
+        ndTab2.addChild(ndField2);
+        TreeNodePath path = new TreeNodePath(ndField2);
+        TreeNodePath tabPath = new TreeNodePath(ndTab2);
+        assertEquals("Wrong initial table index", 1, path.getNodeIndex(0));
+        assertEquals("Wrong initial field index", 1, path.getNodeIndex(1));
+
+        localRoot.removeChild(ndTab1);
+        ndTab2.removeChild(ndField1);
+        assertEquals("Wrong index in parent path", 0, path.parentPath()
+                .getNodeIndex(0));
+        TreeNodePath appended = tabPath.append(ndField2);
+        assertEquals("Wrong index of table in appended path", 0,
+                appended.getNodeIndex(0));
+        assertEquals("Wrong index of field in appended path", 0,
+                appended.getNodeIndex(1));
+    }
+
     /**
      * Tests whether the first child node is used if no index is provided.
      */
@@ -24,6 +24,7 @@ import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
 import net.sf.jguiraffe.gui.builder.components.FormBuilderException;
 import net.sf.jguiraffe.gui.builder.components.SimpleListModel;
 import net.sf.jguiraffe.gui.builder.components.model.EditableComboBoxModel;
+import net.sf.jguiraffe.gui.builder.components.model.IndexedListModel;
 import net.sf.jguiraffe.gui.builder.components.model.ListModel;
 
 import org.apache.commons.jelly.JellyContext;
@@ -162,6 +163,55 @@ public class TestListModelUtils
                 ListModelUtils.getDisplayIndex(model, "unknown display object"));
     }
 
+    /**
+     * Tests whether getIndex() queries an indexed list model.
+     */
+    @Test
+    public void testGetIndexIndexedModel()
+    {
+        IndexedListModel model = EasyMock.createMock(IndexedListModel.class);
+        EasyMock.expect(model.size()).andReturn(100);
+        EasyMock.expect(model.getValueObject(0)).andReturn(
+                SimpleListModel.VALUE);
+        EasyMock.expect(model.indexOfValue(SimpleListModel.VALUE + 42))
+                .andReturn(42);
+        EasyMock.replay(model);
+        assertEquals("Wrong index", 42,
+                ListModelUtils.getIndex(model, SimpleListModel.VALUE + 42));
+        EasyMock.verify(model);
+    }
+
+    /**
+     * Tests that an indexed list model is not used for a model with integer
+     * values.
+     */
+    @Test
+    public void testGetIndexIndexedModelIntegerValues()
+    {
+        IndexedListModel model = EasyMock.createMock(IndexedListModel.class);
+        EasyMock.expect(model.size()).andReturn(100);
+        EasyMock.expect(model.getValueObject(0)).andReturn(null);
+        EasyMock.replay(model);
+        assertEquals("Wrong index", 42,
+                ListModelUtils.getIndex(model, Integer.valueOf(42)));
+        EasyMock.verify(model);
+    }
+
+    /**
+     * Tests whether getDisplayIndex() queries an indexed list model.
+     */
+    @Test
+    public void testGetDisplayIndexIndexedModel()
+    {
+        IndexedListModel model = EasyMock.createMock(IndexedListModel.class);
+        EasyMock.expect(model.indexOfDisplay(SimpleListModel.DISPLAY))
+                .andReturn(ListModelUtils.IDX_UNDEFINED);
+        EasyMock.replay(model);
+        assertEquals("Wrong index", ListModelUtils.IDX_UNDEFINED,
+                ListModelUtils.getDisplayIndex(model, SimpleListModel.DISPLAY));
+        EasyMock.verify(model);
+    }
+
     /**
      * Tests the getValues() method.
      */
@@ -25,11 +25,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
+import net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.DefaultValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.TransformerContextImpl;
 import net.sf.jguiraffe.gui.forms.ValidationPhase;
 import net.sf.jguiraffe.gui.forms.ValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.bind.BeanBindingStrategy;
+import net.sf.jguiraffe.transform.AsyncValidator;
 import net.sf.jguiraffe.transform.DefaultValidationResult;
 import net.sf.jguiraffe.transform.TransformerContext;
 import net.sf.jguiraffe.transform.Validator;
@@ -123,6 +125,60 @@ public class TestValidatorTag
         assertNull("A field validator was set", input.getFieldValidator());
     }
 
+    /**
+     * Tests whether an async validator wrapper is created if the async
+     * attribute is set.
+     */
+    @Test
+    public void testAsyncAttribute() throws JellyTagException
+    {
+        tag.setAttribute(ValidatorTag.ATTR_ASYNC, "true");
+        tag.handleInputComponentTag(input, validator);
+        AsyncValidatorWrapper wrapper =
+                (AsyncValidatorWrapper) input.getFieldValidator();
+        assertSame("Wrong validator", validator, wrapper.getValidator());
+    }
+
+    /**
+     * Tests whether an async validator wrapper is created for a logic
+     * validator.
+     */
+    @Test
+    public void testAsyncAttributeFormValidator() throws JellyTagException
+    {
+        tag.setAttribute(ValidatorTag.ATTR_PHASE, "logic");
+        tag.setAttribute(ValidatorTag.ATTR_ASYNC, Boolean.TRUE);
+        tag.handleInputComponentTag(input, validator);
+        assertTrue("Wrong wrapper",
+                input.getFormValidator() instanceof AsyncValidatorWrapper);
+    }
+
+    /**
+     * Tests that an AsyncValidator is wrapped by an async wrapper per default.
+     */
+    @Test
+    public void testAsyncValidatorDefault() throws JellyTagException
+    {
+        tag.handleInputComponentTag(input,
+                EasyMock.createMock(AsyncValidator.class));
+        assertTrue("Wrong wrapper",
+                input.getFieldValidator() instanceof AsyncValidatorWrapper);
+    }
+
+    /**
+     * Tests that the async attribute can disable asynchronous execution of an
+     * AsyncValidator.
+     */
+    @Test
+    public void testAsyncValidatorDisabled() throws JellyTagException
+    {
+        tag.setAttribute(ValidatorTag.ATTR_ASYNC, "false");
+        tag.handleInputComponentTag(input,
+                EasyMock.createMock(AsyncValidator.class));
+        assertFalse("Wrong wrapper",
+                input.getFieldValidator() instanceof AsyncValidatorWrapper);
+    }
+
     /**
      * Tests whether the standard validation phase is used if no phase is
      * provided.
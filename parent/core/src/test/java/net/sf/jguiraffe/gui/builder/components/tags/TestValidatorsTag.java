@@ -16,11 +16,15 @@
 package net.sf.jguiraffe.gui.builder.components.tags;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
+import net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.DefaultValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.TransformerContextImpl;
 import net.sf.jguiraffe.gui.forms.ValidationPhase;
 import net.sf.jguiraffe.gui.forms.bind.BeanBindingStrategy;
+import net.sf.jguiraffe.transform.AsyncValidator;
 import net.sf.jguiraffe.transform.ChainValidator;
 import net.sf.jguiraffe.transform.Validator;
 
@@ -85,6 +89,33 @@ public class TestValidatorsTag
         EasyMock.verify(v);
     }
 
+    /**
+     * Tests that a chain validator is executed asynchronously if one of its
+     * child validators is an async validator.
+     */
+    @Test
+    public void testAsyncChildValidator() throws JellyTagException
+    {
+        tag.addChildValidator(EasyMock.createMock(Validator.class), null);
+        tag.addChildValidator(EasyMock.createMock(AsyncValidator.class), null);
+        tag.doTag(output);
+        assertTrue("Wrong wrapper",
+                input.getFieldValidator() instanceof AsyncValidatorWrapper);
+    }
+
+    /**
+     * Tests that the async attribute overrides the child validators.
+     */
+    @Test
+    public void testAsyncChildValidatorAttribute() throws JellyTagException
+    {
+        tag.addChildValidator(EasyMock.createMock(AsyncValidator.class), null);
+        tag.setAttribute(ValidatorTag.ATTR_ASYNC, "false");
+        tag.doTag(output);
+        assertFalse("Wrong wrapper",
+                input.getFieldValidator() instanceof AsyncValidatorWrapper);
+    }
+
     /**
      * Tests whether a chain validator is correctly initialized when stored as a
      * variable.
@@ -475,6 +475,187 @@ public class TestTableFormController
         EasyMock.verify(renderForm, editForm);
     }
 
+    /**
+     * Tests whether only the render form is initialized when selecting a row
+     * to be rendered.
+     */
+    @Test
+    public void testSelectRenderRow()
+    {
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        List<Object> model = prepareModel(false);
+        final int row = 3;
+        renderForm.initFields(model.get(row));
+        EasyMock.replay(columns);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        controller.selectRenderRow(row);
+        controller.selectRenderRow(row);
+        EasyMock.verify(renderForm, editForm);
+    }
+
+    /**
+     * Tests whether only the edit form is initialized when selecting a row to
+     * be edited.
+     */
+    @Test
+    public void testSelectEditRow()
+    {
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        List<Object> model = prepareModel(false);
+        final int row = 2;
+        editForm.initFields(model.get(row));
+        EasyMock.replay(columns);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        controller.selectEditRow(row);
+        controller.selectEditRow(row);
+        EasyMock.verify(renderForm, editForm);
+    }
+
+    /**
+     * Tests whether the rows of the render and the edit form are invalidated
+     * independently.
+     */
+    @Test
+    public void testInvalidateRangeRenderAndEditRow()
+    {
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        List<Object> model = prepareModel(false);
+        final int renderRow = 1;
+        final int editRow = 4;
+        renderForm.initFields(model.get(renderRow));
+        EasyMock.expectLastCall().times(2);
+        editForm.initFields(model.get(editRow));
+        EasyMock.replay(columns);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        controller.selectRenderRow(renderRow);
+        controller.selectEditRow(editRow);
+        controller.invalidateRange(0, renderRow + 1);
+        controller.selectRenderRow(renderRow);
+        controller.selectEditRow(editRow);
+        EasyMock.verify(renderForm, editForm);
+    }
+
+    /**
+     * Tests whether the value of a cell in a column without a renderer can be
+     * queried. Only the field of this column should be initialized.
+     */
+    @Test
+    public void testGetCellValueNoRenderer()
+    {
+        FieldHandler fh = EasyMock.createMock(FieldHandler.class);
+        ComponentHandler<?> ch = EasyMock.createMock(ComponentHandler.class);
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        final int row = 2;
+        final int col = 1;
+        String field = FIELD_PREFIX + COLUMN_NAMES[col];
+        EasyMock.expect(columns[col].getRendererComponent()).andReturn(null);
+        List<Object> model = prepareModel(false);
+        renderForm.initFields(model.get(row), Collections.singleton(field));
+        EasyMock.expect(renderForm.getField(field)).andReturn(fh);
+        fh.getComponentHandler();
+        EasyMock.expectLastCall().andReturn(ch);
+        final String data = TEST_DATA[row][col].toString();
+        EasyMock.expect(ch.getData()).andReturn(data);
+        EasyMock.replay(columns);
+        EasyMock.replay(fh, ch);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        assertSame("Wrong cell value", data,
+                controller.getCellValue(row, col));
+        EasyMock.verify(renderForm, editForm);
+    }
+
+    /**
+     * Tests whether the value of a cell in a column with a custom renderer can
+     * be queried. In this case, the whole render form has to be initialized.
+     */
+    @Test
+    public void testGetCellValueRenderer()
+    {
+        FieldHandler fh = EasyMock.createMock(FieldHandler.class);
+        ComponentHandler<?> ch = EasyMock.createMock(ComponentHandler.class);
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        final int row = 1;
+        final int col = 0;
+        String field = FIELD_PREFIX + COLUMN_NAMES[col];
+        EasyMock.expect(columns[col].getRendererComponent()).andReturn(this)
+                .times(2);
+        List<Object> model = prepareModel(false);
+        renderForm.initFields(model.get(row));
+        EasyMock.expect(renderForm.getField(field)).andReturn(fh).times(2);
+        fh.getComponentHandler();
+        EasyMock.expectLastCall().andReturn(ch).times(2);
+        final Object data = new Object();
+        EasyMock.expect(ch.getData()).andReturn(data).times(2);
+        EasyMock.replay(columns);
+        EasyMock.replay(fh, ch);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        assertSame("Wrong cell value (1)", data,
+                controller.getCellValue(row, col));
+        assertSame("Wrong cell value (2)", data,
+                controller.getCellValue(row, col));
+        EasyMock.verify(renderForm, editForm);
+    }
+
+    /**
+     * Tests whether cells of columns with and without a renderer can be
+     * queried in mixed order across multiple rows. A partial initialization of
+     * the render form must cause a full re-initialization when the render row
+     * is selected again.
+     */
+    @Test
+    public void testGetCellValueMixedColumnsAndRows()
+    {
+        FieldHandler fh = EasyMock.createMock(FieldHandler.class);
+        ComponentHandler<?> ch = EasyMock.createMock(ComponentHandler.class);
+        TableColumnTag[] columns = createColumns();
+        createRowForms();
+        final int row1 = 1;
+        final int row2 = 2;
+        final int rendererCol = 0;
+        final int plainCol = 1;
+        String plainField = FIELD_PREFIX + COLUMN_NAMES[plainCol];
+        EasyMock.expect(columns[rendererCol].getRendererComponent())
+                .andReturn(this).anyTimes();
+        EasyMock.expect(columns[plainCol].getRendererComponent())
+                .andReturn(null).anyTimes();
+        List<Object> model = prepareModel(false);
+        renderForm.initFields(model.get(row1));
+        EasyMock.expectLastCall().times(2);
+        renderForm.initFields(model.get(row2),
+                Collections.singleton(plainField));
+        EasyMock.expect(renderForm.getField(EasyMock.anyObject(String.class)))
+                .andReturn(fh).anyTimes();
+        fh.getComponentHandler();
+        EasyMock.expectLastCall().andReturn(ch).anyTimes();
+        EasyMock.expect(ch.getData()).andReturn(new Object()).anyTimes();
+        EasyMock.replay(columns);
+        EasyMock.replay(fh, ch);
+        replay();
+
+        TableFormController controller = new TableFormController(tableTag);
+        controller.selectRenderRow(row1);
+        controller.getCellValue(row1, plainCol);
+        controller.getCellValue(row2, plainCol);
+        controller.getCellValue(row1, rendererCol);
+        controller.getCellValue(row1, plainCol);
+        EasyMock.verify(renderForm, editForm);
+    }
+
     /**
      * Tests whether the value of a given column in the current row can be
      * queried.
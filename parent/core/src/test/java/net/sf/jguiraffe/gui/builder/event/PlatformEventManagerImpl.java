@@ -39,7 +39,7 @@ public class PlatformEventManagerImpl implements PlatformEventManager
     /** Stores the plain text. */
     private final StringBuilder text = new StringBuilder();
 
-    public void registerListener(String name, ComponentHandler<?> handler,
+    public synchronized void registerListener(String name, ComponentHandler<?> handler,
             FormEventManager eventManager, FormListenerType type)
     {
         if (text.length() > 0)
@@ -49,7 +49,7 @@ public class PlatformEventManagerImpl implements PlatformEventManager
         text.append(name).append(SEPARATOR1).append(type.name());
     }
 
-    public void unregisterListener(String name, ComponentHandler<?> handler,
+    public synchronized void unregisterListener(String name, ComponentHandler<?> handler,
             FormEventManager eventManager, FormListenerType type)
     {
         String regText = fetchRegistrationData(name, type);
@@ -77,7 +77,7 @@ public class PlatformEventManagerImpl implements PlatformEventManager
      *
      * @return text information about registered listeners
      */
-    public String getRegistrationData()
+    public synchronized String getRegistrationData()
     {
         return text.toString();
     }
@@ -26,7 +26,10 @@ import java.util.Collection;
 import java.util.EventListener;
 import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import net.sf.jguiraffe.gui.builder.components.model.TreeExpansionListener;
 import net.sf.jguiraffe.gui.builder.components.model.TreeHandler;
@@ -657,6 +660,139 @@ public class TestFormEventManager
         }
     }
 
+    /**
+     * Tests that firing an event is not blocked by a registration of a
+     * listener of a different type which is currently in progress.
+     */
+    @Test
+    public void testFireEventNotBlockedByRegistrationOfOtherType()
+            throws InterruptedException
+    {
+        final CountDownLatch latchRegister = new CountDownLatch(1);
+        final CountDownLatch latchRelease = new CountDownLatch(1);
+        PlatformEventManagerImpl pem = new PlatformEventManagerImpl()
+        {
+            @Override
+            public void registerListener(String name,
+                    ComponentHandler<?> handler, FormEventManager evMan,
+                    FormListenerType type)
+            {
+                super.registerListener(name, handler, evMan, type);
+                if (type == FormListenerType.FOCUS)
+                {
+                    latchRegister.countDown();
+                    try
+                    {
+                        latchRelease.await();
+                    }
+                    catch (InterruptedException iex)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        eventManager = new FormEventManager(pem);
+        eventManager.setComponentStore(store);
+        TestActionListener al = new TestActionListener();
+        eventManager.addActionListener(FLD_NAME, al);
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                eventManager.addFocusListener(FLD_NAME,
+                        new TestFocusListener());
+            }
+        };
+        t.start();
+        try
+        {
+            assertTrue("Registration not started",
+                    latchRegister.await(10, TimeUnit.SECONDS));
+            TestActionListener al2 = new TestActionListener();
+            eventManager.addActionListener(al2);
+            eventManager.fireEvent(new FormActionEvent(this,
+                    getHandler(FLD_NAME), FLD_NAME, "ACTION_NAME"),
+                    FormListenerType.ACTION);
+            assertEquals("Wrong number of events (named)", 1, al.count);
+            assertEquals("Wrong number of events (all)", 1, al2.count);
+        }
+        finally
+        {
+            latchRelease.countDown();
+        }
+        t.join();
+    }
+
+    /**
+     * Tests firing events to a larger number of listeners. All listeners
+     * should be called in reverse order of their registration.
+     */
+    @Test
+    public void testFireEventManyListeners()
+    {
+        final int listenerCount = 500;
+        final int eventCount = 100;
+        final List<Integer> calls = new ArrayList<Integer>(listenerCount);
+        for (int i = 0; i < listenerCount; i++)
+        {
+            final Integer idx = Integer.valueOf(i);
+            FormActionListener l = new FormActionListener()
+            {
+                public void actionPerformed(FormActionEvent e)
+                {
+                    calls.add(idx);
+                }
+            };
+            if (i % 2 == 0)
+            {
+                eventManager.addActionListener(l);
+            }
+            else
+            {
+                eventManager.addActionListener(FLD_NAME, l);
+            }
+        }
+        FormActionEvent event = new FormActionEvent(this,
+                getHandler(FLD_NAME), FLD_NAME, "ACTION_NAME");
+
+        eventManager.fireEvent(event, FormListenerType.ACTION);
+        assertEquals("Wrong number of calls", listenerCount, calls.size());
+        for (int i = 0; i < listenerCount / 2; i++)
+        {
+            assertEquals("Wrong named listener at " + i,
+                    Integer.valueOf(listenerCount - 1 - 2 * i), calls.get(i));
+            assertEquals("Wrong all listener at " + i,
+                    Integer.valueOf(listenerCount - 2 - 2 * i),
+                    calls.get(listenerCount / 2 + i));
+        }
+        for (int i = 1; i < eventCount; i++)
+        {
+            eventManager.fireEvent(event, FormListenerType.ACTION);
+        }
+        assertEquals("Wrong total number of calls", listenerCount
+                * eventCount, calls.size());
+    }
+
+    /**
+     * Tests whether a listener registered multiple times is removed only once.
+     */
+    @Test
+    public void testRemoveListenerRegisteredMultipleTimes()
+    {
+        TestActionListener l = new TestActionListener();
+        eventManager.addActionListener(FLD_NAME, l);
+        eventManager.addActionListener(FLD_NAME, l);
+        eventManager.removeActionListener(FLD_NAME, l);
+        FormActionEvent event = new FormActionEvent(this,
+                getHandler(FLD_NAME), FLD_NAME, "ACTION_NAME");
+        eventManager.fireEvent(event, FormListenerType.ACTION);
+        assertEquals("Wrong number of events", 1, l.count);
+        assertEquals("Wrong registration data", "name -> ACTION",
+                platformEventManager.getRegistrationData());
+    }
+
     /**
      * Helper method for testing an addEventListener() invocation that is
      * expected to yield no results.
@@ -99,6 +99,10 @@ public class TestJellyBeanBuilder
     private static final Locator SCRIPT_LOCATOR = ClassPathLocator
             .getInstance(SCRIPT);
 
+    /** Constant for the locator to the script for nested builds. */
+    private static final Locator NESTED_SCRIPT_LOCATOR = ClassPathLocator
+            .getInstance("/jelly_scripts/di_nested.jelly");
+
     /** Constant for the locator to the error script. */
     private static final Locator ERROR_SCRIPT_LOCATOR = ClassPathLocator
             .getInstance(ERROR_SCRIPT);
@@ -121,6 +125,15 @@ public class TestJellyBeanBuilder
     /** Constant for the number of iterations to run in some tests. */
     private static final int COUNT = 12;
 
+    /** The script cache used by nested builder operations. */
+    private static ScriptCache nestedCache;
+
+    /** The result of a nested builder operation. */
+    private static BeanBuilderResult nestedResult;
+
+    /** The nesting level of builder operations. */
+    private static int nestingLevel;
+
     /** Stores the builder factory. */
     private JellyBeanBuilderFactory factory;
 
@@ -522,6 +535,95 @@ public class TestJellyBeanBuilder
         assertEquals("Wrong string constant", STR_PROP, ctx.getBean("strConst"));
     }
 
+    /**
+     * Tests that scripts from in-memory locators are not cached.
+     */
+    @Test
+    public void testBuildMemoryLocatorScriptCache() throws BuilderException,
+            IOException
+    {
+        ScriptCache cache = new ScriptCache();
+        builder = setUpBuilder();
+        builder.setScriptCache(cache);
+        builder.build(createMemoryLocator(), null, null);
+        assertEquals("Script was cached", 0, cache.size());
+    }
+
+    /**
+     * Tests whether a cached script produces the same results.
+     */
+    @Test
+    public void testBuildWithScriptCache() throws BuilderException
+    {
+        ScriptCache cache = new ScriptCache();
+        for (int i = 0; i < 2; i++)
+        {
+            builder = setUpBuilder();
+            builder.setScriptCache(cache);
+            BeanBuilderResult res = builder.build(SCRIPT_LOCATOR, null, null);
+            BeanContext ctx =
+                    new DefaultBeanContext(res.getBeanStore(STORE_NAMES[0]));
+            assertEquals("Wrong string constant", STR_PROP,
+                    ctx.getBean("strConst"));
+        }
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+    }
+
+    /**
+     * Executes a nested builder operation. This method is called by the test
+     * script for nested builds. Only on the first invocation the script is
+     * executed again, using the shared script cache.
+     *
+     * @throws BuilderException if an error occurs
+     */
+    public static void nestedBuild() throws BuilderException
+    {
+        if (nestingLevel++ == 0)
+        {
+            JellyBeanBuilder nestedBuilder =
+                    (JellyBeanBuilder) new JellyBeanBuilderFactory()
+                            .getBeanBuilder();
+            nestedBuilder.setScriptCache(nestedCache);
+            nestedResult =
+                    nestedBuilder.build(NESTED_SCRIPT_LOCATOR, null, null);
+        }
+    }
+
+    /**
+     * Checks whether the result of a nested builder operation contains all
+     * expected beans.
+     *
+     * @param res the builder result
+     */
+    private static void checkNestedResult(BeanBuilderResult res)
+    {
+        BeanContext ctx = new DefaultBeanContext(res.getBeanStore(null));
+        assertEquals("Wrong bean before", "before",
+                ctx.getBean("beforeNested"));
+        assertEquals("Wrong bean after", "after", ctx.getBean("afterNested"));
+    }
+
+    /**
+     * Tests whether the same cached script can be executed by a nested
+     * builder operation on the same thread.
+     */
+    @Test
+    public void testBuildWithScriptCacheNested() throws BuilderException
+    {
+        nestedCache = new ScriptCache();
+        nestingLevel = 0;
+        nestedResult = null;
+        builder = setUpBuilder();
+        builder.setScriptCache(nestedCache);
+        BeanBuilderResult res =
+                builder.build(NESTED_SCRIPT_LOCATOR, null, null);
+        assertEquals("Wrong nesting level", 2, nestingLevel);
+        checkNestedResult(res);
+        checkNestedResult(nestedResult);
+        assertEquals("Wrong miss count", 1, nestedCache.getMissCount());
+        assertEquals("Wrong hit count", 1, nestedCache.getHitCount());
+    }
+
     /**
      * Tests accessing a constant bean.
      */
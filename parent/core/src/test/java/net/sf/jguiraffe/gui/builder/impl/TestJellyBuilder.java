@@ -985,6 +985,29 @@ public class TestJellyBuilder implements BuilderData
         assertEquals("Wrong builder reference", builder, processingBuilder);
     }
 
+    /**
+     * Tests whether a compiled script is reused by multiple build operations
+     * if a script cache is set.
+     */
+    @Test
+    public void testBuildWithScriptCache() throws Exception
+    {
+        final int buildCount = 8;
+        ScriptCache cache = new ScriptCache();
+        builder.setScriptCache(cache);
+        initManagers();
+        for (int i = 0; i < buildCount; i++)
+        {
+            Window window = builder.buildWindow(SCRIPT_LOCATOR, this);
+            assertEquals("Wrong window title", "A window", window.getTitle());
+            checkResults();
+        }
+        assertEquals("Wrong number of cached scripts", 1, cache.size());
+        assertEquals("Wrong number of misses", 1, cache.getMissCount());
+        assertEquals("Wrong number of hits", buildCount - 1,
+                cache.getHitCount());
+    }
+
     /**
      * Tests if call back objects are correctly handled.
      */
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Test class for {@code RecordedScript}.
+ */
+public class TestRecordedScript
+{
+    /** Constant for the system ID of the test document. */
+    private static final String SYSTEM_ID = "file:/test.jelly";
+
+    /** Constant for the test document. */
+    private static final String DOCUMENT = "<?xml version=\"1.0\"?>\n"
+            + "<j:jelly xmlns:j=\"jelly:core\" xmlns:t=\"test\">\n"
+            + "  <t:elem attr=\"value\" t:other=\"42\">Some text</t:elem>\n"
+            + "  <?target data?>\n" + "  <t:empty/>\n" + "</j:jelly>\n";
+
+    /** The recorder. */
+    private RecordedScript.Recorder recorder;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        recorder = new RecordedScript.Recorder(factory.newSAXParser()
+                .getXMLReader());
+    }
+
+    /**
+     * Parses the test document using the recorder and passes the events to
+     * the given handler.
+     *
+     * @param handler the handler
+     * @return the recorded script
+     * @throws Exception if an error occurs
+     */
+    private RecordedScript record(LoggingHandler handler) throws Exception
+    {
+        recorder.setContentHandler(handler);
+        InputSource source = new InputSource(new StringReader(DOCUMENT));
+        source.setSystemId(SYSTEM_ID);
+        recorder.parse(source);
+        return recorder.getRecordedScript();
+    }
+
+    /**
+     * Replays the given script and returns a handler with the events
+     * received.
+     *
+     * @param script the script
+     * @return the handler
+     * @throws Exception if an error occurs
+     */
+    private static LoggingHandler replay(RecordedScript script)
+            throws Exception
+    {
+        LoggingHandler handler = new LoggingHandler();
+        XMLReader reader = script.createReader();
+        reader.setContentHandler(handler);
+        reader.parse(new InputSource(SYSTEM_ID));
+        return handler;
+    }
+
+    /**
+     * Tests whether events are passed through the recorder.
+     */
+    @Test
+    public void testRecordPassesEvents() throws Exception
+    {
+        LoggingHandler handler = new LoggingHandler();
+        RecordedScript script = record(handler);
+        assertTrue("No events", script.getEventCount() > 0);
+        assertTrue("Element not passed", handler.getEvents().contains(
+                "start test:elem(t:elem) :attr=value test:other=42 @3"));
+    }
+
+    /**
+     * Tests whether replaying a script produces the same events as parsing
+     * the document.
+     */
+    @Test
+    public void testReplay() throws Exception
+    {
+        LoggingHandler parseHandler = new LoggingHandler();
+        RecordedScript script = record(parseHandler);
+        LoggingHandler replayHandler = replay(script);
+        assertEquals("Wrong events", parseHandler.getEvents(),
+                replayHandler.getEvents());
+    }
+
+    /**
+     * Tests that a script can be replayed multiple times.
+     */
+    @Test
+    public void testReplayMultipleTimes() throws Exception
+    {
+        RecordedScript script = record(new LoggingHandler());
+        assertEquals("Different events", replay(script).getEvents(),
+                replay(script).getEvents());
+    }
+
+    /**
+     * Tests whether the recorded script is not affected by further events
+     * passed to the recorder.
+     */
+    @Test
+    public void testRecordedScriptIndependent() throws Exception
+    {
+        RecordedScript script = record(new LoggingHandler());
+        int count = script.getEventCount();
+        recorder.endElement("", "test", "test");
+        assertEquals("Script was changed", count, script.getEventCount());
+    }
+
+    /**
+     * Tests that an empty script can be replayed.
+     */
+    @Test
+    public void testReplayEmpty() throws Exception
+    {
+        RecordedScript script =
+                new RecordedScript.Recorder(null).getRecordedScript();
+        assertEquals("Wrong number of events", 0, script.getEventCount());
+        List<String> events = replay(script).getEvents();
+        assertEquals("Wrong events", 2, events.size());
+        assertEquals("No system ID", "startDocument " + SYSTEM_ID,
+                events.get(0));
+    }
+
+    /**
+     * A content handler which logs the events it receives. For content events
+     * the current line number reported by the locator is logged, too.
+     */
+    private static class LoggingHandler extends DefaultHandler
+    {
+        /** The list with the received events. */
+        private final List<String> events = new ArrayList<String>();
+
+        /** The locator. */
+        private Locator locator;
+
+        /**
+         * Returns the list with the events received so far.
+         *
+         * @return the received events
+         */
+        public List<String> getEvents()
+        {
+            return events;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator loc)
+        {
+            locator = loc;
+        }
+
+        @Override
+        public void startDocument()
+        {
+            events.add("startDocument " + locator.getSystemId());
+        }
+
+        @Override
+        public void endDocument()
+        {
+            events.add("endDocument");
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri)
+        {
+            log("prefix " + prefix + "=" + uri);
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix)
+        {
+            log("end prefix " + prefix);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName,
+                Attributes attributes)
+        {
+            StringBuilder buf = new StringBuilder();
+            buf.append("start ").append(uri).append(':').append(localName);
+            buf.append('(').append(qName).append(')');
+            for (int i = 0; i < attributes.getLength(); i++)
+            {
+                buf.append(' ').append(attributes.getURI(i)).append(':');
+                buf.append(attributes.getLocalName(i)).append('=');
+                buf.append(attributes.getValue(i));
+            }
+            log(buf.toString());
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName)
+        {
+            log("end " + uri + ":" + localName + "(" + qName + ")");
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length)
+        {
+            log("chars " + new String(ch, start, length));
+        }
+
+        @Override
+        public void processingInstruction(String target, String data)
+        {
+            log("pi " + target + " " + data);
+        }
+
+        /**
+         * Adds a content event to the log. The line number reported by the
+         * locator is appended.
+         *
+         * @param event the event
+         */
+        private void log(String event)
+        {
+            events.add(event + " @" + locator.getLineNumber());
+        }
+    }
+}
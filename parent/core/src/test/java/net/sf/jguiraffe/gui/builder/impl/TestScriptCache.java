@@ -0,0 +1,305 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ScriptCache}.
+ */
+public class TestScriptCache
+{
+    /** Constant for a test key. */
+    private static final String KEY = "file:/scripts/testScript.jelly";
+
+    /** Constant for a modification time. */
+    private static final long MODIFIED = 20251016L;
+
+    /** The cache to be tested. */
+    private ScriptCache cache;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        cache = new ScriptCache();
+    }
+
+    /**
+     * Creates an empty recorded script.
+     *
+     * @return the script
+     */
+    private static RecordedScript createScript()
+    {
+        return new RecordedScript.Recorder(null).getRecordedScript();
+    }
+
+    /**
+     * Tests a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertEquals("Wrong maximum size", ScriptCache.DEFAULT_MAX_SIZE,
+                cache.getMaxSize());
+        assertEquals("Wrong size", 0, cache.size());
+        assertEquals("Wrong check interval", ScriptCache.CHECK_DISABLED,
+                cache.getCheckInterval());
+    }
+
+    /**
+     * Tries to create an instance with a negative maximum size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNegativeSize()
+    {
+        new ScriptCache(-1);
+    }
+
+    /**
+     * Tests whether a script can be stored and queried.
+     */
+    @Test
+    public void testPutAndGet()
+    {
+        RecordedScript script = createScript();
+        cache.put(KEY, MODIFIED, script);
+        assertSame("Wrong script", script, cache.get(KEY));
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+        assertEquals("Wrong miss count", 0, cache.getMissCount());
+    }
+
+    /**
+     * Tests a query for an unknown script.
+     */
+    @Test
+    public void testGetUnknown()
+    {
+        assertNull("Got a script", cache.get(KEY));
+        assertEquals("Wrong miss count", 1, cache.getMissCount());
+    }
+
+    /**
+     * Tests that nothing is cached if the maximum size is 0.
+     */
+    @Test
+    public void testPutDisabled()
+    {
+        cache = new ScriptCache(0);
+        cache.put(KEY, MODIFIED, createScript());
+        assertEquals("Script was cached", 0, cache.size());
+    }
+
+    /**
+     * Tests whether scripts are evicted if the maximum size is reached.
+     */
+    @Test
+    public void testEviction()
+    {
+        final int maxSize = 2;
+        cache = new ScriptCache(maxSize);
+        RecordedScript script = createScript();
+        cache.put(KEY, MODIFIED, script);
+        cache.put(KEY + 1, MODIFIED, createScript());
+        cache.get(KEY);
+        cache.put(KEY + 2, MODIFIED, createScript());
+        assertEquals("Wrong size", maxSize, cache.size());
+        assertSame("Wrong script", script, cache.get(KEY));
+        assertNull("Script not evicted", cache.get(KEY + 1));
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClear()
+    {
+        cache.put(KEY, MODIFIED, createScript());
+        cache.get(KEY);
+        cache.clear();
+        assertEquals("Wrong size", 0, cache.size());
+        assertEquals("Wrong hit count", 0, cache.getHitCount());
+    }
+
+    /**
+     * Tests whether caching is supported depending on the maximum size.
+     */
+    @Test
+    public void testIsCachingSupported()
+    {
+        assertTrue("Caching not supported", cache.isCachingSupported());
+        assertFalse("Caching supported for size 0",
+                new ScriptCache(0).isCachingSupported());
+    }
+
+    /**
+     * Tests which script URLs can be cached.
+     */
+    @Test
+    public void testIsCacheable()
+    {
+        assertTrue("File not cacheable", cache.isCacheable(KEY));
+        assertTrue("Jar not cacheable",
+                cache.isCacheable("jar:file:/app.jar!/script.jelly"));
+        assertFalse("HTTP cacheable",
+                cache.isCacheable("http://www.test.org/script.jelly"));
+        assertFalse("Invalid URL cacheable", cache.isCacheable("script"));
+        assertFalse("Null cacheable", cache.isCacheable(null));
+        assertFalse("Cacheable for size 0",
+                new ScriptCache(0).isCacheable(KEY));
+    }
+
+    /**
+     * Creates a temporary file for a script stored in the cache.
+     *
+     * @return the file
+     * @throws IOException if an error occurs
+     */
+    private File createScriptFile() throws IOException
+    {
+        File file = File.createTempFile("script", ".jelly");
+        String url = file.toURI().toURL().toExternalForm();
+        cache.put(url, cache.currentModified(url), createScript());
+        return file;
+    }
+
+    /**
+     * Changes the modification time of the given file.
+     *
+     * @param file the file
+     */
+    private static void touch(File file)
+    {
+        assertTrue("Could not set modification time",
+                file.setLastModified(file.lastModified() - 60000));
+    }
+
+    /**
+     * Tests that modification times are not checked by default.
+     */
+    @Test
+    public void testGetNoCheckByDefault() throws IOException
+    {
+        File file = createScriptFile();
+        try
+        {
+            touch(file);
+            assertEquals("Wrong modification time", 0,
+                    cache.currentModified(file.toURI().toURL()
+                            .toExternalForm()));
+            assertNotNull("Not cached", cache.get(file.toURI().toURL()
+                    .toExternalForm()));
+        }
+        finally
+        {
+            assertTrue("Could not delete file", file.delete());
+        }
+    }
+
+    /**
+     * Tests that a modified script is detected if checks are enabled.
+     */
+    @Test
+    public void testGetOutdated() throws IOException
+    {
+        cache.setCheckInterval(0);
+        File file = createScriptFile();
+        try
+        {
+            String url = file.toURI().toURL().toExternalForm();
+            assertNotNull("Not cached", cache.get(url));
+            touch(file);
+            assertNull("Outdated script returned", cache.get(url));
+            assertEquals("Wrong miss count", 1, cache.getMissCount());
+        }
+        finally
+        {
+            assertTrue("Could not delete file", file.delete());
+        }
+    }
+
+    /**
+     * Tests that the modification time is not checked before the check
+     * interval has passed.
+     */
+    @Test
+    public void testGetCheckIntervalNotPassed() throws IOException
+    {
+        cache.setCheckInterval(60000);
+        File file = createScriptFile();
+        try
+        {
+            touch(file);
+            assertNotNull("Not cached", cache.get(file.toURI().toURL()
+                    .toExternalForm()));
+        }
+        finally
+        {
+            assertTrue("Could not delete file", file.delete());
+        }
+    }
+
+    /**
+     * Tests whether the modification time of a file can be determined.
+     */
+    @Test
+    public void testLastModifiedFile() throws IOException
+    {
+        File file = File.createTempFile("script", ".jelly");
+        try
+        {
+            assertEquals("Wrong modification time", file.lastModified(),
+                    ScriptCache.lastModified(file.toURI().toURL()));
+        }
+        finally
+        {
+            assertTrue("Could not delete file", file.delete());
+        }
+    }
+
+    /**
+     * Tests lastModified() for a non existing resource.
+     */
+    @Test
+    public void testLastModifiedNonExisting() throws IOException
+    {
+        assertEquals("Wrong modification time", 0,
+                ScriptCache.lastModified(new URL(
+                        "jar:file:/nonExisting.jar!/script.jelly")));
+    }
+
+    /**
+     * Tests lastModified() for a null URL.
+     */
+    @Test
+    public void testLastModifiedNull()
+    {
+        assertEquals("Wrong modification time", 0,
+                ScriptCache.lastModified(null));
+    }
+}
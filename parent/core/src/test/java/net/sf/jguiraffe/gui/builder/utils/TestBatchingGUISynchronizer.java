@@ -0,0 +1,324 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.builder.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code BatchingGUISynchronizer}.
+ */
+public class TestBatchingGUISynchronizer
+{
+    /** The wrapped synchronizer. */
+    private GUISynchronizerTestImpl wrappedSync;
+
+    /** A list for recording the execution of runnables. */
+    private List<String> executed;
+
+    /** The synchronizer to be tested. */
+    private BatchingGUISynchronizer sync;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        wrappedSync = new GUISynchronizerTestImpl();
+        executed = new ArrayList<String>();
+        sync = new BatchingGUISynchronizer(wrappedSync);
+        sync.setMaxBatchTime(Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Creates a runnable which records its execution.
+     *
+     * @param name the name of the runnable
+     * @return the runnable
+     */
+    private Runnable createRunnable(final String name)
+    {
+        return new Runnable()
+        {
+            public void run()
+            {
+                executed.add(name);
+            }
+        };
+    }
+
+    /**
+     * Tests the default values of a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        sync = new BatchingGUISynchronizer(wrappedSync);
+        assertSame("Wrong wrapped synchronizer", wrappedSync,
+                sync.getSynchronizer());
+        assertEquals("Wrong batch size",
+                BatchingGUISynchronizer.DEFAULT_MAX_BATCH_SIZE,
+                sync.getMaxBatchSize());
+        assertEquals("Wrong batch time",
+                BatchingGUISynchronizer.DEFAULT_MAX_BATCH_TIME,
+                sync.getMaxBatchTime());
+        assertEquals("Got pending runnables", 0, sync.getPendingCount());
+    }
+
+    /**
+     * Tries to create an instance without a wrapped synchronizer.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNullSynchronizer()
+    {
+        new BatchingGUISynchronizer(null);
+    }
+
+    /**
+     * Tests whether multiple runnables are executed in a single batch.
+     */
+    @Test
+    public void testAsyncInvokeBatch()
+    {
+        sync.asyncInvoke(createRunnable("r1"));
+        sync.asyncInvoke(createRunnable("r2"));
+        sync.asyncInvoke(createRunnable("r3"));
+        assertEquals("Wrong number of dispatches", 1, wrappedSync.tasks.size());
+        assertTrue("Already executed", executed.isEmpty());
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[r1, r2, r3]",
+                executed.toString());
+        assertEquals("Got pending runnables", 0, sync.getPendingCount());
+        assertTrue("Further dispatches", wrappedSync.tasks.isEmpty());
+    }
+
+    /**
+     * Tests whether a new drain task is scheduled after a batch has been
+     * processed.
+     */
+    @Test
+    public void testAsyncInvokeAfterBatch()
+    {
+        sync.asyncInvoke(createRunnable("r1"));
+        wrappedSync.runNext();
+        sync.asyncInvoke(createRunnable("r2"));
+        assertEquals("Wrong number of dispatches", 1, wrappedSync.tasks.size());
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[r1, r2]",
+                executed.toString());
+    }
+
+    /**
+     * Tests whether the batch size is taken into account.
+     */
+    @Test
+    public void testAsyncInvokeMaxBatchSize()
+    {
+        sync.setMaxBatchSize(2);
+        for (int i = 1; i <= 5; i++)
+        {
+            sync.asyncInvoke(createRunnable("r" + i));
+        }
+        wrappedSync.runNext();
+        assertEquals("Wrong first batch", "[r1, r2]", executed.toString());
+        assertEquals("Wrong pending count", 3, sync.getPendingCount());
+        wrappedSync.runNext();
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[r1, r2, r3, r4, r5]",
+                executed.toString());
+        assertTrue("Further dispatches", wrappedSync.tasks.isEmpty());
+    }
+
+    /**
+     * Tests whether at least one runnable is executed per batch even if the
+     * time limit is exceeded.
+     */
+    @Test
+    public void testAsyncInvokeMaxBatchTime()
+    {
+        sync.setMaxBatchTime(1);
+        sync.asyncInvoke(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(5);
+                }
+                catch (InterruptedException iex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                executed.add("slow");
+            }
+        });
+        sync.asyncInvoke(createRunnable("r2"));
+        wrappedSync.runNext();
+        assertEquals("Wrong first batch", "[slow]", executed.toString());
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[slow, r2]",
+                executed.toString());
+    }
+
+    /**
+     * Tests whether runnables with the same key are coalesced.
+     */
+    @Test
+    public void testAsyncInvokeCoalescing()
+    {
+        sync.asyncInvoke("key", createRunnable("r1"));
+        sync.asyncInvoke(createRunnable("r2"));
+        sync.asyncInvoke("key", createRunnable("r3"));
+        assertEquals("Wrong pending count", 2, sync.getPendingCount());
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[r3, r2]",
+                executed.toString());
+    }
+
+    /**
+     * Tests that an exception thrown by a runnable does not affect the other
+     * runnables of the batch.
+     */
+    @Test
+    public void testAsyncInvokeException()
+    {
+        sync.asyncInvoke(new Runnable()
+        {
+            public void run()
+            {
+                throw new IllegalStateException("Test exception");
+            }
+        });
+        sync.asyncInvoke(createRunnable("r2"));
+        wrappedSync.runNext();
+        assertEquals("Wrong executed runnables", "[r2]", executed.toString());
+    }
+
+    /**
+     * Tries to pass a null runnable.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncInvokeNull()
+    {
+        sync.asyncInvoke("key", null);
+    }
+
+    /**
+     * Tests whether syncInvoke() executes pending runnables first.
+     */
+    @Test
+    public void testSyncInvoke()
+    {
+        sync.asyncInvoke(createRunnable("r1"));
+        sync.syncInvoke(createRunnable("sync"));
+        assertEquals("Wrong executed runnables", "[r1, sync]",
+                executed.toString());
+        assertEquals("Wrong number of sync invocations", 1,
+                wrappedSync.syncCount);
+        wrappedSync.runNext();
+        assertEquals("Runnable executed again", 2, executed.size());
+    }
+
+    /**
+     * Tests syncInvoke() on the event dispatch thread.
+     */
+    @Test
+    public void testSyncInvokeEDT()
+    {
+        wrappedSync.edt = true;
+        sync.asyncInvoke(createRunnable("r1"));
+        sync.syncInvoke(createRunnable("sync"));
+        assertEquals("Wrong executed runnables", "[r1, sync]",
+                executed.toString());
+        assertEquals("Wrapped synchronizer called", 0, wrappedSync.syncCount);
+    }
+
+    /**
+     * Tests isEventDispatchThread().
+     */
+    @Test
+    public void testIsEventDispatchThread()
+    {
+        assertFalse("Wrong result (1)", sync.isEventDispatchThread());
+        wrappedSync.edt = true;
+        assertTrue("Wrong result (2)", sync.isEventDispatchThread());
+    }
+
+    /**
+     * Tries to set an invalid batch size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMaxBatchSizeInvalid()
+    {
+        sync.setMaxBatchSize(0);
+    }
+
+    /**
+     * Tries to set an invalid batch time.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMaxBatchTimeInvalid()
+    {
+        sync.setMaxBatchTime(0);
+    }
+
+    /**
+     * A simple synchronizer implementation which records asynchronous tasks,
+     * so that they can be executed manually.
+     */
+    private static class GUISynchronizerTestImpl implements GUISynchronizer
+    {
+        /** The list with asynchronous tasks. */
+        final LinkedList<Runnable> tasks = new LinkedList<Runnable>();
+
+        /** A counter for synchronous invocations. */
+        int syncCount;
+
+        /** The flag for the event dispatch thread. */
+        boolean edt;
+
+        /**
+         * Executes the next asynchronous task.
+         */
+        public void runNext()
+        {
+            tasks.removeFirst().run();
+        }
+
+        public void asyncInvoke(Runnable runnable)
+        {
+            tasks.add(runnable);
+        }
+
+        public void syncInvoke(Runnable runnable)
+        {
+            syncCount++;
+            runnable.run();
+        }
+
+        public boolean isEventDispatchThread()
+        {
+            return edt;
+        }
+    }
+}
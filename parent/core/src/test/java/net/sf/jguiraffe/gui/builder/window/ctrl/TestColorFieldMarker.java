@@ -142,6 +142,32 @@ public class TestColorFieldMarker
                 .getForegroundColor(FieldValidationStatus.INVALID));
     }
 
+    /**
+     * Tests whether the pending foreground color can be set correctly.
+     */
+    @Test
+    public void testSetPendingForeground()
+    {
+        marker.setForegroundColor(FieldValidationStatus.PENDING, ERROR_FG);
+        assertEquals("Wrong color (1)", ERROR_FG, marker.getPendingForeground());
+        marker.setPendingForeground(NORMAL_FG);
+        assertEquals("Wrong color (2)", NORMAL_FG, marker
+                .getForegroundColor(FieldValidationStatus.PENDING));
+    }
+
+    /**
+     * Tests whether the pending background color can be set correctly.
+     */
+    @Test
+    public void testSetPendingBackground()
+    {
+        marker.setBackgroundColor(FieldValidationStatus.PENDING, ERROR_BG);
+        assertEquals("Wrong color (1)", ERROR_BG, marker.getPendingBackground());
+        marker.setPendingBackground(NORMAL_BG);
+        assertEquals("Wrong color (2)", NORMAL_BG, marker
+                .getBackgroundColor(FieldValidationStatus.PENDING));
+    }
+
     /**
      * Tests whether the invalid background color can be set correctly.
      */
@@ -357,6 +383,28 @@ public class TestColorFieldMarker
         EasyMock.verify(mockWidgetHandler, vres);
     }
 
+    /**
+     * Tests whether updateField() takes the pending status of a field into
+     * account.
+     */
+    @Test
+    public void testUpdateFieldPending()
+    {
+        mockWidgetHandler = initHandler(true);
+        mockWidgetHandler.setBackgroundColor(ERROR_BG);
+        mockWidgetHandler.setForegroundColor(NORMAL_FG);
+        EasyMock.replay(mockWidgetHandler);
+        marker.setPendingBackground(ERROR_BG);
+        marker.setInvalidBackground(NORMAL_BG);
+        FormControllerTestImpl ctrl = setUpController();
+        ctrl.pendingField = FIELD;
+        marker.updateField(ctrl, FIELD, new DefaultFormValidatorResults(
+                new HashMap<String, ValidationResult>()), true);
+        assertEquals("Wrong status", FieldValidationStatus.PENDING, marker
+                .getLastValidationStatus(FIELD));
+        EasyMock.verify(mockWidgetHandler);
+    }
+
     /**
      * Tests updateFields() if the field status changes, but no colors are
      * defined for the new status. In this case the widget's default colors must
@@ -461,6 +509,9 @@ public class TestColorFieldMarker
         /** The validation results to be returned. */
         FormValidatorResults validatorResults;
 
+        /** The name of a field whose validation is pending. */
+        String pendingField;
+
         /**
          * Returns the mock validator results.
          */
@@ -469,6 +520,15 @@ public class TestColorFieldMarker
         {
             return validatorResults;
         }
+
+        /**
+         * Reports the pending field.
+         */
+        @Override
+        public boolean isFieldValidationPending(String name)
+        {
+            return name.equals(pendingField);
+        }
     }
 
     /**
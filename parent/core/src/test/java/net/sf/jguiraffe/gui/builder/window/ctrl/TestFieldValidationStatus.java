@@ -16,6 +16,7 @@
 package net.sf.jguiraffe.gui.builder.window.ctrl;
 
 import static org.junit.Assert.assertEquals;
+import net.sf.jguiraffe.transform.DefaultValidationResult;
 import net.sf.jguiraffe.transform.ValidationMessageLevel;
 import net.sf.jguiraffe.transform.ValidationResult;
 
@@ -122,4 +123,26 @@ public class TestFieldValidationStatus
     {
         checkGetStatusInvalid(FieldValidationStatus.NOT_VISITED_INVALID, false);
     }
+
+    /**
+     * Tests getStatus() if the validation is pending.
+     */
+    @Test
+    public void testGetStatusPending()
+    {
+        assertEquals("Wrong status", FieldValidationStatus.PENDING,
+                FieldValidationStatus.getStatus(
+                        DefaultValidationResult.VALID, false, true));
+    }
+
+    /**
+     * Tests getStatus() with a pending flag of false.
+     */
+    @Test
+    public void testGetStatusNotPending()
+    {
+        assertEquals("Wrong status", FieldValidationStatus.VALID,
+                FieldValidationStatus.getStatus(
+                        DefaultValidationResult.VALID, true, false));
+    }
 }
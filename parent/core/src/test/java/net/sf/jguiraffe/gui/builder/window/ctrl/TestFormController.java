@@ -23,6 +23,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Locale;
@@ -33,16 +34,19 @@ import net.sf.jguiraffe.gui.builder.BuilderData;
 import net.sf.jguiraffe.gui.builder.components.ComponentBuilderData;
 import net.sf.jguiraffe.gui.builder.components.ComponentManagerImpl;
 import net.sf.jguiraffe.gui.builder.event.FormActionEvent;
+import net.sf.jguiraffe.gui.builder.event.FormChangeEvent;
 import net.sf.jguiraffe.gui.builder.event.FormEventManager;
 import net.sf.jguiraffe.gui.builder.event.FormFocusEvent;
 import net.sf.jguiraffe.gui.builder.event.FormListenerType;
 import net.sf.jguiraffe.gui.builder.event.PlatformEventManagerImpl;
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
 import net.sf.jguiraffe.gui.builder.utils.MessageOutput;
 import net.sf.jguiraffe.gui.builder.window.Window;
 import net.sf.jguiraffe.gui.builder.window.WindowBuilderData;
 import net.sf.jguiraffe.gui.builder.window.WindowEvent;
 import net.sf.jguiraffe.gui.cmd.Command;
 import net.sf.jguiraffe.gui.cmd.CommandQueue;
+import net.sf.jguiraffe.gui.forms.AsyncValidatorWrapper;
 import net.sf.jguiraffe.gui.forms.ComponentHandler;
 import net.sf.jguiraffe.gui.forms.ComponentHandlerImpl;
 import net.sf.jguiraffe.gui.forms.DefaultFieldHandler;
@@ -60,7 +64,10 @@ import net.sf.jguiraffe.transform.ValidationMessage;
 import net.sf.jguiraffe.transform.ValidationMessageConstants;
 import net.sf.jguiraffe.transform.ValidationMessageLevel;
 import net.sf.jguiraffe.transform.ValidationResult;
+import net.sf.jguiraffe.transform.Validator;
 
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -91,6 +98,9 @@ public class TestFormController
     /** Constant for the caption of the validation message box. */
     private static final String MSGBOX_CAPTION = "Validation errors!";
 
+    /** Constant for the name of a second test field. */
+    private static final String FIELD2 = "otherField";
+
     /** Stores the component builder data object used by the tests. */
     private ComponentBuilderData compBuilderData;
 
@@ -581,6 +591,344 @@ public class TestFormController
         mockListener.verifyEmpty();
     }
 
+    /**
+     * Adds a second field to the test form. The validator for this field is
+     * returned.
+     *
+     * @return the validator for the second field
+     */
+    private ValidatorMock setUpSecondField()
+    {
+        DefaultFieldHandler fh = new DefaultFieldHandler();
+        ComponentHandlerImpl ch = new ComponentHandlerImpl();
+        ch.setType(String.class);
+        ch.setComponent("otherComponent");
+        ValidatorMock validator2 = new ValidatorMock();
+        validator2.validFlag = true;
+        fh.setSyntaxValidator(validator2);
+        fh.setComponentHandler(ch);
+        compBuilderData.getForm().addField(FIELD2, fh);
+        return validator2;
+    }
+
+    /**
+     * Creates a change event for the specified field.
+     *
+     * @param name the name of the field
+     * @return the change event
+     */
+    private FormChangeEvent changeEvent(String name)
+    {
+        return new FormChangeEvent(this,
+                compBuilderData.getComponentHandler(name), name);
+    }
+
+    /**
+     * Tests whether the controller registers itself as change listener in
+     * incremental validation mode.
+     */
+    @Test
+    public void testWindowOpenedChangeListenerIncremental()
+    {
+        setUpComponents();
+        controller.setIncrementalValidation(true);
+        controller.windowOpened(event());
+        assertEquals("No change listener registered", 1, getEventManager()
+                .getNumberOf(FIELD, FormListenerType.CHANGE));
+    }
+
+    /**
+     * Tests that no change listener is registered if incremental validation is
+     * disabled.
+     */
+    @Test
+    public void testWindowOpenedNoChangeListener()
+    {
+        setUpComponents();
+        controller.windowOpened(event());
+        assertEquals("Change listener registered", 0, getEventManager()
+                .getNumberOf(FIELD, FormListenerType.CHANGE));
+    }
+
+    /**
+     * Tests whether an incremental validation only checks changed fields.
+     */
+    @Test
+    public void testIncrementalValidationChangedFields()
+    {
+        setUpComponents();
+        ValidatorMock validator2 = setUpSecondField();
+        validator.validFlag = true;
+        controller.setIncrementalValidation(true);
+        assertTrue("Not valid (1)", controller.validate().isValid());
+        controller.elementChanged(changeEvent(FIELD));
+        assertTrue("Not valid (2)", controller.validate().isValid());
+        assertEquals("Wrong invocations (1)", 2, validator.invocationCount);
+        assertEquals("Wrong invocations (2)", 1, validator2.invocationCount);
+    }
+
+    /**
+     * Tests an incremental validation if no field has been changed.
+     */
+    @Test
+    public void testIncrementalValidationNoChanges()
+    {
+        setUpComponents();
+        prepareValidationCheck(FieldValidationStatus.INVALID);
+        controller.setIncrementalValidation(true);
+        FormValidatorResults vres = controller.validate();
+        assertEquals("Wrong results", vres, controller.validate());
+        assertEquals("Wrong invocations", 1, validator.invocationCount);
+        mockListener.nextEvent();
+        FormControllerValidationEvent event = mockListener.nextEvent();
+        assertTrue("Not incremental", event.isIncremental());
+        assertTrue("Got changed fields", event.getChangedFieldNames()
+                .isEmpty());
+    }
+
+    /**
+     * Tests whether dependent fields are validated in incremental mode.
+     */
+    @Test
+    public void testIncrementalValidationDependentFields()
+    {
+        setUpComponents();
+        ValidatorMock validator2 = setUpSecondField();
+        controller.setIncrementalValidation(true);
+        controller.addFieldDependency(FIELD, FIELD2);
+        controller.validate();
+        controller.elementChanged(changeEvent(FIELD));
+        controller.validate();
+        assertEquals("Wrong invocations", 2, validator2.invocationCount);
+    }
+
+    /**
+     * Tests whether validation events report only the changed fields in
+     * incremental mode.
+     */
+    @Test
+    public void testIncrementalValidationChangedFieldsInEvent()
+    {
+        setUpComponents();
+        setUpSecondField();
+        prepareValidationCheck(FieldValidationStatus.VALID);
+        controller.setIncrementalValidation(true);
+        assertTrue("Not valid", controller.validate().isValid());
+        validator.validFlag = false;
+        controller.elementChanged(changeEvent(FIELD));
+        controller.elementChanged(changeEvent(FIELD2));
+        FormValidatorResults vres = controller.validate();
+        assertFalse("Valid", vres.isValid());
+        FormControllerValidationEvent event = mockListener.nextEvent();
+        assertEquals("Wrong changed fields (1)", 2, event
+                .getChangedFieldNames().size());
+        event = mockListener.nextEvent();
+        assertEquals("Wrong changed fields (2)",
+                Collections.singleton(FIELD), event.getChangedFieldNames());
+        assertSame("Wrong results", vres, event.getValidationResults());
+        mockListener.verifyEmpty();
+    }
+
+    /**
+     * Tests that change events for unknown components are ignored.
+     */
+    @Test
+    public void testIncrementalValidationChangedNonFormComponent()
+    {
+        setUpComponents();
+        validator.validFlag = true;
+        controller.setIncrementalValidation(true);
+        controller.validate();
+        controller.elementChanged(changeEvent(BTN_OK));
+        assertTrue("Not valid", controller.validate().isValid());
+        assertEquals("Wrong invocations", 1, validator.invocationCount);
+    }
+
+    /**
+     * Tests that validateAndDisplayMessages() checks all fields in incremental
+     * mode.
+     */
+    @Test
+    public void testIncrementalValidationDisplayMessagesFull()
+    {
+        setUpComponents();
+        ValidatorMock validator2 = setUpSecondField();
+        validator.validFlag = true;
+        controller.setIncrementalValidation(true);
+        controller.validate();
+        controller.validateAndDisplayMessages();
+        assertEquals("Wrong invocations", 2, validator2.invocationCount);
+    }
+
+    /**
+     * Tries to add a field dependency with a null field name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddFieldDependencyNull()
+    {
+        controller.addFieldDependency(null, FIELD);
+    }
+
+    /**
+     * Tests the changed fields of a non-incremental validation event.
+     */
+    @Test
+    public void testValidationEventChangedFieldsDefault()
+    {
+        setUpComponents();
+        FormValidatorResults vres = controller.getLastValidationResults();
+        FormControllerValidationEvent event =
+                new FormControllerValidationEvent(controller, vres);
+        assertFalse("Incremental", event.isIncremental());
+        assertEquals("Wrong changed fields", vres.getFieldNames(),
+                event.getChangedFieldNames());
+    }
+
+    /**
+     * Installs an asynchronous validator for the test field. The validator
+     * delegates to the validator mock. The command queue is a mock which
+     * records the commands passed to it; GUI updates are recorded, too.
+     *
+     * @param commands the capture for the executed commands
+     * @param guiTasks the capture for the GUI updates
+     * @return the async validator wrapper
+     */
+    private AsyncValidatorWrapper setUpAsyncValidator(
+            Capture<Command> commands, Capture<Runnable> guiTasks)
+    {
+        setUpComponents();
+        CommandQueue queue = EasyMock.createMock(CommandQueue.class);
+        GUISynchronizer sync = EasyMock.createMock(GUISynchronizer.class);
+        BuilderData data = EasyMock.createMock(BuilderData.class);
+        BeanContext context = EasyMock.createMock(BeanContext.class);
+        EasyMock.expect(context.getBean(ComponentBuilderData.KEY_BUILDER_DATA))
+                .andReturn(data).anyTimes();
+        EasyMock.expect(data.getCommandQueue()).andReturn(queue).anyTimes();
+        EasyMock.expect(queue.getGUISynchronizer()).andReturn(sync)
+                .anyTimes();
+        queue.execute(EasyMock.capture(commands));
+        EasyMock.expectLastCall().anyTimes();
+        sync.asyncInvoke(EasyMock.capture(guiTasks));
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.replay(context, data, queue, sync);
+        compBuilderData.setBeanContext(context);
+
+        AsyncValidatorWrapper wrapper =
+                new AsyncValidatorWrapper(new Validator()
+                {
+                    public ValidationResult isValid(Object o,
+                            TransformerContext ctx)
+                    {
+                        return validator.isValid(o);
+                    }
+                }, compBuilderData.getTransformerContext());
+        ((DefaultFieldHandler) compBuilderData.getForm().getField(FIELD))
+                .setSyntaxValidator(wrapper);
+        return wrapper;
+    }
+
+    /**
+     * Executes the commands and GUI updates recorded by the given captures.
+     *
+     * @param commands the capture for the executed commands
+     * @param guiTasks the capture for the GUI updates
+     * @throws Exception if an error occurs
+     */
+    private static void executeAsyncValidations(Capture<Command> commands,
+            Capture<Runnable> guiTasks) throws Exception
+    {
+        for (Command cmd : commands.getValues())
+        {
+            cmd.execute();
+            cmd.onFinally();
+        }
+        commands.reset();
+        for (Runnable r : guiTasks.getValues())
+        {
+            r.run();
+        }
+        guiTasks.reset();
+    }
+
+    /**
+     * Tests whether asynchronous validators are executed on the command queue
+     * and whether the form is validated again when the result is available.
+     */
+    @Test
+    public void testAsyncValidation() throws Exception
+    {
+        Capture<Command> commands = Capture.newInstance(CaptureType.ALL);
+        Capture<Runnable> guiTasks = Capture.newInstance(CaptureType.ALL);
+        AsyncValidatorWrapper wrapper =
+                setUpAsyncValidator(commands, guiTasks);
+        validator.validFlag = true;
+        controller.windowOpened(event());
+        assertTrue("Async not enabled", wrapper.isAsyncValidationEnabled());
+        assertTrue("Not pending", controller.isFieldValidationPending(FIELD));
+        assertFalse("Valid", controller.getLastValidationResults().isValid());
+        assertEquals("Validator already invoked", 0,
+                validator.invocationCount);
+
+        executeAsyncValidations(commands, guiTasks);
+        assertFalse("Still pending",
+                controller.isFieldValidationPending(FIELD));
+        assertTrue("Not valid", controller.getLastValidationResults()
+                .isValid());
+        assertEquals("Wrong invocations", 1, validator.invocationCount);
+    }
+
+    /**
+     * Tests the pending status of a field without an async validator.
+     */
+    @Test
+    public void testIsFieldValidationPendingNoAsyncValidator()
+    {
+        setUpComponents();
+        controller.windowOpened(event());
+        assertFalse("Pending", controller.isFieldValidationPending(FIELD));
+    }
+
+    /**
+     * Tests that validateAndDisplayMessages() invokes async validators
+     * directly.
+     */
+    @Test
+    public void testAsyncValidationDisplayMessages() throws Exception
+    {
+        Capture<Command> commands = Capture.newInstance(CaptureType.ALL);
+        Capture<Runnable> guiTasks = Capture.newInstance(CaptureType.ALL);
+        AsyncValidatorWrapper wrapper =
+                setUpAsyncValidator(commands, guiTasks);
+        validator.validFlag = true;
+        controller.windowOpened(event());
+        assertTrue("Not valid", controller.validateAndDisplayMessages()
+                .isValid());
+        assertEquals("Wrong invocations", 1, validator.invocationCount);
+        assertFalse("Pending", controller.isFieldValidationPending(FIELD));
+        assertTrue("Async not enabled", wrapper.isAsyncValidationEnabled());
+        executeAsyncValidations(commands, guiTasks);
+        assertEquals("Stale validation executed", 1,
+                validator.invocationCount);
+    }
+
+    /**
+     * Tests that async validation is disabled when the window is closed.
+     */
+    @Test
+    public void testAsyncValidationWindowClosed() throws Exception
+    {
+        Capture<Command> commands = Capture.newInstance(CaptureType.ALL);
+        Capture<Runnable> guiTasks = Capture.newInstance(CaptureType.ALL);
+        AsyncValidatorWrapper wrapper =
+                setUpAsyncValidator(commands, guiTasks);
+        controller.windowOpened(event());
+        controller.windowClosed(event());
+        assertFalse("Async enabled", wrapper.isAsyncValidationEnabled());
+        assertFalse("Pending", controller.isFieldValidationPending(FIELD));
+        executeAsyncValidations(commands, guiTasks);
+        assertEquals("Validator invoked", 0, validator.invocationCount);
+    }
+
     /**
      * Prepares a test that accesses the current builder data. A mock for a bean
      * context will be initialized to expect a request for the builder data. The
@@ -1210,8 +1558,12 @@ public class TestFormController
         /** A flag whether the object to test should be valid or invalid. */
         private boolean validFlag;
 
+        /** A counter for the invocations of this validator. */
+        private int invocationCount;
+
         public ValidationResult isValid(Object o)
         {
+            invocationCount++;
             if (validFlag)
             {
                 return DefaultValidationResult.VALID;
@@ -1248,6 +1600,18 @@ public class TestFormController
     {
         private String testInputField;
 
+        private String otherField;
+
+        public String getOtherField()
+        {
+            return otherField;
+        }
+
+        public void setOtherField(String otherField)
+        {
+            this.otherField = otherField;
+        }
+
         public String getTestInputField()
         {
             return testInputField;
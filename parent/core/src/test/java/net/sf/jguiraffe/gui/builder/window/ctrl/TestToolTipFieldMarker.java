@@ -256,6 +256,39 @@ public class TestToolTipFieldMarker
         EasyMock.verify(getToolTipManager(), validationResults);
     }
 
+    /**
+     * Tests whether an incremental validation event only affects the changed
+     * fields.
+     */
+    @Test
+    public void testValidationPerformedIncremental()
+    {
+        setUpController();
+        String fld1 = FIELD + "0";
+        Set<String> fields = new LinkedHashSet<String>();
+        fields.add(FIELD);
+        fields.add(fld1);
+        setUpValidationResults(fields);
+        getToolTipManager().setAdditionalToolTip(FIELD, message(FIELD));
+        getToolTipManager().setAdditionalToolTip(fld1, message(fld1));
+        String validField = VALID_FIELD + "0";
+        ValidationResult vres = EasyMock.createMock(ValidationResult.class);
+        EasyMock.expect(vres.getValidationMessages()).andReturn(emptyMessages)
+                .times(2);
+        EasyMock.expect(validationResults.getResultsFor(fld1)).andReturn(vres);
+        EasyMock.expect(validationResults.getResultsFor(validField))
+                .andReturn(vres);
+        getToolTipManager().setAdditionalToolTip(fld1, null);
+        EasyMock.replay(vres, getToolTipManager(), validationResults);
+        marker.validationPerformed(event());
+        marker.validationPerformed(new FormControllerValidationEvent(
+                controller, validationResults, Collections.singleton(fld1)));
+        marker.validationPerformed(new FormControllerValidationEvent(
+                controller, validationResults, Collections
+                        .singleton(validField)));
+        EasyMock.verify(vres, getToolTipManager(), validationResults);
+    }
+
     /**
      * A test implementation of FormValidationMessageFormat. This implementation
      * tests whether formatField() is called with expected parameters and
@@ -16,10 +16,12 @@
 package net.sf.jguiraffe.gui.cmd;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import org.easymock.EasyMock;
 import org.junit.Test;
 
 /**
@@ -84,6 +86,35 @@ public class TestCommandBase
     /**
      * A concrete test implementation of CommandBase.
      */
+    /**
+     * Tests isCancelled() if no command handle has been set.
+     */
+    @Test
+    public void testIsCancelledNoHandle()
+    {
+        CommandBaseTestImpl cmd = new CommandBaseTestImpl();
+        assertNull("Got a handle", cmd.getCommandHandle());
+        assertFalse("Canceled", cmd.isCancelled());
+        cmd.updateProgress(1);
+    }
+
+    /**
+     * Tests whether the command handle is evaluated.
+     */
+    @Test
+    public void testCommandHandle()
+    {
+        CommandHandle handle = EasyMock.createMock(CommandHandle.class);
+        EasyMock.expect(handle.isCancelled()).andReturn(Boolean.TRUE);
+        handle.setProgress(50);
+        EasyMock.replay(handle);
+        CommandBaseTestImpl cmd = new CommandBaseTestImpl();
+        cmd.setCommandHandle(handle);
+        assertTrue("Not canceled", cmd.isCancelled());
+        cmd.updateProgress(50);
+        EasyMock.verify(handle);
+    }
+
     private static class CommandBaseTestImpl extends CommandBase
     {
         /** The number of invocations of performGUIUpdate(). */
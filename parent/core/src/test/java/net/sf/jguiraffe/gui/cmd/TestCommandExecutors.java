@@ -0,0 +1,230 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
+
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CommandExecutors}.
+ */
+public class TestCommandExecutors
+{
+    /** Constant for the concurrency limit used by tests. */
+    private static final int LIMIT = 3;
+
+    /** Constant for the number of tasks to execute. */
+    private static final int TASK_COUNT = 12;
+
+    /** Constant for the timeout when waiting for tasks (in seconds). */
+    private static final long TIMEOUT = 10;
+
+    /** The executor service to be tested. */
+    private ExecutorService executor;
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes a number of blocking tasks on the test executor and returns the
+     * maximum number of tasks that were running at the same time.
+     *
+     * @return the maximum number of concurrent tasks
+     * @throws InterruptedException if waiting is interrupted
+     */
+    private int executeBlockingTasks() throws InterruptedException
+    {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch latchDone = new CountDownLatch(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++)
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    int count = running.incrementAndGet();
+                    int max;
+                    do
+                    {
+                        max = maxRunning.get();
+                    } while (count > max
+                            && !maxRunning.compareAndSet(max, count));
+                    try
+                    {
+                        Thread.sleep(20);
+                    }
+                    catch (InterruptedException iex)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    latchDone.countDown();
+                }
+            });
+        }
+        assertTrue("Tasks not finished",
+                latchDone.await(TIMEOUT, TimeUnit.SECONDS));
+        return maxRunning.get();
+    }
+
+    /**
+     * Tests whether the concurrency limit is taken into account by a thread
+     * per command executor.
+     */
+    @Test
+    public void testNewThreadPerCommandExecutorLimit()
+            throws InterruptedException
+    {
+        executor = CommandExecutors.newThreadPerCommandExecutor(LIMIT);
+        int max = executeBlockingTasks();
+        assertTrue("Limit exceeded: " + max, max <= LIMIT);
+        assertTrue("No concurrent execution: " + max, max > 1);
+    }
+
+    /**
+     * Tests whether a platform thread executor is created with the expected
+     * settings.
+     */
+    @Test
+    public void testNewPlatformThreadExecutor()
+    {
+        executor = CommandExecutors.newPlatformThreadExecutor(LIMIT);
+        ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
+        assertEquals("Wrong maximum pool size", LIMIT,
+                tpe.getMaximumPoolSize());
+        assertTrue("No thread timeout", tpe.allowsCoreThreadTimeOut());
+    }
+
+    /**
+     * Tests whether a thread per command executor falls back to platform
+     * threads if virtual threads are not supported.
+     */
+    @Test
+    public void testNewThreadPerCommandExecutorPlatformThreads()
+    {
+        executor = CommandExecutors.newThreadPerCommandExecutor(LIMIT);
+        assertEquals("Wrong executor type",
+                !CommandExecutors.isVirtualThreadSupported(),
+                executor instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * Tests whether limitConcurrency() restricts the number of tasks running
+     * on an unbounded executor.
+     */
+    @Test
+    public void testLimitConcurrency() throws InterruptedException
+    {
+        executor =
+                CommandExecutors.limitConcurrency(
+                        Executors.newCachedThreadPool(), LIMIT);
+        int max = executeBlockingTasks();
+        assertTrue("Limit exceeded: " + max, max <= LIMIT);
+    }
+
+    /**
+     * Tests whether the executor returned by limitConcurrency() can be shut
+     * down.
+     */
+    @Test
+    public void testLimitConcurrencyShutdown() throws InterruptedException
+    {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        executor = CommandExecutors.limitConcurrency(delegate, LIMIT);
+        executor.shutdown();
+        assertTrue("Not shut down", executor.isShutdown());
+        assertTrue("Delegate not shut down", delegate.isShutdown());
+        assertTrue("Not terminated",
+                executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue("Wrong terminated flag", executor.isTerminated());
+    }
+
+    /**
+     * Tests whether a thread per command executor can be used by a command
+     * queue.
+     */
+    @Test
+    public void testCommandQueueWithThreadPerCommandExecutor()
+            throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(TASK_COUNT);
+        executor = CommandExecutors.newThreadPerCommandExecutor(LIMIT);
+        GUISynchronizer sync = EasyMock.createNiceMock(GUISynchronizer.class);
+        EasyMock.replay(sync);
+        CommandQueueImpl queue = new CommandQueueImpl(sync, executor);
+        for (int i = 0; i < TASK_COUNT; i++)
+        {
+            queue.execute(new CommandBase(false)
+            {
+                public void execute() throws Exception
+                {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue("Commands not executed",
+                latch.await(TIMEOUT, TimeUnit.SECONDS));
+        queue.shutdown(true);
+    }
+
+    /**
+     * Tries to create an executor with an invalid concurrency limit.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewThreadPerCommandExecutorInvalidLimit()
+    {
+        CommandExecutors.newThreadPerCommandExecutor(0);
+    }
+
+    /**
+     * Tries to create a platform thread executor with an invalid concurrency
+     * limit.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewPlatformThreadExecutorInvalidLimit()
+    {
+        CommandExecutors.newPlatformThreadExecutor(-1);
+    }
+
+    /**
+     * Tries to limit the concurrency of a null executor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitConcurrencyNullDelegate()
+    {
+        CommandExecutors.limitConcurrency(null, LIMIT);
+    }
+}
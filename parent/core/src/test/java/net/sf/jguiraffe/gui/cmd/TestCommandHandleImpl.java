@@ -0,0 +1,291 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.sf.jguiraffe.gui.builder.components.model.ProgressBarHandler;
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
+
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CommandHandleImpl}.
+ */
+public class TestCommandHandleImpl
+{
+    /** Constant for the timeout when waiting for threads (in seconds). */
+    private static final long TIMEOUT = 10;
+
+    /** A mock for the GUI synchronizer. */
+    private GUISynchronizer sync;
+
+    /** Captures the runnables passed to the synchronizer. */
+    private Capture<Runnable> guiTasks;
+
+    /** The command queue. */
+    private CommandQueueImpl queue;
+
+    /** The test command. */
+    private Command command;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        sync = EasyMock.createMock(GUISynchronizer.class);
+        guiTasks = Capture.newInstance(CaptureType.ALL);
+        sync.asyncInvoke(EasyMock.capture(guiTasks));
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.replay(sync);
+        queue = new CommandQueueImpl(sync);
+        command = EasyMock.createNiceMock(Command.class);
+    }
+
+    /**
+     * Creates a handle for the test command with the given task.
+     *
+     * @param task the task
+     * @return the handle
+     */
+    private CommandHandleImpl createHandle(Runnable task)
+    {
+        return new CommandHandleImpl(queue, command, task);
+    }
+
+    /**
+     * Executes all runnables passed to the GUI synchronizer.
+     */
+    private void runGUITasks()
+    {
+        for (Runnable r : guiTasks.getValues())
+        {
+            r.run();
+        }
+        guiTasks.reset();
+    }
+
+    /**
+     * Tests whether the wrapped task is executed.
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        Runnable task = EasyMock.createMock(Runnable.class);
+        task.run();
+        EasyMock.replay(task);
+        CommandHandleImpl handle = createHandle(task);
+        assertFalse("Already done", handle.isDone());
+        handle.run();
+        assertTrue("Not done", handle.isDone());
+        assertFalse("Canceled", handle.isCancelled());
+        assertNull("Wrong result", handle.get());
+        assertFalse("Could cancel", handle.cancel(true));
+        EasyMock.verify(task);
+    }
+
+    /**
+     * Tests that the task is executed only once.
+     */
+    @Test
+    public void testRunTwice()
+    {
+        Runnable task = EasyMock.createMock(Runnable.class);
+        task.run();
+        EasyMock.replay(task);
+        CommandHandleImpl handle = createHandle(task);
+        handle.run();
+        handle.run();
+        EasyMock.verify(task);
+    }
+
+    /**
+     * Tests get() on a canceled command.
+     */
+    @Test(expected = CancellationException.class)
+    public void testGetCancelled() throws Exception
+    {
+        CommandHandleImpl handle =
+                createHandle(EasyMock.createMock(Runnable.class));
+        handle.cancel(false);
+        handle.get();
+    }
+
+    /**
+     * Tests get() with a timeout if the command is not complete.
+     */
+    @Test(expected = TimeoutException.class)
+    public void testGetTimeout() throws Exception
+    {
+        createHandle(EasyMock.createMock(Runnable.class)).get(10,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tests whether a running command can be canceled with interruption and
+     * that the interrupted flag is cleared afterwards.
+     */
+    @Test
+    public void testCancelRunningInterrupt() throws Exception
+    {
+        final CountDownLatch latchStarted = new CountDownLatch(1);
+        final boolean[] interrupted = new boolean[2];
+        final CommandHandleImpl handle = createHandle(new Runnable()
+        {
+            public void run()
+            {
+                latchStarted.countDown();
+                try
+                {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT));
+                }
+                catch (InterruptedException iex)
+                {
+                    interrupted[0] = true;
+                }
+            }
+        });
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                handle.run();
+                interrupted[1] = isInterrupted();
+            }
+        };
+        t.start();
+        assertTrue("Not started", latchStarted.await(TIMEOUT,
+                TimeUnit.SECONDS));
+        assertTrue("Cancel failed", handle.cancel(true));
+        assertTrue("Not done", handle.isDone());
+        t.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+        assertTrue("Not interrupted", interrupted[0]);
+        assertFalse("Interrupted flag not cleared", interrupted[1]);
+        try
+        {
+            handle.get();
+            fail("Canceled command not detected!");
+        }
+        catch (CancellationException cex)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether a running command can be canceled without interruption.
+     */
+    @Test
+    public void testCancelRunningNoInterrupt()
+    {
+        final boolean[] cancelled = new boolean[1];
+        final CommandHandleImpl[] handle = new CommandHandleImpl[1];
+        handle[0] = createHandle(new Runnable()
+        {
+            public void run()
+            {
+                assertTrue("Cancel failed", handle[0].cancel(false));
+                cancelled[0] = handle[0].isCancelled();
+                assertFalse("Interrupted", Thread.currentThread()
+                        .isInterrupted());
+            }
+        });
+        handle[0].run();
+        assertTrue("Not canceled", cancelled[0]);
+    }
+
+    /**
+     * Tests whether progress is delivered to the event dispatch thread.
+     */
+    @Test
+    public void testSetProgress()
+    {
+        ProgressBarHandler pbh = EasyMock.createMock(ProgressBarHandler.class);
+        pbh.setValue(10);
+        EasyMock.replay(pbh);
+        CommandHandleImpl handle =
+                createHandle(EasyMock.createNiceMock(Runnable.class));
+        handle.setProgressBarHandler(pbh);
+        handle.setProgress(10);
+        assertEquals("Wrong progress", 10, handle.getProgress());
+        assertEquals("Wrong number of GUI tasks", 1, guiTasks.getValues()
+                .size());
+        runGUITasks();
+        EasyMock.verify(pbh);
+    }
+
+    /**
+     * Tests whether frequent progress updates are throttled and that the
+     * last value is delivered when the command is complete.
+     */
+    @Test
+    public void testSetProgressThrottled()
+    {
+        ProgressBarHandler pbh = EasyMock.createMock(ProgressBarHandler.class);
+        pbh.setValue(1);
+        pbh.setValue(3);
+        EasyMock.replay(pbh);
+        queue.setProgressInterval(TimeUnit.SECONDS.toMillis(TIMEOUT));
+        final CommandHandleImpl[] handle = new CommandHandleImpl[1];
+        handle[0] = createHandle(new Runnable()
+        {
+            public void run()
+            {
+                handle[0].setProgress(1);
+                runGUITasks();
+                handle[0].setProgress(2);
+                handle[0].setProgress(3);
+                assertTrue("Progress not throttled", guiTasks.getValues()
+                        .isEmpty());
+            }
+        });
+        handle[0].setProgressBarHandler(pbh);
+        handle[0].run();
+        runGUITasks();
+        EasyMock.verify(pbh);
+    }
+
+    /**
+     * Tests that only a single progress notification is pending at a time.
+     */
+    @Test
+    public void testSetProgressSinglePendingNotification()
+    {
+        queue.setProgressInterval(0);
+        CommandHandleImpl handle =
+                createHandle(EasyMock.createNiceMock(Runnable.class));
+        handle.setProgress(1);
+        handle.setProgress(2);
+        assertEquals("Wrong number of GUI tasks", 1, guiTasks.getValues()
+                .size());
+        runGUITasks();
+        handle.setProgress(3);
+        assertEquals("No new notification", 1, guiTasks.getValues().size());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@code CommandLane}.
+ */
+public class TestCommandLane
+{
+    /** Constant for the name of the test lane. */
+    private static final String NAME = "background";
+
+    /**
+     * Tests whether all properties are correctly initialized.
+     */
+    @Test
+    public void testInit()
+    {
+        CommandLane lane = new CommandLane(NAME, 2, 10);
+        assertEquals("Wrong name", NAME, lane.getName());
+        assertEquals("Wrong parallelism", 2, lane.getParallelism());
+        assertEquals("Wrong capacity", 10, lane.getCapacity());
+        assertFalse("Blocking", lane.isBlocking());
+    }
+
+    /**
+     * Tests whether the blocking flag can be set.
+     */
+    @Test
+    public void testInitBlocking()
+    {
+        CommandLane lane = new CommandLane(NAME, 2, 10, true);
+        assertEquals("Wrong capacity", 10, lane.getCapacity());
+        assertTrue("Not blocking", lane.isBlocking());
+    }
+
+    /**
+     * Tests the constructor which does not set a capacity.
+     */
+    @Test
+    public void testInitUnlimitedCapacity()
+    {
+        CommandLane lane = new CommandLane(NAME, 3);
+        assertEquals("Wrong parallelism", 3, lane.getParallelism());
+        assertEquals("Wrong capacity", 0, lane.getCapacity());
+    }
+
+    /**
+     * Tries to create an instance without a name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoName()
+    {
+        new CommandLane(null, 1);
+    }
+
+    /**
+     * Tries to create an instance with an invalid parallelism.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidParallelism()
+    {
+        new CommandLane(NAME, 0);
+    }
+
+    /**
+     * Tries to create an instance with a negative capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNegativeCapacity()
+    {
+        new CommandLane(NAME, 1, -1);
+    }
+
+    /**
+     * Tests whether a correct executor service is created.
+     */
+    @Test
+    public void testCreateExecutorService()
+    {
+        CommandLane lane = new CommandLane(NAME, 4);
+        ThreadPoolExecutor exec =
+                (ThreadPoolExecutor) lane.createExecutorService();
+        try
+        {
+            assertEquals("Wrong core size", 4, exec.getCorePoolSize());
+            assertEquals("Wrong max size", 4, exec.getMaximumPoolSize());
+        }
+        finally
+        {
+            exec.shutdown();
+        }
+    }
+
+    /**
+     * Tests the string representation.
+     */
+    @Test
+    public void testToString()
+    {
+        String s = new CommandLane(NAME, 2, 5).toString();
+        assertTrue("Name not found: " + s, s.contains("name=" + NAME));
+        assertTrue("Parallelism not found: " + s, s.contains("parallelism=2"));
+        assertTrue("Capacity not found: " + s, s.contains("capacity=5"));
+        assertTrue("Blocking not found: " + s, s.contains("blocking=false"));
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CommandLaneExecutor}.
+ */
+public class TestCommandLaneExecutor
+{
+    /** Constant for the timeout when waiting for tasks (in seconds). */
+    private static final int TIMEOUT = 10;
+
+    /** The underlying executor service. */
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Shuts down the executor service and waits until all tasks are complete.
+     *
+     * @throws InterruptedException if waiting is interrupted
+     */
+    private void awaitTermination() throws InterruptedException
+    {
+        executorService.shutdown();
+        assertTrue("Tasks not complete", executorService.awaitTermination(
+                TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests whether tasks with the same ordering key are executed
+     * sequentially in the correct order.
+     */
+    @Test
+    public void testExecuteOrdered() throws InterruptedException
+    {
+        final int taskCount = 100;
+        final List<Integer> results =
+                Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 0);
+        for (int i = 0; i < taskCount; i++)
+        {
+            final Integer idx = Integer.valueOf(i);
+            exec.acquire();
+            exec.execute(new Runnable()
+            {
+                public void run()
+                {
+                    int count = active.incrementAndGet();
+                    if (count > maxActive.get())
+                    {
+                        maxActive.set(count);
+                    }
+                    results.add(idx);
+                    active.decrementAndGet();
+                }
+            }, "key");
+        }
+        awaitTermination();
+        assertEquals("Wrong number of results", taskCount, results.size());
+        for (int i = 0; i < taskCount; i++)
+        {
+            assertEquals("Wrong result at " + i, Integer.valueOf(i),
+                    results.get(i));
+        }
+        assertEquals("Tasks executed concurrently", 1, maxActive.get());
+    }
+
+    /**
+     * Tests that tasks with different ordering keys can run concurrently.
+     */
+    @Test
+    public void testExecuteDifferentKeysConcurrently()
+            throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final AtomicInteger success = new AtomicInteger();
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 0);
+        for (int i = 0; i < 2; i++)
+        {
+            exec.execute(new Runnable()
+            {
+                public void run()
+                {
+                    latch.countDown();
+                    try
+                    {
+                        if (latch.await(TIMEOUT, TimeUnit.SECONDS))
+                        {
+                            success.incrementAndGet();
+                        }
+                    }
+                    catch (InterruptedException iex)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, Integer.valueOf(i));
+        }
+        awaitTermination();
+        assertEquals("Tasks not executed concurrently", 2, success.get());
+    }
+
+    /**
+     * Tests that an exception thrown by a task does not prevent the execution
+     * of the following tasks with the same key.
+     */
+    @Test
+    public void testExecuteOrderedException() throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch latchExecuted = new CountDownLatch(1);
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 0);
+        exec.execute(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    latch.await(TIMEOUT, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException iex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Test exception");
+            }
+        }, "key");
+        exec.execute(new Runnable()
+        {
+            public void run()
+            {
+                latchExecuted.countDown();
+            }
+        }, "key");
+        latch.countDown();
+        assertTrue("Second task not executed",
+                latchExecuted.await(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests whether the capacity is taken into account if the executor
+     * blocks.
+     */
+    @Test
+    public void testCapacityBlocking() throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CommandLaneExecutor exec =
+                new CommandLaneExecutor(executorService, 1, true);
+        exec.acquire();
+        exec.execute(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    latch.await(TIMEOUT, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException iex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, null);
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    exec.acquire();
+                }
+                catch (InterruptedException iex)
+                {
+                    // ignore
+                }
+            }
+        };
+        t.start();
+        t.join(200);
+        assertTrue("Not blocked", t.isAlive());
+        latch.countDown();
+        t.join(TIMEOUT * 1000L);
+        assertFalse("Still blocked", t.isAlive());
+    }
+
+    /**
+     * Tests that tasks exceeding the capacity are rejected by default.
+     */
+    @Test
+    public void testCapacityNonBlocking() throws InterruptedException
+    {
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 1);
+        exec.acquire();
+        try
+        {
+            exec.acquire();
+            fail("Capacity not checked!");
+        }
+        catch (RejectedExecutionException rex)
+        {
+            // expected
+        }
+        exec.release();
+        exec.acquire();
+    }
+
+    /**
+     * Tests that tasks waiting for an ordering key are canceled and release
+     * their space if the executor rejects the worker for the remaining tasks.
+     */
+    @Test
+    public void testRejectedWorkerCancelsOrderedTasks()
+            throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch latchStarted = new CountDownLatch(1);
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 2);
+        exec.acquire();
+        exec.execute(new Runnable()
+        {
+            public void run()
+            {
+                latchStarted.countDown();
+                try
+                {
+                    latch.await(TIMEOUT, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException iex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Test exception");
+            }
+        }, "key");
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable()
+        {
+            public void run()
+            {
+            }
+        }, null);
+        exec.acquire();
+        exec.execute(task, "key");
+        assertTrue("First task not started",
+                latchStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        executorService.shutdown();
+        latch.countDown();
+        awaitTermination();
+        assertTrue("Task not canceled", task.isCancelled());
+        exec.acquire();
+        exec.acquire();
+    }
+
+    /**
+     * Tests that the reserved space is released if the executor rejects a
+     * task.
+     */
+    @Test(timeout = TIMEOUT * 1000L)
+    public void testRejectedTaskReleasesCapacity() throws InterruptedException
+    {
+        CommandLaneExecutor exec = new CommandLaneExecutor(executorService, 1);
+        executorService.shutdown();
+        exec.acquire();
+        try
+        {
+            exec.execute(new Runnable()
+            {
+                public void run()
+                {
+                }
+            }, "key");
+            fail("Task not rejected!");
+        }
+        catch (RejectedExecutionException rex)
+        {
+            // expected
+        }
+        exec.acquire();
+    }
+}
@@ -18,17 +18,25 @@ package net.sf.jguiraffe.gui.cmd;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import net.sf.jguiraffe.gui.builder.utils.BatchingGUISynchronizer;
 import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
 
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
+import org.easymock.IArgumentMatcher;
 import org.junit.Test;
 
 /**
@@ -39,6 +47,9 @@ import org.junit.Test;
  */
 public class TestCommandQueueImpl
 {
+    /** Constant for the name of a test lane. */
+    private static final String LANE = "background";
+
     /** Stores a mock object for a synchronizer. */
     private GUISynchronizer mockSync;
 
@@ -103,6 +114,32 @@ public class TestCommandQueueImpl
         }
     }
 
+    /**
+     * Reports an argument matcher for the task passed to an executor service.
+     * The queue wraps the task created for a command in a handle object. This
+     * matcher checks whether the handle wraps the expected task.
+     *
+     * @param task the expected task
+     * @return a dummy result
+     */
+    private static Runnable taskFor(final Runnable task)
+    {
+        EasyMock.reportMatcher(new IArgumentMatcher()
+        {
+            public boolean matches(Object argument)
+            {
+                return argument instanceof CommandHandleImpl
+                        && ((CommandHandleImpl) argument).getTask() == task;
+            }
+
+            public void appendTo(StringBuffer buffer)
+            {
+                buffer.append("taskFor(").append(task).append(')');
+            }
+        });
+        return null;
+    }
+
     /**
      * Creates a test queue with the mock synchronizer and the mock executor.
      *
@@ -238,6 +275,180 @@ public class TestCommandQueueImpl
         verify();
     }
 
+    /**
+     * Tests whether GUI updates are passed asynchronously to a batching
+     * synchronizer.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatching()
+    {
+        BatchingGUISynchronizer batchSync =
+                new BatchingGUISynchronizer(getSync());
+        CommandQueueImpl queue =
+                new CommandQueueTestImpl(batchSync, getExecutor());
+        getSync().asyncInvoke((Runnable) EasyMock.anyObject());
+        replay();
+        queue.createTask(new TestCommand(true)).run();
+        queue.createTask(new TestCommand(true)).run();
+        assertEquals("Wrong number of pending updates", 2,
+                batchSync.getPendingCount());
+        verify();
+    }
+
+    /**
+     * Tests whether a command can define a key for coalescing GUI updates.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatchingKey()
+    {
+        BatchingGUISynchronizer batchSync =
+                new BatchingGUISynchronizer(getSync());
+        CommandQueueImpl queue =
+                new CommandQueueTestImpl(batchSync, getExecutor());
+        getSync().asyncInvoke((Runnable) EasyMock.anyObject());
+        replay();
+        queue.createTask(new TestCommandGUIUpdateAware(LANE, false)).run();
+        queue.createTask(new TestCommandGUIUpdateAware(LANE, false)).run();
+        assertEquals("Wrong number of pending updates", 1,
+                batchSync.getPendingCount());
+        verify();
+    }
+
+    /**
+     * Tests whether a command can request a synchronous GUI update if a
+     * batching synchronizer is used.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatchingWait()
+    {
+        CommandQueueImpl queue =
+                new CommandQueueTestImpl(
+                        new BatchingGUISynchronizer(getSync()), getExecutor());
+        EasyMock.expect(getSync().isEventDispatchThread()).andReturn(
+                Boolean.FALSE);
+        getSync().syncInvoke((Runnable) EasyMock.anyObject());
+        replay();
+        TestCommandGUIUpdateAware cmd =
+                new TestCommandGUIUpdateAware(null, true);
+        queue.createTask(cmd).run();
+        assertEquals("Wrong number of execute calls", 1, cmd.getExecuteCalled());
+        verify();
+    }
+
+    /**
+     * Helper method for executing commands on a queue with a batching
+     * synchronizer. The commands are passed to the queue and executed by the
+     * worker thread. The drain task of the synchronizer is captured, but not
+     * executed.
+     *
+     * @param l the listener to be registered at the queue
+     * @param cmds the commands to be executed
+     * @return the captured drain task of the synchronizer
+     */
+    private Runnable executeBatchingCommands(TestQueueListener l,
+            Command... cmds)
+    {
+        CommandQueueImpl queue =
+                new CommandQueueTestImpl(
+                        new BatchingGUISynchronizer(getSync()), getExecutor());
+        Capture<Runnable> drainTask = Capture.newInstance();
+        Capture<Runnable> execTask = Capture.newInstance(CaptureType.ALL);
+        getSync().asyncInvoke(EasyMock.capture(drainTask));
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE)
+                .anyTimes();
+        getExecutor().execute(EasyMock.capture(execTask));
+        EasyMock.expectLastCall().times(cmds.length);
+        replay();
+        queue.addQueueListener(l);
+        for (Command cmd : cmds)
+        {
+            queue.execute(cmd);
+        }
+        for (Runnable task : execTask.getValues())
+        {
+            task.run();
+        }
+        return drainTask.getValue();
+    }
+
+    /**
+     * Tests that the events for a command are fired after its asynchronous
+     * GUI update if a batching synchronizer is used.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatchingEventOrder()
+    {
+        TestQueueListener l = new TestQueueListener();
+        TestCommandGUIUpdateAware cmd =
+                new TestCommandGUIUpdateAware(null, false);
+        cmd.listener = l;
+        Runnable drainTask = executeBatchingCommands(l, cmd);
+        assertEquals("Wrong number of onFinally calls", 1,
+                cmd.getOnFinallyCalled());
+        assertEquals("Executed event already fired", 0,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+        assertEquals("Idle event already fired", 0,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        drainTask.run();
+        assertEquals("Wrong number of GUI updates", 1, cmd.guiUpdateCount);
+        assertEquals("Event fired before GUI update", 0,
+                cmd.executedEventsAtUpdate);
+        assertEquals("Wrong number of executed events", 1,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+        assertEquals("Wrong number of idle events", 1,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        verify();
+    }
+
+    /**
+     * Tests that events are fired for all commands whose GUI updates have
+     * been coalesced.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatchingEventOrderCoalesced()
+    {
+        TestQueueListener l = new TestQueueListener();
+        TestCommandGUIUpdateAware cmd1 =
+                new TestCommandGUIUpdateAware(LANE, false);
+        TestCommandGUIUpdateAware cmd2 =
+                new TestCommandGUIUpdateAware(LANE, false);
+        cmd2.listener = l;
+        Runnable drainTask = executeBatchingCommands(l, cmd1, cmd2);
+        assertEquals("Executed event already fired", 0,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+        drainTask.run();
+        assertEquals("First update executed", 0, cmd1.guiUpdateCount);
+        assertEquals("Wrong number of GUI updates", 1, cmd2.guiUpdateCount);
+        assertEquals("Event fired before GUI update", 0,
+                cmd2.executedEventsAtUpdate);
+        assertEquals("Wrong number of executed events", 2,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+        assertEquals("Wrong number of idle events", 1,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        verify();
+    }
+
+    /**
+     * Tests that the events for a command are fired even if its asynchronous
+     * GUI update throws an exception.
+     */
+    @Test
+    public void testCreateTaskGUIUpdateBatchingException()
+    {
+        TestQueueListener l = new TestQueueListener();
+        TestCommandGUIUpdateAware cmd =
+                new TestCommandGUIUpdateAware(LANE, false);
+        cmd.updateException = new IllegalStateException("Test exception");
+        Runnable drainTask = executeBatchingCommands(l, cmd);
+        drainTask.run();
+        assertEquals("Wrong number of GUI updates", 1, cmd.guiUpdateCount);
+        assertEquals("Wrong number of executed events", 1,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+        assertEquals("Wrong number of idle events", 1,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        verify();
+    }
+
     /**
      * Tests whether the GUI update is performed, even if an exception occurs.
      */
@@ -269,13 +480,115 @@ public class TestCommandQueueImpl
         CommandQueueTestImpl queue = setupQueue();
         queue.mockTask = r;
         EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
-        getExecutor().execute(r);
+        getExecutor().execute(taskFor(r));
         replay();
         queue.execute(cmd);
         assertTrue("No commands pending", queue.isPending());
         verify();
     }
 
+    /**
+     * Tests whether submit() returns a handle for the command.
+     */
+    @Test
+    public void testSubmit()
+    {
+        Runnable r = EasyMock.createMock(Runnable.class);
+        TestCommand cmd = new TestCommand(false);
+        CommandQueueTestImpl queue = setupQueue();
+        queue.mockTask = r;
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        getExecutor().execute(taskFor(r));
+        replay();
+        CommandHandle handle = queue.submit(cmd);
+        assertSame("Wrong command", cmd, handle.getCommand());
+        assertSame("Handle not passed to command", handle,
+                cmd.getCommandHandle());
+        assertFalse("Already done", handle.isDone());
+        verify();
+    }
+
+    /**
+     * Tests whether a command can be canceled before it is executed.
+     */
+    @Test
+    public void testCancelPendingCommand()
+    {
+        Runnable r = EasyMock.createMock(Runnable.class);
+        TestCommand cmd = new TestCommand(false);
+        CommandQueueTestImpl queue = setupQueue();
+        queue.mockTask = r;
+        Capture<Runnable> capture = Capture.newInstance();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        getExecutor().execute(EasyMock.capture(capture));
+        EasyMock.replay(r);
+        replay();
+        TestQueueListener l = new TestQueueListener();
+        queue.addQueueListener(l);
+        CommandHandle handle = queue.submit(cmd);
+        assertTrue("Cancel failed", handle.cancel(false));
+        assertTrue("Not canceled", handle.isCancelled());
+        assertTrue("Command not canceled", cmd.isCancelled());
+        assertFalse("Still pending", queue.isPending());
+        assertEquals("Wrong number of cancel events", 1,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_CANCELLED));
+        assertEquals("Wrong number of idle events", 1,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        capture.getValue().run();
+        assertFalse("Cancel successful again", handle.cancel(true));
+        assertEquals("Idle event fired again", 1,
+                l.getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        verify();
+        EasyMock.verify(r);
+    }
+
+    /**
+     * Tests whether progress reported by a command is delivered to the
+     * listeners of the queue.
+     */
+    @Test
+    public void testProgressEvent()
+    {
+        Runnable r = EasyMock.createNiceMock(Runnable.class);
+        CommandQueueTestImpl queue = setupQueue();
+        queue.mockTask = r;
+        Capture<Runnable> capture = Capture.newInstance();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        getExecutor().execute(taskFor(r));
+        getSync().asyncInvoke(EasyMock.capture(capture));
+        replay();
+        final int progress = 42;
+        TestQueueListener l = new TestQueueListener();
+        queue.addQueueListener(l);
+        CommandHandle handle = queue.submit(new TestCommand(false));
+        handle.setProgress(progress);
+        capture.getValue().run();
+        assertEquals("Wrong number of progress events", 1,
+                l.getEventCount(CommandQueueEvent.Type.COMMAND_PROGRESS));
+        assertEquals("Wrong progress", progress, l.getLastProgress());
+        verify();
+    }
+
+    /**
+     * Tests the default progress interval.
+     */
+    @Test
+    public void testGetProgressIntervalDefault()
+    {
+        assertEquals("Wrong progress interval",
+                CommandQueueImpl.DEFAULT_PROGRESS_INTERVAL, setupQueue()
+                        .getProgressInterval());
+    }
+
+    /**
+     * Tries to set a negative progress interval.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetProgressIntervalNegative()
+    {
+        setupQueue().setProgressInterval(-1);
+    }
+
     /**
      * Tests executing a null command. This should cause an exception.
      */
@@ -390,7 +703,7 @@ public class TestCommandQueueImpl
         Command cmd = EasyMock.createNiceMock(Command.class);
         CommandQueueTestImpl queue = setupQueue();
         EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
-        getExecutor().execute(r);
+        getExecutor().execute(taskFor(r));
         replay();
         queue.mockTask = r;
         TestQueueListener l = new TestQueueListener();
@@ -439,7 +752,7 @@ public class TestCommandQueueImpl
         CommandQueueTestImpl queue = setupQueue();
         EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE)
                 .anyTimes();
-        getExecutor().execute(r);
+        getExecutor().execute(taskFor(r));
         EasyMock.expectLastCall().times(3);
         replay();
         queue.mockTask = r;
@@ -489,7 +802,7 @@ public class TestCommandQueueImpl
         Command cmd = EasyMock.createNiceMock(Command.class);
         CommandQueueTestImpl queue = setupQueue();
         EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
-        getExecutor().execute(r);
+        getExecutor().execute(taskFor(r));
         replay();
         queue.mockTask = r;
         TestQueueListener l = new TestQueueListener();
@@ -515,7 +828,7 @@ public class TestCommandQueueImpl
         CommandQueueTestImpl queue = setupQueue();
         queue.mockTask = r;
         EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
-        getExecutor().execute(r);
+        getExecutor().execute(taskFor(r));
         replay();
         TestCommandScheduleAware cmd = new TestCommandScheduleAware();
         queue.execute(cmd);
@@ -523,6 +836,256 @@ public class TestCommandQueueImpl
         assertEquals("Schedule callback not invoked", queue, cmd.scheduledQueue);
     }
 
+    /**
+     * Creates a lane whose executor service is the specified mock object.
+     *
+     * @param name the name of the lane
+     * @param exec the mock executor service
+     * @return the lane
+     */
+    private static CommandLane createMockLane(String name,
+            final ExecutorService exec)
+    {
+        return new CommandLane(name, 1)
+        {
+            @Override
+            public ExecutorService createExecutorService()
+            {
+                return exec;
+            }
+        };
+    }
+
+    /**
+     * Tests whether a command is executed in the lane it selects.
+     */
+    @Test
+    public void testExecuteInLane()
+    {
+        Runnable r = EasyMock.createNiceMock(Runnable.class);
+        ExecutorService laneExec = EasyMock.createMock(ExecutorService.class);
+        CommandQueueTestImpl queue = setupQueue();
+        queue.mockTask = r;
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE)
+                .times(2);
+        laneExec.execute(taskFor(r));
+        EasyMock.replay(laneExec);
+        replay();
+        queue.addLane(createMockLane(LANE, laneExec));
+        queue.execute(new TestCommandLaneAware(LANE, null));
+        assertTrue("No commands pending", queue.isPending());
+        verify();
+        EasyMock.verify(laneExec);
+    }
+
+    /**
+     * Tests that a command selecting an unknown lane is executed in the
+     * default lane.
+     */
+    @Test
+    public void testExecuteUnknownLane()
+    {
+        Runnable r = EasyMock.createNiceMock(Runnable.class);
+        CommandQueueTestImpl queue = setupQueue();
+        queue.mockTask = r;
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        getExecutor().execute(taskFor(r));
+        replay();
+        queue.execute(new TestCommandLaneAware("unknown", null));
+        verify();
+    }
+
+    /**
+     * Tests whether information about lanes can be queried.
+     */
+    @Test
+    public void testGetLanes()
+    {
+        ExecutorService laneExec = EasyMock.createMock(ExecutorService.class);
+        CommandQueueImpl queue = setupQueue();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        replay();
+        queue.addLane(createMockLane(LANE, laneExec));
+        assertEquals("Wrong lane names", Collections.singleton(LANE),
+                queue.getLaneNames());
+        assertEquals("Wrong lane executor", laneExec,
+                queue.getExecutorService(LANE));
+        assertEquals("Wrong default executor", getExecutor(),
+                queue.getExecutorService(null));
+        assertEquals("Wrong executor for unknown lane", getExecutor(),
+                queue.getExecutorService("unknown"));
+        verify();
+    }
+
+    /**
+     * Tries to add a null lane.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddLaneNull()
+    {
+        setupQueue().addLane(null);
+    }
+
+    /**
+     * Tries to add a lane with a name that already exists.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddLaneDuplicate()
+    {
+        ExecutorService laneExec =
+                EasyMock.createNiceMock(ExecutorService.class);
+        CommandQueueImpl queue = setupQueue();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE)
+                .anyTimes();
+        EasyMock.replay(laneExec);
+        replay();
+        queue.addLane(createMockLane(LANE, laneExec));
+        queue.addLane(createMockLane(LANE, laneExec));
+    }
+
+    /**
+     * Tries to add a lane after the queue was shut down.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testAddLaneAfterShutdown()
+    {
+        CommandQueueImpl queue = setupQueue();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.TRUE);
+        replay();
+        queue.addLane(new CommandLane(LANE, 1));
+    }
+
+    /**
+     * Tests whether an immediate shutdown also affects the lanes.
+     */
+    @Test
+    public void testShutdownImmediatelyWithLanes()
+    {
+        ExecutorService laneExec = EasyMock.createMock(ExecutorService.class);
+        CommandQueueImpl queue = setupQueue();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        EasyMock.expect(getExecutor().shutdownNow()).andReturn(
+                new ArrayList<Runnable>());
+        EasyMock.expect(laneExec.shutdownNow()).andReturn(
+                new ArrayList<Runnable>());
+        EasyMock.replay(laneExec);
+        replay();
+        queue.addLane(createMockLane(LANE, laneExec));
+        queue.shutdown(true);
+        verify();
+        EasyMock.verify(laneExec);
+    }
+
+    /**
+     * Tests whether a graceful shutdown waits for the lanes.
+     */
+    @Test
+    public void testShutdownWithLanes() throws InterruptedException
+    {
+        ExecutorService laneExec = EasyMock.createMock(ExecutorService.class);
+        CommandQueueImpl queue = setupQueue();
+        EasyMock.expect(getExecutor().isShutdown()).andReturn(Boolean.FALSE);
+        getExecutor().shutdown();
+        laneExec.shutdown();
+        EasyMock.expect(
+                getExecutor()
+                        .awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS))
+                .andReturn(Boolean.TRUE);
+        EasyMock.expect(
+                laneExec.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS))
+                .andReturn(Boolean.TRUE);
+        EasyMock.replay(laneExec);
+        replay();
+        queue.addLane(createMockLane(LANE, laneExec));
+        queue.shutdown(false);
+        verify();
+        EasyMock.verify(laneExec);
+    }
+
+    /**
+     * Tests that a long-running command in a background lane does not block
+     * commands in the default lane. Also checks the busy and idle events.
+     */
+    @Test
+    public void testBackgroundLaneDoesNotBlockDefaultLane()
+            throws InterruptedException
+    {
+        final CountDownLatch latchBackground = new CountDownLatch(1);
+        final CountDownLatch latchDefault = new CountDownLatch(1);
+        CommandQueueImpl queue =
+                new CommandQueueImpl(EasyMock.createNiceMock(
+                        GUISynchronizer.class));
+        queue.addLane(new CommandLane(LANE, 1, 2));
+        TestQueueListener l = new TestQueueListener();
+        queue.addQueueListener(l);
+        queue.execute(new TestCommandLaneAware(LANE, null)
+        {
+            @Override
+            public void execute() throws Exception
+            {
+                latchBackground.await(10, TimeUnit.SECONDS);
+            }
+        });
+        queue.execute(new TestCommand(false)
+        {
+            @Override
+            public void execute() throws Exception
+            {
+                latchDefault.countDown();
+            }
+        });
+        assertTrue("Default lane blocked",
+                latchDefault.await(10, TimeUnit.SECONDS));
+        assertTrue("Not pending", queue.isPending());
+        latchBackground.countDown();
+        queue.shutdown(false);
+        assertFalse("Still pending", queue.isPending());
+        assertEquals("Wrong number of busy events", 1, l
+                .getEventCount(CommandQueueEvent.Type.QUEUE_BUSY));
+        assertEquals("Wrong number of idle events", 1, l
+                .getEventCount(CommandQueueEvent.Type.QUEUE_IDLE));
+        assertEquals("Wrong number of executed events", 2, l
+                .getEventCount(CommandQueueEvent.Type.COMMAND_EXECUTED));
+    }
+
+    /**
+     * Tests that a command is rejected if the capacity of its lane is
+     * exhausted and the lane does not block.
+     */
+    @Test
+    public void testLaneCapacityExhausted() throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        CommandQueueImpl queue =
+                new CommandQueueImpl(EasyMock.createNiceMock(
+                        GUISynchronizer.class));
+        queue.addLane(new CommandLane(LANE, 1, 1));
+        TestQueueListener l = new TestQueueListener();
+        queue.addQueueListener(l);
+        queue.execute(new TestCommandLaneAware(LANE, null)
+        {
+            @Override
+            public void execute() throws Exception
+            {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+        });
+        try
+        {
+            queue.execute(new TestCommandLaneAware(LANE, null));
+            fail("Command not rejected!");
+        }
+        catch (RejectedExecutionException rex)
+        {
+            // expected
+        }
+        assertEquals("Wrong number of added events", 1, l
+                .getEventCount(CommandQueueEvent.Type.COMMAND_ADDED));
+        latch.countDown();
+        queue.shutdown(false);
+        assertFalse("Still pending", queue.isPending());
+    }
+
     /**
      * An implementation of CommandQueueImpl that is easer to test.
      */
@@ -638,6 +1201,97 @@ public class TestCommandQueueImpl
         }
     }
 
+    /**
+     * A test command implementing the LaneAware interface.
+     */
+    private static class TestCommandLaneAware extends TestCommand implements
+            LaneAware
+    {
+        /** The name of the lane. */
+        private final String laneName;
+
+        /** The ordering key. */
+        private final Object orderingKey;
+
+        public TestCommandLaneAware(String lane, Object key)
+        {
+            super(false);
+            laneName = lane;
+            orderingKey = key;
+        }
+
+        public String getLaneName()
+        {
+            return laneName;
+        }
+
+        public Object getOrderingKey()
+        {
+            return orderingKey;
+        }
+    }
+
+    /**
+     * A test command implementing the GUIUpdateAware interface.
+     */
+    private static class TestCommandGUIUpdateAware extends TestCommand
+            implements GUIUpdateAware
+    {
+        /** The key for GUI updates. */
+        private final Object updateKey;
+
+        /** The flag whether to wait for the GUI update. */
+        private final boolean waitForUpdate;
+
+        /** A listener to be queried when the GUI is updated. */
+        TestQueueListener listener;
+
+        /** An exception to be thrown by the GUI update. */
+        RuntimeException updateException;
+
+        /** The number of GUI updates. */
+        int guiUpdateCount;
+
+        /** The number of executed events received before the GUI update. */
+        int executedEventsAtUpdate;
+
+        public TestCommandGUIUpdateAware(Object key, boolean wait)
+        {
+            super(true);
+            updateKey = key;
+            waitForUpdate = wait;
+        }
+
+        public Object getGUIUpdateKey()
+        {
+            return updateKey;
+        }
+
+        public boolean isWaitForGUIUpdate()
+        {
+            return waitForUpdate;
+        }
+
+        /**
+         * Records this invocation and queries the listener if available.
+         */
+        @Override
+        protected void performGUIUpdate()
+        {
+            guiUpdateCount++;
+            if (listener != null)
+            {
+                executedEventsAtUpdate =
+                        listener.getEventCount(
+                                CommandQueueEvent.Type.COMMAND_EXECUTED);
+            }
+            if (updateException != null)
+            {
+                throw updateException;
+            }
+        }
+    }
+
     /**
      * An implementation of the CommandQueueListener interface for testing. This
      * implementation allows recording the received events.
@@ -650,7 +1304,9 @@ public class TestCommandQueueImpl
                 CommandQueueEvent.Type.COMMAND_EXECUTED,
                 CommandQueueEvent.Type.COMMAND_EXECUTING,
                 CommandQueueEvent.Type.QUEUE_BUSY,
-                CommandQueueEvent.Type.QUEUE_IDLE
+                CommandQueueEvent.Type.QUEUE_IDLE,
+                CommandQueueEvent.Type.COMMAND_CANCELLED,
+                CommandQueueEvent.Type.COMMAND_PROGRESS
         };
 
         /** An array with the numbers of events received for the possible types. */
@@ -659,15 +1315,29 @@ public class TestCommandQueueImpl
         /** Stores the command of the last received event. */
         private Command lastCommand;
 
+        /** Stores the progress of the last received event. */
+        private int lastProgress;
+
         public TestQueueListener()
         {
             eventCount = new int[EVENTS.length];
         }
 
-        public void commandQueueChanged(CommandQueueEvent e)
+        public synchronized void commandQueueChanged(CommandQueueEvent e)
         {
             eventCount[getEventIndex(e.getType())]++;
             lastCommand = e.getCommand();
+            lastProgress = e.getProgress();
+        }
+
+        /**
+         * Returns the progress of the last received event.
+         *
+         * @return the last progress
+         */
+        public synchronized int getLastProgress()
+        {
+            return lastProgress;
         }
 
         /**
@@ -675,7 +1345,7 @@ public class TestCommandQueueImpl
          *
          * @return the last command
          */
-        public Command getLastCommand()
+        public synchronized Command getLastCommand()
         {
             return lastCommand;
         }
@@ -686,7 +1356,7 @@ public class TestCommandQueueImpl
          * @param event the event type
          * @return the number of events received for this type
          */
-        public int getEventCount(CommandQueueEvent.Type event)
+        public synchronized int getEventCount(CommandQueueEvent.Type event)
         {
             return eventCount[getEventIndex(event)];
         }
@@ -111,4 +111,33 @@ public class TestCommandWrapper
         assertEquals("Wrong updater", updater, wrapper.getGUIUpdater());
         EasyMock.verify(command, updater);
     }
+
+    /**
+     * Tests whether the command handle is passed to the wrapped command.
+     */
+    @Test
+    public void testSetCommandHandle()
+    {
+        CommandBase cmd = new CommandBase()
+        {
+            public void execute() throws Exception
+            {
+            }
+        };
+        CommandHandle handle = EasyMock.createMock(CommandHandle.class);
+        wrapper = new CommandWrapper(cmd);
+        wrapper.setCommandHandle(handle);
+        assertEquals("Handle not set", handle, cmd.getCommandHandle());
+    }
+
+    /**
+     * Tests setCommandHandle() if the wrapped command is not aware of handles.
+     */
+    @Test
+    public void testSetCommandHandleNotAware()
+    {
+        EasyMock.replay(command);
+        wrapper.setCommandHandle(EasyMock.createMock(CommandHandle.class));
+        EasyMock.verify(command);
+    }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.sf.jguiraffe.gui.builder.components.model.ProgressBarHandler;
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code SimpleCommandHandle}. This class also tests the
+ * default implementation of {@code CommandQueue.submit()}.
+ */
+public class TestSimpleCommandHandle
+{
+    /** The command queue. */
+    private QueueTestImpl queue;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        queue = new QueueTestImpl();
+    }
+
+    /**
+     * Executes the command passed to the test queue in the same way as a
+     * command queue would do.
+     *
+     * @throws Exception if an error occurs
+     */
+    private void runCommand() throws Exception
+    {
+        Command cmd = queue.commands.remove(0);
+        try
+        {
+            cmd.execute();
+        }
+        catch (Exception ex)
+        {
+            cmd.onException(ex);
+        }
+        finally
+        {
+            cmd.onFinally();
+        }
+        Runnable updater = cmd.getGUIUpdater();
+        if (updater != null)
+        {
+            updater.run();
+        }
+    }
+
+    /**
+     * Tries to submit a null command.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmitNull()
+    {
+        queue.submit(null);
+    }
+
+    /**
+     * Tests whether a submitted command is executed and the handle is
+     * notified.
+     */
+    @Test
+    public void testSubmitAndExecute() throws Exception
+    {
+        Command cmd = EasyMock.createMock(Command.class);
+        cmd.execute();
+        cmd.onFinally();
+        EasyMock.expect(cmd.getGUIUpdater()).andReturn(null);
+        EasyMock.replay(cmd);
+        CommandHandle handle = queue.submit(cmd);
+        assertSame("Wrong command", cmd, handle.getCommand());
+        assertEquals("Wrong number of commands", 1, queue.commands.size());
+        assertFalse("Already done", handle.isDone());
+        runCommand();
+        assertTrue("Not done", handle.isDone());
+        assertFalse("Cancelled", handle.isCancelled());
+        assertNull("Wrong result", handle.get(1, TimeUnit.SECONDS));
+        EasyMock.verify(cmd);
+    }
+
+    /**
+     * Tests that the handle is passed to a command which is aware of it.
+     */
+    @Test
+    public void testSubmitCommandHandleAware()
+    {
+        CommandBase cmd = new CommandBase()
+        {
+            public void execute() throws Exception
+            {
+            }
+        };
+        CommandHandle handle = queue.submit(cmd);
+        assertSame("Handle not set", handle, cmd.getCommandHandle());
+    }
+
+    /**
+     * Tests that a command canceled before its execution is skipped.
+     */
+    @Test
+    public void testCancelPending() throws Exception
+    {
+        Command cmd = EasyMock.createMock(Command.class);
+        EasyMock.replay(cmd);
+        CommandHandle handle = queue.submit(cmd);
+        assertTrue("Wrong result", handle.cancel(false));
+        assertTrue("Not done", handle.isDone());
+        assertTrue("Not cancelled", handle.isCancelled());
+        assertFalse("Cancelled twice", handle.cancel(true));
+        runCommand();
+        EasyMock.verify(cmd);
+    }
+
+    /**
+     * Tests that a running command can be canceled cooperatively.
+     */
+    @Test
+    public void testCancelRunning() throws Exception
+    {
+        final List<Boolean> flags = new ArrayList<Boolean>();
+        CommandBase cmd = new CommandBase(false)
+        {
+            public void execute() throws Exception
+            {
+                getCommandHandle().cancel(true);
+                flags.add(isCancelled());
+                flags.add(Thread.currentThread().isInterrupted());
+            }
+        };
+        queue.submit(cmd);
+        runCommand();
+        assertEquals("Wrong flags", 2, flags.size());
+        assertTrue("Not cancelled", flags.get(0));
+        assertTrue("Not interrupted", flags.get(1));
+        assertFalse("Interrupt not cleared", Thread.interrupted());
+    }
+
+    /**
+     * Tests that get() throws an exception for a canceled command.
+     */
+    @Test(expected = CancellationException.class)
+    public void testGetCancelled() throws Exception
+    {
+        CommandHandle handle =
+                queue.submit(EasyMock.createMock(Command.class));
+        handle.cancel(false);
+        handle.get();
+    }
+
+    /**
+     * Tests get() with a timeout if the command is not complete.
+     */
+    @Test(expected = TimeoutException.class)
+    public void testGetTimeout() throws Exception
+    {
+        queue.submit(EasyMock.createMock(Command.class)).get(10,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tests whether progress is passed to a progress bar handler.
+     */
+    @Test
+    public void testSetProgress()
+    {
+        GUISynchronizer sync = EasyMock.createMock(GUISynchronizer.class);
+        ProgressBarHandler pbh = EasyMock.createMock(ProgressBarHandler.class);
+        sync.asyncInvoke(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andAnswer(new IAnswer<Object>()
+        {
+            public Object answer() throws Throwable
+            {
+                ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+                return null;
+            }
+        });
+        pbh.setValue(42);
+        EasyMock.replay(sync, pbh);
+        queue.setGUISynchronizer(sync);
+        CommandHandle handle =
+                queue.submit(EasyMock.createMock(Command.class));
+        handle.setProgress(10);
+        handle.setProgressBarHandler(pbh);
+        handle.setProgress(42);
+        assertEquals("Wrong progress", 42, handle.getProgress());
+        EasyMock.verify(sync, pbh);
+    }
+
+    /**
+     * A simple command queue implementation which does not override the
+     * {@code submit()} method. Commands are only stored in a list.
+     */
+    private static class QueueTestImpl implements CommandQueue
+    {
+        /** A list with the commands passed to this queue. */
+        final List<Command> commands = new ArrayList<Command>();
+
+        /** The GUI synchronizer. */
+        private GUISynchronizer synchronizer;
+
+        public void addQueueListener(CommandQueueListener l)
+        {
+        }
+
+        public void removeQueueListener(CommandQueueListener l)
+        {
+        }
+
+        public GUISynchronizer getGUISynchronizer()
+        {
+            return synchronizer;
+        }
+
+        public void setGUISynchronizer(GUISynchronizer sync)
+        {
+            synchronizer = sync;
+        }
+
+        public void execute(Command cmd)
+        {
+            commands.add(cmd);
+        }
+
+        public boolean isPending()
+        {
+            return !commands.isEmpty();
+        }
+
+        public boolean isShutdown()
+        {
+            return false;
+        }
+
+        public void shutdown(boolean immediate)
+        {
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.forms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import net.sf.jguiraffe.gui.builder.utils.GUISynchronizer;
+import net.sf.jguiraffe.gui.cmd.Command;
+import net.sf.jguiraffe.gui.cmd.CommandQueue;
+import net.sf.jguiraffe.transform.DefaultValidationResult;
+import net.sf.jguiraffe.transform.TransformerContext;
+import net.sf.jguiraffe.transform.ValidationMessage;
+import net.sf.jguiraffe.transform.ValidationMessageConstants;
+import net.sf.jguiraffe.transform.ValidationResult;
+import net.sf.jguiraffe.transform.Validator;
+
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code AsyncValidatorWrapper}.
+ */
+public class TestAsyncValidatorWrapper
+{
+    /** Constant for a test value. */
+    private static final String VALUE = "Test value";
+
+    /** Constant for another test value. */
+    private static final String VALUE2 = "Another value";
+
+    /** A mock validator. */
+    private Validator validator;
+
+    /** The transformer context. */
+    private TransformerContext context;
+
+    /** A mock command queue. */
+    private CommandQueue queue;
+
+    /** A mock GUI synchronizer. */
+    private GUISynchronizer sync;
+
+    /** A mock for the completion callback. */
+    private Runnable callback;
+
+    /** Captures the commands passed to the queue. */
+    private Capture<Command> commands;
+
+    /** Captures the runnables passed to the GUI synchronizer. */
+    private Capture<Runnable> guiTasks;
+
+    /** The wrapper to be tested. */
+    private AsyncValidatorWrapper wrapper;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        validator = EasyMock.createMock(Validator.class);
+        context = new TransformerContextImpl();
+        queue = EasyMock.createMock(CommandQueue.class);
+        sync = EasyMock.createMock(GUISynchronizer.class);
+        callback = EasyMock.createMock(Runnable.class);
+        commands = Capture.newInstance(CaptureType.ALL);
+        guiTasks = Capture.newInstance(CaptureType.ALL);
+        queue.execute(EasyMock.capture(commands));
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.expect(queue.getGUISynchronizer()).andReturn(sync)
+                .anyTimes();
+        sync.asyncInvoke(EasyMock.capture(guiTasks));
+        EasyMock.expectLastCall().anyTimes();
+        wrapper = new AsyncValidatorWrapper(validator, context);
+    }
+
+    /**
+     * Replays all mock objects.
+     */
+    private void replay()
+    {
+        EasyMock.replay(validator, queue, sync, callback);
+    }
+
+    /**
+     * Verifies all mock objects.
+     */
+    private void verify()
+    {
+        EasyMock.verify(validator, queue, sync, callback);
+    }
+
+    /**
+     * Executes all commands passed to the command queue and the GUI updates
+     * triggered by them.
+     *
+     * @throws Exception if an error occurs
+     */
+    private void executeCommands() throws Exception
+    {
+        List<Command> cmds = commands.getValues();
+        for (Command cmd : cmds)
+        {
+            try
+            {
+                cmd.execute();
+            }
+            catch (Exception ex)
+            {
+                cmd.onException(ex);
+            }
+            finally
+            {
+                cmd.onFinally();
+            }
+            assertNull("Got a GUI updater", cmd.getGUIUpdater());
+        }
+        commands.reset();
+
+        for (Runnable r : guiTasks.getValues())
+        {
+            r.run();
+        }
+        guiTasks.reset();
+    }
+
+    /**
+     * Checks whether the given result has the specified error message.
+     *
+     * @param vr the result to check
+     * @param key the expected message key
+     */
+    private static void checkErrorResult(ValidationResult vr, String key)
+    {
+        assertFalse("Result is valid", vr.isValid());
+        assertEquals("Wrong number of messages", 1, vr
+                .getValidationMessages().size());
+        ValidationMessage msg = vr.getValidationMessages().iterator().next();
+        assertEquals("Wrong message key", key, msg.getKey());
+    }
+
+    /**
+     * Tests whether the wrapper validates directly if async mode is disabled.
+     */
+    @Test
+    public void testIsValidSynchronous()
+    {
+        EasyMock.expect(validator.isValid(VALUE, context)).andReturn(
+                DefaultValidationResult.VALID);
+        replay();
+        assertFalse("Async enabled", wrapper.isAsyncValidationEnabled());
+        assertSame("Wrong result", DefaultValidationResult.VALID,
+                wrapper.isValid(VALUE));
+        assertFalse("Pending", wrapper.isPending());
+        verify();
+    }
+
+    /**
+     * Tests whether the result for an unchanged value is cached.
+     */
+    @Test
+    public void testIsValidCached()
+    {
+        EasyMock.expect(validator.isValid(VALUE, context)).andReturn(
+                DefaultValidationResult.VALID);
+        replay();
+        wrapper.isValid(VALUE);
+        assertSame("Wrong result", DefaultValidationResult.VALID,
+                wrapper.isValid(VALUE));
+        verify();
+    }
+
+    /**
+     * Tests an asynchronous validation.
+     */
+    @Test
+    public void testIsValidAsync() throws Exception
+    {
+        ValidationResult vr = DefaultValidationResult
+                .createValidationErrorResult(context,
+                        ValidationMessageConstants.ERR_FIELD_REQUIRED);
+        EasyMock.expect(validator.isValid(VALUE, context)).andReturn(vr);
+        callback.run();
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        assertTrue("Async not enabled", wrapper.isAsyncValidationEnabled());
+        checkErrorResult(wrapper.isValid(VALUE),
+                ValidationMessageConstants.ERR_VALIDATION_PENDING);
+        assertTrue("Not pending", wrapper.isPending());
+        executeCommands();
+        assertFalse("Still pending", wrapper.isPending());
+        assertSame("Wrong result", vr, wrapper.isValid(VALUE));
+        verify();
+    }
+
+    /**
+     * Tests that a validation is scheduled only once for the same value.
+     */
+    @Test
+    public void testIsValidAsyncNoDuplicateCommands() throws Exception
+    {
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        wrapper.isValid(VALUE);
+        wrapper.isValid(VALUE);
+        assertEquals("Wrong number of commands", 1, commands.getValues()
+                .size());
+        verify();
+    }
+
+    /**
+     * Tests that a stale validation is skipped if the value changes.
+     */
+    @Test
+    public void testIsValidAsyncStaleValidationSkipped() throws Exception
+    {
+        EasyMock.expect(validator.isValid(VALUE2, context)).andReturn(
+                DefaultValidationResult.VALID);
+        callback.run();
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        wrapper.isValid(VALUE);
+        wrapper.isValid(VALUE2);
+        executeCommands();
+        assertSame("Wrong result", DefaultValidationResult.VALID,
+                wrapper.isValid(VALUE2));
+        verify();
+    }
+
+    /**
+     * Tests that the result of a stale validation which was already running is
+     * ignored.
+     */
+    @Test
+    public void testIsValidAsyncStaleResultIgnored() throws Exception
+    {
+        EasyMock.expect(validator.isValid(VALUE, context)).andReturn(
+                DefaultValidationResult.VALID);
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        wrapper.isValid(VALUE);
+        Command cmd = commands.getValue();
+        cmd.execute();
+        wrapper.isValid(VALUE2);
+        cmd.onFinally();
+        for (Runnable r : guiTasks.getValues())
+        {
+            r.run();
+        }
+        assertTrue("Not pending", wrapper.isPending());
+        verify();
+    }
+
+    /**
+     * Tests whether an exception thrown by the validator is handled.
+     */
+    @Test
+    public void testIsValidAsyncException() throws Exception
+    {
+        EasyMock.expect(validator.isValid(VALUE, context)).andThrow(
+                new IllegalStateException("Test exception"));
+        callback.run();
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        wrapper.isValid(VALUE);
+        executeCommands();
+        checkErrorResult(wrapper.isValid(VALUE),
+                ValidationMessageConstants.ERR_VALIDATION_FAILED);
+        verify();
+    }
+
+    /**
+     * Tests whether disabling async validation cancels a pending validation.
+     */
+    @Test
+    public void testDisableAsyncValidation() throws Exception
+    {
+        EasyMock.expect(validator.isValid(VALUE, context)).andReturn(
+                DefaultValidationResult.VALID);
+        replay();
+        wrapper.enableAsyncValidation(queue, callback);
+        wrapper.isValid(VALUE);
+        wrapper.disableAsyncValidation();
+        assertFalse("Still pending", wrapper.isPending());
+        assertFalse("Async enabled", wrapper.isAsyncValidationEnabled());
+        executeCommands();
+        assertSame("Wrong result", DefaultValidationResult.VALID,
+                wrapper.isValid(VALUE));
+        verify();
+    }
+
+    /**
+     * Tries to enable async validation without a command queue.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnableAsyncValidationNoQueue()
+    {
+        wrapper.enableAsyncValidation(null, callback);
+    }
+
+    /**
+     * Tries to enable async validation without a callback.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnableAsyncValidationNoCallback()
+    {
+        wrapper.enableAsyncValidation(queue, null);
+    }
+}
@@ -555,4 +555,95 @@ public class TestDefaultFormValidatorResults
         assertEquals("Wrong number of warnings 2", 1, vr.getValidationMessages(
                 ValidationMessageLevel.WARNING).size());
     }
+
+    /**
+     * Tests update() if the original results are null.
+     */
+    @Test
+    public void testUpdateNullResults()
+    {
+        DefaultFormValidatorResults res = setUpResults(1, 1);
+        assertSame("Wrong result", res,
+                DefaultFormValidatorResults.update(null, res));
+    }
+
+    /**
+     * Tests update() if the updates are null.
+     */
+    @Test
+    public void testUpdateNullUpdates()
+    {
+        DefaultFormValidatorResults res = setUpResults(1, 1);
+        assertSame("Wrong result", res,
+                DefaultFormValidatorResults.update(res, null));
+    }
+
+    /**
+     * Tests whether update() replaces the results of fields.
+     */
+    @Test
+    public void testUpdate()
+    {
+        DefaultFormValidatorResults res = setUpResults(2, 1);
+        Map<String, ValidationResult> updateMap =
+                new HashMap<String, ValidationResult>();
+        ValidationResult invalid = createInvalidResult();
+        updateMap.put(FIELD + "0", invalid);
+        updateMap.put(ERRFIELD + "0", DefaultValidationResult.VALID);
+        FormValidatorResults updated =
+                DefaultFormValidatorResults.update(res,
+                        new DefaultFormValidatorResults(updateMap));
+        assertEquals("Wrong number of fields", 3, updated.getFieldNames()
+                .size());
+        assertSame("Wrong result 1", invalid,
+                updated.getResultsFor(FIELD + "0"));
+        assertSame("Wrong result 2", DefaultValidationResult.VALID,
+                updated.getResultsFor(ERRFIELD + "0"));
+        assertSame("Wrong result 3", DefaultValidationResult.VALID,
+                updated.getResultsFor(FIELD + "1"));
+        assertEquals("Wrong error fields", 1, updated.getErrorFieldNames()
+                .size());
+    }
+
+    /**
+     * Tests changedFieldNames() if there are no old results.
+     */
+    @Test
+    public void testChangedFieldNamesNoOldResults()
+    {
+        DefaultFormValidatorResults res = setUpResults(2, 1);
+        assertEquals("Wrong changed fields", res.getFieldNames(),
+                DefaultFormValidatorResults.changedFieldNames(null, res));
+    }
+
+    /**
+     * Tests whether changed fields can be determined.
+     */
+    @Test
+    public void testChangedFieldNames()
+    {
+        Map<String, ValidationResult> map = setUpFieldMap(2, 0);
+        ValidationResult invalid = createInvalidResult();
+        map.put(ERRFIELD, invalid);
+        DefaultFormValidatorResults res1 = new DefaultFormValidatorResults(map);
+        map.put(FIELD + "0", invalid);
+        map.remove(FIELD + "1");
+        map.put(ERRFIELD + "new", DefaultValidationResult.VALID);
+        DefaultFormValidatorResults res2 = new DefaultFormValidatorResults(map);
+        Set<String> changed =
+                DefaultFormValidatorResults.changedFieldNames(res1, res2);
+        assertEquals("Wrong number of changed fields", 3, changed.size());
+        assertTrue("Field 0 not found", changed.contains(FIELD + "0"));
+        assertTrue("Field 1 not found", changed.contains(FIELD + "1"));
+        assertTrue("New field not found", changed.contains(ERRFIELD + "new"));
+    }
+
+    /**
+     * Tries to call changedFieldNames() without new results.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testChangedFieldNamesNoNewResults()
+    {
+        DefaultFormValidatorResults.changedFieldNames(setUpResults(1, 0), null);
+    }
 }
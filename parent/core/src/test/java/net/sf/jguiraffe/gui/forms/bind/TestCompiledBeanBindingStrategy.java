@@ -0,0 +1,201 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.forms.bind;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.jguiraffe.gui.forms.FormRuntimeException;
+import net.sf.jguiraffe.gui.forms.PersonBean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CompiledBeanBindingStrategy}.
+ */
+public class TestCompiledBeanBindingStrategy
+{
+    /** Constant for a test first name. */
+    private static final String FIRST_NAME = "Harry";
+
+    /** Constant for a test last name. */
+    private static final String NAME = "Hirsch";
+
+    /** Constant for a test salary. */
+    private static final double SALARY = 4711.5;
+
+    /** The test person bean. */
+    private PersonBean person;
+
+    /** The strategy to be tested. */
+    private CompiledBeanBindingStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        person = new PersonBean();
+        strategy = new CompiledBeanBindingStrategy();
+    }
+
+    /**
+     * Tests reading properties from a bean.
+     */
+    @Test
+    public void testReadProperty()
+    {
+        person.setFirstName(FIRST_NAME);
+        person.setName(NAME);
+        person.setAverageSalary(SALARY);
+        assertEquals("Wrong first name", FIRST_NAME, strategy.readProperty(
+                person, "firstName"));
+        assertEquals("Wrong name", NAME, strategy.readProperty(person, "name"));
+        assertEquals("Wrong salary", Double.valueOf(SALARY),
+                strategy.readProperty(person, "averageSalary"));
+    }
+
+    /**
+     * Tests whether accessors can be used multiple times on different beans.
+     */
+    @Test
+    public void testReadPropertyMultipleBeans()
+    {
+        person.setName(NAME);
+        strategy.readProperty(person, "name");
+        PersonBean person2 = new PersonBean();
+        person2.setName(FIRST_NAME);
+        assertEquals("Wrong name", FIRST_NAME,
+                strategy.readProperty(person2, "name"));
+    }
+
+    /**
+     * Tests reading a property that does not exist.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testReadPropertyNonExisting()
+    {
+        strategy.readProperty(person, "nonExistingProperty");
+    }
+
+    /**
+     * Tests reading a property from a null bean.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testReadPropertyNullBean()
+    {
+        strategy.readProperty(null, "firstName");
+    }
+
+    /**
+     * Tests whether properties of a map can be read. This is handled by the
+     * base class.
+     */
+    @Test
+    public void testReadPropertyMap()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("name", NAME);
+        assertEquals("Wrong name", NAME, strategy.readProperty(map, "name"));
+    }
+
+    /**
+     * Tests whether a nested property can be read.
+     */
+    @Test
+    public void testReadPropertyNested()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("person", person);
+        person.setName(NAME);
+        assertEquals("Wrong name", NAME,
+                strategy.readProperty(map, "person.name"));
+    }
+
+    /**
+     * Tests writing properties.
+     */
+    @Test
+    public void testWriteProperty()
+    {
+        strategy.writeProperty(person, "firstName", FIRST_NAME);
+        strategy.writeProperty(person, "name", NAME);
+        strategy.writeProperty(person, "averageSalary", SALARY);
+        assertEquals("Wrong first name", FIRST_NAME, person.getFirstName());
+        assertEquals("Wrong last name", NAME, person.getName());
+        assertEquals("Wrong salary", SALARY, person.getAverageSalary(), .001);
+    }
+
+    /**
+     * Tests writing a non existing property.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testWritePropertyNonExisting()
+    {
+        strategy.writeProperty(person, "nonExistingProperty", 42);
+    }
+
+    /**
+     * Tests writing a property on a null bean.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testWritePropertyNullBean()
+    {
+        strategy.writeProperty(null, "name", NAME);
+    }
+
+    /**
+     * Tests writing a value of an incompatible type.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testWritePropertyWrongType()
+    {
+        strategy.writeProperty(person, "name", 42);
+    }
+
+    /**
+     * Tests writing null into a property of a primitive type.
+     */
+    @Test(expected = FormRuntimeException.class)
+    public void testWritePropertyPrimitiveNull()
+    {
+        strategy.writeProperty(person, "averageSalary", null);
+    }
+
+    /**
+     * Tests whether a null value can be written into a property.
+     */
+    @Test
+    public void testWritePropertyNullValue()
+    {
+        person.setName(NAME);
+        strategy.writeProperty(person, "name", null);
+        assertNull("Got a name", person.getName());
+    }
+
+    /**
+     * Tests whether a property of a map can be written.
+     */
+    @Test
+    public void testWritePropertyMap()
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+        strategy.writeProperty(map, "name", NAME);
+        assertEquals("Wrong name", NAME, map.get("name"));
+    }
+}
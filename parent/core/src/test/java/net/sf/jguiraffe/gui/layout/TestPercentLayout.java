@@ -1209,6 +1209,95 @@ public class TestPercentLayout
                 ENLARGED_SIZES, sizes));
     }
 
+    /**
+     * Tests whether the sizes of the cells are cached.
+     */
+    @Test
+    public void testCalcPreferredLayoutSizeCached()
+    {
+        PercentLayout layout = setupTestLayout(false, false);
+        addComponents(layout);
+        Dimension d1 = layout.calcPreferredLayoutSize(this);
+        PercentLayoutPlatformAdapterImpl adapter =
+                (PercentLayoutPlatformAdapterImpl) layout.getPlatformAdapter();
+        adapter.getComponentByName(COMP_ALIGN).preferredWidth += 100;
+        assertEquals("Wrong cached size", d1,
+                layout.calcPreferredLayoutSize(this));
+        layout.flushCache();
+        Dimension d2 = layout.calcPreferredLayoutSize(this);
+        assertEquals("Wrong width after flush", d1.width + 100, d2.width);
+        assertEquals("Wrong height after flush", d1.height, d2.height);
+    }
+
+    /**
+     * Tests that cached cell sizes are not modified by weight factors.
+     */
+    @Test
+    public void testCalcSizesCachedNotModified()
+    {
+        PercentLayout layout = setupTestLayout(false, false);
+        addComponents(layout);
+        layout.calcSizes(layout.getAllRowConstraints(), layout
+                .getColumnCount(), layout.getRowGroups(), this,
+                ENLARGED_CONTAINER_SIZE, true);
+        int[] sizes = layout.calcSizes(layout.getAllRowConstraints(), layout
+                .getColumnCount(), layout.getRowGroups(), this, sum(ROW_SIZES),
+                true);
+        assertTrue("Wrong sizes: " + Arrays.toString(sizes), Arrays.equals(
+                ROW_SIZES, sizes));
+    }
+
+    /**
+     * Tests that the cache for cell sizes is not used for a different
+     * container.
+     */
+    @Test
+    public void testCalcPreferredLayoutSizeCachedOtherContainer()
+    {
+        PercentLayout layout = setupTestLayout(false, false);
+        addComponents(layout);
+        Dimension d1 = layout.calcPreferredLayoutSize(this);
+        PercentLayoutPlatformAdapterImpl adapter =
+                (PercentLayoutPlatformAdapterImpl) layout.getPlatformAdapter();
+        adapter.getComponentByName(COMP_ALIGN).preferredWidth += 100;
+        assertEquals("Wrong size", d1.width + 100, layout
+                .calcPreferredLayoutSize(adapter).width);
+    }
+
+    /**
+     * Tests that changing cell constraints invalidates the cached cell sizes.
+     */
+    @Test
+    public void testCalcPreferredLayoutSizeCachedChangedConstraints()
+    {
+        PercentLayout layout = setupTestLayout(false, false);
+        addComponents(layout);
+        Dimension d1 = layout.calcPreferredLayoutSize(this);
+        layout.setRowConstraints(6, builder.defaultRow().withMinimumSize(
+                new NumberWithUnit(d1.height)).create());
+        assertTrue("Size not changed",
+                layout.calcPreferredLayoutSize(this).height > d1.height);
+    }
+
+    /**
+     * Tests that cell sizes are not cached if the parameters do not match the
+     * definitions of the layout.
+     */
+    @Test
+    public void testCalcSizesOtherConstraintsNotCached()
+    {
+        PercentLayout layout = setupTestLayout(false, false);
+        addComponents(layout);
+        CellConstraints[] constraints = layout.getAllRowConstraints();
+        int[] sizes1 = layout.calcSizes(constraints, layout.getColumnCount(),
+                layout.getRowGroups(), this, sum(ROW_SIZES), true);
+        constraints[6] = builder.defaultRow().withMinimumSize(
+                new NumberWithUnit(ROW_SIZES[6] + 10)).create();
+        int[] sizes2 = layout.calcSizes(constraints, layout.getColumnCount(),
+                layout.getRowGroups(), this, 0, true);
+        assertEquals("Wrong size", sizes1[6] + 10, sizes2[6]);
+    }
+
     /**
      * Tests the calculation of cell sizes if not enough space is available, but
      * shrinking is disabled.
@@ -296,6 +296,41 @@ public class TestMessage
                 msg.resolve(getResourceManager(), Locale.ENGLISH));
     }
 
+    /**
+     * Tests whether compiled message formats are cached.
+     */
+    @Test
+    public void testResolveFormatCached()
+    {
+        Locale locale = new Locale("xx", "FORMAT");
+        assertEquals("Wrong initial cache size", 0,
+                MessageFormatCache.size(locale));
+        assertEquals("Wrong text (1)", "Value 1",
+                MessageFormatCache.format("Value {0}", locale, new Object[] {
+                    1
+                }));
+        assertEquals("Wrong text (2)", "Value 2",
+                MessageFormatCache.format("Value {0}", locale, new Object[] {
+                    2
+                }));
+        assertEquals("Wrong cache size", 1, MessageFormatCache.size(locale));
+    }
+
+    /**
+     * Tests that the same pattern is formatted according to the locale.
+     */
+    @Test
+    public void testResolveFormatLocaleSpecific()
+    {
+        Object[] params = {
+            Double.valueOf(1.5)
+        };
+        assertEquals("Wrong German text", "Wert 1,5",
+                MessageFormatCache.format("Wert {0}", Locale.GERMANY, params));
+        assertEquals("Wrong English text", "Wert 1.5",
+                MessageFormatCache.format("Wert {0}", Locale.US, params));
+    }
+
     /**
      * Tests if the default resource group works.
      */
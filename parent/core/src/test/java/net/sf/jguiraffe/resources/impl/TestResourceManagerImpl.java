@@ -0,0 +1,210 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.resources.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+
+import net.sf.jguiraffe.resources.ResourceGroup;
+import net.sf.jguiraffe.resources.ResourceLoader;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ResourceManagerImpl}.
+ */
+public class TestResourceManagerImpl
+{
+    /** Constant for the name of a resource group. */
+    private static final String GROUP = "testGroup";
+
+    /** Constant for a resource key. */
+    private static final String KEY = "testKey";
+
+    /** Constant for a resource value. */
+    private static final String VALUE = "Test resource";
+
+    /** A mock for the resource loader. */
+    private ResourceLoader loader;
+
+    /** A mock for a resource group. */
+    private ResourceGroup group;
+
+    /** The resource manager to be tested. */
+    private ResourceManagerImpl manager;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        loader = EasyMock.createMock(ResourceLoader.class);
+        group = EasyMock.createMock(ResourceGroup.class);
+        manager = new ResourceManagerImpl(loader);
+    }
+
+    /**
+     * Prepares the mocks to expect the given number of resource lookups.
+     *
+     * @param locale the locale
+     * @param count the number of lookups
+     */
+    private void expectLookups(Locale locale, int count)
+    {
+        EasyMock.expect(loader.loadGroup(locale, GROUP)).andReturn(group)
+                .times(count);
+        EasyMock.expect(group.getResource(KEY)).andReturn(VALUE).times(count);
+        EasyMock.replay(loader, group);
+    }
+
+    /**
+     * Tests a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertEquals("Wrong loader", loader, manager.getResourceLoader());
+        assertTrue("Cache not enabled", manager.isCacheEnabled());
+    }
+
+    /**
+     * Tests whether resources are cached.
+     */
+    @Test
+    public void testGetResourceCached()
+    {
+        expectLookups(Locale.GERMAN, 1);
+        assertEquals("Wrong resource (1)", VALUE,
+                manager.getResource(Locale.GERMAN, GROUP, KEY));
+        assertEquals("Wrong resource (2)", VALUE,
+                manager.getText(Locale.GERMAN, GROUP, KEY));
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests whether resources are cached per locale.
+     */
+    @Test
+    public void testGetResourceCachedPerLocale()
+    {
+        EasyMock.expect(loader.loadGroup(Locale.GERMAN, GROUP)).andReturn(
+                group);
+        EasyMock.expect(loader.loadGroup(null, GROUP)).andReturn(group);
+        EasyMock.expect(group.getResource(KEY)).andReturn(VALUE).times(2);
+        EasyMock.replay(loader, group);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        manager.getResource(null, GROUP, KEY);
+        manager.getResource(null, GROUP, KEY);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests whether the default resource group is taken into account when
+     * accessing the cache.
+     */
+    @Test
+    public void testGetResourceDefaultGroup()
+    {
+        expectLookups(Locale.GERMAN, 1);
+        manager.setDefaultResourceGroup(GROUP);
+        assertEquals("Wrong resource (1)", VALUE,
+                manager.getResource(Locale.GERMAN, null, KEY));
+        assertEquals("Wrong resource (2)", VALUE,
+                manager.getResource(Locale.GERMAN, GROUP, KEY));
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests that missing resources are not cached.
+     */
+    @Test
+    public void testGetResourceMissing()
+    {
+        EasyMock.expect(loader.loadGroup(Locale.GERMAN, GROUP)).andReturn(
+                group).times(2);
+        EasyMock.expect(group.getResource(KEY)).andThrow(
+                new MissingResourceException("Test", GROUP, KEY)).times(2);
+        EasyMock.replay(loader, group);
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                manager.getResource(Locale.GERMAN, GROUP, KEY);
+                fail("Missing resource not detected!");
+            }
+            catch (MissingResourceException mrex)
+            {
+                // expected
+            }
+        }
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests whether the cache can be disabled.
+     */
+    @Test
+    public void testGetResourceCacheDisabled()
+    {
+        expectLookups(Locale.GERMAN, 2);
+        manager.setCacheEnabled(false);
+        assertFalse("Cache enabled", manager.isCacheEnabled());
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClearCache()
+    {
+        expectLookups(Locale.GERMAN, 2);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        manager.clearCache();
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tests whether the cache is cleared when a new loader is set.
+     */
+    @Test
+    public void testSetResourceLoaderClearsCache()
+    {
+        expectLookups(Locale.GERMAN, 2);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        manager.setResourceLoader(loader);
+        manager.getResource(Locale.GERMAN, GROUP, KEY);
+        EasyMock.verify(loader, group);
+    }
+
+    /**
+     * Tries to access a resource if no loader is set.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testGetResourceNoLoader()
+    {
+        new ResourceManagerImpl().getResource(Locale.GERMAN, GROUP, KEY);
+    }
+}
@@ -240,6 +240,27 @@ public class TestBundleResourceLoader
         group.getResource("unknown");
     }
 
+    /**
+     * Tests whether the exception for an unknown key contains the expected
+     * information.
+     */
+    @Test
+    public void testGetUnknownKeyExceptionData()
+    {
+        BundleResourceLoader loader = new BundleResourceLoader();
+        ResourceGroup group = loader.loadGroup(Locale.ENGLISH, TESTNAME);
+        group.getResource("test1");
+        try
+        {
+            group.getResource("unknown");
+            fail("Unknown key not detected!");
+        }
+        catch (MissingResourceException mrex)
+        {
+            assertEquals("Wrong key", "unknown", mrex.getKey());
+        }
+    }
+
     /**
      * Tests accessing a resource with a null key. This should cause an
      * exception.
@@ -17,6 +17,7 @@ package net.sf.jguiraffe.transform;
 
 import java.text.DateFormat;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Locale;
 
 import org.apache.commons.configuration.Configuration;
@@ -76,4 +77,25 @@ public class TestDateTimeTransformer extends TestCase
                 .getTime()));
         EasyMock.verify(config);
     }
+
+    /**
+     * Tests whether a change of the time style is taken into account by the
+     * format cache.
+     */
+    public void testFormatCachedTimeStyleChanged() throws Exception
+    {
+        TransformerContext ctx = EasyMock.createMock(TransformerContext.class);
+        EasyMock.expect(ctx.getLocale()).andReturn(LOCALE).anyTimes();
+        EasyMock.expect(ctx.properties()).andReturn(
+                new HashMap<String, Object>()).anyTimes();
+        EasyMock.replay(ctx);
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2008, Calendar.JANUARY, 30, 17, 23, 28);
+        assertEquals("Wrong formatted date (1)", "30.01.08, 17:23",
+                transformer.transform(cal.getTime(), ctx));
+        transformer.setTimeStyle(DateFormat.MEDIUM);
+        assertEquals("Wrong formatted date (2)", "30.01.08, 17:23:28",
+                transformer.transform(cal.getTime(), ctx));
+    }
 }
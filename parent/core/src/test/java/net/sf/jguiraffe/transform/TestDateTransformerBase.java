@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration.Configuration;
 import org.easymock.EasyMock;
@@ -599,12 +600,106 @@ public class TestDateTransformerBase extends AbstractTransformerTest
         DateTransformerBase.updateDatePart(new Date(), null);
     }
 
+    /**
+     * Tests whether format objects are cached.
+     */
+    @Test
+    public void testFormatCached() throws Exception
+    {
+        setUpContextMock(new HashMap<String, Object>());
+        replayMocks();
+        Object date = transformer.transform("26.01.08", context);
+        assertEquals("Wrong string", "26.01.08", transformer.transform(date,
+                context));
+        assertTrue("Not valid", transformer.isValid("27.01.08", context)
+                .isValid());
+        assertEquals("Wrong number of created formats", 1,
+                transformer.getFormatCount());
+    }
+
+    /**
+     * Tests whether changes on properties affecting the format are taken into
+     * account by the cache.
+     */
+    @Test
+    public void testFormatCachedPropertyChanged() throws Exception
+    {
+        setUpContextMock(new HashMap<String, Object>());
+        final String lenientTestDate = "32.01.2008";
+        expectError(ValidationMessageConstants.ERR_INVALID_DATE,
+                lenientTestDate);
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_INVALID_DATE, transformer
+                .isValid(lenientTestDate, context));
+        transformer.setLenient(true);
+        assertTrue("Lenient mode has no effect", transformer.isValid(
+                lenientTestDate, context).isValid());
+        assertEquals("Wrong number of created formats", 2,
+                transformer.getFormatCount());
+    }
+
+    /**
+     * Tests whether the properties of the context are taken into account by
+     * the cache.
+     */
+    @Test
+    public void testFormatCachedContextProperties() throws Exception
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(DateTransformerBase.PROP_STYLE, DateFormat.MEDIUM);
+        setUpContextMock(props);
+        replayMocks();
+        Object date = transformer.transform("26.01.2008", context);
+        setUpContextMock(new HashMap<String, Object>());
+        replayMocks();
+        assertEquals("Wrong string", "26.01.08", transformer.transform(date,
+                context));
+        assertEquals("Wrong number of created formats", 2,
+                transformer.getFormatCount());
+    }
+
+    /**
+     * Tests that format objects are not shared between threads.
+     */
+    @Test
+    public void testFormatCachedPerThread() throws Exception
+    {
+        setUpContextMock(new HashMap<String, Object>());
+        replayMocks();
+        transformer.transform("26.01.08", context);
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                transformer.isValid("26.01.08", context);
+            }
+        };
+        t.start();
+        t.join();
+        assertEquals("Wrong number of created formats", 2,
+                transformer.getFormatCount());
+    }
+
     /**
      * A concrete test implementation of DateTransformerBase.
      */
     private static class DateTransformerBaseTestImpl extends
             DateTransformerBase
     {
+        /** A counter for the format objects created. */
+        private final AtomicInteger formatCount = new AtomicInteger();
+
+        /**
+         * Returns the number of format objects created so far.
+         *
+         * @return the number of format objects
+         */
+        public int getFormatCount()
+        {
+            return formatCount.get();
+        }
+
         /**
          * Returns the format object to use. This implementation always returns
          * a static format object.
@@ -612,6 +707,7 @@ public class TestDateTransformerBase extends AbstractTransformerTest
         @Override
         protected DateFormat createFormat(Locale locale, int style, Configuration config)
         {
+            formatCount.incrementAndGet();
             return DateFormat.getDateInstance(style, locale);
         }
     }
@@ -16,11 +16,14 @@
 package net.sf.jguiraffe.transform;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration.Configuration;
 import org.easymock.EasyMock;
@@ -58,6 +61,23 @@ public class TestDoubleTransformer extends AbstractTransformerTest
         assertEquals("Wrong parsed number", 1.25, n.doubleValue(), DELTA);
     }
 
+    /**
+     * Tests whether the format objects are cached.
+     */
+    @Test
+    public void testFormatCached() throws Exception
+    {
+        CountingDecimalTransformer trans = new CountingDecimalTransformer();
+        setUpContextMock(null);
+        replayMocks();
+        assertEquals("Wrong result (1)", 1.25,
+                (Double) trans.transform("1,25", context), DELTA);
+        assertEquals("Wrong result (2)", 2.5,
+                (Double) trans.transform("2,5", context), DELTA);
+        assertTrue("Not valid", trans.isValid("3,75", context).isValid());
+        assertEquals("Wrong number of created formats", 1, trans.getCount());
+    }
+
     /**
      * Tests the convert() method.
      */
@@ -138,4 +158,48 @@ public class TestDoubleTransformer extends AbstractTransformerTest
                 .fetchProperty(config, property, defVal));
         EasyMock.verify(config);
     }
+
+    /**
+     * A test decimal transformer implementation which counts the format
+     * objects created.
+     */
+    private static class CountingDecimalTransformer extends
+            AbstractDecimalTransformer<Double>
+    {
+        /** A counter for the format objects created. */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Returns the number of format objects created so far.
+         *
+         * @return the number of format objects
+         */
+        public int getCount()
+        {
+            return count.get();
+        }
+
+        /**
+         * Records this invocation.
+         */
+        @Override
+        protected NumberFormat createFormat(Locale locale)
+        {
+            count.incrementAndGet();
+            return super.createFormat(locale);
+        }
+
+        @Override
+        protected Double convert(Number n)
+        {
+            return n.doubleValue();
+        }
+
+        @Override
+        protected Double fetchProperty(Configuration config, String property,
+                Double defaultValue)
+        {
+            return config.getDouble(property, defaultValue);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code LocalDateTimeTransformer}.
+ */
+public class TestLocalDateTimeTransformer extends AbstractTransformerTest
+{
+    /** Constant for a test date/time. */
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2008, 1,
+            31, 10, 19);
+
+    /** The transformer to be tested. */
+    private LocalDateTimeTransformer transformer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        transformer = new LocalDateTimeTransformer();
+    }
+
+    /**
+     * Tries to create an instance without a time style.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoTimeStyle()
+    {
+        new LocalDateTimeTransformer(FormatStyle.SHORT, null);
+    }
+
+    /**
+     * Tests whether date/time values can be transformed in both directions.
+     */
+    @Test
+    public void testTransform() throws Exception
+    {
+        setUpContextMock(null);
+        replayMocks();
+        Object str = transformer.transform(DATE_TIME, context);
+        assertEquals("Wrong string",
+                DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                        .withLocale(LOCALE).format(DATE_TIME), str);
+        assertEquals("Wrong round-trip result", DATE_TIME,
+                transformer.transform(str, context));
+    }
+
+    /**
+     * Tests whether the styles of the date and time components can be set
+     * separately.
+     */
+    @Test
+    public void testTransformTimeStyleFromProperties() throws Exception
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(TemporalTransformerBase.PROP_TIME_STYLE, "MEDIUM");
+        setUpContextMock(props);
+        replayMocks();
+        assertEquals("Wrong string",
+                DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT,
+                        FormatStyle.MEDIUM).withLocale(LOCALE)
+                        .format(DATE_TIME),
+                transformer.transform(DATE_TIME, context));
+    }
+
+    /**
+     * Tests whether a reference value with a space as separator is accepted.
+     */
+    @Test
+    public void testIsValidAfterReferenceWithSpace() throws Exception
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(TemporalTransformerBase.PROP_AFTER, Boolean.TRUE);
+        props.put(TemporalTransformerBase.PROP_REFERENCE_DATE,
+                "2008-01-31 10:18:00");
+        setUpContextMock(props);
+        replayMocks();
+        Object str = transformer.transform(DATE_TIME, context);
+        assertTrue("Not valid", transformer.isValid(str, context).isValid());
+        verifyMocks();
+    }
+}
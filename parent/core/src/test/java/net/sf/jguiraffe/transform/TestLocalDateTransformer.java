@@ -0,0 +1,389 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.text.DateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code LocalDateTransformer}. This class also tests the
+ * functionality of the base class.
+ */
+public class TestLocalDateTransformer extends AbstractTransformerTest
+{
+    /** Constant for a test date. */
+    private static final LocalDate DATE = LocalDate.of(2008, 1, 26);
+
+    /** Constant for the test date in the default format. */
+    private static final String DATE_STR = "26.01.08";
+
+    /** Constant for a reference date. */
+    private static final String REF_DATE = "2008-01-28";
+
+    /** The transformer to be tested. */
+    private LocalDateTransformer transformer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        transformer = new LocalDateTransformer();
+    }
+
+    /**
+     * Creates the mock for the context with the given properties and replays
+     * it.
+     *
+     * @param props the properties
+     */
+    private void initContext(Map<String, Object> props)
+    {
+        setUpContextMock(props);
+        replayMocks();
+    }
+
+    /**
+     * Creates a map with properties for the transformer context.
+     *
+     * @param keysAndValues an array with keys and values
+     * @return the map with properties
+     */
+    private static Map<String, Object> props(Object... keysAndValues)
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        for (int i = 0; i < keysAndValues.length; i += 2)
+        {
+            props.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return props;
+    }
+
+    /**
+     * Tests the default values of a new instance.
+     */
+    @Test
+    public void testDefaults()
+    {
+        assertEquals("Wrong type", LocalDate.class,
+                transformer.getTemporalType());
+        assertEquals("Wrong date style", FormatStyle.SHORT,
+                transformer.getDateStyle());
+        assertNull("Got a time style", transformer.getTimeStyle());
+    }
+
+    /**
+     * Tries to create an instance without a style.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoStyle()
+    {
+        new LocalDateTransformer(null);
+    }
+
+    /**
+     * Tests whether a string can be transformed to a date.
+     */
+    @Test
+    public void testTransformToDate() throws Exception
+    {
+        initContext(null);
+        assertEquals("Wrong date", DATE,
+                transformer.transform(DATE_STR, context));
+    }
+
+    /**
+     * Tests whether a date can be transformed to a string.
+     */
+    @Test
+    public void testTransformToString() throws Exception
+    {
+        initContext(null);
+        assertEquals("Wrong string", DATE_STR,
+                transformer.transform(DATE, context));
+    }
+
+    /**
+     * Tests the transformation of undefined values.
+     */
+    @Test
+    public void testTransformUndefined() throws Exception
+    {
+        initContext(null);
+        assertNull("Wrong result for null", transformer.transform(null,
+                context));
+        assertNull("Wrong result for empty string", transformer.transform("",
+                context));
+    }
+
+    /**
+     * Tests transform() for an invalid string.
+     */
+    @Test(expected = DateTimeParseException.class)
+    public void testTransformInvalid() throws Exception
+    {
+        initContext(null);
+        transformer.transform("not a date", context);
+    }
+
+    /**
+     * Tests whether the style can be defined as a DateFormat constant in the
+     * properties.
+     */
+    @Test
+    public void testTransformStyleFromPropertiesConstant() throws Exception
+    {
+        initContext(props(TemporalTransformerBase.PROP_STYLE,
+                DateFormat.MEDIUM));
+        assertEquals("Wrong string", "26.01.2008",
+                transformer.transform(DATE, context));
+    }
+
+    /**
+     * Tests whether the style can be defined as a FormatStyle name in the
+     * properties.
+     */
+    @Test
+    public void testTransformStyleFromPropertiesName() throws Exception
+    {
+        initContext(props(TemporalTransformerBase.PROP_STYLE, "medium"));
+        assertEquals("Wrong string", "26.01.2008",
+                transformer.transform(DATE, context));
+    }
+
+    /**
+     * Tests whether the style passed to the constructor is used.
+     */
+    @Test
+    public void testTransformStyleFromConstructor() throws Exception
+    {
+        transformer = new LocalDateTransformer(FormatStyle.MEDIUM);
+        initContext(null);
+        assertEquals("Wrong date", DATE,
+                transformer.transform("26.01.2008", context));
+    }
+
+    /**
+     * Tests whether formatters are cached.
+     */
+    @Test
+    public void testFormatterCached() throws Exception
+    {
+        CountingTransformer trans = new CountingTransformer();
+        initContext(null);
+        trans.transform(DATE, context);
+        trans.transform(DATE_STR, context);
+        trans.isValid(DATE_STR, context);
+        assertEquals("Wrong number of formatters", 1, trans.getCount());
+    }
+
+    /**
+     * Tests whether different formatters are created for different
+     * properties.
+     */
+    @Test
+    public void testFormatterCachedDifferentProperties() throws Exception
+    {
+        CountingTransformer trans = new CountingTransformer();
+        initContext(props(TemporalTransformerBase.PROP_LENIENT, Boolean.TRUE));
+        trans.transform(DATE, context);
+        initContext(null);
+        trans.transform(DATE, context);
+        trans.transform(DATE, context);
+        assertEquals("Wrong number of formatters", 2, trans.getCount());
+    }
+
+    /**
+     * Tests isValid() for a valid date.
+     */
+    @Test
+    public void testIsValidValidDate()
+    {
+        initContext(null);
+        assertTrue("Not valid", transformer.isValid(DATE_STR, context)
+                .isValid());
+        verifyMocks();
+    }
+
+    /**
+     * Tests isValid() for undefined input.
+     */
+    @Test
+    public void testIsValidUndefined()
+    {
+        initContext(null);
+        assertSame("Wrong result for null", DefaultValidationResult.VALID,
+                transformer.isValid(null, context));
+        assertSame("Wrong result for empty string",
+                DefaultValidationResult.VALID, transformer.isValid("", context));
+    }
+
+    /**
+     * Tests isValid() for a string which cannot be parsed.
+     */
+    @Test
+    public void testIsValidInvalidDate()
+    {
+        setUpContextMock(null);
+        final String input = "26.01.08x";
+        expectError(ValidationMessageConstants.ERR_INVALID_DATE, input);
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_INVALID_DATE,
+                transformer.isValid(input, context));
+        verifyMocks();
+    }
+
+    /**
+     * Tests that invalid field values are rejected if lenient mode is off.
+     */
+    @Test
+    public void testIsValidLenientFalse()
+    {
+        setUpContextMock(null);
+        final String input = "32.01.08";
+        expectError(ValidationMessageConstants.ERR_INVALID_DATE, input);
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_INVALID_DATE,
+                transformer.isValid(input, context));
+        verifyMocks();
+    }
+
+    /**
+     * Tests that invalid field values are accepted in lenient mode.
+     */
+    @Test
+    public void testTransformLenientTrue() throws Exception
+    {
+        initContext(props(TemporalTransformerBase.PROP_LENIENT, "true"));
+        assertEquals("Wrong date", LocalDate.of(2008, 2, 1),
+                transformer.transform("32.01.08", context));
+    }
+
+    /**
+     * Tests the after flag with a valid date.
+     */
+    @Test
+    public void testIsValidAfter()
+    {
+        initContext(props(TemporalTransformerBase.PROP_AFTER, Boolean.TRUE,
+                TemporalTransformerBase.PROP_REFERENCE_DATE, REF_DATE));
+        assertTrue("Not valid", transformer.isValid("29.01.08", context)
+                .isValid());
+        verifyMocks();
+    }
+
+    /**
+     * Tests the after flag if the date is too small.
+     */
+    @Test
+    public void testIsValidAfterErr()
+    {
+        setUpContextMock(props(TemporalTransformerBase.PROP_AFTER,
+                Boolean.TRUE, TemporalTransformerBase.PROP_REFERENCE_DATE,
+                REF_DATE));
+        expectError(ValidationMessageConstants.ERR_DATE_AFTER, "28.01.08");
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_DATE_AFTER,
+                transformer.isValid("28.01.08", context));
+        verifyMocks();
+    }
+
+    /**
+     * Tests the after flag in combination with the equal flag.
+     */
+    @Test
+    public void testIsValidAfterEqual()
+    {
+        initContext(props(TemporalTransformerBase.PROP_AFTER, Boolean.TRUE,
+                TemporalTransformerBase.PROP_EQUAL, Boolean.TRUE,
+                TemporalTransformerBase.PROP_REFERENCE_DATE, REF_DATE));
+        assertTrue("Not valid", transformer.isValid("28.01.08", context)
+                .isValid());
+        verifyMocks();
+    }
+
+    /**
+     * Tests the before flag in combination with the equal flag if the date is
+     * too big.
+     */
+    @Test
+    public void testIsValidBeforeEqualErr()
+    {
+        setUpContextMock(props(TemporalTransformerBase.PROP_BEFORE,
+                Boolean.TRUE, TemporalTransformerBase.PROP_EQUAL,
+                Boolean.TRUE, TemporalTransformerBase.PROP_REFERENCE_DATE,
+                REF_DATE));
+        expectError(ValidationMessageConstants.ERR_DATE_BEFORE_EQUAL,
+                "28.01.08");
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_DATE_BEFORE_EQUAL,
+                transformer.isValid("29.01.08", context));
+        verifyMocks();
+    }
+
+    /**
+     * Tests whether the current date is used as default reference date.
+     */
+    @Test
+    public void testIsValidBeforeDefaultReference()
+    {
+        initContext(props(TemporalTransformerBase.PROP_BEFORE, Boolean.TRUE));
+        assertTrue("Not valid", transformer.isValid(DATE_STR, context)
+                .isValid());
+    }
+
+    /**
+     * A test transformer implementation which counts the formatters created.
+     */
+    private static class CountingTransformer extends LocalDateTransformer
+    {
+        /** The number of formatters created. */
+        private int count;
+
+        /**
+         * Returns the number of formatters created so far.
+         *
+         * @return the number of formatters
+         */
+        public int getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Records this invocation.
+         */
+        @Override
+        protected DateTimeFormatter createFormatter(Locale locale,
+                FormatStyle dStyle, FormatStyle tStyle, boolean lenient)
+        {
+            count++;
+            return super.createFormatter(locale, dStyle, tStyle, lenient);
+        }
+    }
+}
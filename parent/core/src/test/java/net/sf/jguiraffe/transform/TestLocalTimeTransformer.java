@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalTime;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code LocalTimeTransformer}.
+ */
+public class TestLocalTimeTransformer extends AbstractTransformerTest
+{
+    /** Constant for a test time. */
+    private static final LocalTime TIME = LocalTime.of(21, 5);
+
+    /** Constant for the test time in the default format. */
+    private static final String TIME_STR = "21:05";
+
+    /** The transformer to be tested. */
+    private LocalTimeTransformer transformer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        transformer = new LocalTimeTransformer();
+    }
+
+    /**
+     * Tests the default values of a new instance.
+     */
+    @Test
+    public void testDefaults()
+    {
+        assertEquals("Wrong type", LocalTime.class,
+                transformer.getTemporalType());
+        assertEquals("Wrong time style", FormatStyle.SHORT,
+                transformer.getTimeStyle());
+        assertNull("Got a date style", transformer.getDateStyle());
+    }
+
+    /**
+     * Tests whether times can be transformed in both directions.
+     */
+    @Test
+    public void testTransform() throws Exception
+    {
+        setUpContextMock(null);
+        replayMocks();
+        assertEquals("Wrong time", TIME,
+                transformer.transform(TIME_STR, context));
+        assertEquals("Wrong string", TIME_STR,
+                transformer.transform(TIME, context));
+    }
+
+    /**
+     * Tests whether the style property is applied to the time component.
+     */
+    @Test
+    public void testTransformStyleFromProperties() throws Exception
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(TemporalTransformerBase.PROP_STYLE, FormatStyle.MEDIUM.name());
+        setUpContextMock(props);
+        replayMocks();
+        assertEquals("Wrong string", "21:05:00",
+                transformer.transform(TIME, context));
+    }
+
+    /**
+     * Tests whether a time-specific error message is produced for invalid
+     * input.
+     */
+    @Test
+    public void testIsValidInvalidTime()
+    {
+        setUpContextMock(null);
+        final String input = "25:05";
+        expectError(ValidationMessageConstants.ERR_INVALID_TIME, input);
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_INVALID_TIME,
+                transformer.isValid(input, context));
+        verifyMocks();
+    }
+
+    /**
+     * Tests whether a time-specific error message is produced for a failed
+     * comparison with the reference time.
+     */
+    @Test
+    public void testIsValidBeforeErr()
+    {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(TemporalTransformerBase.PROP_BEFORE, Boolean.TRUE);
+        props.put(TemporalTransformerBase.PROP_REFERENCE_DATE, "20:00:00");
+        setUpContextMock(props);
+        expectError(ValidationMessageConstants.ERR_TIME_BEFORE, "20:00");
+        replayMocks();
+        checkError(ValidationMessageConstants.ERR_TIME_BEFORE,
+                transformer.isValid(TIME_STR, context));
+        verifyMocks();
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.platform.swing.builder.components;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.jguiraffe.gui.builder.components.model.IndexedListModel;
+import net.sf.jguiraffe.gui.builder.components.model.LazyListModel;
+
+import org.apache.commons.lang.ObjectUtils;
+
+/**
+ * <p>
+ * A specialized {@link SwingListModel} implementation which fetches its data
+ * on demand from a {@link LazyListModel}.
+ * </p>
+ * <p>
+ * In contrast to the base class, this model does not copy the data of the
+ * underlying model. When a display or value object is requested, the page
+ * containing this element is fetched from the {@code LazyListModel} and
+ * stored in a cache. The page size and the maximum number of cached pages are
+ * obtained from the underlying model. If the cache is full, the page which
+ * has not been accessed for the longest time is discarded.
+ * </p>
+ * <p>
+ * The size of the model is determined at construction time and when
+ * {@link #refresh()} is called. {@code refresh()} also clears the cache and
+ * fires the Swing list data events corresponding to the changed size, so that
+ * the component displaying this model is updated. Because the data is owned
+ * by the underlying model, the methods for manipulating the content of this
+ * model throw an {@code UnsupportedOperationException}. The positions of
+ * value and display objects are obtained from the underlying model if it
+ * implements {@link IndexedListModel}; otherwise, it is searched linearly
+ * without populating the cache.
+ * </p>
+ *
+ * @since 1.5
+ */
+class LazySwingListModel extends SwingListModel
+{
+    /** Constant for the default page size. */
+    static final int DEFAULT_PAGE_SIZE = 64;
+
+    /** Constant for the default maximum number of cached pages. */
+    static final int DEFAULT_CACHE_SIZE = 16;
+
+    /**
+     * A default serial version UID.
+     */
+    private static final long serialVersionUID = 20261016L;
+
+    /** Constant for the error message for unsupported modifications. */
+    private static final String ERR_MODIFY =
+            "A lazy list model cannot be modified! "
+                    + "Change the underlying model and call "
+                    + "ListComponentHandler.listDataChanged().";
+
+    /** The underlying model. */
+    private final LazyListModel sourceModel;
+
+    /** The cache for the pages fetched from the underlying model. */
+    private final PageCache cache;
+
+    /** The number of elements fetched in a single step. */
+    private final int pageSize;
+
+    /** The current size of this model. */
+    private int size;
+
+    /**
+     * Creates a new instance of {@code LazySwingListModel} and initializes it
+     * with the underlying model.
+     *
+     * @param model the underlying model
+     */
+    public LazySwingListModel(LazyListModel model)
+    {
+        super(model.getType(), 0);
+        sourceModel = model;
+        pageSize = (model.getPageSize() > 0) ? model.getPageSize()
+                : DEFAULT_PAGE_SIZE;
+        cache = new PageCache((model.getCacheSize() > 0) ? model
+                .getCacheSize() : DEFAULT_CACHE_SIZE);
+        size = model.size();
+        if (size > 0)
+        {
+            setSelectedItem(getElementAt(0));
+        }
+    }
+
+    /**
+     * Returns the underlying model.
+     *
+     * @return the underlying model
+     */
+    public LazyListModel getSourceModel()
+    {
+        return sourceModel;
+    }
+
+    /**
+     * Returns the number of elements fetched in a single step.
+     *
+     * @return the page size
+     */
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    /**
+     * Returns the number of pages which are currently cached.
+     *
+     * @return the number of cached pages
+     */
+    public int getCachedPageCount()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Returns a display object which can be used by components for computing
+     * the size of their cells. This is the prototype provided by the
+     * underlying model. If it does not provide one, the first element is
+     * returned; if the model is empty, result is <b>null</b>.
+     *
+     * @return the prototype display object
+     */
+    public Object getPrototypeDisplayObject()
+    {
+        Object prototype = sourceModel.getPrototypeDisplayObject();
+        return (prototype != null) ? prototype : getElementAt(0);
+    }
+
+    /**
+     * Returns the number of elements in this model. This is the size of the
+     * underlying model when it was queried for the last time.
+     *
+     * @return the size of this model
+     */
+    @Override
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the element at the given index. This is the display object,
+     * which is fetched from the underlying model if necessary. For an invalid
+     * index result is <b>null</b>.
+     *
+     * @param index the index
+     * @return the element at this index
+     */
+    @Override
+    public Object getElementAt(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            return null;
+        }
+        return fetchPage(index).displayObjects[index % pageSize];
+    }
+
+    /**
+     * Returns the value object with the given index. It is fetched from the
+     * underlying model if necessary.
+     *
+     * @param index the index (0 based)
+     * @return the value object for this index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Object getValueObject(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Invalid index: " + index
+                    + ", size: " + size);
+        }
+        return fetchPage(index).valueObjects[index % pageSize];
+    }
+
+    /**
+     * Returns the index of the given display object. This implementation
+     * delegates to {@link #indexOfDisplay(Object)}.
+     *
+     * @param anObject the object
+     * @return the index of this object or -1
+     */
+    @Override
+    public int getIndexOf(Object anObject)
+    {
+        return indexOfDisplay(anObject);
+    }
+
+    /**
+     * Returns the index of the first element with the given value object.
+     *
+     * @param value the value object
+     * @return the index of this value object or -1
+     */
+    @Override
+    public int indexOfValue(Object value)
+    {
+        if (sourceModel instanceof IndexedListModel)
+        {
+            return checkIndex(((IndexedListModel) sourceModel)
+                    .indexOfValue(value));
+        }
+
+        for (int i = 0; i < size; i++)
+        {
+            if (ObjectUtils.equals(value, sourceModel.getValueObject(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first element with the given display object.
+     *
+     * @param display the display object
+     * @return the index of this display object or -1
+     */
+    @Override
+    public int indexOfDisplay(Object display)
+    {
+        if (sourceModel instanceof IndexedListModel)
+        {
+            return checkIndex(((IndexedListModel) sourceModel)
+                    .indexOfDisplay(display));
+        }
+
+        for (int i = 0; i < size; i++)
+        {
+            if (ObjectUtils.equals(display, sourceModel.getDisplayObject(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reloads the data of this model. The size of the underlying model is
+     * queried again, and the cache is cleared. The selected item is checked
+     * whether it is still contained in the model; if not, the first element
+     * is selected. Listeners are notified about the changes.
+     */
+    @Override
+    public void refresh()
+    {
+        cache.clear();
+        int oldSize = size;
+        size = sourceModel.size();
+
+        if (size < oldSize)
+        {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        }
+        else if (size > oldSize)
+        {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        int common = Math.min(size, oldSize);
+        if (common > 0)
+        {
+            fireContentsChanged(this, 0, common - 1);
+        }
+        validateSelection();
+    }
+
+    /**
+     * Inserts an item. This operation is not supported.
+     *
+     * @param index the index
+     * @param display the display object
+     * @param value the value object
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void insertItem(int index, Object display, Object value)
+    {
+        throw new UnsupportedOperationException(ERR_MODIFY);
+    }
+
+    /**
+     * Adds an element. This operation is not supported.
+     *
+     * @param anObject the object
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addElement(Object anObject)
+    {
+        throw new UnsupportedOperationException(ERR_MODIFY);
+    }
+
+    /**
+     * Inserts an element. This operation is not supported.
+     *
+     * @param anObject the object
+     * @param index the index
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void insertElementAt(Object anObject, int index)
+    {
+        throw new UnsupportedOperationException(ERR_MODIFY);
+    }
+
+    /**
+     * Removes an element. This operation is not supported.
+     *
+     * @param index the index
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void removeElementAt(int index)
+    {
+        throw new UnsupportedOperationException(ERR_MODIFY);
+    }
+
+    /**
+     * Removes all elements. This operation is not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void removeAllElements()
+    {
+        throw new UnsupportedOperationException(ERR_MODIFY);
+    }
+
+    /**
+     * Returns the page containing the element with the given index. If it is
+     * not yet cached, it is fetched from the underlying model.
+     *
+     * @param index the index of the element
+     * @return the page containing this element
+     */
+    private Page fetchPage(int index)
+    {
+        Integer pageIndex = Integer.valueOf(index / pageSize);
+        Page page = cache.get(pageIndex);
+        if (page == null)
+        {
+            page = loadPage(pageIndex.intValue() * pageSize);
+            cache.put(pageIndex, page);
+        }
+        return page;
+    }
+
+    /**
+     * Loads a page from the underlying model.
+     *
+     * @param start the index of the first element of the page
+     * @return the page
+     */
+    private Page loadPage(int start)
+    {
+        int count = Math.min(pageSize, size - start);
+        Page page = new Page(count);
+        for (int i = 0; i < count; i++)
+        {
+            page.displayObjects[i] = sourceModel.getDisplayObject(start + i);
+            page.valueObjects[i] = sourceModel.getValueObject(start + i);
+        }
+        return page;
+    }
+
+    /**
+     * Makes sure that the selected item is an element of this model. If this
+     * is not the case, the first element is selected or - if the model is
+     * empty - the selection is cleared.
+     */
+    private void validateSelection()
+    {
+        Object selected = getSelectedItem();
+        if (size == 0)
+        {
+            if (selected != null)
+            {
+                setSelectedItem(null);
+            }
+        }
+        else if (selected == null || indexOfDisplay(selected) < 0)
+        {
+            setSelectedItem(getElementAt(0));
+        }
+    }
+
+    /**
+     * Checks an index obtained from the underlying model. Indices beyond the
+     * current size of this model are mapped to -1.
+     *
+     * @param index the index
+     * @return the checked index
+     */
+    private int checkIndex(int index)
+    {
+        return (index < size) ? index : -1;
+    }
+
+    /**
+     * A simple data class representing a page of elements fetched from the
+     * underlying model.
+     */
+    private static class Page
+    {
+        /** The display objects of this page. */
+        final Object[] displayObjects;
+
+        /** The value objects of this page. */
+        final Object[] valueObjects;
+
+        /**
+         * Creates a new instance of {@code Page}.
+         *
+         * @param count the number of elements in this page
+         */
+        public Page(int count)
+        {
+            displayObjects = new Object[count];
+            valueObjects = new Object[count];
+        }
+    }
+
+    /**
+     * The map used as cache for pages. It evicts the least recently used page
+     * when its capacity is exceeded.
+     */
+    private static class PageCache extends LinkedHashMap<Integer, Page>
+    {
+        /**
+         * The serial version UID.
+         */
+        private static final long serialVersionUID = 20261016L;
+
+        /** The maximum number of pages. */
+        private final int capacity;
+
+        /**
+         * Creates a new instance of {@code PageCache}.
+         *
+         * @param maxPages the maximum number of pages
+         */
+        public PageCache(int maxPages)
+        {
+            super(2 * maxPages, 0.75f, true);
+            capacity = maxPages;
+        }
+
+        /**
+         * Checks whether the eldest entry has to be removed. This is the case
+         * if the capacity has been exceeded.
+         *
+         * @param eldest the eldest entry
+         * @return a flag whether this entry is to be removed
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest)
+        {
+            return size() > capacity;
+        }
+    }
+}
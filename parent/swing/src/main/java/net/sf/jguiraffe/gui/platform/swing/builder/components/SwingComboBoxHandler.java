@@ -16,6 +16,8 @@
 package net.sf.jguiraffe.gui.platform.swing.builder.components;
 
 import javax.swing.JComboBox;
+import javax.swing.plaf.ComboBoxUI;
+import javax.swing.plaf.basic.ComboPopup;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
@@ -160,4 +162,25 @@ class SwingComboBoxHandler extends SwingListModelHandler implements
     {
         getComboBox().setModel(model);
     }
+
+    /**
+     * Sets the prototype display value of the combo box. The prototype is
+     * also set for the list of the combo box's popup (if it can be obtained),
+     * so that displaying the popup does not require all elements either.
+     *
+     * @param prototype the prototype display object
+     * @since 1.5
+     */
+    @Override
+    protected void initComponentPrototype(Object prototype)
+    {
+        JComboBox combo = getComboBox();
+        combo.setPrototypeDisplayValue(prototype);
+        ComboBoxUI ui = combo.getUI();
+        Object popup = (ui != null) ? ui.getAccessibleChild(combo, 0) : null;
+        if (popup instanceof ComboPopup)
+        {
+            ((ComboPopup) popup).getList().setPrototypeCellValue(prototype);
+        }
+    }
 }
@@ -52,12 +52,17 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Image;
 import java.awt.LayoutManager;
+import java.awt.Toolkit;
 import java.awt.font.TextAttribute;
 import java.lang.reflect.Field;
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -133,6 +138,13 @@ public class SwingComponentManager implements ComponentManager
     /** Constant for the Swing form builder name. */
     public static final String BUILDER_NAME = "SWING_FORM_BUILDER";
 
+    /**
+     * Constant for the maximum number of images stored in the icon cache.
+     *
+     * @since 1.5
+     */
+    public static final int DEFAULT_ICON_CACHE_SIZE = 128;
+
     /** An array with the generic tabbed pane placement constants. */
     private static final TabbedPaneTag.Placement[] TAB_PLACEMENTS = {
             TabbedPaneTag.Placement.BOTTOM, TabbedPaneTag.Placement.LEFT,
@@ -161,6 +173,9 @@ public class SwingComponentManager implements ComponentManager
     /** The object for updating row heights for tables. */
     private final SwingTableRowHeightUpdater tableRowHeightUpdater;
 
+    /** A cache for the images of the icons created by this object. */
+    private final Map<String, Image> iconCache;
+
     /**
      * Creates a new instance of {@code SwingComponentManager}.
      */
@@ -177,9 +192,38 @@ public class SwingComponentManager implements ComponentManager
      * @param tableRowHeightUpdater the {@code SwingTableRowHeightUpdater}
      */
     SwingComponentManager(SwingTableRowHeightUpdater tableRowHeightUpdater)
+    {
+        this(tableRowHeightUpdater, DEFAULT_ICON_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code SwingComponentManager} and initializes
+     * it with the given dependencies and the maximum size of the icon cache.
+     * This constructor is mainly used for testing purposes.
+     *
+     * @param tableRowHeightUpdater the {@code SwingTableRowHeightUpdater}
+     * @param iconCacheSize the maximum number of cached icon images
+     */
+    SwingComponentManager(SwingTableRowHeightUpdater tableRowHeightUpdater,
+            final int iconCacheSize)
     {
         textAttributeMapping = initTextAttributeMapping();
         this.tableRowHeightUpdater = tableRowHeightUpdater;
+        iconCache = Collections.synchronizedMap(
+                new LinkedHashMap<String, Image>(16, 0.75f, true)
+        {
+            /**
+             * The serial version UID.
+             */
+            private static final long serialVersionUID = 20261016L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, Image> eldest)
+            {
+                return size() > iconCacheSize;
+            }
+        });
     }
 
     /**
@@ -332,7 +376,15 @@ public class SwingComponentManager implements ComponentManager
 
     /**
      * Creates an icon with the information obtained from the given locator. An
-     * <code>ImageIcon</code> object will be returned.
+     * <code>ImageIcon</code> object will be returned. The decoded images of
+     * icons are cached based on their URL; so an icon is decoded only once,
+     * even if it is referenced by multiple components or builder scripts. The
+     * cache holds at most {@link #DEFAULT_ICON_CACHE_SIZE} images; the ones
+     * used least recently are evicted. Each call returns a new
+     * {@code ImageIcon} for the cached image, so that changes on an icon do
+     * not affect other components. This method can be called from an
+     * arbitrary thread; it is therefore possible to preload icons in a
+     * background thread.
      *
      * @param locator the <code>Locator</code> pointing to the icon's data
      * @return the icon
@@ -345,11 +397,32 @@ public class SwingComponentManager implements ComponentManager
             throw new FormBuilderException("Locator for icon must not be null!");
         }
 
-        if (log.isInfoEnabled())
+        URL url = locator.getURL();
+        String key = url.toExternalForm();
+        Image image = iconCache.get(key);
+        if (image == null)
         {
-            log.info("Loading icon from " + locator);
+            if (log.isInfoEnabled())
+            {
+                log.info("Loading icon from " + locator);
+            }
+            // createImage() is used because getImage() has its own cache
+            image = new ImageIcon(Toolkit.getDefaultToolkit().createImage(url))
+                    .getImage();
+            iconCache.put(key, image);
         }
-        return new ImageIcon(locator.getURL());
+        return new ImageIcon(image, key);
+    }
+
+    /**
+     * Clears the cache for icons. Afterwards, icons are loaded again when they
+     * are requested by {@link #createIcon(Locator)}.
+     *
+     * @since 1.5
+     */
+    public void clearIconCache()
+    {
+        iconCache.clear();
     }
 
     /**
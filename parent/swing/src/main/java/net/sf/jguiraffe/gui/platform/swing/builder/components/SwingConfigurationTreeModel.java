@@ -27,6 +27,7 @@ import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 
+import net.sf.jguiraffe.gui.builder.components.model.ChildIndexCache;
 import net.sf.jguiraffe.gui.builder.components.model.TreeConfigurationChangeHandler;
 import net.sf.jguiraffe.gui.builder.components.model.TreeModelChangeListener;
 
@@ -63,6 +64,11 @@ import org.apache.commons.lang.ObjectUtils;
  * mapping is not possible, a very generic structure changed event is fired.
  * </p>
  * <p>
+ * The positions of child nodes are determined using a
+ * {@link ChildIndexCache}. When a change in the tree is reported the cached
+ * data of the affected sub tree is discarded.
+ * </p>
+ * <p>
  * As is true for most Swing objects, this class is not thread-safe. It is
  * possible to manipulate the underlying configuration in a separate thread,
  * which will cause change events received by this model. These events are then
@@ -88,6 +94,9 @@ public class SwingConfigurationTreeModel implements TreeModel,
     /** The change handler. */
     private final TreeConfigurationChangeHandler ccHandler;
 
+    /** The cache for the positions of child nodes. */
+    private final ChildIndexCache indexCache;
+
     /**
      * Creates a new instance of {@code SwingConfigurationTreeModel} and
      * initializes it with the given {@code HierarchicalConfiguration}
@@ -108,6 +117,7 @@ public class SwingConfigurationTreeModel implements TreeModel,
 
         configuration = config;
         listeners = new CopyOnWriteArrayList<TreeModelListener>();
+        indexCache = new ChildIndexCache();
         ccHandler = new TreeConfigurationChangeHandler(config, this);
         configuration.addConfigurationListener(ccHandler);
     }
@@ -179,22 +189,7 @@ public class SwingConfigurationTreeModel implements TreeModel,
      */
     public int getIndexOfChild(Object parent, Object child)
     {
-        if (parent == null || child == null)
-        {
-            return -1;
-        }
-
-        int index = 0;
-        for (Object o : ((ConfigurationNode) parent).getChildren())
-        {
-            if (o == child)
-            {
-                return index;
-            }
-            index++;
-        }
-
-        return -1;
+        return indexCache.indexOfChild((ConfigurationNode) parent, child);
     }
 
     /**
@@ -292,8 +287,9 @@ public class SwingConfigurationTreeModel implements TreeModel,
 
     /**
      * The configuration serving as tree model was changed in the sub tree
-     * referenced by the passed in node. This implementation fires a tree
-     * structure change event to all registered listeners.
+     * referenced by the passed in node. This implementation discards the
+     * cached child positions of this sub tree and fires a tree structure
+     * change event to all registered listeners.
      *
      * @param node the node in the configuration which has changed
      * @since 1.3
@@ -305,17 +301,20 @@ public class SwingConfigurationTreeModel implements TreeModel,
 
     /**
      * Fires a structure changed event. All registered listeners are notified in
-     * the event dispatch thread.
+     * the event dispatch thread. Before that, the cached child positions of the
+     * affected sub tree are discarded. This is also done in the event dispatch
+     * thread because the cache is not thread-safe.
      *
      * @param changedNode the configuration node affected by the change
      */
-    private void fireStructureChangedEvent(ConfigurationNode changedNode)
+    private void fireStructureChangedEvent(final ConfigurationNode changedNode)
     {
         final TreeModelEvent event = createEvent(changedNode);
         SwingUtilities.invokeLater(new Runnable()
         {
             public void run()
             {
+                indexCache.invalidate(changedNode);
                 for (TreeModelListener l : listeners)
                 {
                     l.treeStructureChanged(event);
@@ -127,6 +127,19 @@ class SwingListBoxHandler extends SwingListModelHandler implements
         getList().setModel(model);
     }
 
+    /**
+     * Sets the prototype cell value of the list, so that the size of its cells
+     * is computed from this object only.
+     *
+     * @param prototype the prototype display object
+     * @since 1.5
+     */
+    @Override
+    protected void initComponentPrototype(Object prototype)
+    {
+        getList().setPrototypeCellValue(prototype);
+    }
+
     /**
      * Returns this component's data. Based on the selected index an object from
      * the list model will be returned.
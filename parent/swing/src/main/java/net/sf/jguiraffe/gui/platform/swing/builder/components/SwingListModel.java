@@ -20,7 +20,9 @@ import java.util.List;
 
 import javax.swing.DefaultComboBoxModel;
 
+import net.sf.jguiraffe.gui.builder.components.model.IndexedListModel;
 import net.sf.jguiraffe.gui.builder.components.model.ListModel;
+import net.sf.jguiraffe.gui.builder.components.model.ListModelIndex;
 
 /**
  * <p>
@@ -30,11 +32,18 @@ import net.sf.jguiraffe.gui.builder.components.model.ListModel;
  * This class is a hybrid: It is both a Swing list model and a form builder list
  * model.
  * </p>
+ * <p>
+ * The model implements the {@code IndexedListModel} interface. It maintains a
+ * {@link ListModelIndex} for its value and display objects, so that the
+ * positions of objects can be determined efficiently, e.g. when the data of a
+ * list component is set from a form bean.
+ * </p>
  *
  * @author Oliver Heger
  * @version $Id: SwingListModel.java 205 2012-01-29 18:29:57Z oheger $
  */
-class SwingListModel extends DefaultComboBoxModel implements ListModel
+class SwingListModel extends DefaultComboBoxModel implements
+        IndexedListModel
 {
     /**
      * A default serial version UID.
@@ -47,6 +56,9 @@ class SwingListModel extends DefaultComboBoxModel implements ListModel
     /** The collection with value objects. */
     private final List<Object> valueObjects;
 
+    /** The index for value and display objects. */
+    private final ListModelIndex index;
+
     /**
      * Creates a new instance of {@code SwingListModel}.
      *
@@ -54,11 +66,26 @@ class SwingListModel extends DefaultComboBoxModel implements ListModel
      */
     public SwingListModel(ListModel model)
     {
-        type = model.getType();
-        valueObjects = new ArrayList<Object>(model.size());
+        this(model.getType(), model.size());
         initFromModel(model);
     }
 
+    /**
+     * Creates a new, empty instance of {@code SwingListModel} with the given
+     * data type. This constructor can be used by derived classes which do not
+     * copy the data of the underlying model.
+     *
+     * @param dataType the data type of this model
+     * @param capacity the initial capacity for value objects
+     * @since 1.5
+     */
+    protected SwingListModel(Class<?> dataType, int capacity)
+    {
+        type = dataType;
+        valueObjects = new ArrayList<Object>(capacity);
+        index = new ListModelIndex(this);
+    }
+
     /**
      * Returns the display object with the given index.
      *
@@ -101,6 +128,32 @@ class SwingListModel extends DefaultComboBoxModel implements ListModel
         return getSize();
     }
 
+    /**
+     * Returns the index of the first element with the given value object.
+     * This implementation uses the index maintained by this model.
+     *
+     * @param value the value object
+     * @return the index of this value object or -1
+     * @since 1.5
+     */
+    public int indexOfValue(Object value)
+    {
+        return index.indexOfValue(value);
+    }
+
+    /**
+     * Returns the index of the first element with the given display object.
+     * This implementation uses the index maintained by this model.
+     *
+     * @param display the display object
+     * @return the index of this display object or -1
+     * @since 1.5
+     */
+    public int indexOfDisplay(Object display)
+    {
+        return index.indexOfDisplay(display);
+    }
+
     /**
      * Inserts the given data at the specified index.
      *
@@ -112,6 +165,7 @@ class SwingListModel extends DefaultComboBoxModel implements ListModel
     {
         insertElementAt(display, index);
         valueObjects.add(index, value);
+        this.index.itemInserted(index);
     }
 
     /**
@@ -121,8 +175,36 @@ class SwingListModel extends DefaultComboBoxModel implements ListModel
     @Override
     public void removeElementAt(int index)
     {
+        Object display = getElementAt(index);
         super.removeElementAt(index);
-        valueObjects.remove(index);
+        Object value = valueObjects.remove(index);
+        this.index.itemRemoved(index, display, value);
+    }
+
+    /**
+     * {@inheritDoc} This implementation also updates the specific state of
+     * this model.
+     */
+    @Override
+    public void removeAllElements()
+    {
+        super.removeAllElements();
+        valueObjects.clear();
+        index.invalidate();
+    }
+
+    /**
+     * Notifies this model that the data of the underlying model has changed.
+     * This model stores a copy of the original data which is updated using
+     * {@link #insertItem(int, Object, Object)} and
+     * {@link #removeElementAt(int)}. Therefore, this implementation is empty.
+     * Derived classes which access the underlying model directly can
+     * override it to reload their data.
+     *
+     * @since 1.5
+     */
+    public void refresh()
+    {
     }
 
     /**
@@ -1,122 +1,185 @@
-/*
- * Copyright 2006-2025 The JGUIraffe Team.
- *
- * Licensed under the Apache License, Version 2.0 (the "License")
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package net.sf.jguiraffe.gui.platform.swing.builder.components;
-
-import javax.swing.JComponent;
-
-import net.sf.jguiraffe.gui.builder.components.model.ListComponentHandler;
-import net.sf.jguiraffe.gui.builder.components.model.ListModel;
-
-/**
- * <p>
- * An abstract base class for Swing component handlers that deal with list
- * models.
- * </p>
- * <p>
- * This class provides basic functionality for managing a list model. It will
- * act as the base class for specific handler implementations that wrap Swing
- * list-like components like <code>JList</code> or <code>JComboBox</code>.
- * </p>
- *
- * @author Oliver Heger
- * @version $Id: SwingListModelHandler.java 205 2012-01-29 18:29:57Z oheger $
- */
-abstract class SwingListModelHandler extends SwingComponentHandler<Object> implements
-        ListComponentHandler
-{
-    /** Stores the special Swing list model. */
-    private SwingListModel model;
-
-    /**
-     * Creates a new instance of <code>SwingListModelHandler</code> and sets
-     * the managed component and the original list model.
-     *
-     * @param component the component to manage
-     * @param listModel the original list model; this class will copy this list
-     * model's data into a new list model that can also be used by Swing
-     * components
-     */
-    protected SwingListModelHandler(JComponent component, ListModel listModel)
-    {
-        super(component);
-        model = createSwingListModel(listModel);
-        initComponentModel(model);
-    }
-
-    /**
-     * Returns the list model for this component.
-     *
-     * @return the list model
-     */
-    public ListModel getListModel()
-    {
-        return model;
-    }
-
-    /**
-     * Adds an item to the list model of this component.
-     *
-     * @param index the index of the new item
-     * @param display the display object
-     * @param value the value object
-     */
-    public void addItem(int index, Object display, Object value)
-    {
-        model.insertItem(index, display, value);
-    }
-
-    /**
-     * Removes the item with the given index from the list model of this
-     * component.
-     *
-     * @param index the index
-     */
-    public void removeItem(int index)
-    {
-        model.removeElementAt(index);
-    }
-
-    /**
-     * Returns this component's data type. This type is directly derived from
-     * the list model.
-     *
-     * @return the data type of this component
-     */
-    public Class<?> getType()
-    {
-        return getListModel().getType();
-    }
-
-    /**
-     * Creates the Swing specific list model from the given source model.
-     *
-     * @param m the original list model
-     * @return the new Swing specific list model
-     */
-    protected SwingListModel createSwingListModel(ListModel m)
-    {
-        return new SwingListModel(m);
-    }
-
-    /**
-     * Initializes the list model for the managed component. This method is
-     * called after the Swing specific list model has been created. Derived
-     * classes should initialize the managed component with this model.
-     *
-     * @param model the Swing list model
-     */
-    protected abstract void initComponentModel(SwingListModel model);
-}
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.platform.swing.builder.components;
+
+import javax.swing.JComponent;
+
+import net.sf.jguiraffe.gui.builder.components.model.LazyListModel;
+import net.sf.jguiraffe.gui.builder.components.model.ListComponentHandler;
+import net.sf.jguiraffe.gui.builder.components.model.ListModel;
+
+/**
+ * <p>
+ * An abstract base class for Swing component handlers that deal with list
+ * models.
+ * </p>
+ * <p>
+ * This class provides basic functionality for managing a list model. It will
+ * act as the base class for specific handler implementations that wrap Swing
+ * list-like components like <code>JList</code> or <code>JComboBox</code>.
+ * </p>
+ * <p>
+ * If the original list model implements the {@link LazyListModel} interface,
+ * its data is not copied. Rather, a {@link LazySwingListModel} is created
+ * which fetches the data on demand. Such a model cannot be manipulated using
+ * {@link #addItem(int, Object, Object)} or {@link #removeItem(int)}; changes
+ * of the original model are reported by calling {@link #listDataChanged()}.
+ * </p>
+ *
+ * @author Oliver Heger
+ * @version $Id: SwingListModelHandler.java 205 2012-01-29 18:29:57Z oheger $
+ */
+abstract class SwingListModelHandler extends SwingComponentHandler<Object> implements
+        ListComponentHandler
+{
+    /** Stores the special Swing list model. */
+    private SwingListModel model;
+
+    /**
+     * Creates a new instance of <code>SwingListModelHandler</code> and sets
+     * the managed component and the original list model.
+     *
+     * @param component the component to manage
+     * @param listModel the original list model; this class will copy this list
+     * model's data into a new list model that can also be used by Swing
+     * components
+     */
+    protected SwingListModelHandler(JComponent component, ListModel listModel)
+    {
+        super(component);
+        model = createSwingListModel(listModel);
+        initComponentModel(model);
+        initPrototype();
+    }
+
+    /**
+     * Returns the list model for this component.
+     *
+     * @return the list model
+     */
+    public ListModel getListModel()
+    {
+        return model;
+    }
+
+    /**
+     * Adds an item to the list model of this component.
+     *
+     * @param index the index of the new item
+     * @param display the display object
+     * @param value the value object
+     */
+    public void addItem(int index, Object display, Object value)
+    {
+        model.insertItem(index, display, value);
+    }
+
+    /**
+     * Removes the item with the given index from the list model of this
+     * component.
+     *
+     * @param index the index
+     */
+    public void removeItem(int index)
+    {
+        model.removeElementAt(index);
+    }
+
+    /**
+     * Notifies this handler that the data of the original list model has
+     * changed. This implementation delegates to the Swing list model which
+     * reloads its data if necessary. For lazy models the prototype display
+     * object is updated, too.
+     *
+     * @since 1.5
+     */
+    public void listDataChanged()
+    {
+        model.refresh();
+        initPrototype();
+    }
+
+    /**
+     * Returns this component's data type. This type is directly derived from
+     * the list model.
+     *
+     * @return the data type of this component
+     */
+    public Class<?> getType()
+    {
+        return getListModel().getType();
+    }
+
+    /**
+     * Creates the Swing specific list model from the given source model. If
+     * the source model is a {@code LazyListModel}, a model is returned which
+     * fetches the data on demand; otherwise, the data of the source model is
+     * copied.
+     *
+     * @param m the original list model
+     * @return the new Swing specific list model
+     */
+    protected SwingListModel createSwingListModel(ListModel m)
+    {
+        if (m instanceof LazyListModel)
+        {
+            return new LazySwingListModel((LazyListModel) m);
+        }
+        return new SwingListModel(m);
+    }
+
+    /**
+     * Initializes the list model for the managed component. This method is
+     * called after the Swing specific list model has been created. Derived
+     * classes should initialize the managed component with this model.
+     *
+     * @param model the Swing list model
+     */
+    protected abstract void initComponentModel(SwingListModel model);
+
+    /**
+     * Passes a prototype display object to the managed component. This method
+     * is called for lazy list models with the prototype obtained from the
+     * model; it is not called if no prototype is available. Swing components
+     * determine their size by iterating over all elements of their model
+     * unless they have a prototype; for a lazy model this would cause all of
+     * its data to be loaded. Derived classes should therefore set the
+     * prototype at the component. This base implementation is empty.
+     *
+     * @param prototype the prototype display object
+     * @since 1.5
+     */
+    protected void initComponentPrototype(Object prototype)
+    {
+    }
+
+    /**
+     * Initializes the prototype display object of the managed component if
+     * the list model is lazy.
+     */
+    private void initPrototype()
+    {
+        if (model instanceof LazySwingListModel)
+        {
+            Object prototype =
+                    ((LazySwingListModel) model).getPrototypeDisplayObject();
+            if (prototype != null)
+            {
+                initComponentPrototype(prototype);
+            }
+        }
+    }
+}
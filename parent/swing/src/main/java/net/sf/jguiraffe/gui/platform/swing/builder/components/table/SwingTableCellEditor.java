@@ -85,7 +85,8 @@ class SwingTableCellEditor extends AbstractCellEditor implements
     /**
      * Returns the editor component for the specified cell. This implementation
      * will return the editor component that was specified in the table
-     * definition.
+     * definition. Before, the row edit form is initialized with the data of
+     * the row to be edited.
      *
      * @param table the affected table
      * @param value the current value of this cell
@@ -99,6 +100,7 @@ class SwingTableCellEditor extends AbstractCellEditor implements
     {
         currentCol = col;
         currentRow = row;
+        getModel().getController().selectEditRow(row);
         Component result = (Component) getModel().getTableTag().getColumn(col)
                 .getEditorComponent();
         getModel().getTableTag().getEditorSelectionHandler().prepareComponent(
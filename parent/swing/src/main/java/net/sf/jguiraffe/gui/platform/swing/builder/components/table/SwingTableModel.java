@@ -135,7 +135,9 @@ public class SwingTableModel extends AbstractTableModel
     }
 
     /**
-     * Returns the value at the specified cell.
+     * Returns the value at the specified cell. This implementation obtains
+     * the value of the single cell from the controller; the row forms are not
+     * necessarily initialized completely.
      *
      * @param row the row index
      * @param col the column index
@@ -143,8 +145,7 @@ public class SwingTableModel extends AbstractTableModel
      */
     public Object getValueAt(int row, int col)
     {
-        getController().selectCurrentRow(row);
-        return getController().getColumnValue(col);
+        return getController().getCellValue(row, col);
     }
 
     /**
@@ -198,7 +199,7 @@ public class SwingTableModel extends AbstractTableModel
     @Override
     public void setValueAt(Object value, int row, int col)
     {
-        getController().selectCurrentRow(row);
+        getController().selectEditRow(row);
         getController().setColumnValue(getTable(), col, value);
     }
 
@@ -30,6 +30,12 @@ import net.sf.jguiraffe.gui.layout.UnitSizeHandler;
  * Swing specific implementation of the <code>SizeHandler</code> interface.
  * </p>
  * <p>
+ * This implementation caches the average character sizes determined for the
+ * fonts used by components and the screen resolution. These values are needed
+ * for every conversion of a unit like dialog units or inches to pixels; so a
+ * layout calculation does not have to query font metrics or the toolkit again.
+ * </p>
+ * <p>
  * Note: This implementation performs some caching to optimize performance, but
  * it is not synchronized. So it must be ensured that an instance is accessed by
  * a single thread only or that manual synchronization is performed.
@@ -66,6 +72,9 @@ public class SwingSizeHandler implements UnitSizeHandler, Serializable
      */
     private final Map<Font, double[]> sizeCache;
 
+    /** The cached screen resolution; 0 if it has not yet been determined. */
+    private int screenResolution;
+
     /**
      * Creates a new instance of <code>SwingSizeHandler</code>.
      */
@@ -106,11 +115,28 @@ public class SwingSizeHandler implements UnitSizeHandler, Serializable
     }
 
     /**
-     * Returns the current screen resolution.
+     * Returns the current screen resolution. The resolution is queried once
+     * and then cached.
      *
      * @return the screen resolution
      */
     public int getScreenResolution()
+    {
+        if (screenResolution <= 0)
+        {
+            screenResolution = fetchScreenResolution();
+        }
+        return screenResolution;
+    }
+
+    /**
+     * Queries the screen resolution from the toolkit. This method is called by
+     * {@link #getScreenResolution()} if the resolution has not yet been
+     * cached.
+     *
+     * @return the screen resolution
+     */
+    int fetchScreenResolution()
     {
         return Toolkit.getDefaultToolkit().getScreenResolution();
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.platform.swing.builder.components;
+
+import net.sf.jguiraffe.gui.builder.components.model.LazyListModel;
+
+/**
+ * A test implementation of the {@code LazyListModel} interface. It produces
+ * the same elements as {@link ListModelImpl}, but its size can be changed.
+ * It also counts the accesses to display objects.
+ */
+class LazyListModelImpl extends ListModelImpl implements LazyListModel
+{
+    /** The page size. */
+    private final int pageSize;
+
+    /** The cache size. */
+    private final int cacheSize;
+
+    /** The current size. */
+    private int size;
+
+    /** The number of accesses to display objects. */
+    private int displayAccessCount;
+
+    /** The prototype display object. */
+    private Object prototypeDisplayObject;
+
+    public LazyListModelImpl(int cnt, int pgSize, int cchSize)
+    {
+        super(cnt);
+        size = cnt;
+        pageSize = pgSize;
+        cacheSize = cchSize;
+    }
+
+    /**
+     * Changes the size of this model.
+     *
+     * @param cnt the new size
+     */
+    public void setSize(int cnt)
+    {
+        size = cnt;
+    }
+
+    /**
+     * Sets the prototype display object to be returned by this model.
+     *
+     * @param prototype the prototype
+     */
+    public void setPrototypeDisplayObject(Object prototype)
+    {
+        prototypeDisplayObject = prototype;
+    }
+
+    /**
+     * Returns the number of accesses to display objects.
+     *
+     * @return the access count
+     */
+    public int getDisplayAccessCount()
+    {
+        return displayAccessCount;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public Object getDisplayObject(int index)
+    {
+        displayAccessCount++;
+        return super.getDisplayObject(index);
+    }
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public int getCacheSize()
+    {
+        return cacheSize;
+    }
+
+    public Object getPrototypeDisplayObject()
+    {
+        return prototypeDisplayObject;
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2006-2025 The JGUIraffe Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jguiraffe.gui.platform.swing.builder.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import net.sf.jguiraffe.gui.builder.components.model.IndexedListModel;
+import net.sf.jguiraffe.gui.builder.components.model.LazyListModel;
+import net.sf.jguiraffe.gui.builder.components.tags.ListModelUtils;
+
+import org.easymock.EasyMock;
+import org.easymock.IArgumentMatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code LazySwingListModel}.
+ */
+public class TestLazySwingListModel
+{
+    /** Constant for the size of the test model. */
+    private static final int COUNT = 100;
+
+    /** Constant for the page size. */
+    private static final int PAGE_SIZE = 10;
+
+    /** Constant for the cache size. */
+    private static final int CACHE_SIZE = 3;
+
+    /** The underlying model. */
+    private LazyListModelImpl source;
+
+    /** The model to be tested. */
+    private LazySwingListModel model;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        source = new LazyListModelImpl(COUNT, PAGE_SIZE, CACHE_SIZE);
+        model = new LazySwingListModel(source);
+    }
+
+    /**
+     * Creates a mock for a list data listener and registers it at the test
+     * model.
+     *
+     * @return the mock listener
+     */
+    private ListDataListener installListener()
+    {
+        ListDataListener l = EasyMock.createMock(ListDataListener.class);
+        model.addListDataListener(l);
+        return l;
+    }
+
+    /**
+     * Creates an argument matcher for a list data event.
+     *
+     * @param type the expected event type
+     * @param idx0 the expected start index
+     * @param idx1 the expected end index
+     * @return <b>null</b>
+     */
+    private static ListDataEvent eqEvent(final int type, final int idx0,
+            final int idx1)
+    {
+        EasyMock.reportMatcher(new IArgumentMatcher()
+        {
+            public boolean matches(Object argument)
+            {
+                ListDataEvent event = (ListDataEvent) argument;
+                return event.getType() == type && event.getIndex0() == idx0
+                        && event.getIndex1() == idx1;
+            }
+
+            public void appendTo(StringBuffer buffer)
+            {
+                buffer.append("ListDataEvent(").append(type).append(", ")
+                        .append(idx0).append(", ").append(idx1).append(")");
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Tests the properties of a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        assertSame("Wrong source model", source, model.getSourceModel());
+        assertEquals("Wrong size", COUNT, model.getSize());
+        assertEquals("Wrong model size", COUNT, model.size());
+        assertEquals("Wrong type", String.class, model.getType());
+        assertEquals("Wrong page size", PAGE_SIZE, model.getPageSize());
+        assertEquals("Wrong selected item", ListModelImpl.DISPLAY_PREFIX + 0,
+                model.getSelectedItem());
+        assertEquals("Wrong number of accesses", PAGE_SIZE,
+                source.getDisplayAccessCount());
+    }
+
+    /**
+     * Tests whether default values are used for page and cache size.
+     */
+    @Test
+    public void testInitDefaults()
+    {
+        source = new LazyListModelImpl(COUNT * COUNT, 0, -1);
+        model = new LazySwingListModel(source);
+        assertEquals("Wrong page size", LazySwingListModel.DEFAULT_PAGE_SIZE,
+                model.getPageSize());
+        for (int i = 0; i < source.size(); i += model.getPageSize())
+        {
+            model.getElementAt(i);
+        }
+        assertEquals("Wrong number of pages",
+                LazySwingListModel.DEFAULT_CACHE_SIZE,
+                model.getCachedPageCount());
+    }
+
+    /**
+     * Tests a model for an empty source model.
+     */
+    @Test
+    public void testInitEmpty()
+    {
+        model = new LazySwingListModel(new LazyListModelImpl(0, 0, 0));
+        assertEquals("Wrong size", 0, model.getSize());
+        assertNull("Got a selected item", model.getSelectedItem());
+    }
+
+    /**
+     * Tests whether the elements of the model can be queried.
+     */
+    @Test
+    public void testGetElements()
+    {
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals("Wrong element", ListModelImpl.DISPLAY_PREFIX + i,
+                    model.getElementAt(i));
+            assertEquals("Wrong display object",
+                    ListModelImpl.DISPLAY_PREFIX + i,
+                    model.getDisplayObject(i));
+            assertEquals("Wrong value object", ListModelImpl.VALUE_PREFIX + i,
+                    model.getValueObject(i));
+        }
+        assertEquals("Wrong number of accesses", COUNT,
+                source.getDisplayAccessCount());
+    }
+
+    /**
+     * Tests that elements are fetched only once from the source model.
+     */
+    @Test
+    public void testGetElementsCached()
+    {
+        for (int i = 0; i < PAGE_SIZE * CACHE_SIZE; i++)
+        {
+            model.getElementAt(i);
+            model.getValueObject(i);
+        }
+        model.getElementAt(0);
+        assertEquals("Wrong number of accesses", PAGE_SIZE * CACHE_SIZE,
+                source.getDisplayAccessCount());
+        assertEquals("Wrong number of pages", CACHE_SIZE,
+                model.getCachedPageCount());
+    }
+
+    /**
+     * Tests whether the least recently used page is removed from the cache.
+     */
+    @Test
+    public void testCacheEviction()
+    {
+        model.getElementAt(PAGE_SIZE);
+        model.getElementAt(2 * PAGE_SIZE);
+        model.getElementAt(0);
+        model.getElementAt(3 * PAGE_SIZE);
+        int count = source.getDisplayAccessCount();
+        model.getElementAt(1);
+        assertEquals("Page 0 was reloaded", count,
+                source.getDisplayAccessCount());
+        model.getElementAt(PAGE_SIZE + 1);
+        assertEquals("Page 1 not reloaded", count + PAGE_SIZE,
+                source.getDisplayAccessCount());
+        assertEquals("Wrong number of pages", CACHE_SIZE,
+                model.getCachedPageCount());
+    }
+
+    /**
+     * Tests whether an incomplete last page is handled correctly.
+     */
+    @Test
+    public void testLastPageIncomplete()
+    {
+        source = new LazyListModelImpl(COUNT + 1, PAGE_SIZE, CACHE_SIZE);
+        model = new LazySwingListModel(source);
+        assertEquals("Wrong last element", ListModelImpl.VALUE_PREFIX + COUNT,
+                model.getValueObject(COUNT));
+        assertEquals("Wrong number of accesses", PAGE_SIZE + 1,
+                source.getDisplayAccessCount());
+    }
+
+    /**
+     * Tests getElementAt() for invalid indices.
+     */
+    @Test
+    public void testGetElementAtInvalidIndex()
+    {
+        assertNull("Got an element (1)", model.getElementAt(-1));
+        assertNull("Got an element (2)", model.getElementAt(COUNT));
+    }
+
+    /**
+     * Tests getValueObject() for an invalid index.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetValueObjectInvalidIndex()
+    {
+        model.getValueObject(COUNT);
+    }
+
+    /**
+     * Tests whether indices can be determined by searching the source model.
+     */
+    @Test
+    public void testIndexOfLinearSearch()
+    {
+        assertEquals("Wrong value index", 42,
+                model.indexOfValue(ListModelImpl.VALUE_PREFIX + 42));
+        assertEquals("Wrong display index", 43,
+                model.indexOfDisplay(ListModelImpl.DISPLAY_PREFIX + 43));
+        assertEquals("Wrong index of", 44,
+                model.getIndexOf(ListModelImpl.DISPLAY_PREFIX + 44));
+        assertEquals("Wrong index for unknown value", -1,
+                model.indexOfValue("unknown"));
+        assertEquals("Wrong index for unknown display", -1,
+                model.indexOfDisplay("unknown"));
+        assertEquals("Cache was populated", 1, model.getCachedPageCount());
+    }
+
+    /**
+     * Tests whether an indexed source model is queried for indices.
+     */
+    @Test
+    public void testIndexOfIndexedSource()
+    {
+        IndexedLazyListModel src =
+                EasyMock.createMock(IndexedLazyListModel.class);
+        EasyMock.<Class<?>> expect(src.getType()).andReturn(String.class);
+        EasyMock.expect(src.getPageSize()).andReturn(PAGE_SIZE).anyTimes();
+        EasyMock.expect(src.getCacheSize()).andReturn(CACHE_SIZE).anyTimes();
+        EasyMock.expect(src.size()).andReturn(0);
+        EasyMock.expect(src.indexOfValue(ListModelImpl.VALUE_PREFIX))
+                .andReturn(-1);
+        EasyMock.expect(src.indexOfDisplay(ListModelImpl.DISPLAY_PREFIX))
+                .andReturn(0);
+        EasyMock.replay(src);
+        model = new LazySwingListModel(src);
+        assertEquals("Wrong value index", -1,
+                model.indexOfValue(ListModelImpl.VALUE_PREFIX));
+        assertEquals("Index beyond size not mapped", -1,
+                model.indexOfDisplay(ListModelImpl.DISPLAY_PREFIX));
+        EasyMock.verify(src);
+    }
+
+    /**
+     * Tests whether ListModelUtils can be used with a lazy model.
+     */
+    @Test
+    public void testListModelUtils()
+    {
+        assertEquals("Wrong index", COUNT - 1, ListModelUtils.getIndex(model,
+                ListModelImpl.VALUE_PREFIX + (COUNT - 1)));
+        assertEquals("Wrong value", ListModelImpl.VALUE_PREFIX + 1,
+                ListModelUtils.getValue(model, 1));
+    }
+
+    /**
+     * Tests a refresh operation if the size of the model grows.
+     */
+    @Test
+    public void testRefreshGrow()
+    {
+        ListDataListener l = installListener();
+        l.intervalAdded(eqEvent(ListDataEvent.INTERVAL_ADDED, COUNT,
+                COUNT + 9));
+        l.contentsChanged(eqEvent(ListDataEvent.CONTENTS_CHANGED, 0,
+                COUNT - 1));
+        EasyMock.replay(l);
+        source.setSize(COUNT + 10);
+        model.refresh();
+        assertEquals("Wrong size", COUNT + 10, model.getSize());
+        assertEquals("Cache not cleared", 0, model.getCachedPageCount());
+        assertEquals("Wrong last element",
+                ListModelImpl.DISPLAY_PREFIX + (COUNT + 9),
+                model.getElementAt(COUNT + 9));
+        EasyMock.verify(l);
+    }
+
+    /**
+     * Tests a refresh operation if the size of the model shrinks.
+     */
+    @Test
+    public void testRefreshShrink()
+    {
+        ListDataListener l = installListener();
+        l.intervalRemoved(eqEvent(ListDataEvent.INTERVAL_REMOVED, 10,
+                COUNT - 1));
+        l.contentsChanged(eqEvent(ListDataEvent.CONTENTS_CHANGED, 0, 9));
+        EasyMock.replay(l);
+        source.setSize(10);
+        model.refresh();
+        assertEquals("Wrong size", 10, model.getSize());
+        assertNull("Got removed element", model.getElementAt(10));
+        EasyMock.verify(l);
+    }
+
+    /**
+     * Tests a refresh operation if the model becomes empty.
+     */
+    @Test
+    public void testRefreshEmpty()
+    {
+        ListDataListener l = installListener();
+        l.intervalRemoved(eqEvent(ListDataEvent.INTERVAL_REMOVED, 0,
+                COUNT - 1));
+        l.contentsChanged(eqEvent(ListDataEvent.CONTENTS_CHANGED, -1, -1));
+        EasyMock.replay(l);
+        source.setSize(0);
+        model.refresh();
+        assertEquals("Wrong size", 0, model.getSize());
+        assertNull("Still selected", model.getSelectedItem());
+        EasyMock.verify(l);
+    }
+
+    /**
+     * Tests that a refresh operation keeps the selected item if it is still
+     * contained in the model.
+     */
+    @Test
+    public void testRefreshSelectionKept()
+    {
+        Object selected = ListModelImpl.DISPLAY_PREFIX + 5;
+        model.setSelectedItem(selected);
+        source.setSize(10);
+        model.refresh();
+        assertEquals("Wrong selected item", selected, model.getSelectedItem());
+    }
+
+    /**
+     * Tests that a refresh operation selects the first element if the
+     * selected item has been removed.
+     */
+    @Test
+    public void testRefreshSelectionRemoved()
+    {
+        model.setSelectedItem(ListModelImpl.DISPLAY_PREFIX + 50);
+        source.setSize(10);
+        model.refresh();
+        assertEquals("Wrong selected item", ListModelImpl.DISPLAY_PREFIX + 0,
+                model.getSelectedItem());
+    }
+
+    /**
+     * Tests that a refresh operation selects the first element if the model
+     * was empty before.
+     */
+    @Test
+    public void testRefreshSelectionPreviouslyEmpty()
+    {
+        source.setSize(0);
+        model = new LazySwingListModel(source);
+        source.setSize(COUNT);
+        model.refresh();
+        assertEquals("Wrong selected item", ListModelImpl.DISPLAY_PREFIX + 0,
+                model.getSelectedItem());
+    }
+
+    /**
+     * Tests whether the prototype display object of the source model is
+     * returned.
+     */
+    @Test
+    public void testGetPrototypeDisplayObjectFromSource()
+    {
+        Object prototype = "A prototype display object";
+        source.setPrototypeDisplayObject(prototype);
+        assertSame("Wrong prototype", prototype,
+                model.getPrototypeDisplayObject());
+    }
+
+    /**
+     * Tests that the first element is used as prototype if the source model
+     * does not provide one.
+     */
+    @Test
+    public void testGetPrototypeDisplayObjectFirstElement()
+    {
+        assertEquals("Wrong prototype", ListModelImpl.DISPLAY_PREFIX + 0,
+                model.getPrototypeDisplayObject());
+    }
+
+    /**
+     * Tests the prototype of an empty model.
+     */
+    @Test
+    public void testGetPrototypeDisplayObjectEmpty()
+    {
+        source.setSize(0);
+        model = new LazySwingListModel(source);
+        assertNull("Got a prototype", model.getPrototypeDisplayObject());
+    }
+
+    /**
+     * Tests that new items cannot be inserted.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInsertItem()
+    {
+        model.insertItem(0, ListModelImpl.DISPLAY_PREFIX,
+                ListModelImpl.VALUE_PREFIX);
+    }
+
+    /**
+     * Tests that elements cannot be added.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddElement()
+    {
+        model.addElement(ListModelImpl.DISPLAY_PREFIX);
+    }
+
+    /**
+     * Tests that elements cannot be inserted.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInsertElementAt()
+    {
+        model.insertElementAt(ListModelImpl.DISPLAY_PREFIX, 0);
+    }
+
+    /**
+     * Tests that elements cannot be removed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveElementAt()
+    {
+        model.removeElementAt(0);
+    }
+
+    /**
+     * Tests that the model cannot be cleared.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveAllElements()
+    {
+        model.removeAllElements();
+    }
+
+    /**
+     * A combined interface for testing whether an indexed source model is
+     * detected.
+     */
+    private static interface IndexedLazyListModel extends IndexedListModel,
+            LazyListModel
+    {
+    }
+}
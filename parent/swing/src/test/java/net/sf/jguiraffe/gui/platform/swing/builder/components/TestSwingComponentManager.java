@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -62,8 +63,14 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Image;
 import java.awt.font.TextAttribute;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
@@ -121,6 +128,7 @@ import net.sf.jguiraffe.gui.platform.swing.builder.components.table.SwingTableRo
 import net.sf.jguiraffe.gui.platform.swing.builder.event.SwingEventManager;
 import net.sf.jguiraffe.gui.platform.swing.layout.SwingSizeHandler;
 import net.sf.jguiraffe.locators.ClassPathLocator;
+import net.sf.jguiraffe.locators.FileLocator;
 import net.sf.jguiraffe.locators.Locator;
 import net.sf.jguiraffe.transform.TransformerContext;
 import org.apache.commons.configuration.HierarchicalConfiguration;
@@ -300,6 +308,69 @@ public class TestSwingComponentManager
         EasyMock.verify(locator);
     }
 
+    /**
+     * Tests whether icons are cached.
+     */
+    @Test
+    public void testCreateIconCached() throws FormBuilderException
+    {
+        URL iconURL = getClass().getResource("/" + ICON_RES);
+        Locator locator = EasyMock.createMock(Locator.class);
+        EasyMock.expect(locator.getURL()).andReturn(iconURL).times(3);
+        EasyMock.replay(locator);
+        ImageIcon icon = (ImageIcon) manager.createIcon(locator);
+        ImageIcon icon2 = (ImageIcon) manager.createIcon(locator);
+        assertNotSame("Icon instance shared", icon, icon2);
+        assertSame("Image not cached", icon.getImage(), icon2.getImage());
+        assertEquals("Wrong description", iconURL.toExternalForm(),
+                icon2.getDescription());
+        manager.clearIconCache();
+        assertNotSame("Cache not cleared", icon.getImage(),
+                ((ImageIcon) manager.createIcon(locator)).getImage());
+        EasyMock.verify(locator);
+    }
+
+    /**
+     * Creates a locator for a copy of the test icon in a temporary file.
+     *
+     * @return the locator
+     * @throws IOException if an error occurs
+     */
+    private Locator createTempIconLocator() throws IOException
+    {
+        File file = File.createTempFile("icon", ".gif");
+        file.deleteOnExit();
+        InputStream in = getClass().getResourceAsStream("/" + ICON_RES);
+        try
+        {
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            in.close();
+        }
+        return FileLocator.getInstance(file);
+    }
+
+    /**
+     * Tests that the size of the icon cache is limited.
+     */
+    @Test
+    public void testCreateIconCacheEviction() throws FormBuilderException,
+            IOException
+    {
+        manager = new SwingComponentManager(
+                EasyMock.createMock(SwingTableRowHeightUpdater.class), 1);
+        Locator loc1 = createTempIconLocator();
+        Locator loc2 = createTempIconLocator();
+        Image image1 = ((ImageIcon) manager.createIcon(loc1)).getImage();
+        assertSame("Image not cached", image1,
+                ((ImageIcon) manager.createIcon(loc1)).getImage());
+        manager.createIcon(loc2);
+        assertNotSame("Image not evicted", image1,
+                ((ImageIcon) manager.createIcon(loc1)).getImage());
+    }
+
     /**
      * Tests creating an icon when the locator is undefined.
      */
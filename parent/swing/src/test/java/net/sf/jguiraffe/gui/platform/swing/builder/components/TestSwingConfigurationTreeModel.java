@@ -374,6 +374,29 @@ public class TestSwingConfigurationTreeModel
         checkListener(l, root.getChild(0));
     }
 
+    /**
+     * Tests whether correct child indices are returned after a change of the
+     * tree structure.
+     */
+    @Test
+    public void testGetIndexOfChildAfterChange()
+    {
+        TreeModelListenerTestImpl l = new TreeModelListenerTestImpl();
+        model.addTreeModelListener(l);
+        ConfigurationNode table = root.getChild(0);
+        ConfigurationNode field = table.getChild(1);
+        assertEquals("Wrong initial index", 1,
+                model.getIndexOfChild(table, field));
+        assertEquals("Wrong index of table", 1,
+                model.getIndexOfChild(root, root.getChild(1)));
+        config.clearTree("tables.table(0).field(0)");
+        checkListener(l, table);
+        assertEquals("Wrong index after change", 0,
+                model.getIndexOfChild(table, field));
+        assertEquals("Wrong index of table after change", 1,
+                model.getIndexOfChild(root, root.getChild(1)));
+    }
+
     /**
      * Tests the event fired for a clear tree operation when the affected node
      * cannot be determined.
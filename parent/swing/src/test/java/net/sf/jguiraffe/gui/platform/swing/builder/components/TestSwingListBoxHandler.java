@@ -17,6 +17,8 @@ package net.sf.jguiraffe.gui.platform.swing.builder.components;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import javax.swing.JList;
 import javax.swing.JScrollPane;
@@ -34,6 +36,9 @@ import org.junit.Test;
 public class TestSwingListBoxHandler extends
         AbstractListBoxComponentHandlerTest
 {
+    /** Constant for the size of a large lazy list model. */
+    private static final int LARGE_SIZE = 10000;
+
     /** The handler to be tested. */
     private SwingListBoxHandler handler;
 
@@ -121,4 +126,91 @@ public class TestSwingListBoxHandler extends
         assertEquals("Wrong list model", MODEL_SIZE, listModel.size());
         assertEquals("Wrong scroll pane", scr, listHandler.getOuterComponent());
     }
+
+    /**
+     * Tests that listDataChanged() has no effect for a list model whose data
+     * has been copied.
+     */
+    @Test
+    public void testListDataChangedNonLazy()
+    {
+        ListModel model = handler.getListModel();
+        handler.listDataChanged();
+        assertSame("Model changed", model, handler.getListModel());
+        assertEquals("Wrong model size", MODEL_SIZE, component.getModel()
+                .getSize());
+    }
+
+    /**
+     * Tests whether a lazy list model is supported.
+     */
+    @Test
+    public void testLazyListModel()
+    {
+        LazyListModelImpl lazyModel =
+                new LazyListModelImpl(MODEL_SIZE, 4, 2);
+        JList list = new JList();
+        SwingListBoxHandler listHandler =
+                new SwingListBoxHandler(list, lazyModel, 0, 0);
+        assertTrue("No lazy model",
+                listHandler.getListModel() instanceof LazySwingListModel);
+        assertSame("Wrong Swing model", listHandler.getListModel(),
+                list.getModel());
+        listHandler.setData(ListModelImpl.VALUE_PREFIX + 5);
+        assertEquals("Wrong selected index", 5, list.getSelectedIndex());
+        assertEquals("Wrong data", ListModelImpl.VALUE_PREFIX + 5,
+                listHandler.getData());
+
+        lazyModel.setSize(MODEL_SIZE + 1);
+        listHandler.listDataChanged();
+        assertEquals("Wrong model size", MODEL_SIZE + 1, list.getModel()
+                .getSize());
+        assertEquals("Wrong new element",
+                ListModelImpl.DISPLAY_PREFIX + MODEL_SIZE, list.getModel()
+                        .getElementAt(MODEL_SIZE));
+    }
+
+    /**
+     * Tests that a list with a lazy model does not query all elements when
+     * its size is computed.
+     */
+    @Test
+    public void testLazyListModelLayout()
+    {
+        LazyListModelImpl lazyModel = new LazyListModelImpl(LARGE_SIZE, 10, 3);
+        JList list = new JList();
+        SwingListBoxHandler listHandler =
+                new SwingListBoxHandler(list, lazyModel, 0, 0);
+        assertEquals("Wrong prototype", ListModelImpl.DISPLAY_PREFIX + 0,
+                list.getPrototypeCellValue());
+        JScrollPane scr = (JScrollPane) listHandler.getOuterComponent();
+        scr.setSize(200, 100);
+        scr.doLayout();
+        list.getPreferredSize();
+        list.getPreferredScrollableViewportSize();
+        LazySwingListModel swingModel =
+                (LazySwingListModel) listHandler.getListModel();
+        assertEquals("Wrong number of cached pages", 1,
+                swingModel.getCachedPageCount());
+        assertTrue("Too many accesses: " + lazyModel.getDisplayAccessCount(),
+                lazyModel.getDisplayAccessCount() < LARGE_SIZE / 100);
+    }
+
+    /**
+     * Tests whether the prototype is updated when the data of a lazy model
+     * changes.
+     */
+    @Test
+    public void testLazyListModelPrototypeUpdated()
+    {
+        LazyListModelImpl lazyModel = new LazyListModelImpl(0, 10, 3);
+        JList list = new JList();
+        SwingListBoxHandler listHandler =
+                new SwingListBoxHandler(list, lazyModel, 0, 0);
+        assertNull("Got a prototype", list.getPrototypeCellValue());
+        lazyModel.setSize(MODEL_SIZE);
+        listHandler.listDataChanged();
+        assertEquals("Wrong prototype", ListModelImpl.DISPLAY_PREFIX + 0,
+                list.getPrototypeCellValue());
+    }
 }
@@ -132,4 +132,56 @@ public class TestSwingListModel
         assertEquals("Wrong value object", ListModelImpl.VALUE_PREFIX + "2",
                 model.getValueObject(1));
     }
+
+    /**
+     * Tests whether the indices of value and display objects can be queried.
+     */
+    @Test
+    public void testIndexOf()
+    {
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals("Wrong value index", i,
+                    model.indexOfValue(ListModelImpl.VALUE_PREFIX + i));
+            assertEquals("Wrong display index", i,
+                    model.indexOfDisplay(model.getDisplayObject(i)));
+        }
+        assertEquals("Wrong index of unknown value", -1,
+                model.indexOfValue("unknown"));
+    }
+
+    /**
+     * Tests whether the index is updated when the model is changed.
+     */
+    @Test
+    public void testIndexOfAfterUpdates()
+    {
+        model.indexOfValue(ListModelImpl.VALUE_PREFIX + 0);
+        model.insertItem(COUNT, "DisplayLast", "ValueLast");
+        model.insertItem(0, "DisplayFirst", "ValueFirst");
+        model.removeElementAt(1);
+        assertEquals("Wrong index of last", COUNT,
+                model.indexOfValue("ValueLast"));
+        assertEquals("Wrong index of first", 0,
+                model.indexOfDisplay("DisplayFirst"));
+        assertEquals("Removed value found", -1,
+                model.indexOfValue(ListModelImpl.VALUE_PREFIX + 0));
+        assertEquals("Wrong index of moved value", 1,
+                model.indexOfValue(ListModelImpl.VALUE_PREFIX + 1));
+    }
+
+    /**
+     * Tests whether all elements can be removed.
+     */
+    @Test
+    public void testRemoveAllElements()
+    {
+        model.indexOfValue(ListModelImpl.VALUE_PREFIX + 0);
+        model.removeAllElements();
+        assertEquals("Wrong size", 0, model.size());
+        assertEquals("Value still found", -1,
+                model.indexOfValue(ListModelImpl.VALUE_PREFIX + 0));
+        model.insertItem(0, "Display", "Value");
+        assertEquals("Wrong value", "Value", model.getValueObject(0));
+    }
 }
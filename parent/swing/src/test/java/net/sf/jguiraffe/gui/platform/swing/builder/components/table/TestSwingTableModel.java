@@ -240,8 +240,8 @@ public class TestSwingTableModel
     {
         final Object value = "CellValue";
         final int row = 8;
-        controller.selectCurrentRow(row);
-        EasyMock.expect(controller.getColumnValue(COL_IDX)).andReturn(value);
+        EasyMock.expect(controller.getCellValue(row, COL_IDX)).andReturn(
+                value);
         replay();
         assertEquals("Wrong value", value, model.getValueAt(row, COL_IDX));
         verify();
@@ -330,7 +330,7 @@ public class TestSwingTableModel
     {
         final Object newValue = "Harry";
         final int row = 16;
-        controller.selectCurrentRow(row);
+        controller.selectEditRow(row);
         controller.setColumnValue(table, COL_IDX, newValue);
         replay();
         model.setValueAt(newValue, row, COL_IDX);
@@ -152,6 +152,21 @@ public class TestSwingSizeHandler
                 .getScreenResolution());
     }
 
+    /**
+     * Tests whether the screen resolution is cached.
+     */
+    @Test
+    public void testGetScreenResolutionCached()
+    {
+        handler.screenResolution = 96;
+        assertEquals("Wrong screen resolution", 96, handler
+                .getScreenResolution());
+        handler.screenResolution = 120;
+        assertEquals("Screen resolution not cached", 96, handler
+                .getScreenResolution());
+        assertEquals("Wrong number of queries", 1, handler.resolutionQueries);
+    }
+
     /**
      * A test implementation of SwingSizeHandler.
      */
@@ -161,6 +176,23 @@ public class TestSwingSizeHandler
         /** A mock result for calculateFontSizes(). */
         double[] sizes;
 
+        /** A mock screen resolution. */
+        int screenResolution;
+
+        /** The number of queries for the screen resolution. */
+        int resolutionQueries;
+
+        /**
+         * Returns the mock screen resolution or calls the super method.
+         */
+        @Override
+        int fetchScreenResolution()
+        {
+            resolutionQueries++;
+            return (screenResolution > 0) ? screenResolution : super
+                    .fetchScreenResolution();
+        }
+
         /**
          * Returns the mock result or calls the super method.
          */